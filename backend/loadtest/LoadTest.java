@@ -0,0 +1,200 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lastgenerator für die REST-API (Closed Model: jeder Client sendet die nächste
+ * Anfrage, sobald die vorige beantwortet ist).
+ *
+ * Jeder Client läuft auf einem eigenen virtuellen Thread, damit auch 10.000
+ * gleichzeitige Clients von einer Maschine aus erzeugt werden können.
+ * Gemessen wird nur nach der Aufwärmphase.
+ *
+ * Aufruf (JDK 25, ohne Build):
+ *   java LoadTest.java --label worker --clients 1000 --duration 60s
+ *
+ * Optionen:
+ *   --base-url  http://localhost:8080/api
+ *   --clients   Anzahl gleichzeitiger Clients (Standard 1000)
+ *   --duration  Messdauer (Standard 60s)
+ *   --warmup    Aufwärmphase (Standard 15s)
+ *   --patients  ID-Bereich der Patienten, z.B. 1-500 (Standard 1-100)
+ *   --paths     Kommagetrennte Pfade, {patient} wird pro Anfrage ersetzt
+ *   --label     Bezeichnung in der Ausgabe (z.B. worker / virtual)
+ *
+ * Ausgabe: eine CSV-Zeile
+ *   label,clients,requests,errors,throughput_rps,p50_ms,p99_ms,max_ms
+ *
+ * Recorder, Perzentile und Optionen werden auch von ShiftChangeLoadTest.java genutzt
+ * (Quellprogramm aus mehreren Dateien, im selben Verzeichnis starten).
+ */
+public class LoadTest {
+
+    private static final String DEFAULT_PATHS = String.join(",",
+            "/patients/{patient}",
+            "/daily-plans/patients/{patient}/today",
+            "/care-needs/patients/{patient}/active",
+            "/interventions/patients/{patient}",
+            "/resources/patients/{patient}/approved");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080/api");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        Duration duration = parseDuration(options.getOrDefault("duration", "60s"));
+        Duration warmup = parseDuration(options.getOrDefault("warmup", "15s"));
+        String label = options.getOrDefault("label", "run");
+        long[] patients = range(options.getOrDefault("patients", "1-100"));
+        long firstPatient = patients[0];
+        long lastPatient = patients[1];
+        String[] paths = options.getOrDefault("paths", DEFAULT_PATHS).split(",");
+
+        HttpClient http = httpClient();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        LongAdder errors = new LongAdder();
+        List<long[]> latencies = new ArrayList<>(clients);
+        List<Thread> threads = new ArrayList<>(clients);
+
+        for (int i = 0; i < clients; i++) {
+            Recorder recorder = new Recorder();
+            Thread thread = Thread.ofVirtual().name("client-" + i).start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (true) {
+                    long now = System.nanoTime();
+                    if (now >= end) {
+                        break;
+                    }
+                    String path = paths[random.nextInt(paths.length)]
+                            .replace("{patient}", String.valueOf(random.nextLong(firstPatient, lastPatient + 1)));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    boolean failed;
+                    try {
+                        failed = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 500;
+                    } catch (Exception e) {
+                        failed = true;
+                    }
+                    long finished = System.nanoTime();
+                    if (now >= measureFrom && finished <= end) {
+                        if (failed) {
+                            errors.increment();
+                        } else {
+                            recorder.add((finished - now) / 1_000);
+                        }
+                    }
+                }
+                synchronized (latencies) {
+                    latencies.add(recorder.toArray());
+                }
+            });
+            threads.add(thread);
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        long requests = all.length + errors.sum();
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f%n",
+                label, clients, requests, errors.sum(), all.length / seconds,
+                percentile(all, 0.50), percentile(all, 0.99), max(all));
+    }
+
+    // ==================== Gemeinsame Messung & Optionen ====================
+
+    /**
+     * Latenzen in Mikrosekunden; pro Client oder, bei mehreren Clients, pro Endpunkt
+     */
+    static final class Recorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(long micros) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = micros;
+        }
+
+        synchronized long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    static HttpClient httpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Perzentil einer sortierten Latenzliste in Millisekunden
+     */
+    static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+
+    /**
+     * Maximum einer sortierten Latenzliste in Millisekunden
+     */
+    static double max(long[] sorted) {
+        return sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1000.0;
+    }
+
+    /**
+     * ID-Bereich wie 1-500 (oder eine einzelne ID) als {erste, letzte}
+     */
+    static long[] range(String value) {
+        String[] bounds = value.split("-");
+        return new long[]{Long.parseLong(bounds[0]), Long.parseLong(bounds[bounds.length - 1])};
+    }
+
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unbekanntes Argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,362 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lastszenario Schichtwechsel: bildet die reale Verkehrsmischung am Morgen nach.
+ *
+ * Pfleger (eigener virtueller Thread je Pfleger):
+ *   1. Anmeldung innerhalb der Ramp-Phase (Morgen-Burst): Benutzer laden, Caseload laden
+ *   2. danach in Schleife mit Denkzeit für einen Patienten der Caseload:
+ *      60% Patient ansehen (Details, Tagesplan, aktive Bedarfe),
+ *      25% ADL-Einschätzung erfassen, 15% Anamnese-Version speichern
+ *
+ * Patienten-App (eigener virtueller Thread je Patient):
+ *   pollt den heutigen Tagesplan im Poll-Intervall und bestätigt eine offene Aufgabe.
+ *
+ * Gemessen wird je Endpunkt (Pfad-Template): Durchsatz und Latenz-Perzentile.
+ * Ergebnisse können als Baseline gespeichert und mit einer Baseline verglichen werden.
+ *
+ * Aufruf (JDK 25, ohne Build):
+ *   java ShiftChangeLoadTest.java --pflegers 1-50 --patients 1-500 --save-baseline main
+ *   java ShiftChangeLoadTest.java --pflegers 1-50 --patients 1-500 --compare main
+ *
+ * Optionen:
+ *   --base-url        http://localhost:8080/api
+ *   --pflegers        ID-Bereich der Pfleger-Benutzer (Standard 1-20)
+ *   --patients        ID-Bereich der Patienten mit App (Standard 1-100)
+ *   --duration        Messdauer inkl. Ramp (Standard 5m)
+ *   --ramp            Zeitraum, in dem sich alle Pfleger anmelden (Standard 30s)
+ *   --think           mittlere Denkzeit der Pfleger (Standard 3s)
+ *   --poll            Poll-Intervall der Patienten-App (Standard 30s)
+ *   --baseline-dir    Ablage der Baselines (Standard baselines)
+ *   --save-baseline   Ergebnis unter diesem Namen speichern
+ *   --compare         Ergebnis mit dieser Baseline vergleichen
+ *   --tolerance       erlaubte Verschlechterung von p95/p99 in Prozent (Standard 20)
+ *
+ * Ausgabe: CSV je Endpunkt
+ *   endpoint,requests,errors,rejected,throughput_rps,p50_ms,p95_ms,p99_ms,max_ms
+ * Beim Vergleich zusätzlich die Abweichung je Endpunkt; Exit-Code 1 bei Regression.
+ *
+ * Latenzmessung, Perzentile und Optionen kommen aus LoadTest.java im selben Verzeichnis.
+ */
+public class ShiftChangeLoadTest {
+
+    private static final String HEADER = "endpoint,requests,errors,rejected,throughput_rps,p50_ms,p95_ms,p99_ms,max_ms";
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private static final Pattern OPEN_TASK = Pattern.compile(
+            "\\{\"id\"\\s*:\\s*(\\d+)[^{}]*?\"completed\"\\s*:\\s*false");
+
+    private static final String[] ADL_STATUS = {"INTACT", "RESTRICTED", "NURSING_RELEVANT"};
+
+    private final HttpClient http = LoadTest.httpClient();
+
+    private final Map<String, EndpointStats> recorders = new ConcurrentHashMap<>();
+
+    private final String baseUrl;
+
+    private final long end;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTest.parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080/api");
+        long[] pflegers = LoadTest.range(options.getOrDefault("pflegers", "1-20"));
+        long[] patients = LoadTest.range(options.getOrDefault("patients", "1-100"));
+        Duration duration = LoadTest.parseDuration(options.getOrDefault("duration", "5m"));
+        Duration ramp = LoadTest.parseDuration(options.getOrDefault("ramp", "30s"));
+        Duration think = LoadTest.parseDuration(options.getOrDefault("think", "3s"));
+        Duration poll = LoadTest.parseDuration(options.getOrDefault("poll", "30s"));
+        Path baselineDir = Path.of(options.getOrDefault("baseline-dir", "baselines"));
+        double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "20"));
+
+        long start = System.nanoTime();
+        ShiftChangeLoadTest test = new ShiftChangeLoadTest(baseUrl, start + duration.toNanos());
+        long[] adlDefinitions = test.adlDefinitions();
+
+        List<Thread> threads = new ArrayList<>();
+        for (long pfleger = pflegers[0]; pfleger <= pflegers[1]; pfleger++) {
+            long id = pfleger;
+            // Anmeldungen gleichmäßig zufällig über die Ramp-Phase verteilt
+            long loginAt = start + ThreadLocalRandom.current().nextLong(Math.max(1, ramp.toNanos()));
+            threads.add(Thread.ofVirtual().name("pfleger-" + id)
+                    .start(() -> test.pfleger(id, loginAt, think, adlDefinitions)));
+        }
+        for (long patient = patients[0]; patient <= patients[1]; patient++) {
+            long id = patient;
+            long firstPoll = start + ThreadLocalRandom.current().nextLong(Math.max(1, poll.toNanos()));
+            threads.add(Thread.ofVirtual().name("patient-" + id)
+                    .start(() -> test.patientApp(id, firstPoll, poll)));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<String, Row> result = test.result(duration.toNanos() / 1e9);
+        System.out.println(HEADER);
+        result.values().forEach(row -> System.out.println(row.toCsv()));
+
+        if (options.containsKey("save-baseline")) {
+            Files.createDirectories(baselineDir);
+            Path file = baselineDir.resolve(options.get("save-baseline") + ".csv");
+            List<String> lines = new ArrayList<>();
+            lines.add(HEADER);
+            result.values().forEach(row -> lines.add(row.toCsv()));
+            Files.write(file, lines, StandardCharsets.UTF_8);
+            System.out.println("Baseline gespeichert: " + file);
+        }
+        if (options.containsKey("compare")) {
+            Path file = baselineDir.resolve(options.get("compare") + ".csv");
+            boolean regression = compare(readBaseline(file), result, tolerance);
+            if (regression) {
+                System.exit(1);
+            }
+        }
+    }
+
+    ShiftChangeLoadTest(String baseUrl, long end) {
+        this.baseUrl = baseUrl;
+        this.end = end;
+    }
+
+    // ==================== Szenarien ====================
+
+    void pfleger(long pflegerId, long loginAt, Duration think, long[] adlDefinitions) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        sleepUntil(loginAt);
+
+        // Anmeldung: Benutzer und Caseload laden
+        if (call("GET /users/{id}", "GET", "/users/" + pflegerId, null) == null) {
+            return;
+        }
+        String caseloadBody = call("GET /users/{id}/patients", "GET", "/users/" + pflegerId + "/patients", null);
+        long[] caseload = caseloadBody == null ? new long[0] : numbers(caseloadBody);
+        if (caseload.length == 0) {
+            return;
+        }
+        call("GET /care-assignments/pfleger/{id}/active", "GET", "/care-assignments/pfleger/" + pflegerId + "/active", null);
+
+        while (System.nanoTime() < end) {
+            long patientId = caseload[random.nextInt(caseload.length)];
+            int action = random.nextInt(100);
+            if (action < 60) {
+                call("GET /patients/{id}/details", "GET", "/patients/" + patientId + "/details", null);
+                call("GET /daily-plans/patients/{id}/today", "GET", "/daily-plans/patients/" + patientId + "/today", null);
+                call("GET /care-needs/patients/{id}/active", "GET", "/care-needs/patients/" + patientId + "/active", null);
+            } else if (action < 85 && adlDefinitions.length > 0) {
+                call("GET /adl/patients/{id}/assessments/latest", "GET",
+                        "/adl/patients/" + patientId + "/assessments/latest", null);
+                call("POST /adl/patients/{id}/assessments", "POST",
+                        "/adl/patients/" + patientId + "/assessments"
+                                + "?adlDefinitionId=" + adlDefinitions[random.nextInt(adlDefinitions.length)]
+                                + "&status=" + ADL_STATUS[random.nextInt(ADL_STATUS.length)]
+                                + "&assessedById=" + pflegerId, "");
+            } else {
+                String anamnesis = call("GET /anamnesis/patients/{id}", "GET", "/anamnesis/patients/" + patientId, null);
+                Matcher id = anamnesis == null ? null : ID.matcher(anamnesis);
+                if (id != null && id.find()) {
+                    String content = "Schichtübergabe " + System.currentTimeMillis() + ": Zustand stabil, keine Auffälligkeiten.";
+                    call("POST /anamnesis/{id}/versions", "POST", "/anamnesis/" + id.group(1) + "/versions",
+                            "{\"content\":\"" + content + "\",\"createdById\":" + pflegerId + "}");
+                }
+            }
+            // Denkzeit exponentiell verteilt um den Mittelwert
+            sleepUntil(System.nanoTime() + (long) (-Math.log(1 - random.nextDouble()) * think.toNanos()));
+        }
+    }
+
+    void patientApp(long patientId, long firstPoll, Duration poll) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long next = firstPoll;
+        while (true) {
+            sleepUntil(next);
+            if (System.nanoTime() >= end) {
+                return;
+            }
+            String plan = call("GET /app/daily-plans/patients/{id}/today", "GET",
+                    "/app/daily-plans/patients/" + patientId + "/today", null);
+            Matcher open = plan == null ? null : OPEN_TASK.matcher(plan);
+            if (open != null && open.find() && random.nextInt(100) < 30) {
+                call("PUT /daily-plans/tasks/{id}/confirm", "PUT", "/daily-plans/tasks/" + open.group(1) + "/confirm", "");
+            }
+            next += poll.toNanos();
+        }
+    }
+
+    long[] adlDefinitions() {
+        String body = call("GET /adl/definitions", "GET", "/adl/definitions", null);
+        if (body == null) {
+            return new long[0];
+        }
+        return ID.matcher(body).results().mapToLong(match -> Long.parseLong(match.group(1))).toArray();
+    }
+
+    // ==================== HTTP & Messung ====================
+
+    /**
+     * Führt eine Anfrage aus und misst sie unter dem Endpunkt-Template.
+     * Liefert den Body bei 2xx, sonst null (4xx zählt als abgelehnt, 5xx/Timeout als Fehler).
+     */
+    String call(String endpoint, String method, String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (json == null) {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8));
+        }
+        EndpointStats recorder = recorders.computeIfAbsent(endpoint, key -> new EndpointStats());
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            long finished = System.nanoTime();
+            int status = response.statusCode();
+            if (status >= 500) {
+                recorder.error(finished <= end);
+                return null;
+            }
+            recorder.add((finished - started) / 1_000, status >= 400, finished <= end);
+            return status < 400 ? response.body() : null;
+        } catch (IOException e) {
+            recorder.error(System.nanoTime() <= end);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    Map<String, Row> result(double seconds) {
+        Map<String, Row> rows = new TreeMap<>();
+        recorders.forEach((endpoint, recorder) -> rows.put(endpoint, recorder.toRow(endpoint, seconds)));
+        return rows;
+    }
+
+    /**
+     * Messwerte eines Endpunkts (von mehreren Clients befüllt)
+     */
+    private static final class EndpointStats {
+        private final LoadTest.Recorder latencies = new LoadTest.Recorder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        void add(long micros, boolean wasRejected, boolean inWindow) {
+            if (!inWindow) {
+                return;
+            }
+            if (wasRejected) {
+                rejected.increment();
+            }
+            latencies.add(micros);
+        }
+
+        void error(boolean inWindow) {
+            if (inWindow) {
+                errors.increment();
+            }
+        }
+
+        Row toRow(String endpoint, double seconds) {
+            long[] sorted = latencies.sorted();
+            return new Row(endpoint, sorted.length + errors.sum(), errors.sum(), rejected.sum(), sorted.length / seconds,
+                    LoadTest.percentile(sorted, 0.50), LoadTest.percentile(sorted, 0.95),
+                    LoadTest.percentile(sorted, 0.99), LoadTest.max(sorted));
+        }
+    }
+
+    private record Row(String endpoint, long requests, long errors, long rejected, double throughput,
+                       double p50, double p95, double p99, double max) {
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f",
+                    endpoint, requests, errors, rejected, throughput, p50, p95, p99, max);
+        }
+
+        static Row fromCsv(String line) {
+            String[] f = line.split(",");
+            return new Row(f[0], Long.parseLong(f[1]), Long.parseLong(f[2]), Long.parseLong(f[3]),
+                    Double.parseDouble(f[4]), Double.parseDouble(f[5]), Double.parseDouble(f[6]),
+                    Double.parseDouble(f[7]), Double.parseDouble(f[8]));
+        }
+    }
+
+    // ==================== Baselines ====================
+
+    private static Map<String, Row> readBaseline(Path file) throws IOException {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isBlank() && !line.startsWith("endpoint,")) {
+                Row row = Row.fromCsv(line);
+                rows.put(row.endpoint(), row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Gibt je Endpunkt die relative Änderung von Durchsatz, p95 und p99 aus.
+     * Regression: p95 oder p99 um mehr als die Toleranz schlechter oder neue Fehler.
+     */
+    private static boolean compare(Map<String, Row> baseline, Map<String, Row> current, double tolerance) {
+        boolean regression = false;
+        System.out.println();
+        System.out.println("endpoint,throughput_delta_pct,p95_delta_pct,p99_delta_pct,errors,verdict");
+        for (Row now : current.values()) {
+            Row before = baseline.get(now.endpoint());
+            if (before == null) {
+                System.out.println(now.endpoint() + ",,,," + now.errors() + ",neu");
+                continue;
+            }
+            double p95 = delta(before.p95(), now.p95());
+            double p99 = delta(before.p99(), now.p99());
+            boolean worse = p95 > tolerance || p99 > tolerance || now.errors() > before.errors();
+            regression |= worse;
+            System.out.println(String.format(Locale.ROOT, "%s,%.1f,%.1f,%.1f,%d,%s",
+                    now.endpoint(), delta(before.throughput(), now.throughput()), p95, p99, now.errors(),
+                    worse ? "REGRESSION" : "ok"));
+        }
+        return regression;
+    }
+
+    private static double delta(double before, double now) {
+        return before == 0 ? 0.0 : (now - before) / before * 100.0;
+    }
+
+    // ==================== Hilfsmethoden ====================
+
+    private static long[] numbers(String body) {
+        return NUMBER.matcher(body).results().mapToLong(match -> Long.parseLong(match.group())).toArray();
+    }
+
+    private void sleepUntil(long nanoTime) {
+        long wait = Math.min(nanoTime, end) - System.nanoTime();
+        if (wait > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(wait));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Vergleich blockierender vs. reaktiver Lesepfad (Tagesplan heute) bei 1.000 Clients:
+# Durchsatz/Latenz aus LoadTest.java, belegte Verbindungen aus GET /loadtest/connections.
+# Das Backend muss im Dev-Modus laufen oder mit ./mvnw package -Dquarkus.profile=loadtest gebaut sein.
+#
+# Aufruf: ./compare-read-paths.sh [base-url] [clients]
+# Ergebnis wird an results-read-paths.csv angehängt.
+set -euo pipefail
+
+base_url="${1:-http://localhost:8080/api}"
+clients="${2:-1000}"
+cd "$(dirname "$0")"
+ulimit -n 65536 || true
+
+out=results-read-paths.csv
+[ -f "$out" ] || echo "label,clients,requests,errors,throughput_rps,p50_ms,p99_ms,max_ms,connections" > "$out"
+
+run() {
+    local label="$1" path="$2"
+    curl -fsS -X POST "$base_url/loadtest/connections/reset" > /dev/null
+    local result
+    result=$(java LoadTest.java --label "$label" --clients "$clients" --base-url "$base_url" \
+        --warmup 15s --duration 60s --paths "$path")
+    local stats
+    stats=$(curl -fsS "$base_url/loadtest/connections")
+    echo "$result,\"$stats\"" | tee -a "$out"
+    sleep 10
+}
+
+run blocking "/daily-plans/patients/{patient}/today"
+run reactive "/app/daily-plans/patients/{patient}/today"
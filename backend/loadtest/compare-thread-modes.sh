@@ -0,0 +1,25 @@
+#!/usr/bin/env bash
+# Vergleich Worker-Pool vs. virtuelle Threads bei 1.000 / 5.000 / 10.000 Clients.
+#
+# Das Backend muss für jeden Modus neu gestartet werden:
+#   AUDIT_CHECKPOINT_SECRET=... SIXTOSIX_ANONYMOUS_TENANT=default SIXTOSIX_VIRTUAL_THREADS=false java -jar target/quarkus-app/quarkus-run.jar   -> ./compare-thread-modes.sh worker
+#   AUDIT_CHECKPOINT_SECRET=... SIXTOSIX_ANONYMOUS_TENANT=default SIXTOSIX_VIRTUAL_THREADS=true  java -jar target/quarkus-app/quarkus-run.jar   -> ./compare-thread-modes.sh virtual
+#
+# Ergebnis wird an results-thread-modes.csv angehängt.
+set -euo pipefail
+
+label="${1:?Aufruf: $0 <worker|virtual> [base-url]}"
+base_url="${2:-http://localhost:8080/api}"
+cd "$(dirname "$0")"
+
+# 10.000 Clients brauchen ebenso viele offene Sockets
+ulimit -n 65536 || true
+
+out=results-thread-modes.csv
+[ -f "$out" ] || echo "label,clients,requests,errors,throughput_rps,p50_ms,p99_ms,max_ms" > "$out"
+
+for clients in 1000 5000 10000; do
+    java LoadTest.java --label "$label" --clients "$clients" --base-url "$base_url" \
+        --warmup 15s --duration 60s | tee -a "$out"
+    sleep 10
+done
@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Erstellt einen aufgewärmten CRaC-Checkpoint des JVM-Backends in target/crac.
+#
+# Voraussetzungen: JDK mit CRaC (z.B. Azul Zulu 25 CRaC) als "java"/"jcmd" im PATH, Linux,
+# Berechtigung für CRIU (Container: --cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE),
+# gebautes JAR (./mvnw package), bestehendes Schema mit Testdaten (backend/datagen).
+#
+# Ablauf:
+#   1. Start im Profil prod,crac mit -XX:CRaCCheckpointTo
+#   2. Aufwärmphase: LoadTest.java auf den Hot Paths (JIT, Hibernate-Caches, Klassen geladen)
+#   3. jcmd JDK.checkpoint; CheckpointResources schließt vorher alle DB-Verbindungen
+#
+# Danach: java -XX:CRaCRestoreFrom=target/crac   bzw.   ./startup-benchmark.sh jvm crac
+#
+# Umgebung: PORT (Standard 8080), WARMUP (Standard 60s), CLIENTS (Standard 50), PATIENTS (Standard 1-100)
+set -euo pipefail
+
+cd "$(dirname "$0")"
+target=../target
+port="${PORT:-8080}"
+base="http://localhost:${port}"
+
+rm -rf "$target/crac"
+export QUARKUS_HTTP_PORT="$port"
+# Prod-Profil: anonyme Requests nur mit ausdrücklich gesetzter Organisation
+export SIXTOSIX_ANONYMOUS_TENANT="${SIXTOSIX_ANONYMOUS_TENANT:-default}"
+# Prod-Profil startet nur mit Checkpoint-Schlüssel; für die Messung ein Wegwerf-Schlüssel
+export AUDIT_CHECKPOINT_SECRET="${AUDIT_CHECKPOINT_SECRET:-$(head -c 32 /dev/urandom | od -An -tx1 | tr -d ' \n')}"
+
+java -XX:CRaCCheckpointTo="$target/crac" -Dquarkus.profile=prod,crac \
+    -jar "$target/quarkus-app/quarkus-run.jar" > crac-checkpoint.log 2>&1 &
+pid=$!
+
+until curl -fsS -o /dev/null "$base/api/adl/definitions" 2> /dev/null; do
+    kill -0 "$pid" 2> /dev/null || { echo "Backend nicht gestartet, siehe crac-checkpoint.log" >&2; exit 1; }
+    sleep 0.1
+done
+
+# Blockierende und reaktive Hot Paths, damit beide Pfade kompiliert im Checkpoint liegen
+java LoadTest.java --label crac-warmup --base-url "$base/api" \
+    --clients "${CLIENTS:-50}" --warmup 0s --duration "${WARMUP:-60s}" --patients "${PATIENTS:-1-100}" \
+    --paths "/patients/{patient},/patients/{patient}/details,/daily-plans/patients/{patient}/today,/app/daily-plans/patients/{patient}/today,/app/medications/patients/{patient},/care-needs/patients/{patient}/active,/interventions/patients/{patient},/adl/patients/{patient}/assessments/latest"
+
+# Checkpoint; der Prozess beendet sich danach
+jcmd "$pid" JDK.checkpoint
+wait "$pid" || true
+
+if [ ! -d "$target/crac" ] || ! grep -q "keine Datenbankverbindungen mehr offen" crac-checkpoint.log; then
+    echo "Checkpoint fehlgeschlagen, siehe crac-checkpoint.log" >&2
+    exit 1
+fi
+echo "Checkpoint erstellt: $target/crac"
@@ -0,0 +1,109 @@
+#!/usr/bin/env bash
+# Startzeit-Benchmark: Zeit bis zur ersten erfolgreichen Anfrage und RSS je Build-Variante.
+#
+# Varianten (vorher bauen, Artefakte liegen in ../target):
+#   jvm     ./mvnw package                      -> target/quarkus-app/quarkus-run.jar
+#   appcds  ./mvnw package -Dappcds             -> zusätzlich target/quarkus-app/app-cds.jsa
+#   native  ./mvnw package -Dnative             -> target/*-runner
+#   crac    ./crac-checkpoint.sh                -> target/crac (Restore aus einem aufgewärmten Checkpoint)
+#
+# Aufruf: ./startup-benchmark.sh [variante ...]   (Standard: jvm appcds native)
+# Bei crac misst first_request_ms die Zeit vom Restore-Aufruf bis zur ersten Antwort.
+# Umgebung: RUNS (Standard 5), PORT (Standard 8080), WARMUP_REQUESTS (Standard 200)
+#
+# Das Schema muss bestehen (Backend einmal normal starten oder backend/datagen); im Prod-Profil
+# prüft Flyway beim Start nur die Schema-Historie, der Start enthält also keine DDL.
+#
+# Ergebnis wird an results-startup.csv angehängt:
+#   variant,run,first_request_ms,rss_first_mb,rss_warm_mb
+set -euo pipefail
+
+cd "$(dirname "$0")"
+target=../target
+runs="${RUNS:-5}"
+port="${PORT:-8080}"
+warmup="${WARMUP_REQUESTS:-200}"
+base="http://localhost:${port}"
+first_path=/api/adl/definitions
+# Rauchtest nach dem Start: DTO-Records über Response, Projektionen, Metriken
+# (vollständige Prüfung des Native Image: ./mvnw verify -Dnative, Integrationstests *IT)
+smoke_paths=(/api/patients/search?q=gruber /api/audit/verify /q/metrics)
+
+export QUARKUS_HTTP_PORT="$port"
+# Prod-Profil: anonyme Requests nur mit ausdrücklich gesetzter Organisation
+export SIXTOSIX_ANONYMOUS_TENANT="${SIXTOSIX_ANONYMOUS_TENANT:-default}"
+# Prod-Profil startet nur mit Checkpoint-Schlüssel; für die Messung ein Wegwerf-Schlüssel
+export AUDIT_CHECKPOINT_SECRET="${AUDIT_CHECKPOINT_SECRET:-$(head -c 32 /dev/urandom | od -An -tx1 | tr -d ' \n')}"
+
+command_for() {
+    case "$1" in
+        jvm)    echo "java -jar $target/quarkus-app/quarkus-run.jar" ;;
+        appcds) echo "java -XX:SharedArchiveFile=$target/quarkus-app/app-cds.jsa -Xshare:on -jar $target/quarkus-app/quarkus-run.jar" ;;
+        native) echo "$(ls "$target"/*-runner | head -n 1)" ;;
+        crac)   echo "java -XX:CRaCRestoreFrom=$target/crac" ;;
+        *)      echo "Unbekannte Variante: $1" >&2; exit 2 ;;
+    esac
+}
+
+rss_mb() {
+    awk '/VmRSS/ { printf "%.0f", $2 / 1024 }' "/proc/$1/status"
+}
+
+# Prozess, der den Port bedient (beim CRaC-Restore nicht der gestartete Launcher)
+server_pid() {
+    ss -Hltnp "sport = :$port" | sed -n 's/.*pid=\([0-9]*\).*/\1/p' | head -n 1
+}
+
+out=results-startup.csv
+[ -f "$out" ] || echo "variant,run,first_request_ms,rss_first_mb,rss_warm_mb" > "$out"
+
+variants=("$@")
+[ ${#variants[@]} -gt 0 ] || variants=(jvm appcds native)
+
+for variant in "${variants[@]}"; do
+    read -r -a cmd <<< "$(command_for "$variant")"
+    for run in $(seq 1 "$runs"); do
+        log="startup-${variant}-${run}.log"
+        start=$(date +%s%N)
+        "${cmd[@]}" > "$log" 2>&1 &
+        pid=$!
+
+        until curl -fsS -o /dev/null "$base$first_path" 2> /dev/null; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "$variant: Prozess beendet vor der ersten Antwort, siehe $log" >&2
+                exit 1
+            fi
+            sleep 0.01
+        done
+        first_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+        server=$(server_pid)
+        rss_first=$(rss_mb "$server")
+
+        for path in "${smoke_paths[@]}"; do
+            if ! curl -fsS -o /dev/null "$base$path"; then
+                echo "$variant: Rauchtest fehlgeschlagen für $path, siehe $log" >&2
+                kill "$server" "$pid" 2> /dev/null; wait "$pid" || true
+                exit 1
+            fi
+        done
+        for _ in $(seq 1 "$warmup"); do
+            curl -fsS -o /dev/null "$base$first_path"
+        done
+        rss_warm=$(rss_mb "$server")
+
+        kill "$server" "$pid" 2> /dev/null || true
+        wait "$pid" || true
+        echo "$variant,$run,$first_ms,$rss_first,$rss_warm" | tee -a "$out"
+    done
+done
+
+echo
+echo "variant,median_first_request_ms,median_rss_first_mb,median_rss_warm_mb"
+for variant in "${variants[@]}"; do
+    awk -F, -v v="$variant" '$1 == v { t[++n] = $3; a[n] = $4; b[n] = $5 }
+        function median(x, n,   i, j, s) {
+            for (i = 1; i <= n; i++) for (j = i + 1; j <= n; j++) if (x[j] < x[i]) { s = x[i]; x[i] = x[j]; x[j] = s }
+            return n % 2 ? x[(n + 1) / 2] : (x[n / 2] + x[n / 2 + 1]) / 2
+        }
+        END { if (n) printf "%s,%s,%s,%s\n", v, median(t, n), median(a, n), median(b, n) }' "$out"
+done
@@ -0,0 +1,103 @@
+package at.htlleonding.sixtosix.crac;
+
+import at.htlleonding.sixtosix.repository.PatientAppReadRepository;
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduler;
+import io.vertx.mutiny.sqlclient.Pool;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.time.Duration;
+
+/**
+ * Bereitet die Anwendung auf CRaC-Checkpoints vor (Coordinated Restore at Checkpoint).
+ *
+ * Ein Checkpoint scheitert an offenen Sockets. Vor dem Checkpoint werden deshalb der
+ * Scheduler pausiert, die JDBC-Pools (Primary und Replica) geleert und abgewartet, bis auch der reaktive Pool
+ * keine Verbindungen mehr hält (Idle-Timeout im Profil crac). Nach dem Restore läuft der
+ * Scheduler weiter; Verbindungen werden bei der ersten Anfrage neu aufgebaut.
+ * Den HTTP-Server schließt und öffnet Quarkus selbst.
+ *
+ * Auf JDKs ohne CRaC ist die Registrierung wirkungslos.
+ */
+@ApplicationScoped
+public class CheckpointResources implements Resource {
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    @DataSource("replica")
+    AgroalDataSource replicaDataSource;
+
+    @Inject
+    Pool reactivePool;
+
+    @Inject
+    PatientAppReadRepository appReadRepository;
+
+    @Inject
+    Scheduler scheduler;
+
+    @ConfigProperty(name = "sixtosix.crac.drain-timeout", defaultValue = "30s")
+    Duration drainTimeout;
+
+    void onStart(@Observes StartupEvent event) {
+        // Der globale Kontext hält Ressourcen nur schwach, die Bean-Instanz lebt bis zum Shutdown
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+        Log.info("CRaC-Checkpoint: Scheduler pausiert, Datenbankverbindungen werden geschlossen");
+        scheduler.pause();
+        // Freie Verbindungen sofort schließen, belegte bei der Rückgabe
+        dataSource.flush(AgroalDataSource.FlushMode.ALL);
+        replicaDataSource.flush(AgroalDataSource.FlushMode.ALL);
+
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (openConnections() > 0) {
+            if (System.nanoTime() > deadline) {
+                scheduler.resume();
+                // Checkpoint abbrechen statt ein Image mit toten Verbindungen zu schreiben
+                throw new IllegalStateException(
+                        "Verbindungen nach " + drainTimeout + " noch offen: " + describeConnections());
+            }
+            dataSource.flush(AgroalDataSource.FlushMode.IDLE);
+            replicaDataSource.flush(AgroalDataSource.FlushMode.IDLE);
+            Thread.sleep(100);
+        }
+        Log.info("CRaC-Checkpoint: keine Datenbankverbindungen mehr offen");
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        scheduler.resume();
+        Log.info("CRaC-Restore: Scheduler fortgesetzt, Verbindungen werden bei Bedarf neu aufgebaut");
+    }
+
+    private long openConnections() {
+        AgroalDataSourceMetrics metrics = dataSource.getMetrics();
+        AgroalDataSourceMetrics replica = replicaDataSource.getMetrics();
+        return metrics.activeCount() + metrics.availableCount()
+                + replica.activeCount() + replica.availableCount()
+                + reactivePool.size() + appReadRepository.statementsInFlight();
+    }
+
+    private String describeConnections() {
+        AgroalDataSourceMetrics metrics = dataSource.getMetrics();
+        AgroalDataSourceMetrics replica = replicaDataSource.getMetrics();
+        return "JDBC aktiv " + metrics.activeCount() + ", JDBC frei " + metrics.availableCount()
+                + ", Replica aktiv " + replica.activeCount() + ", Replica frei " + replica.availableCount()
+                + ", reaktiv " + reactivePool.size() + ", laufende reaktive Abfragen "
+                + appReadRepository.statementsInFlight();
+    }
+}
@@ -0,0 +1,17 @@
+package at.htlleonding.sixtosix.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * GET-Endpunkt liest immer vom Primary, auch wenn die Read-Replica aktiv ist
+ * (z.B. Prüfungen, die einen konsistenten Stand über mehrere Threads brauchen).
+ *
+ * @see ReadReplicaRoutingFilter
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromPrimary {
+}
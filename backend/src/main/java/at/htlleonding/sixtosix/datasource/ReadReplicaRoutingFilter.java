@@ -0,0 +1,92 @@
+package at.htlleonding.sixtosix.datasource;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Leitet lesende Requests an die Read-Replica weiter.
+ *
+ * - GET/HEAD ohne {@link ReadFromPrimary} lesen von der Replica, außer der Client hat kurz
+ *   zuvor geschrieben und die Replica ist noch nicht so weit ({@link ReadYourWritesGuard})
+ * - alle anderen Methoden laufen auf dem Primary; nach erfolgreichem Abschluss erhält der
+ *   Client die WAL-Position als Token im Header X-Read-After und im gleichnamigen Cookie
+ * - lesende Requests bringen das Token als Header (App) oder Cookie (Browser) wieder mit
+ * - Header X-Read-Source: primary | replica (zum Nachvollziehen im lokalen Test)
+ */
+@Provider
+public class ReadReplicaRoutingFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String READ_SOURCE_HEADER = "X-Read-Source";
+
+    static final String READ_AFTER_HEADER = "X-Read-After";
+
+    static final String READ_AFTER_COOKIE = "sixtosix-read-after";
+
+    @Inject
+    ReadRoute route;
+
+    @Inject
+    ReadYourWritesGuard guard;
+
+    @ConfigProperty(name = "sixtosix.replica.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (enabled && isRead(request) && !primaryOnly() && guard.replicaCaughtUp(readAfter(request))) {
+            route.useReplica();
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!enabled) {
+            return;
+        }
+        if (!isRead(request) && response.getStatus() < 400) {
+            String token = guard.recordWrite();
+            response.getHeaders().putSingle(READ_AFTER_HEADER, token);
+            response.getHeaders().add(HttpHeaders.SET_COOKIE, new NewCookie.Builder(READ_AFTER_COOKIE)
+                    .value(token)
+                    .path("/")
+                    .maxAge((int) guard.ttl().toSeconds())
+                    .httpOnly(true)
+                    .sameSite(NewCookie.SameSite.STRICT)
+                    .build());
+        }
+        response.getHeaders().putSingle(READ_SOURCE_HEADER, route.isReplica() ? "replica" : "primary");
+    }
+
+    private boolean primaryOnly() {
+        return resourceInfo.getResourceMethod() != null
+                && (resourceInfo.getResourceMethod().isAnnotationPresent(ReadFromPrimary.class)
+                || resourceInfo.getResourceClass().isAnnotationPresent(ReadFromPrimary.class));
+    }
+
+    private static String readAfter(ContainerRequestContext request) {
+        String token = request.getHeaderString(READ_AFTER_HEADER);
+        if (token != null && !token.isBlank()) {
+            return token;
+        }
+        Cookie cookie = request.getCookies().get(READ_AFTER_COOKIE);
+        return cookie != null ? cookie.getValue() : null;
+    }
+
+    private static boolean isRead(ContainerRequestContext request) {
+        return HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod());
+    }
+}
@@ -0,0 +1,21 @@
+package at.htlleonding.sixtosix.datasource;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Ziel-Datasource der Hibernate-Verbindungen im aktuellen Request.
+ * Standard ist der Primary; nur der {@link ReadReplicaRoutingFilter} schaltet lesende Requests um.
+ */
+@RequestScoped
+public class ReadRoute {
+
+    private boolean replica;
+
+    void useReplica() {
+        replica = true;
+    }
+
+    public boolean isReplica() {
+        return replica;
+    }
+}
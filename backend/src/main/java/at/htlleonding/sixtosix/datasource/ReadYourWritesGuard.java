@@ -0,0 +1,143 @@
+package at.htlleonding.sixtosix.datasource;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-your-writes für die Read-Replica.
+ *
+ * Nach einem Schreib-Request erhält der Client die WAL-Position (LSN) des Primary als Token
+ * zurück ({@link ReadReplicaRoutingFilter}: Header und Cookie). Lesende Requests mit diesem
+ * Token gehen so lange an den Primary, bis die Replica diese Position wiedergegeben hat,
+ * höchstens aber {@code read-your-writes-ttl} lang. Der Zustand liegt damit beim Client und
+ * gilt für jede Instanz hinter dem Load Balancer. Die Replay-Position der Replica wird
+ * höchstens alle {@code lsn-refresh} abgefragt und von allen Requests geteilt.
+ *
+ * Token: {@code <LSN>@<Schreibzeitpunkt in ms>}, z.B. {@code 16/B374D848@1760000000000}.
+ * Ein gefälschtes Token kann höchstens bewirken, dass der Client länger vom Primary liest.
+ */
+@ApplicationScoped
+public class ReadYourWritesGuard {
+
+    private static final String CURRENT_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    private static final String REPLAYED_LSN_SQL =
+            "SELECT (CASE WHEN pg_is_in_recovery() THEN pg_last_wal_replay_lsn() ELSE pg_current_wal_lsn() END)::text";
+
+    @Inject
+    AgroalDataSource primary;
+
+    @Inject
+    @DataSource("replica")
+    AgroalDataSource replica;
+
+    @ConfigProperty(name = "sixtosix.replica.read-your-writes-ttl", defaultValue = "60s")
+    Duration ttl;
+
+    @ConfigProperty(name = "sixtosix.replica.lsn-refresh", defaultValue = "100ms")
+    Duration lsnRefresh;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile long replayedLsn;
+
+    private volatile long replayedAt;
+
+    /**
+     * Token für einen erfolgreichen Schreib-Request: aktuelle WAL-Position des Primary
+     */
+    public String recordWrite() {
+        long lsn;
+        try {
+            lsn = queryLsn(primary, CURRENT_LSN_SQL);
+        } catch (SQLException e) {
+            // Ohne LSN lieber zu lange vom Primary lesen als veraltete Daten liefern
+            lsn = -1L;
+            Log.warnf("WAL-Position des Primary nicht lesbar: %s", e.getMessage());
+        }
+        return formatLsn(lsn) + "@" + System.currentTimeMillis();
+    }
+
+    /**
+     * Ob die Replica den Schreibvorgang des Tokens bereits wiedergegeben hat;
+     * ohne, mit abgelaufenem oder unlesbarem Token true
+     */
+    public boolean replicaCaughtUp(String token) {
+        if (token == null || token.isBlank()) {
+            return true;
+        }
+        long lsn;
+        long writtenAt;
+        try {
+            int at = token.indexOf('@');
+            lsn = parseLsn(token.substring(0, at));
+            writtenAt = Long.parseLong(token.substring(at + 1));
+        } catch (RuntimeException e) {
+            return true;
+        }
+        // Auch Zeitpunkte weit in der Zukunft verwerfen, sonst hielte ein Token ewig
+        if (Math.abs(System.currentTimeMillis() - writtenAt) > ttl.toMillis()) {
+            return true;
+        }
+        if (Long.compareUnsigned(replayedLsn(), lsn) >= 0) {
+            return true;
+        }
+        Log.debugf("Replica noch nicht bei LSN %s, Request liest vom Primary", formatLsn(lsn));
+        return false;
+    }
+
+    /**
+     * Wie lange ein Token gilt (Lebensdauer des Cookies)
+     */
+    public Duration ttl() {
+        return ttl;
+    }
+
+    private long replayedLsn() {
+        if (System.nanoTime() - replayedAt > lsnRefresh.toNanos() && refreshLock.tryLock()) {
+            try {
+                replayedLsn = queryLsn(replica, REPLAYED_LSN_SQL);
+                replayedAt = System.nanoTime();
+            } catch (SQLException e) {
+                Log.warnf("Replay-Position der Replica nicht lesbar: %s", e.getMessage());
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return replayedLsn;
+    }
+
+    private static long queryLsn(AgroalDataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return parseLsn(result.getString(1));
+        }
+    }
+
+    /**
+     * LSN im Format "16/B374D848" (obere/untere 32 Bit, hexadezimal)
+     */
+    static long parseLsn(String lsn) {
+        if (lsn == null) {
+            return 0;
+        }
+        int slash = lsn.indexOf('/');
+        return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+
+    static String formatLsn(long lsn) {
+        return Long.toHexString(lsn >>> 32).toUpperCase() + "/" + Long.toHexString(lsn & 0xFFFFFFFFL).toUpperCase();
+    }
+}
@@ -0,0 +1,63 @@
+package at.htlleonding.sixtosix.datasource;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hibernate-ConnectionProvider, der jede Verbindung je nach {@link ReadRoute} vom Primary
+ * oder von der Read-Replica holt. Hibernate holt die Verbindung beim ersten Statement einer
+ * Transaktion, daher läuft eine Transaktion vollständig auf einer der beiden Datenbanken.
+ * Ohne aktiven Request-Kontext (Scheduler, Ingest, Schema-Erzeugung) immer Primary.
+ */
+class RoutingConnectionProvider implements ConnectionProvider {
+
+    private final AgroalDataSource primary;
+
+    private final AgroalDataSource replica;
+
+    RoutingConnectionProvider(AgroalDataSource primary, AgroalDataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return (replica != null && routeToReplica() ? replica : primary).getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> type) {
+        return type.isInstance(this) || type.isInstance(primary);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> type) {
+        if (type.isInstance(this)) {
+            return (T) this;
+        }
+        if (type.isInstance(primary)) {
+            return (T) primary;
+        }
+        throw new IllegalArgumentException("Nicht unterstützter Typ: " + type);
+    }
+
+    private static boolean routeToReplica() {
+        ManagedContext requestContext = Arc.container().requestContext();
+        return requestContext.isActive() && Arc.container().instance(ReadRoute.class).get().isReplica();
+    }
+}
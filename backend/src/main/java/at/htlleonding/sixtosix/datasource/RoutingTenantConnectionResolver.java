@@ -0,0 +1,43 @@
+package at.htlleonding.sixtosix.datasource;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantConnectionResolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+/**
+ * Liefert Hibernate für jeden Tenant denselben {@link RoutingConnectionProvider}.
+ * Die DATABASE-Multitenancy von Quarkus dient hier nur als Einstiegspunkt für einen
+ * eigenen ConnectionProvider; Primary und Replica sind keine Tenants.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class RoutingTenantConnectionResolver implements TenantConnectionResolver {
+
+    @Inject
+    AgroalDataSource primary;
+
+    @Inject
+    @DataSource("replica")
+    AgroalDataSource replica;
+
+    @ConfigProperty(name = "sixtosix.replica.enabled", defaultValue = "false")
+    boolean replicaEnabled;
+
+    private ConnectionProvider provider;
+
+    @PostConstruct
+    void init() {
+        provider = new RoutingConnectionProvider(primary, replicaEnabled ? replica : null);
+    }
+
+    @Override
+    public ConnectionProvider resolve(String tenantId) {
+        return provider;
+    }
+}
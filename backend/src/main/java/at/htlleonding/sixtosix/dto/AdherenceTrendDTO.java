@@ -0,0 +1,20 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DTO für die Therapietreue eines Zeitfensters (Record)
+ * Anteil bestätigter Aufgaben und Median der Bestätigungsverzögerung ab Beginn des Plantags.
+ * closed ist false, solange ein Tag des Fensters noch nicht abgeschlossen ist.
+ * Immutable und kompakt mit Java Records.
+ */
+public record AdherenceTrendDTO(
+    String granularity,
+    LocalDate bucketStart,
+    long totalTasks,
+    long confirmedTasks,
+    Double adherence,
+    Double medianDelayMinutes,
+    boolean closed
+) {
+}
@@ -0,0 +1,27 @@
+package at.htlleonding.sixtosix.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * DTO für AnamnesisVersion (Record)
+ * Eine Version der Patientenanamnese; beim Anlegen sind nur content und createdById nötig.
+ * Immutable und kompakt mit Java Records.
+ */
+public record AnamnesisVersionDTO(
+    Long id,
+    Long anamnesisId,
+    Long versionNumber,
+
+    @NotBlank(message = "Inhalt darf nicht leer sein")
+    String content,
+
+    @NotNull(message = "Ersteller ID darf nicht null sein")
+    Long createdById,
+
+    String createdByKeycloakId,
+    LocalDateTime createdAt,
+    Boolean finalized
+) {
+}
@@ -0,0 +1,19 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO für AssessmentStatusRun (Record)
+ * Abschnitt mit gleichbleibendem ADL-/Skill-Status; endedAt ist null für den aktuellen.
+ * Immutable und kompakt mit Java Records.
+ */
+public record AssessmentTrendDTO(
+    Long definitionId,
+    String definitionName,
+    String status,
+    LocalDateTime startedAt,
+    LocalDateTime lastAssessedAt,
+    LocalDateTime endedAt,
+    Integer assessmentCount
+) {
+}
@@ -0,0 +1,22 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO für das Ergebnis einer Audit-Ketten-Verifikation (Record)
+ * Enthält bei einem Bruch die ID des ersten ungültigen Eintrags;
+ * pendingEntries zählt die noch nicht verketteten (und damit nicht geprüften) Einträge.
+ * Immutable und kompakt mit Java Records.
+ */
+public record AuditVerificationDTO(
+    Boolean valid,
+    Boolean incremental,
+    Long verifiedEntries,
+    Long pendingEntries,
+    Integer segments,
+    Long firstInvalidAuditLogId,
+    String reason,
+    LocalDateTime verifiedAt,
+    Long durationMillis
+) {
+}
@@ -0,0 +1,17 @@
+package at.htlleonding.sixtosix.dto;
+
+/**
+ * DTO für die Verbindungsnutzung der Datenbank-Pools (Record)
+ * JDBC: belegte, maximal gleichzeitig belegte und wartende Verbindungen.
+ * Reaktiv: laufende Abfragen, Spitzenwert und daraus maximal belegte Verbindungen.
+ * Immutable und kompakt mit Java Records.
+ */
+public record ConnectionStatsDTO(
+    Long jdbcActive,
+    Long jdbcMaxUsed,
+    Long jdbcAwaiting,
+    Integer reactiveInFlight,
+    Integer reactiveMaxInFlight,
+    Integer reactiveMaxHeld
+) {
+}
@@ -6,12 +6,15 @@ import java.util.List;
 /**
  * DTO für DailyPlan (Record)
  * Tagesstruktur pro Patient und Datum.
+ * completedTasks/totalTasks stammen aus den Zählern des Plans (Fortschritt ohne Zählabfrage).
  * Immutable und kompakt mit Java Records.
  */
 public record DailyPlanDTO(
     Long id,
     Long patientId,
     LocalDate planDate,
+    Integer completedTasks,
+    Integer totalTasks,
     List<DailyTaskDTO> tasks
 ) {
 }
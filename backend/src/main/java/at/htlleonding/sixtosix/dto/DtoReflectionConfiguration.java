@@ -0,0 +1,54 @@
+package at.htlleonding.sixtosix.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Registriert alle DTOs für Reflection im Native Image.
+ * Die Resources liefern DTOs meist über Response.ok(dto); der Typ ist dann zur Build-Zeit
+ * nicht sichtbar und Jackson fände im Native Image keine Record-Komponenten.
+ * Neue DTOs hier ergänzen.
+ */
+@RegisterForReflection(targets = {
+        ADLAssessmentDTO.class,
+        ADLDefinitionDTO.class,
+        AdherenceTrendDTO.class,
+        AnamnesisDTO.class,
+        AnamnesisVersionDTO.class,
+        AssessmentTrendDTO.class,
+        AuditVerificationDTO.class,
+        CareAssignmentDTO.class,
+        CareNeedDTO.class,
+        ConnectionStatsDTO.class,
+        DailyPlanDTO.class,
+        DailyTaskDTO.class,
+        DoctorDTO.class,
+        InterventionDTO.class,
+        InterventionMediaDTO.class,
+        InterventionRuleDTO.class,
+        InterventionSuggestionDTO.class,
+        InterventionTaskDTO.class,
+        MedicationDTO.class,
+        OfflineConfirmationDTO.class,
+        OfflineConfirmationResultDTO.class,
+        PatientCreateUpdateDTO.class,
+        PatientDetailDTO.class,
+        PatientPurgeDTO.class,
+        PatientResponseDTO.class,
+        ResourceDTO.class,
+        SearchHitDTO.class,
+        SkillAssessmentDTO.class,
+        SkillDefinitionDTO.class,
+        SyncChangeDTO.class,
+        SyncFeedDTO.class,
+        SyncUploadResultDTO.class,
+        UserAccountDTO.class,
+        VitalIngestResultDTO.class,
+        VitalMeasurementDTO.class,
+        VitalRollupDTO.class,
+        VitalThresholdDTO.class
+})
+public final class DtoReflectionConfiguration {
+
+    private DtoReflectionConfiguration() {
+    }
+}
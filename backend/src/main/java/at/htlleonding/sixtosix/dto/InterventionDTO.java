@@ -6,6 +6,7 @@ import java.util.List;
 /**
  * DTO für Intervention (Record)
  * Zentrale Planungseinheit der Pflege.
+ * completedTasks/totalTasks stammen aus den Zählern der Intervention (Fortschritt ohne Zählabfrage).
  * Immutable und kompakt mit Java Records.
  */
 public record InterventionDTO(
@@ -16,6 +17,8 @@ public record InterventionDTO(
     String description,
     Boolean active,
     LocalDateTime createdAt,
+    Integer completedTasks,
+    Integer totalTasks,
     List<InterventionTaskDTO> tasks
 ) {
 }
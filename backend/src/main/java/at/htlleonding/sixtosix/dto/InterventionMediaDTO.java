@@ -0,0 +1,25 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO für InterventionMedia (Record)
+ * Grafische Anleitung einer Intervention. Der Inhalt wird über seinen Hash geladen
+ * (GET /media/blobs/{sha256}, abgeleitete Bilder unter /thumbnail bzw. /preview,
+ * sobald derivativeStatus READY ist).
+ * Immutable und kompakt mit Java Records.
+ */
+public record InterventionMediaDTO(
+    Long id,
+    Long interventionId,
+    String sha256,
+    String contentType,
+    Long sizeBytes,
+    Integer width,
+    Integer height,
+    String caption,
+    Integer position,
+    String derivativeStatus,
+    LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,20 @@
+package at.htlleonding.sixtosix.dto;
+
+/**
+ * DTO für InterventionRule (Record)
+ * Regel für automatische Interventionsvorschläge aus ADL-/Skill-Bewertungen.
+ * Immutable und kompakt mit Java Records.
+ */
+public record InterventionRuleDTO(
+    Long id,
+    String source,
+    Long definitionId,
+    String definitionName,
+    String status,
+    String careNeedKeyword,
+    String title,
+    String description,
+    String taskTemplate,
+    Boolean active
+) {
+}
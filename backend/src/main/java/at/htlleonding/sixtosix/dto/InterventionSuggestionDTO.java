@@ -0,0 +1,24 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO für InterventionSuggestion (Record)
+ * Vorschlag einer Intervention, der vom Pfleger bestätigt oder verworfen wird.
+ * Immutable und kompakt mit Java Records.
+ */
+public record InterventionSuggestionDTO(
+    Long id,
+    Long patientId,
+    Long ruleId,
+    String source,
+    String title,
+    String description,
+    Long assessmentId,
+    String status,
+    LocalDateTime createdAt,
+    LocalDateTime decidedAt,
+    Long decidedById,
+    Long interventionId
+) {
+}
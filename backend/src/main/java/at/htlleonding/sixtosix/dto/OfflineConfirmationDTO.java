@@ -0,0 +1,27 @@
+package at.htlleonding.sixtosix.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+/**
+ * DTO für eine offline erfasste Bestätigung (Record)
+ * clientMutationId wird vom Tablet vergeben (z.B. UUID) und macht den Upload idempotent.
+ * Immutable und kompakt mit Java Records.
+ */
+public record OfflineConfirmationDTO(
+    @NotBlank(message = "Client-Mutation-ID darf nicht leer sein")
+    @Size(max = 64, message = "Client-Mutation-ID darf höchstens 64 Zeichen lang sein")
+    String clientMutationId,
+
+    @NotNull(message = "Typ darf nicht null sein")
+    String entityType,
+
+    @NotNull(message = "ID darf nicht null sein")
+    Long entityId,
+
+    @NotNull(message = "Zeitpunkt darf nicht null sein")
+    LocalDateTime confirmedAt
+) {
+}
@@ -0,0 +1,13 @@
+package at.htlleonding.sixtosix.dto;
+
+/**
+ * DTO für das Ergebnis einer offline erfassten Bestätigung (Record)
+ * outcome: APPLIED, DUPLICATE oder REJECTED
+ * Immutable und kompakt mit Java Records.
+ */
+public record OfflineConfirmationResultDTO(
+    String clientMutationId,
+    String outcome,
+    String message
+) {
+}
@@ -0,0 +1,22 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO für Status und Fortschritt eines Hard Purge (Record)
+ * currentTable ist die Tabelle, die gerade geleert wird (null, wenn abgeschlossen).
+ */
+public record PatientPurgeDTO(
+    Long id,
+    Long patientId,
+    String status,
+    Integer completedSteps,
+    Integer totalSteps,
+    String currentTable,
+    Long deletedRows,
+    String lastError,
+    LocalDateTime requestedAt,
+    LocalDateTime startedAt,
+    LocalDateTime completedAt
+) {
+}
@@ -0,0 +1,18 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO für einen Volltext-Suchtreffer (Record)
+ * Treffer aus Anamnese, Bedarf, Ressourcen oder Interventionen, nach Relevanz sortiert.
+ * Immutable und kompakt mit Java Records.
+ */
+public record SearchHitDTO(
+    String source,
+    Long id,
+    String title,
+    String snippet,
+    Double rank,
+    LocalDateTime createdAt
+) {
+}
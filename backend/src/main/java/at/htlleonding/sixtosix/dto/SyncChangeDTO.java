@@ -0,0 +1,15 @@
+package at.htlleonding.sixtosix.dto;
+
+/**
+ * DTO für einen Eintrag im Delta-Sync-Feed (Record)
+ * data enthält den aktuellen Stand der Zeile (DTO des jeweiligen Typs), bei deleted = true null.
+ * Immutable und kompakt mit Java Records.
+ */
+public record SyncChangeDTO(
+    Long seq,
+    String entityType,
+    Long entityId,
+    Boolean deleted,
+    Object data
+) {
+}
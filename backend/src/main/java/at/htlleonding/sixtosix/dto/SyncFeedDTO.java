@@ -0,0 +1,17 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.util.List;
+
+/**
+ * DTO für den Delta-Sync-Feed eines Patienten (Record)
+ * nextSince ist beim nächsten Abruf als since zu übergeben; hasMore signalisiert weitere Seiten.
+ * Immutable und kompakt mit Java Records.
+ */
+public record SyncFeedDTO(
+    Long patientId,
+    Long since,
+    Long nextSince,
+    Boolean hasMore,
+    List<SyncChangeDTO> changes
+) {
+}
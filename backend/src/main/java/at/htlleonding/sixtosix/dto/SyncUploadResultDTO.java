@@ -0,0 +1,15 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.util.List;
+
+/**
+ * DTO für das Ergebnis eines Offline-Uploads (Record)
+ * currentSeq ist der Stand des Änderungszählers nach dem Upload.
+ * Immutable und kompakt mit Java Records.
+ */
+public record SyncUploadResultDTO(
+    Long patientId,
+    Long currentSeq,
+    List<OfflineConfirmationResultDTO> results
+) {
+}
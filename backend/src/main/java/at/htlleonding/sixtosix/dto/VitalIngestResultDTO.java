@@ -0,0 +1,14 @@
+package at.htlleonding.sixtosix.dto;
+
+/**
+ * DTO für das Ergebnis eines Vitalwert-Ingests (Record)
+ * Anzahl übernommener/abgelehnter Messwerte und automatisch geöffneter/gelöster Bedarfe.
+ * Immutable und kompakt mit Java Records.
+ */
+public record VitalIngestResultDTO(
+    Integer accepted,
+    Integer rejected,
+    Integer careNeedsOpened,
+    Integer careNeedsResolved
+) {
+}
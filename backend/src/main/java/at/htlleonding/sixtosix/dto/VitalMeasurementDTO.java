@@ -0,0 +1,28 @@
+package at.htlleonding.sixtosix.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * DTO für VitalMeasurement (Record)
+ * Einzelner Messwert; bei Blutdruck ist secondaryValue der diastolische Wert.
+ * Immutable und kompakt mit Java Records.
+ */
+public record VitalMeasurementDTO(
+    Long id,
+
+    @NotNull(message = "Patient ID darf nicht null sein")
+    Long patientId,
+
+    @NotNull(message = "Typ darf nicht null sein")
+    String type,
+
+    @NotNull(message = "Messwert darf nicht null sein")
+    Double value,
+
+    Double secondaryValue,
+
+    @NotNull(message = "Messzeitpunkt darf nicht null sein")
+    LocalDateTime measuredAt
+) {
+}
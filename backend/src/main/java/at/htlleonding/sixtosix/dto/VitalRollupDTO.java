@@ -0,0 +1,21 @@
+package at.htlleonding.sixtosix.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO für VitalRollup (Record)
+ * Verdichteter Vitalwert eines Zeitfensters (Stunde/Tag/Woche) für Verlaufsdiagramme.
+ * Immutable und kompakt mit Java Records.
+ */
+public record VitalRollupDTO(
+    String granularity,
+    LocalDateTime bucketStart,
+    long count,
+    double min,
+    double max,
+    double avg,
+    Double secondaryMin,
+    Double secondaryMax,
+    Double secondaryAvg
+) {
+}
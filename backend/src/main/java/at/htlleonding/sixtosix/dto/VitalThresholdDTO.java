@@ -0,0 +1,17 @@
+package at.htlleonding.sixtosix.dto;
+
+/**
+ * DTO für VitalThreshold (Record)
+ * Grenzwert-Regel pro Patient und Vitalwert-Typ.
+ * Immutable und kompakt mit Java Records.
+ */
+public record VitalThresholdDTO(
+    Long id,
+    Long patientId,
+    String type,
+    Double minValue,
+    Double maxValue,
+    Double secondaryMaxValue,
+    Long openCareNeedId
+) {
+}
@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 
 /**
@@ -10,13 +11,19 @@ import java.time.LocalDateTime;
  * Der zeitliche Verlauf ist nachvollziehbar (multiple Bewertungen möglich).
  */
 @Entity
-@Table(name = "adl_assessment")
+@Table(name = "adl_assessment", indexes = {
+    @Index(name = "idx_adl_assessment_tenant_patient", columnList = "tenant_id, patient_id, adl_definition_id")
+})
 public class ADLAssessment {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     @NotNull(message = "ADL Definition darf nicht null sein")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "adl_definition_id", nullable = false)
@@ -63,6 +70,10 @@ public class ADLAssessment {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
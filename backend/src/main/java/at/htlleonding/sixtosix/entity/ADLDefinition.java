@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.TenantId;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,15 +12,25 @@ import java.util.List;
  * Vordefinierte Tätigkeiten des Alltags (z.B. Essen, Trinken, Mobilität).
  */
 @Entity
-@Table(name = "adl_definition")
+@Table(name = "adl_definition", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_adl_definition_tenant_name", columnNames = {"tenant_id", "name"})
+})
 public class ADLDefinition {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotBlank(message = "Name darf nicht leer sein")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String name;
 
     // Relationen
@@ -39,10 +50,18 @@ public class ADLDefinition {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,24 @@
+package at.htlleonding.sixtosix.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Enum für die Auflösung der Therapietreue-Auswertung
+ * Gespeichert wird je Tag, Wochen werden beim Lesen zusammengefasst und beginnen am Montag (ISO-8601).
+ */
+public enum AdherenceGranularity {
+    DAY,
+    WEEK;
+
+    /**
+     * Erster Tag des Zeitfensters, in das der Tag fällt
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+}
@@ -0,0 +1,122 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.type.SqlTypes;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Adherence Rollup Entity
+ * Verdichtete Therapietreue pro Patient und Plantag: Anzahl geplanter und bestätigter
+ * Aufgaben sowie ein Histogramm der Bestätigungszeitpunkte. Wird bei jeder Bestätigung
+ * fortgeschrieben und beim Tagesabschluss aus daily_task neu berechnet, damit
+ * Auswertungen über Monate keine Aufgaben lesen müssen.
+ *
+ * Aufgaben haben keine Uhrzeit; die Verzögerung wird ab Beginn des Plantags gemessen.
+ * Das Histogramm hat Fächer zu 30 Minuten, das letzte sammelt alle Bestätigungen nach
+ * Ende des Plantags (z.B. offline nachgetragen). Histogramme lassen sich über Tage und
+ * Patienten addieren, der Median daraus ist auf ein Fach genau.
+ */
+@Entity
+@Table(name = "adherence_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_adherence_rollup_day", columnNames = {"tenant_id", "patient_id", "plan_date"})
+})
+public class AdherenceRollup {
+
+    public static final int DELAY_BUCKET_MINUTES = 30;
+
+    // 48 Fächer für den Plantag, dazu eines für spätere Bestätigungen
+    public static final int DELAY_BUCKETS = 24 * 60 / DELAY_BUCKET_MINUTES + 1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @NotNull(message = "Patient darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @NotNull(message = "Plannungsdatum darf nicht null sein")
+    @Column(name = "plan_date", nullable = false)
+    private LocalDate planDate;
+
+    @Column(nullable = false)
+    private int totalTasks;
+
+    @Column(nullable = false)
+    private int confirmedTasks;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    private int[] delayHistogram;
+
+    // true, sobald der Tagesabschluss den Tag aus den Aufgaben neu berechnet hat
+    @Column(nullable = false)
+    private boolean closed;
+
+    // Konstruktoren
+    public AdherenceRollup() {
+    }
+
+    // Business Methods
+    /**
+     * Fach (0-basiert) für eine Bestätigung; Bestätigungen vor dem Plantag zählen ins erste Fach
+     */
+    public static int delayBucket(LocalDate planDate, LocalDateTime confirmedAt) {
+        long minutes = Math.max(0, Duration.between(planDate.atStartOfDay(), confirmedAt).toMinutes());
+        return (int) Math.min(DELAY_BUCKETS - 1, minutes / DELAY_BUCKET_MINUTES);
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public LocalDate getPlanDate() {
+        return planDate;
+    }
+
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    public int getConfirmedTasks() {
+        return confirmedTasks;
+    }
+
+    public int[] getDelayHistogram() {
+        return delayHistogram;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public String toString() {
+        return "AdherenceRollup{" +
+                "id=" + id +
+                ", planDate=" + planDate +
+                ", totalTasks=" + totalTasks +
+                ", confirmedTasks=" + confirmedTasks +
+                ", closed=" + closed +
+                '}';
+    }
+}
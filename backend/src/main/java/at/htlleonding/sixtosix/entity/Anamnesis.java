@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,6 +20,14 @@ public class Anamnesis {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotNull(message = "Patient darf nicht null sein")
     @OneToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "patient_id", nullable = false, unique = true)
@@ -50,10 +59,18 @@ public class Anamnesis {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Patient getPatient() {
         return patient;
     }
@@ -3,6 +3,7 @@ package at.htlleonding.sixtosix.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 
 /**
@@ -12,13 +13,23 @@ import java.time.LocalDateTime;
  * Nach Finalisierung nicht mehr änderbar.
  */
 @Entity
-@Table(name = "anamnesis_version")
+@Table(name = "anamnesis_version", indexes = {
+    @Index(name = "idx_anamnesis_version_tenant_anamnesis", columnList = "tenant_id, anamnesis_id")
+})
 public class AnamnesisVersion {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotNull(message = "Anamnesis darf nicht null sein")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "anamnesis_id", nullable = false)
@@ -75,10 +86,18 @@ public class AnamnesisVersion {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Anamnesis getAnamnesis() {
         return anamnesis;
     }
@@ -0,0 +1,187 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Assessment Status Run Entity
+ * Lauflängenkodierter Verlauf von ADL- bzw. Skill-Bewertungen: eine Zeile pro
+ * Abschnitt mit gleichbleibendem Status (z.B. INTACT → RESTRICTED → NURSING_RELEVANT
+ * ergibt drei Zeilen). Wird bei jeder neuen Bewertung fortgeschrieben.
+ * endedAt ist null für den aktuellen Abschnitt.
+ */
+@Entity
+@Table(name = "assessment_status_run", indexes = {
+    @Index(name = "idx_assessment_status_run_adl", columnList = "tenant_id, patient_id, adl_definition_id, started_at"),
+    @Index(name = "idx_assessment_status_run_skill", columnList = "tenant_id, patient_id, skill_definition_id, started_at")
+})
+public class AssessmentStatusRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @NotNull(message = "Patient darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    // ADL oder SKILL
+    @NotNull(message = "Source darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InterventionSource source;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "adl_definition_id")
+    private ADLDefinition adlDefinition;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "skill_definition_id")
+    private SkillDefinition skillDefinition;
+
+    @NotNull(message = "Status darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AssessmentStatus status;
+
+    // Zeitpunkt der ersten Bewertung dieses Abschnitts
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    // Zeitpunkt der letzten Bewertung mit diesem Status
+    @Column(nullable = false)
+    private LocalDateTime lastAssessedAt;
+
+    // Zeitpunkt der ersten Bewertung mit abweichendem Status (null = aktueller Abschnitt)
+    private LocalDateTime endedAt;
+
+    @Column(nullable = false)
+    private Integer assessmentCount = 1;
+
+    // Konstruktoren
+    public AssessmentStatusRun() {
+    }
+
+    public AssessmentStatusRun(Patient patient, InterventionSource source, AssessmentStatus status,
+                               LocalDateTime startedAt) {
+        this.patient = patient;
+        this.source = source;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.lastAssessedAt = startedAt;
+    }
+
+    // Business Methods
+    public void extend(LocalDateTime assessedAt) {
+        this.assessmentCount++;
+        this.lastAssessedAt = assessedAt;
+    }
+
+    public void end(LocalDateTime assessedAt) {
+        this.endedAt = assessedAt;
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public void setPatient(Patient patient) {
+        this.patient = patient;
+    }
+
+    public InterventionSource getSource() {
+        return source;
+    }
+
+    public void setSource(InterventionSource source) {
+        this.source = source;
+    }
+
+    public ADLDefinition getAdlDefinition() {
+        return adlDefinition;
+    }
+
+    public void setAdlDefinition(ADLDefinition adlDefinition) {
+        this.adlDefinition = adlDefinition;
+    }
+
+    public SkillDefinition getSkillDefinition() {
+        return skillDefinition;
+    }
+
+    public void setSkillDefinition(SkillDefinition skillDefinition) {
+        this.skillDefinition = skillDefinition;
+    }
+
+    public AssessmentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AssessmentStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getLastAssessedAt() {
+        return lastAssessedAt;
+    }
+
+    public void setLastAssessedAt(LocalDateTime lastAssessedAt) {
+        this.lastAssessedAt = lastAssessedAt;
+    }
+
+    public LocalDateTime getEndedAt() {
+        return endedAt;
+    }
+
+    public void setEndedAt(LocalDateTime endedAt) {
+        this.endedAt = endedAt;
+    }
+
+    public Integer getAssessmentCount() {
+        return assessmentCount;
+    }
+
+    public void setAssessmentCount(Integer assessmentCount) {
+        this.assessmentCount = assessmentCount;
+    }
+
+    @Override
+    public String toString() {
+        return "AssessmentStatusRun{" +
+                "id=" + id +
+                ", source=" + source +
+                ", status=" + status +
+                ", startedAt=" + startedAt +
+                ", endedAt=" + endedAt +
+                ", assessmentCount=" + assessmentCount +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Audit Chain Head Entity
+ * Aktuelles Ende der Audit-Hash-Kette, eine Zeile (und eine Kette) pro Organisation.
+ * Wird beim Anhängen pessimistisch gesperrt, damit die Kette auch bei
+ * parallelen Transaktionen (und mehreren Knoten) linear bleibt.
+ */
+@Entity
+@Table(name = "audit_chain_head", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_audit_chain_head_tenant", columnNames = {"tenant_id"})
+})
+public class AuditChainHead {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    private Long lastAuditLogId;
+
+    @Column(nullable = false, length = 64)
+    private String headHash;
+
+    @Column(nullable = false)
+    private Long entryCount = 0L;
+
+    // Konstruktoren
+    public AuditChainHead() {
+    }
+
+    public AuditChainHead(String genesisHash) {
+        this.headHash = genesisHash;
+    }
+
+    // Business Methods
+    public void advance(Long auditLogId, String hash) {
+        this.lastAuditLogId = auditLogId;
+        this.headHash = hash;
+        this.entryCount++;
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLastAuditLogId() {
+        return lastAuditLogId;
+    }
+
+    public void setLastAuditLogId(Long lastAuditLogId) {
+        this.lastAuditLogId = lastAuditLogId;
+    }
+
+    public String getHeadHash() {
+        return headHash;
+    }
+
+    public void setHeadHash(String headHash) {
+        this.headHash = headHash;
+    }
+
+    public Long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(Long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditChainHead{" +
+                "lastAuditLogId=" + lastAuditLogId +
+                ", headHash='" + headHash + '\'' +
+                ", entryCount=" + entryCount +
+                '}';
+    }
+}
@@ -0,0 +1,123 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Audit Checkpoint Entity
+ * Signierter Zwischenstand der Audit-Hash-Kette.
+ * Checkpoints teilen die Kette in unabhängig prüfbare Segmente.
+ */
+@Entity
+@Immutable
+@Table(name = "audit_checkpoint", indexes = {
+    @Index(name = "idx_audit_checkpoint_tenant_chain", columnList = "tenant_id, entry_count")
+})
+public class AuditCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Column(nullable = false, updatable = false, unique = true)
+    private Long lastAuditLogId;
+
+    @Column(nullable = false, updatable = false, length = 64)
+    private String chainHash;
+
+    @Column(nullable = false, updatable = false)
+    private Long entryCount;
+
+    @Column(nullable = false, updatable = false, length = 64)
+    private String signature;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Konstruktoren
+    public AuditCheckpoint() {
+    }
+
+    public AuditCheckpoint(Long lastAuditLogId, String chainHash, Long entryCount, String signature) {
+        this.lastAuditLogId = lastAuditLogId;
+        this.chainHash = chainHash;
+        this.entryCount = entryCount;
+        this.signature = signature;
+    }
+
+    // Lifecycle
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLastAuditLogId() {
+        return lastAuditLogId;
+    }
+
+    public void setLastAuditLogId(Long lastAuditLogId) {
+        this.lastAuditLogId = lastAuditLogId;
+    }
+
+    public String getChainHash() {
+        return chainHash;
+    }
+
+    public void setChainHash(String chainHash) {
+        this.chainHash = chainHash;
+    }
+
+    public Long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(Long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public void setSignature(String signature) {
+        this.signature = signature;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditCheckpoint{" +
+                "id=" + id +
+                ", lastAuditLogId=" + lastAuditLogId +
+                ", entryCount=" + entryCount +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
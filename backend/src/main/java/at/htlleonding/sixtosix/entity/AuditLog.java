@@ -3,21 +3,36 @@ package at.htlleonding.sixtosix.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Audit Log Entity
  * Protokolliert alle Änderungen für Revisionssicherheit.
  * Immutable Record für Nachvollziehbarkeit.
+ * Jeder Eintrag ist über previousHash/hash mit seinem Vorgänger verkettet (Hash-Kette).
+ * Neue Einträge sind zunächst unverkettet (chainSeq, previousHash und hash null);
+ * AuditChainService verkettet sie im Hintergrund per Native Update.
  */
 @Entity
-@Table(name = "audit_log")
+@Immutable
+@Table(name = "audit_log", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_audit_log_tenant_chain_seq", columnNames = {"tenant_id", "chain_seq"})
+}, indexes = {
+    @Index(name = "idx_audit_log_tenant_entity", columnList = "tenant_id, entity, entity_id")
+})
 public class AuditLog {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     @NotBlank(message = "Entity-Typ darf nicht leer sein")
     @Column(nullable = false)
     private String entity;
@@ -31,17 +46,31 @@ public class AuditLog {
     @Column(nullable = false)
     private AuditAction action;
 
-    @NotNull(message = "Performer darf nicht null sein")
-    @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "performed_by", nullable = false)
+    /**
+     * Ausführender Benutzer; null bei Requests ohne Anmeldung (nur Dev/Test) und ohne Benutzerkonto
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "performed_by")
     private UserAccount performedBy;
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime performedAt;
 
-    @Column(columnDefinition = "TEXT")
+    @Column(columnDefinition = "TEXT", updatable = false)
     private String details;
 
+    /**
+     * Position in der Kette der Organisation (1, 2, ...); null, solange der Eintrag nicht verkettet ist
+     */
+    @Column(insertable = false, updatable = false)
+    private Long chainSeq;
+
+    @Column(insertable = false, updatable = false, length = 64)
+    private String previousHash;
+
+    @Column(insertable = false, updatable = false, length = 64)
+    private String hash;
+
     // Konstruktoren
     public AuditLog() {
     }
@@ -56,7 +85,10 @@ public class AuditLog {
     // Lifecycle
     @PrePersist
     protected void onCreate() {
-        performedAt = LocalDateTime.now();
+        if (performedAt == null) {
+            // PostgreSQL speichert Mikrosekunden; der Hash wird über den gespeicherten Wert gebildet
+            performedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        }
     }
 
     // Getter & Setter
@@ -64,6 +96,10 @@ public class AuditLog {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -116,6 +152,18 @@ public class AuditLog {
         this.details = details;
     }
 
+    public Long getChainSeq() {
+        return chainSeq;
+    }
+
+    public String getPreviousHash() {
+        return previousHash;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
     @Override
     public String toString() {
         return "AuditLog{" +
@@ -124,6 +172,8 @@ public class AuditLog {
                 ", entityId=" + entityId +
                 ", action=" + action +
                 ", performedAt=" + performedAt +
+                ", chainSeq=" + chainSeq +
+                ", hash='" + hash + '\'' +
                 '}';
     }
 }
@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 
 /**
@@ -11,7 +12,9 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "care_assignment", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"pfleger_id", "patient_id"})
+    @UniqueConstraint(columnNames = {"tenant_id", "pfleger_id", "patient_id"})
+}, indexes = {
+    @Index(name = "idx_care_assignment_tenant_patient", columnList = "tenant_id, patient_id, active")
 })
 public class CareAssignment {
 
@@ -19,6 +22,14 @@ public class CareAssignment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotNull(message = "Pfleger darf nicht null sein")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "pfleger_id", nullable = false)
@@ -55,10 +66,18 @@ public class CareAssignment {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public UserAccount getPfleger() {
         return pfleger;
     }
@@ -3,6 +3,7 @@ package at.htlleonding.sixtosix.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 
 /**
@@ -12,13 +13,23 @@ import java.time.LocalDateTime;
  * Dokumentiert und nachvollziehbar.
  */
 @Entity
-@Table(name = "care_need")
+@Table(name = "care_need", indexes = {
+    @Index(name = "idx_care_need_tenant_patient", columnList = "tenant_id, patient_id")
+})
 public class CareNeed {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotNull(message = "Patient darf nicht null sein")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "patient_id", nullable = false)
@@ -34,7 +45,6 @@ public class CareNeed {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @Column(updatable = false)
     private LocalDateTime resolvedAt;
 
     // Konstruktoren
@@ -63,10 +73,18 @@ public class CareNeed {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Patient getPatient() {
         return patient;
     }
@@ -2,6 +2,8 @@ package at.htlleonding.sixtosix.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,10 +12,25 @@ import java.util.List;
  * Daily Plan Entity
  * Zeitlich strukturierte Darstellung alltäglicher Tätigkeiten pro Tag.
  * Wird gemeinsam von Pfleger und Patient erstellt.
+ *
+ * Die Tabelle ist nach Planmonat partitioniert (siehe V45__partition_daily_plan.sql und
+ * DailyPlanPartitionMaintenance); plan_date ist deshalb Teil des Primärschlüssels
+ * und nach dem Anlegen unveränderlich.
+ *
+ * Hibernate kennt nur id als Identifier, der Primärschlüssel ist (id, plan_date). Eindeutig
+ * ist id trotzdem, da alle Zeilen aus derselben Sequenz kommen. {@link PartitionKey} hängt
+ * plan_date an UPDATE und DELETE an, die damit nur die eigene Monatspartition treffen.
+ * Laden über id allein (findById, Lazy-Load über daily_task.daily_plan_id) fragt dagegen den
+ * Primärschlüssel-Index jeder Monatspartition ab; die häufigen Abfragen gehen deshalb über
+ * Patient und plan_date.
+ *
+ * totalTasks/completedTasks sind denormalisierte Zähler für Fortschrittsanzeigen. Hibernate
+ * schreibt sie nur beim Anlegen; danach zählt DailyPlanRepository.adjustTaskCounters sie
+ * atomar in der Datenbank fort und erhöht dabei die Version.
  */
 @Entity
 @Table(name = "daily_plan", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"patient_id", "plan_date"})
+    @UniqueConstraint(name = "uk_daily_plan_tenant_patient_date", columnNames = {"tenant_id", "patient_id", "plan_date"})
 })
 public class DailyPlan {
 
@@ -21,15 +38,30 @@ public class DailyPlan {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotNull(message = "Patient darf nicht null sein")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
     @NotNull(message = "Plannungsdatum darf nicht null sein")
-    @Column(nullable = false)
+    @PartitionKey
+    @Column(nullable = false, updatable = false)
     private LocalDate planDate;
 
+    @Column(name = "total_tasks", nullable = false, updatable = false)
+    private Integer totalTasks = 0;
+
+    @Column(name = "completed_tasks", nullable = false, updatable = false)
+    private Integer completedTasks = 0;
+
     // Relationen
     @OneToMany(mappedBy = "dailyPlan", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<DailyTask> tasks = new ArrayList<>();
@@ -43,15 +75,30 @@ public class DailyPlan {
         this.planDate = planDate;
     }
 
+    // Lifecycle
+    @PrePersist
+    protected void onCreate() {
+        totalTasks = tasks.size();
+        completedTasks = (int) tasks.stream().filter(DailyTask::getCompleted).count();
+    }
+
     // Getter & Setter
     public Long getId() {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Patient getPatient() {
         return patient;
     }
@@ -64,8 +111,12 @@ public class DailyPlan {
         return planDate;
     }
 
-    public void setPlanDate(LocalDate planDate) {
-        this.planDate = planDate;
+    public Integer getTotalTasks() {
+        return totalTasks;
+    }
+
+    public Integer getCompletedTasks() {
+        return completedTasks;
     }
 
     public List<DailyTask> getTasks() {
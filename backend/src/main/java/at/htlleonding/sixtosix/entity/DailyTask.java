@@ -3,26 +3,48 @@ package at.htlleonding.sixtosix.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
  * Daily Task Entity
  * Einzelne Aktivitäten einer Tagesstruktur (z.B. Trinken, Bewegung, Entspannung).
  * Können manuell bestätigt werden.
+ *
+ * plan_date ist eine Kopie des Planungsdatums des Plans: Partitionsschlüssel von daily_task,
+ * damit Aufgaben in derselben Monatspartition liegen wie ihr Plan. Wie bei {@link DailyPlan}
+ * ist id allein der Identifier; {@link PartitionKey} beschränkt UPDATE und DELETE (z.B. beim
+ * Bestätigen) auf die Monatspartition.
  */
 @Entity
-@Table(name = "daily_task")
+@Table(name = "daily_task", indexes = {
+    @Index(name = "idx_daily_task_tenant_plan", columnList = "tenant_id, daily_plan_id")
+})
 public class DailyTask {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotNull(message = "Daily Plan darf nicht null sein")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "daily_plan_id", nullable = false)
     private DailyPlan dailyPlan;
 
+    @PartitionKey
+    @Column(name = "plan_date", nullable = false, updatable = false)
+    private LocalDate planDate;
+
     @NotBlank(message = "Titel darf nicht leer sein")
     @Column(nullable = false)
     private String title;
@@ -35,7 +57,6 @@ public class DailyTask {
     @Column(nullable = false)
     private Boolean completed = false;
 
-    @Column(updatable = false)
     private LocalDateTime confirmedAt;
 
     // Konstruktoren
@@ -44,14 +65,20 @@ public class DailyTask {
 
     public DailyTask(DailyPlan dailyPlan, String title, ReminderLevel reminderLevel) {
         this.dailyPlan = dailyPlan;
+        this.planDate = dailyPlan.getPlanDate();
         this.title = title;
         this.reminderLevel = reminderLevel;
     }
 
     // Business Methods
     public void confirm() {
+        confirm(LocalDateTime.now());
+    }
+
+    // Bestätigung mit Zeitpunkt vom Gerät (z.B. offline erfasst)
+    public void confirm(LocalDateTime confirmedAt) {
         this.completed = true;
-        this.confirmedAt = LocalDateTime.now();
+        this.confirmedAt = confirmedAt;
     }
 
     // Getter & Setter
@@ -59,16 +86,29 @@ public class DailyTask {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public DailyPlan getDailyPlan() {
         return dailyPlan;
     }
 
     public void setDailyPlan(DailyPlan dailyPlan) {
         this.dailyPlan = dailyPlan;
+        this.planDate = dailyPlan.getPlanDate();
+    }
+
+    public LocalDate getPlanDate() {
+        return planDate;
     }
 
     public String getTitle() {
@@ -3,6 +3,7 @@ package at.htlleonding.sixtosix.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,15 +13,29 @@ import java.util.List;
  * Zentrale Planungseinheit der Pflege.
  * Basiert auf: Anamnesis, ADLs, Skills, Ressourcen, Bedarf.
  * Kann Pflegehandlungen, Beobachtungen und grafische Behandlungsanleitungen enthalten.
+ *
+ * totalTasks/completedTasks sind denormalisierte Zähler für Fortschrittsanzeigen. Hibernate
+ * schreibt sie nur beim Anlegen; danach zählt InterventionRepository.adjustTaskCounters sie
+ * atomar in der Datenbank fort und erhöht dabei die Version.
  */
 @Entity
-@Table(name = "intervention")
+@Table(name = "intervention", indexes = {
+    @Index(name = "idx_intervention_tenant_patient", columnList = "tenant_id, patient_id")
+})
 public class Intervention {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotNull(message = "Patient darf nicht null sein")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "patient_id", nullable = false)
@@ -44,6 +59,12 @@ public class Intervention {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "total_tasks", nullable = false, updatable = false)
+    private Integer totalTasks = 0;
+
+    @Column(name = "completed_tasks", nullable = false, updatable = false)
+    private Integer completedTasks = 0;
+
     // Relationen
     @OneToMany(mappedBy = "intervention", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<InterventionTask> tasks = new ArrayList<>();
@@ -62,6 +83,8 @@ public class Intervention {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        totalTasks = tasks.size();
+        completedTasks = (int) tasks.stream().filter(InterventionTask::getCompleted).count();
     }
 
     // Getter & Setter
@@ -69,10 +92,18 @@ public class Intervention {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Patient getPatient() {
         return patient;
     }
@@ -121,6 +152,14 @@ public class Intervention {
         this.createdAt = createdAt;
     }
 
+    public Integer getTotalTasks() {
+        return totalTasks;
+    }
+
+    public Integer getCompletedTasks() {
+        return completedTasks;
+    }
+
     public List<InterventionTask> getTasks() {
         return tasks;
     }
@@ -0,0 +1,118 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Intervention Media Entity
+ * Grafische Anleitung (Bild, Schrittdarstellung) einer Intervention.
+ * Verweist auf einen MediaBlob; viele Interventionen können denselben Inhalt verwenden.
+ *
+ * Basierend auf FSD Abschnitt 7.3 (Grafische Anleitungen)
+ */
+@Entity
+@Table(name = "intervention_media", indexes = {
+    @Index(name = "idx_intervention_media_tenant_intervention", columnList = "tenant_id, intervention_id, position")
+})
+public class InterventionMedia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @NotNull(message = "Intervention darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "intervention_id", nullable = false)
+    private Intervention intervention;
+
+    @NotNull(message = "Medium darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "media_blob_id", nullable = false)
+    private MediaBlob blob;
+
+    // Reihenfolge der Schritte innerhalb der Intervention (1-basiert)
+    @Column(nullable = false)
+    private Integer position;
+
+    private String caption;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Konstruktoren
+    public InterventionMedia() {
+    }
+
+    public InterventionMedia(Intervention intervention, MediaBlob blob, Integer position, String caption) {
+        this.intervention = intervention;
+        this.blob = blob;
+        this.position = position;
+        this.caption = caption;
+    }
+
+    // Lifecycle
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Intervention getIntervention() {
+        return intervention;
+    }
+
+    public MediaBlob getBlob() {
+        return blob;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+
+    public String getCaption() {
+        return caption;
+    }
+
+    public void setCaption(String caption) {
+        this.caption = caption;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "InterventionMedia{" +
+                "id=" + id +
+                ", position=" + position +
+                ", caption='" + caption + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,179 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Intervention Rule Entity
+ * Regel für automatische Interventionsvorschläge: trifft der Status einer ADL- bzw.
+ * Skill-Bewertung zu (und optional ein aktiver Bedarf mit passendem Stichwort),
+ * wird die hinterlegte Intervention als Vorschlag erzeugt.
+ */
+@Entity
+@Table(name = "intervention_rule", indexes = {
+    @Index(name = "idx_intervention_rule_tenant_active", columnList = "tenant_id, active")
+})
+public class InterventionRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // ADL oder SKILL
+    @NotNull(message = "Source darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InterventionSource source;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "adl_definition_id")
+    private ADLDefinition adlDefinition;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "skill_definition_id")
+    private SkillDefinition skillDefinition;
+
+    // Auslösender Bewertungs-Status
+    @NotNull(message = "Status darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AssessmentStatus status;
+
+    // Optional: Regel greift nur bei einem aktiven Bedarf, dessen Beschreibung das Stichwort enthält
+    private String careNeedKeyword;
+
+    // Vorlage der vorgeschlagenen Intervention
+    @NotBlank(message = "Titel darf nicht leer sein")
+    @Column(nullable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    // Vorgeschlagene Aufgaben, eine pro Zeile
+    @Column(columnDefinition = "TEXT")
+    private String taskTemplate;
+
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    // Konstruktoren
+    public InterventionRule() {
+    }
+
+    public InterventionRule(InterventionSource source, AssessmentStatus status, String title) {
+        this.source = source;
+        this.status = status;
+        this.title = title;
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public InterventionSource getSource() {
+        return source;
+    }
+
+    public void setSource(InterventionSource source) {
+        this.source = source;
+    }
+
+    public ADLDefinition getAdlDefinition() {
+        return adlDefinition;
+    }
+
+    public void setAdlDefinition(ADLDefinition adlDefinition) {
+        this.adlDefinition = adlDefinition;
+    }
+
+    public SkillDefinition getSkillDefinition() {
+        return skillDefinition;
+    }
+
+    public void setSkillDefinition(SkillDefinition skillDefinition) {
+        this.skillDefinition = skillDefinition;
+    }
+
+    public AssessmentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AssessmentStatus status) {
+        this.status = status;
+    }
+
+    public String getCareNeedKeyword() {
+        return careNeedKeyword;
+    }
+
+    public void setCareNeedKeyword(String careNeedKeyword) {
+        this.careNeedKeyword = careNeedKeyword;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTaskTemplate() {
+        return taskTemplate;
+    }
+
+    public void setTaskTemplate(String taskTemplate) {
+        this.taskTemplate = taskTemplate;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    @Override
+    public String toString() {
+        return "InterventionRule{" +
+                "id=" + id +
+                ", source=" + source +
+                ", status=" + status +
+                ", title='" + title + '\'' +
+                ", active=" + active +
+                '}';
+    }
+}
@@ -0,0 +1,246 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Intervention Suggestion Entity
+ * Von einer InterventionRule erzeugter Vorschlag für einen Patienten.
+ * Wird erst durch Bestätigung des Pflegers zur Intervention (FSD 5.3, 13.2).
+ *
+ * conditionActive markiert die Vorschläge der laufenden "Episode" einer Regel:
+ * solange die Bedingung erfüllt bleibt, wird kein weiterer Vorschlag erzeugt,
+ * auch wenn der Pfleger den bestehenden verworfen hat.
+ */
+@Entity
+@Table(name = "intervention_suggestion", indexes = {
+    @Index(name = "idx_intervention_suggestion_patient_rule", columnList = "tenant_id, patient_id, rule_id, condition_active"),
+    @Index(name = "idx_intervention_suggestion_patient_status", columnList = "tenant_id, patient_id, status")
+})
+public class InterventionSuggestion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @NotNull(message = "Patient darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @NotNull(message = "Regel darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "rule_id", nullable = false)
+    private InterventionRule rule;
+
+    @NotNull(message = "Source darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InterventionSource source;
+
+    @NotBlank(message = "Titel darf nicht leer sein")
+    @Column(nullable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    // ID der auslösenden ADL- bzw. Skill-Bewertung
+    private Long assessmentId;
+
+    @NotNull(message = "Status darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SuggestionStatus status = SuggestionStatus.OPEN;
+
+    @Column(nullable = false)
+    private Boolean conditionActive = true;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime decidedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "decided_by")
+    private UserAccount decidedBy;
+
+    // Angelegte Intervention (nur bei ACCEPTED)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "intervention_id")
+    private Intervention intervention;
+
+    // Konstruktoren
+    public InterventionSuggestion() {
+    }
+
+    public InterventionSuggestion(Patient patient, InterventionRule rule, Long assessmentId) {
+        this.patient = patient;
+        this.rule = rule;
+        this.source = rule.getSource();
+        this.title = rule.getTitle();
+        this.description = rule.getDescription();
+        this.assessmentId = assessmentId;
+    }
+
+    // Lifecycle
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Business Methods
+    public void accept(UserAccount user, Intervention intervention) {
+        this.status = SuggestionStatus.ACCEPTED;
+        this.decidedBy = user;
+        this.decidedAt = LocalDateTime.now();
+        this.intervention = intervention;
+    }
+
+    public void dismiss(UserAccount user) {
+        this.status = SuggestionStatus.DISMISSED;
+        this.decidedBy = user;
+        this.decidedAt = LocalDateTime.now();
+    }
+
+    public void endCondition() {
+        this.conditionActive = false;
+        if (status == SuggestionStatus.OPEN) {
+            this.status = SuggestionStatus.OBSOLETE;
+        }
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public void setPatient(Patient patient) {
+        this.patient = patient;
+    }
+
+    public InterventionRule getRule() {
+        return rule;
+    }
+
+    public void setRule(InterventionRule rule) {
+        this.rule = rule;
+    }
+
+    public InterventionSource getSource() {
+        return source;
+    }
+
+    public void setSource(InterventionSource source) {
+        this.source = source;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getAssessmentId() {
+        return assessmentId;
+    }
+
+    public void setAssessmentId(Long assessmentId) {
+        this.assessmentId = assessmentId;
+    }
+
+    public SuggestionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SuggestionStatus status) {
+        this.status = status;
+    }
+
+    public Boolean getConditionActive() {
+        return conditionActive;
+    }
+
+    public void setConditionActive(Boolean conditionActive) {
+        this.conditionActive = conditionActive;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getDecidedAt() {
+        return decidedAt;
+    }
+
+    public void setDecidedAt(LocalDateTime decidedAt) {
+        this.decidedAt = decidedAt;
+    }
+
+    public UserAccount getDecidedBy() {
+        return decidedBy;
+    }
+
+    public void setDecidedBy(UserAccount decidedBy) {
+        this.decidedBy = decidedBy;
+    }
+
+    public Intervention getIntervention() {
+        return intervention;
+    }
+
+    public void setIntervention(Intervention intervention) {
+        this.intervention = intervention;
+    }
+
+    @Override
+    public String toString() {
+        return "InterventionSuggestion{" +
+                "id=" + id +
+                ", source=" + source +
+                ", title='" + title + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -3,6 +3,7 @@ package at.htlleonding.sixtosix.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 
 /**
@@ -11,13 +12,23 @@ import java.time.LocalDateTime;
  * Können als durchgeführt markiert werden.
  */
 @Entity
-@Table(name = "intervention_task")
+@Table(name = "intervention_task", indexes = {
+    @Index(name = "idx_intervention_task_tenant_intervention", columnList = "tenant_id, intervention_id")
+})
 public class InterventionTask {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotNull(message = "Intervention darf nicht null sein")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "intervention_id", nullable = false)
@@ -30,7 +41,6 @@ public class InterventionTask {
     @Column(nullable = false)
     private Boolean completed = false;
 
-    @Column(updatable = false)
     private LocalDateTime completedAt;
 
     // Konstruktoren
@@ -44,8 +54,13 @@ public class InterventionTask {
 
     // Business Methods
     public void markCompleted() {
+        markCompleted(LocalDateTime.now());
+    }
+
+    // Erledigt mit Zeitpunkt vom Gerät (z.B. offline erfasst)
+    public void markCompleted(LocalDateTime completedAt) {
         this.completed = true;
-        this.completedAt = LocalDateTime.now();
+        this.completedAt = completedAt;
     }
 
     // Getter & Setter
@@ -53,10 +68,18 @@ public class InterventionTask {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Intervention getIntervention() {
         return intervention;
     }
@@ -0,0 +1,106 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Media Blob Entity
+ * Binärinhalt (Bild) im Medienspeicher, adressiert über seinen SHA-256-Hash.
+ * Der Inhalt liegt im Dateisystem (MediaStore), nicht in der Datenbank. Gleiche Inhalte
+ * werden nur einmal gespeichert, auch wenn tausende Interventionen sie verwenden; die
+ * Datei wird zudem über Organisationen hinweg geteilt, die Zeile gilt je Tenant.
+ *
+ * Inhalt und Hash sind unveränderlich; nur Abmessungen und Status der abgeleiteten
+ * Bilder werden vom MediaDerivativeWorker nachgetragen.
+ */
+@Entity
+@Table(name = "media_blob", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_media_blob_tenant_sha256", columnNames = {"tenant_id", "sha256"})
+})
+public class MediaBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @NotNull(message = "Hash darf nicht null sein")
+    @Column(nullable = false, updatable = false, length = 64)
+    private String sha256;
+
+    @NotNull(message = "Content-Type darf nicht null sein")
+    @Column(nullable = false, updatable = false, length = 64)
+    private String contentType;
+
+    @Column(nullable = false, updatable = false)
+    private long sizeBytes;
+
+    private Integer width;
+
+    private Integer height;
+
+    @NotNull(message = "Status darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MediaDerivativeStatus derivativeStatus = MediaDerivativeStatus.PENDING;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Konstruktoren
+    public MediaBlob() {
+    }
+
+    // Getter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public MediaDerivativeStatus getDerivativeStatus() {
+        return derivativeStatus;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "MediaBlob{" +
+                "id=" + id +
+                ", sha256='" + sha256 + '\'' +
+                ", contentType='" + contentType + '\'' +
+                ", sizeBytes=" + sizeBytes +
+                ", derivativeStatus=" + derivativeStatus +
+                '}';
+    }
+}
@@ -0,0 +1,10 @@
+package at.htlleonding.sixtosix.entity;
+
+/**
+ * Enum für den Stand der abgeleiteten Bilder (Vorschaubild, Vorschau) eines MediaBlob
+ */
+public enum MediaDerivativeStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,28 @@
+package at.htlleonding.sixtosix.entity;
+
+/**
+ * Enum für die abgeleiteten Bildgrößen eines MediaBlob
+ * Das Bild wird seitenverhältnistreu in ein Quadrat der angegebenen Kantenlänge eingepasst
+ * (nie vergrößert) und als JPEG gespeichert.
+ */
+public enum MediaVariant {
+    THUMBNAIL(256),
+    PREVIEW(1024);
+
+    private final int maxEdge;
+
+    MediaVariant(int maxEdge) {
+        this.maxEdge = maxEdge;
+    }
+
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+
+    /**
+     * Name in Pfaden und URLs (z.B. "thumbnail")
+     */
+    public String pathName() {
+        return name().toLowerCase();
+    }
+}
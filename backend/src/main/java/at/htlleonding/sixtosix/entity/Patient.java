@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,15 +13,30 @@ import java.util.List;
 /**
  * Patient Entity
  * Repräsentiert eine zu betreuende Person (Klient).
+ *
+ * Soft Delete (TSD 5.1): gelöschte Patienten blendet Hibernate per {@link SQLRestriction}
+ * in allen Abfragen und Ladevorgängen aus, sie werden nie als Entity geladen.
+ * Die Indizes auf aktive Patienten sind partiell (Migration V46__active_patient_indexes.sql).
+ * Endgültig gelöscht wird nicht über die Cascades, sondern mengenbasiert durch den
+ * PatientPurgeService.
  */
 @Entity
 @Table(name = "patient")
+@SQLRestriction("deleted = false")
 public class Patient {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotBlank(message = "Vorname darf nicht leer sein")
     @Column(nullable = false)
     private String firstname;
@@ -40,7 +57,7 @@ public class Patient {
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CareAssignment> careAssignments = new ArrayList<>();
 
-    @OneToOne(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(mappedBy = "patient", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private Anamnesis anamnesis;
 
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -79,10 +96,18 @@ public class Patient {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getFirstname() {
         return firstname;
     }
@@ -0,0 +1,170 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Patient Purge Entity
+ * Auftrag und Fortschritt für das endgültige Löschen eines (soft-gelöschten) Patienten.
+ *
+ * Der Fortschritt (erledigte Schritte, gelöschte Zeilen) wird in derselben Transaktion
+ * wie der jeweilige Lösch-Batch geschrieben und ist damit nach einem Absturz genau der
+ * committete Stand. patient_id ist bewusst kein Fremdschlüssel: der Auftrag bleibt
+ * als Nachweis erhalten, wenn der Patient entfernt ist.
+ */
+@Entity
+@Table(name = "patient_purge", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_patient_purge_tenant_patient", columnNames = {"tenant_id", "patient_id"})
+})
+public class PatientPurge {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @NotNull(message = "Patient-ID darf nicht null sein")
+    @Column(name = "patient_id", nullable = false, updatable = false)
+    private Long patientId;
+
+    @NotNull(message = "Status darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PurgeStatus status = PurgeStatus.PENDING;
+
+    // Anzahl vollständig geleerter Tabellen (Index des nächsten Schritts)
+    @Column(nullable = false)
+    private Integer completedSteps = 0;
+
+    @Column(nullable = false)
+    private Long deletedRows = 0L;
+
+    // Aufeinanderfolgende Fehlversuche, wird bei Fortschritt zurückgesetzt
+    @Column(nullable = false)
+    private Integer failures = 0;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    // Konstruktoren
+    public PatientPurge() {
+    }
+
+    public PatientPurge(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    // Lifecycle
+    @PrePersist
+    protected void onCreate() {
+        requestedAt = LocalDateTime.now();
+    }
+
+    // Business Methods
+    public boolean isFinished() {
+        return status == PurgeStatus.COMPLETED || status == PurgeStatus.FAILED;
+    }
+
+    // Ein Lösch-Batch ist durchgelaufen; exhausted = Tabelle des aktuellen Schritts ist leer
+    public void recordBatch(int deleted, boolean exhausted, int totalSteps) {
+        if (startedAt == null) {
+            startedAt = LocalDateTime.now();
+        }
+        status = PurgeStatus.RUNNING;
+        deletedRows += deleted;
+        failures = 0;
+        lastError = null;
+        if (exhausted) {
+            completedSteps++;
+        }
+        if (completedSteps >= totalSteps) {
+            status = PurgeStatus.COMPLETED;
+            completedAt = LocalDateTime.now();
+        }
+    }
+
+    public void recordFailure(String error, int maxAttempts) {
+        failures++;
+        lastError = error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+        if (failures >= maxAttempts) {
+            status = PurgeStatus.FAILED;
+            completedAt = LocalDateTime.now();
+        }
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public PurgeStatus getStatus() {
+        return status;
+    }
+
+    public Integer getCompletedSteps() {
+        return completedSteps;
+    }
+
+    public Long getDeletedRows() {
+        return deletedRows;
+    }
+
+    public Integer getFailures() {
+        return failures;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PatientPurge{" +
+                "id=" + id +
+                ", patientId=" + patientId +
+                ", status=" + status +
+                ", completedSteps=" + completedSteps +
+                ", deletedRows=" + deletedRows +
+                '}';
+    }
+}
@@ -0,0 +1,11 @@
+package at.htlleonding.sixtosix.entity;
+
+/**
+ * Enum für den Status eines Hard Purge
+ */
+public enum PurgeStatus {
+    PENDING,    // Angefordert, wartet auf den Hintergrundjob
+    RUNNING,    // Wird batchweise gelöscht (nach Absturz: wird fortgesetzt)
+    COMPLETED,  // Alle Daten des Patienten entfernt
+    FAILED      // Nach mehreren Fehlversuchen abgebrochen
+}
@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 
 /**
@@ -9,13 +10,19 @@ import java.time.LocalDateTime;
  * Bewertung von Fähigkeitsbereichen pro Patient.
  */
 @Entity
-@Table(name = "skill_assessment")
+@Table(name = "skill_assessment", indexes = {
+    @Index(name = "idx_skill_assessment_tenant_patient", columnList = "tenant_id, patient_id, skill_definition_id")
+})
 public class SkillAssessment {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     @NotNull(message = "Skill Definition darf nicht null sein")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "skill_definition_id", nullable = false)
@@ -59,6 +66,10 @@ public class SkillAssessment {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -0,0 +1,11 @@
+package at.htlleonding.sixtosix.entity;
+
+/**
+ * Enum für den Status eines Interventionsvorschlags
+ */
+public enum SuggestionStatus {
+    OPEN,       // Wartet auf Bestätigung durch den Pfleger
+    ACCEPTED,   // Übernommen, Intervention wurde angelegt
+    DISMISSED,  // Vom Pfleger verworfen
+    OBSOLETE    // Auslösende Bedingung trifft nicht mehr zu
+}
@@ -0,0 +1,128 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Sync Change Entity
+ * Letzte Änderung einer Zeile im Delta-Sync-Feed eines Patienten.
+ * Genau eine Zeile pro Entität (wird bei jeder Änderung mit neuer Nummer
+ * überschrieben), gelöschte Zeilen bleiben als Tombstone (deleted = true) erhalten.
+ */
+@Entity
+@Table(name = "sync_change",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sync_change_entity", columnNames = {"tenant_id", "patient_id", "entity_type", "entity_id"})
+    },
+    indexes = {
+        @Index(name = "idx_sync_change_patient_seq", columnList = "tenant_id, patient_id, seq")
+    })
+public class SyncChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @NotNull(message = "Patient darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @NotNull(message = "Typ darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private SyncEntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Column(nullable = false)
+    private Boolean deleted = false;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    // Konstruktoren
+    public SyncChange() {
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public void setPatient(Patient patient) {
+        this.patient = patient;
+    }
+
+    public SyncEntityType getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(SyncEntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Boolean getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(Boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncChange{" +
+                "entityType=" + entityType +
+                ", entityId=" + entityId +
+                ", seq=" + seq +
+                ", deleted=" + deleted +
+                '}';
+    }
+}
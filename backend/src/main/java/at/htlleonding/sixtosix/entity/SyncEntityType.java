@@ -0,0 +1,14 @@
+package at.htlleonding.sixtosix.entity;
+
+/**
+ * Enum für die Entitäten des Delta-Sync-Feeds (Offline-Tablets)
+ */
+public enum SyncEntityType {
+    DAILY_PLAN,
+    DAILY_TASK,
+    INTERVENTION,
+    INTERVENTION_TASK,
+    MEDICATION,
+    RESOURCE,
+    CARE_NEED
+}
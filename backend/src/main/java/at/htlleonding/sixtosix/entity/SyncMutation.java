@@ -0,0 +1,127 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Sync Mutation Entity
+ * Bereits verarbeitete Offline-Änderung eines Tablets (Idempotenz-Schlüssel).
+ * Wird dieselbe clientMutationId für denselben Patienten erneut hochgeladen, wird das
+ * gespeicherte Ergebnis zurückgegeben statt die Änderung erneut anzuwenden. Die ID ist nur
+ * pro Patient eindeutig; eine gleiche ID eines anderen Patienten ist eine eigene Änderung.
+ */
+@Entity
+@Table(name = "sync_mutation", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_sync_mutation_tenant_patient_client_id",
+            columnNames = {"tenant_id", "patient_id", "client_mutation_id"})
+})
+public class SyncMutation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @NotBlank(message = "Client-Mutation-ID darf nicht leer sein")
+    @Column(nullable = false, length = 64, updatable = false)
+    private String clientMutationId;
+
+    @NotNull(message = "Patient darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false, updatable = false)
+    private Patient patient;
+
+    @NotBlank(message = "Ergebnis darf nicht leer sein")
+    @Column(nullable = false, length = 16, updatable = false)
+    private String outcome;
+
+    @Column(updatable = false)
+    private String message;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime processedAt;
+
+    // Konstruktoren
+    public SyncMutation() {
+    }
+
+    public SyncMutation(String clientMutationId, Patient patient, String outcome, String message) {
+        this.clientMutationId = clientMutationId;
+        this.patient = patient;
+        this.outcome = outcome;
+        this.message = message;
+    }
+
+    // Lifecycle
+    @PrePersist
+    protected void onCreate() {
+        processedAt = LocalDateTime.now();
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getClientMutationId() {
+        return clientMutationId;
+    }
+
+    public void setClientMutationId(String clientMutationId) {
+        this.clientMutationId = clientMutationId;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public void setPatient(Patient patient) {
+        this.patient = patient;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncMutation{" +
+                "clientMutationId='" + clientMutationId + '\'' +
+                ", outcome='" + outcome + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,59 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Sync Sequence Entity
+ * Monotoner Änderungszähler pro Patient für den Delta-Sync.
+ * Die Zeile bleibt bis zum Commit gesperrt, sobald eine Transaktion eine Nummer
+ * zieht; Änderungen eines Patienten werden dadurch in Nummernreihenfolge sichtbar.
+ */
+@Entity
+@Table(name = "sync_sequence")
+public class SyncSequence {
+
+    @Id
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private Long lastSeq = 0L;
+
+    // Konstruktoren
+    public SyncSequence() {
+    }
+
+    // Getter & Setter
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    public Long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(Long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncSequence{" +
+                "patientId=" + patientId +
+                ", lastSeq=" + lastSeq +
+                '}';
+    }
+}
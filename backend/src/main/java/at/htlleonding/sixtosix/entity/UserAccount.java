@@ -3,6 +3,7 @@ package at.htlleonding.sixtosix.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,13 +14,23 @@ import java.util.List;
  * Die Authentifizierung erfolgt über Keycloak.
  */
 @Entity
-@Table(name = "user_account")
+@Table(name = "user_account", indexes = {
+    @Index(name = "idx_user_account_tenant_role", columnList = "tenant_id, role")
+})
 public class UserAccount {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotBlank(message = "Keycloak ID darf nicht leer sein")
     @Column(unique = true, nullable = false)
     private String keycloakId;
@@ -68,10 +79,18 @@ public class UserAccount {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getKeycloakId() {
         return keycloakId;
     }
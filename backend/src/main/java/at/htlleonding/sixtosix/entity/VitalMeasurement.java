@@ -0,0 +1,126 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Vital Measurement Entity
+ * Einzelner Messwert (Zeitreihe) eines Patienten, z.B. von einem Heimgerät.
+ * Schlanke, unveränderliche Zeile; Sequence statt Identity, damit Hibernate
+ * Inserts beim Batch-Ingest bündeln kann.
+ */
+@Entity
+@Table(name = "vital_measurement", indexes = {
+    @Index(name = "idx_vital_measurement_patient_type_time", columnList = "tenant_id, patient_id, type, measured_at")
+})
+public class VitalMeasurement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vital_measurement_seq")
+    @SequenceGenerator(name = "vital_measurement_seq", sequenceName = "vital_measurement_seq", allocationSize = 100)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @NotNull(message = "Patient darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false, updatable = false)
+    private Patient patient;
+
+    @NotNull(message = "Typ darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 16)
+    private VitalSignType type;
+
+    @NotNull(message = "Messwert darf nicht null sein")
+    @Column(name = "value", nullable = false, updatable = false)
+    private Double value;
+
+    @Column(updatable = false)
+    private Double secondaryValue;
+
+    @NotNull(message = "Messzeitpunkt darf nicht null sein")
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime measuredAt;
+
+    // Konstruktoren
+    public VitalMeasurement() {
+    }
+
+    public VitalMeasurement(Patient patient, VitalSignType type, Double value,
+                            Double secondaryValue, LocalDateTime measuredAt) {
+        this.patient = patient;
+        this.type = type;
+        this.value = value;
+        this.secondaryValue = secondaryValue;
+        this.measuredAt = measuredAt;
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public void setPatient(Patient patient) {
+        this.patient = patient;
+    }
+
+    public VitalSignType getType() {
+        return type;
+    }
+
+    public void setType(VitalSignType type) {
+        this.type = type;
+    }
+
+    public Double getValue() {
+        return value;
+    }
+
+    public void setValue(Double value) {
+        this.value = value;
+    }
+
+    public Double getSecondaryValue() {
+        return secondaryValue;
+    }
+
+    public void setSecondaryValue(Double secondaryValue) {
+        this.secondaryValue = secondaryValue;
+    }
+
+    public LocalDateTime getMeasuredAt() {
+        return measuredAt;
+    }
+
+    public void setMeasuredAt(LocalDateTime measuredAt) {
+        this.measuredAt = measuredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "VitalMeasurement{" +
+                "id=" + id +
+                ", type=" + type +
+                ", value=" + value +
+                ", secondaryValue=" + secondaryValue +
+                ", measuredAt=" + measuredAt +
+                '}';
+    }
+}
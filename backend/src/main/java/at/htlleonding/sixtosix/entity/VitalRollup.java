@@ -0,0 +1,208 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Vital Rollup Entity
+ * Verdichtete Vitalwerte (Anzahl, Summe, Minimum, Maximum) pro Patient, Typ und
+ * Zeitfenster (Stunde/Tag/Woche). Wird beim Ingest inkrementell fortgeschrieben,
+ * damit Verlaufsdiagramme über lange Zeiträume keine Rohdaten lesen müssen.
+ */
+@Entity
+@Table(name = "vital_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_vital_rollup_bucket",
+            columnNames = {"tenant_id", "patient_id", "type", "granularity", "bucket_start"})
+})
+public class VitalRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @NotNull(message = "Patient darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @NotNull(message = "Typ darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private VitalSignType type;
+
+    @NotNull(message = "Auflösung darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private VitalRollupGranularity granularity;
+
+    @NotNull(message = "Fensterbeginn darf nicht null sein")
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long sampleCount;
+
+    @Column(nullable = false)
+    private double valueSum;
+
+    @Column(nullable = false)
+    private double minValue;
+
+    @Column(nullable = false)
+    private double maxValue;
+
+    // Zweitwert (diastolischer Blutdruck), nur gesetzt wenn vorhanden
+    @Column(nullable = false)
+    private long secondaryCount;
+
+    @Column(nullable = false)
+    private double secondarySum;
+
+    private Double secondaryMin;
+
+    private Double secondaryMax;
+
+    // Konstruktoren
+    public VitalRollup() {
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public void setPatient(Patient patient) {
+        this.patient = patient;
+    }
+
+    public VitalSignType getType() {
+        return type;
+    }
+
+    public void setType(VitalSignType type) {
+        this.type = type;
+    }
+
+    public VitalRollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(VitalRollupGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public double getValueSum() {
+        return valueSum;
+    }
+
+    public void setValueSum(double valueSum) {
+        this.valueSum = valueSum;
+    }
+
+    public double getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(double minValue) {
+        this.minValue = minValue;
+    }
+
+    public double getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(double maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    public long getSecondaryCount() {
+        return secondaryCount;
+    }
+
+    public void setSecondaryCount(long secondaryCount) {
+        this.secondaryCount = secondaryCount;
+    }
+
+    public double getSecondarySum() {
+        return secondarySum;
+    }
+
+    public void setSecondarySum(double secondarySum) {
+        this.secondarySum = secondarySum;
+    }
+
+    public Double getSecondaryMin() {
+        return secondaryMin;
+    }
+
+    public void setSecondaryMin(Double secondaryMin) {
+        this.secondaryMin = secondaryMin;
+    }
+
+    public Double getSecondaryMax() {
+        return secondaryMax;
+    }
+
+    public void setSecondaryMax(Double secondaryMax) {
+        this.secondaryMax = secondaryMax;
+    }
+
+    /**
+     * Mittelwert im Zeitfenster
+     */
+    public double getAverage() {
+        return valueSum / sampleCount;
+    }
+
+    /**
+     * Mittelwert des Zweitwerts im Zeitfenster (null, wenn keiner erfasst wurde)
+     */
+    public Double getSecondaryAverage() {
+        return secondaryCount > 0 ? secondarySum / secondaryCount : null;
+    }
+
+    @Override
+    public String toString() {
+        return "VitalRollup{" +
+                "id=" + id +
+                ", type=" + type +
+                ", granularity=" + granularity +
+                ", bucketStart=" + bucketStart +
+                ", sampleCount=" + sampleCount +
+                '}';
+    }
+}
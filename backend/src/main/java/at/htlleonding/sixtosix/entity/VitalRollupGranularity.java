@@ -0,0 +1,46 @@
+package at.htlleonding.sixtosix.entity;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Enum für die Auflösung der Vitalwert-Verdichtung
+ * Wochen beginnen am Montag (ISO-8601).
+ */
+public enum VitalRollupGranularity {
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    WEEK(Duration.ofDays(7));
+
+    private final Duration length;
+
+    VitalRollupGranularity(Duration length) {
+        this.length = length;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    /**
+     * Beginn des Zeitfensters, in das der Zeitpunkt fällt
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS)
+                    .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+
+    /**
+     * Anzahl der Zeitfenster, die der Zeitraum höchstens berührt
+     */
+    public long bucketCount(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(bucketStart(from), to).dividedBy(length) + 1;
+    }
+}
@@ -0,0 +1,28 @@
+package at.htlleonding.sixtosix.entity;
+
+/**
+ * Enum für Vitalwert-Typen
+ * Blutdruck verwendet value (systolisch) und secondaryValue (diastolisch).
+ */
+public enum VitalSignType {
+    BLOOD_PRESSURE("Blutdruck", "mmHg"),
+    PULSE("Puls", "/min"),
+    GLUCOSE("Blutzucker", "mg/dl"),
+    WEIGHT("Gewicht", "kg");
+
+    private final String label;
+    private final String unit;
+
+    VitalSignType(String label, String unit) {
+        this.label = label;
+        this.unit = unit;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+}
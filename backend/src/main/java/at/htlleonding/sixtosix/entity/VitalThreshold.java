@@ -0,0 +1,141 @@
+package at.htlleonding.sixtosix.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Vital Threshold Entity
+ * Grenzwert-Regel pro Patient und Vitalwert-Typ (z.B. Blutdruck > 160/90).
+ * Eine Verletzung eröffnet automatisch einen CareNeed, ein Messwert im
+ * Normalbereich löst ihn wieder.
+ */
+@Entity
+@Table(name = "vital_threshold", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"tenant_id", "patient_id", "type"})
+})
+public class VitalThreshold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @NotNull(message = "Patient darf nicht null sein")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @NotNull(message = "Typ darf nicht null sein")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private VitalSignType type;
+
+    private Double minValue;
+
+    private Double maxValue;
+
+    // Obergrenze des Zweitwerts (diastolischer Blutdruck)
+    private Double secondaryMaxValue;
+
+    // Aktuell durch diese Regel eröffneter Bedarf
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "open_care_need_id")
+    private CareNeed openCareNeed;
+
+    // Zeitpunkt des zuletzt ausgewerteten Messwerts (verspätete Messwerte ändern den Status nicht)
+    private LocalDateTime lastEvaluatedAt;
+
+    // Konstruktoren
+    public VitalThreshold() {
+    }
+
+    public VitalThreshold(Patient patient, VitalSignType type) {
+        this.patient = patient;
+        this.type = type;
+    }
+
+    // Getter & Setter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public void setPatient(Patient patient) {
+        this.patient = patient;
+    }
+
+    public VitalSignType getType() {
+        return type;
+    }
+
+    public void setType(VitalSignType type) {
+        this.type = type;
+    }
+
+    public Double getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(Double minValue) {
+        this.minValue = minValue;
+    }
+
+    public Double getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(Double maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    public Double getSecondaryMaxValue() {
+        return secondaryMaxValue;
+    }
+
+    public void setSecondaryMaxValue(Double secondaryMaxValue) {
+        this.secondaryMaxValue = secondaryMaxValue;
+    }
+
+    public CareNeed getOpenCareNeed() {
+        return openCareNeed;
+    }
+
+    public void setOpenCareNeed(CareNeed openCareNeed) {
+        this.openCareNeed = openCareNeed;
+    }
+
+    public LocalDateTime getLastEvaluatedAt() {
+        return lastEvaluatedAt;
+    }
+
+    public void setLastEvaluatedAt(LocalDateTime lastEvaluatedAt) {
+        this.lastEvaluatedAt = lastEvaluatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "VitalThreshold{" +
+                "id=" + id +
+                ", type=" + type +
+                ", minValue=" + minValue +
+                ", maxValue=" + maxValue +
+                ", secondaryMaxValue=" + secondaryMaxValue +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package at.htlleonding.sixtosix.metrics;
+
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Markiert Repositories, deren Methoden gemessen werden (Dauer, Aufrufe, gelieferte Zeilen).
+ *
+ * @see RepositoryMetricsInterceptor
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Measured {
+}
@@ -0,0 +1,25 @@
+package at.htlleonding.sixtosix.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximale Anzahl SQL-Statements, die ein Endpunkt pro Request absetzen darf.
+ *
+ * Wird nur bei aktivierter Query-Diagnose geprüft (Dev/Test). Im Test-Profil
+ * beantwortet ein Überschreiten den Request mit 500, damit der Test fehlschlägt.
+ * Die Werte gehen von der Batch-Fetch-Größe (16) und kleinen Testdaten aus.
+ *
+ * @see QueryDiagnosticsFilter
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * Erlaubte Statements pro Request
+     */
+    int value();
+}
@@ -0,0 +1,86 @@
+package at.htlleonding.sixtosix.metrics;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.logging.Log;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.util.Map;
+
+/**
+ * Query-Diagnose für Dev/Test: erkennt N+1-Abfragen und prüft das Query-Budget pro Endpunkt.
+ *
+ * - Header X-Query-Count: Anzahl SQL-Statements des Requests
+ * - Wird dieselbe Statement-Form mindestens {@code repeat-threshold} mal ausgeführt,
+ *   wird sie als mögliches N+1 geloggt (Header X-Query-Repeated: Anzahl solcher Formen)
+ * - Überschreitet ein Endpunkt sein {@link QueryBudget}, wird gewarnt; mit
+ *   {@code fail-on-budget-exceeded} (Test-Profil) wird die Antwort durch 500 ersetzt
+ *
+ * In Produktion deaktiviert (sixtosix.query-diagnostics.enabled=false).
+ */
+@Provider
+public class QueryDiagnosticsFilter implements ContainerResponseFilter {
+
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    static final String QUERY_REPEATED_HEADER = "X-Query-Repeated";
+
+    @Inject
+    RequestStatementCounter requestCounter;
+
+    @ConfigProperty(name = "sixtosix.query-diagnostics.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "sixtosix.query-diagnostics.repeat-threshold", defaultValue = "5")
+    int repeatThreshold;
+
+    @ConfigProperty(name = "sixtosix.query-diagnostics.fail-on-budget-exceeded", defaultValue = "false")
+    boolean failOnBudgetExceeded;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!enabled || resourceInfo.getResourceMethod() == null || !Arc.container().requestContext().isActive()) {
+            return;
+        }
+
+        String endpoint = RequestMetricsFilter.endpoint(resourceInfo);
+        int statements = requestCounter.getStatements();
+        response.getHeaders().putSingle(QUERY_COUNT_HEADER, statements);
+
+        // Wiederholte Statement-Formen (typisch: Lazy-Relation pro Zeile im Mapping)
+        int repeated = 0;
+        for (Map.Entry<String, Integer> shape : requestCounter.getShapes().entrySet()) {
+            if (shape.getValue() >= repeatThreshold) {
+                repeated++;
+                Log.warnf("Mögliches N+1 in %s (%s %s): %dx %s", endpoint, request.getMethod(),
+                        request.getUriInfo().getPath(), shape.getValue(), shape.getKey());
+            }
+        }
+        if (repeated > 0) {
+            response.getHeaders().putSingle(QUERY_REPEATED_HEADER, repeated);
+        }
+
+        QueryBudget budget = resourceInfo.getResourceMethod().getAnnotation(QueryBudget.class);
+        if (budget == null || statements <= budget.value()) {
+            return;
+        }
+
+        String message = "Query-Budget überschritten in " + endpoint + ": "
+                + statements + " Statements (Budget " + budget.value() + ")";
+        Log.warn(message);
+        if (failOnBudgetExceeded) {
+            response.setStatus(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            response.setEntity(message, null, MediaType.TEXT_PLAIN_TYPE);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package at.htlleonding.sixtosix.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.persistence.Entity;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Misst jede Methode eines {@link Measured} Repositories.
+ *
+ * Metriken (Tags: repository, method):
+ * - sixtosix.repository.calls: Dauer als Histogramm, zusätzlich Tag outcome (success/error)
+ * - sixtosix.repository.rows: gelieferte Zeilen (Liste = Größe, Optional/Entity = 0 oder 1)
+ *
+ * Reaktive Methoden (Uni) werden bis zum Ergebnis gemessen, nicht nur bis zur Rückgabe.
+ * Von Panache geerbte Methoden (findById, persist, ...) sind nicht Teil des Repositories
+ * und erscheinen nur in den Hibernate-Statistiken.
+ */
+@Measured
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class RepositoryMetricsInterceptor {
+
+    static final String CALLS = "sixtosix.repository.calls";
+
+    static final String ROWS = "sixtosix.repository.rows";
+
+    @Inject
+    MeterRegistry registry;
+
+    @AroundInvoke
+    Object measure(InvocationContext context) throws Exception {
+        String repository = context.getMethod().getDeclaringClass().getSimpleName();
+        String method = context.getMethod().getName();
+        Timer.Sample sample = Timer.start(registry);
+
+        Object result;
+        try {
+            result = context.proceed();
+        } catch (Exception e) {
+            stop(sample, repository, method, "error");
+            throw e;
+        }
+
+        if (result instanceof Uni<?> uni) {
+            return uni.onItemOrFailure().invoke((item, failure) -> {
+                stop(sample, repository, method, failure == null ? "success" : "error");
+                if (failure == null) {
+                    recordRows(repository, method, item);
+                }
+            });
+        }
+
+        stop(sample, repository, method, "success");
+        if (context.getMethod().getReturnType() != void.class) {
+            recordRows(repository, method, result);
+        }
+        return result;
+    }
+
+    private void stop(Timer.Sample sample, String repository, String method, String outcome) {
+        sample.stop(Timer.builder(CALLS)
+                .description("Dauer der Repository-Aufrufe")
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    private void recordRows(String repository, String method, Object result) {
+        int rows = rows(result);
+        if (rows < 0) {
+            return;
+        }
+        DistributionSummary.builder(ROWS)
+                .description("Von Repository-Aufrufen gelieferte Zeilen")
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(registry)
+                .record(rows);
+    }
+
+    /**
+     * Anzahl gelieferter Zeilen; -1, wenn das Ergebnis keine Zeilen sind (z.B. count, boolean)
+     */
+    private static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? rows(optional.get()) : 0;
+        }
+        if (result.getClass().isAnnotationPresent(Entity.class) || result.getClass().isRecord()) {
+            return 1;
+        }
+        return -1;
+    }
+}
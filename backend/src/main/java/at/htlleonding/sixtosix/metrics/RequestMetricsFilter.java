@@ -0,0 +1,50 @@
+package at.htlleonding.sixtosix.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Erfasst pro Endpunkt, wie viele SQL-Statements ein Request abgesetzt hat
+ * (sixtosix.http.statements, Tag endpoint = Resource.methode).
+ *
+ * Dauer und Statuscodes pro Endpunkt liefert bereits http.server.requests.
+ */
+@Provider
+public class RequestMetricsFilter implements ContainerResponseFilter {
+
+    static final String STATEMENTS = "sixtosix.http.statements";
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RequestStatementCounter requestCounter;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (resourceInfo.getResourceMethod() == null || !Arc.container().requestContext().isActive()) {
+            return;
+        }
+
+        DistributionSummary.builder(STATEMENTS)
+                .description("SQL-Statements pro Request")
+                .tag("endpoint", endpoint(resourceInfo))
+                .register(registry)
+                .record(requestCounter.getStatements());
+    }
+
+    static String endpoint(ResourceInfo resourceInfo) {
+        return resourceInfo.getResourceClass().getSimpleName() + "." + resourceInfo.getResourceMethod().getName();
+    }
+}
@@ -0,0 +1,51 @@
+package at.htlleonding.sixtosix.metrics;
+
+import jakarta.enterprise.context.RequestScoped;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Zählt die SQL-Statements, die Hibernate innerhalb eines HTTP-Requests absetzt.
+ * Bei aktivierter Query-Diagnose zusätzlich pro Statement-Form (SQL ohne Länge der IN-Listen),
+ * um wiederholte Abfragen (N+1) zu erkennen.
+ */
+@RequestScoped
+public class RequestStatementCounter {
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statements;
+
+    private Map<String, Integer> shapes;
+
+    void increment() {
+        statements++;
+    }
+
+    void record(String sql) {
+        statements++;
+        if (shapes == null) {
+            shapes = new HashMap<>();
+        }
+        shapes.merge(shape(sql), 1, Integer::sum);
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Statement-Formen mit Anzahl Ausführungen (leer, wenn die Diagnose deaktiviert ist)
+     */
+    public Map<String, Integer> getShapes() {
+        return shapes == null ? Map.of() : shapes;
+    }
+
+    static String shape(String sql) {
+        String normalized = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        return IN_LIST.matcher(normalized).replaceAll("(?...)");
+    }
+}
@@ -0,0 +1,52 @@
+package at.htlleonding.sixtosix.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Zählt jedes von Hibernate vorbereitete SQL-Statement (gesamt und pro Request).
+ * Statements außerhalb eines Requests (z.B. Vitalwert-Ingest, Scheduler) zählen nur gesamt.
+ * Bei aktivierter Query-Diagnose wird pro Request auch die Statement-Form festgehalten.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class StatementCountingInspector implements StatementInspector {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RequestStatementCounter requestCounter;
+
+    @ConfigProperty(name = "sixtosix.query-diagnostics.enabled", defaultValue = "false")
+    boolean diagnosticsEnabled;
+
+    private Counter statements;
+
+    @PostConstruct
+    void init() {
+        statements = Counter.builder("sixtosix.hibernate.statements")
+                .description("Von Hibernate abgesetzte SQL-Statements")
+                .register(registry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements.increment();
+        if (Arc.container().requestContext().isActive()) {
+            if (diagnosticsEnabled) {
+                requestCounter.record(sql);
+            } else {
+                requestCounter.increment();
+            }
+        }
+        return sql;
+    }
+}
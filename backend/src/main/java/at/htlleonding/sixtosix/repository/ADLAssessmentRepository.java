@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.ADLAssessment;
 import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.List;
@@ -11,6 +12,7 @@ import java.util.List;
  * Handles CRUD and queries for ADL Assessments.
  */
 @ApplicationScoped
+@Measured
 public class ADLAssessmentRepository implements PanacheRepository<ADLAssessment> {
 
     /**
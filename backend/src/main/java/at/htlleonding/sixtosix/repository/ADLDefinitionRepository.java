@@ -1,6 +1,7 @@
 package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.ADLDefinition;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.Optional;
@@ -10,6 +11,7 @@ import java.util.Optional;
  * Handles CRUD and queries for ADL Definitions.
  */
 @ApplicationScoped
+@Measured
 public class ADLDefinitionRepository implements PanacheRepository<ADLDefinition> {
 
     /**
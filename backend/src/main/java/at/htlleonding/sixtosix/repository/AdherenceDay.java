@@ -0,0 +1,19 @@
+package at.htlleonding.sixtosix.repository;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDate;
+
+/**
+ * Projektion eines AdherenceRollup-Tages für Auswertungen.
+ * Lädt nur die Zähler, ohne Patient-Referenz und Persistence-Context.
+ * Für Reflection registriert, da Hibernate den Konstruktor auch im Native Image aufruft.
+ */
+@RegisterForReflection
+public record AdherenceDay(
+    LocalDate planDate,
+    int totalTasks,
+    int confirmedTasks,
+    int[] delayHistogram,
+    boolean closed
+) {
+}
@@ -0,0 +1,97 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.AdherenceRollup;
+import at.htlleonding.sixtosix.entity.DailyPlan;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for AdherenceRollup Entity
+ * Handles incremental maintenance and range queries of the daily adherence rollups.
+ *
+ * Task counts are taken from the plan's counters (DailyPlan.totalTasks/completedTasks), which
+ * were just updated in the same transaction and keep the plan row locked until commit; the
+ * rollup row of a plan is therefore never written by two transactions at the same time.
+ */
+@ApplicationScoped
+@Measured
+public class AdherenceRollupRepository implements PanacheRepository<AdherenceRollup> {
+
+    /**
+     * Übernimmt die Zähler des Plans (legt den Tag bei Bedarf mit leerem Histogramm an).
+     */
+    private static final String UPSERT_COUNTS_SQL = """
+            INSERT INTO adherence_rollup (tenant_id, patient_id, plan_date, total_tasks, confirmed_tasks,
+                                          delay_histogram, closed)
+            VALUES (:tenantId, :patientId, :planDate, :totalTasks, :confirmedTasks,
+                    array_fill(0, ARRAY[:buckets]), false)
+            ON CONFLICT ON CONSTRAINT uk_adherence_rollup_day DO UPDATE SET
+                total_tasks = EXCLUDED.total_tasks,
+                confirmed_tasks = EXCLUDED.confirmed_tasks
+            """;
+
+    /**
+     * Übernimmt die Zähler des Plans und zählt die Bestätigung in ihrem Histogramm-Fach (1-basiert).
+     */
+    private static final String UPSERT_CONFIRMATION_SQL = """
+            INSERT INTO adherence_rollup (tenant_id, patient_id, plan_date, total_tasks, confirmed_tasks,
+                                          delay_histogram, closed)
+            VALUES (:tenantId, :patientId, :planDate, :totalTasks, :confirmedTasks,
+                    ARRAY(SELECT CASE WHEN i = :bucket THEN 1 ELSE 0 END FROM generate_series(1, :buckets) i ORDER BY i),
+                    false)
+            ON CONFLICT ON CONSTRAINT uk_adherence_rollup_day DO UPDATE SET
+                total_tasks = EXCLUDED.total_tasks,
+                confirmed_tasks = EXCLUDED.confirmed_tasks,
+                delay_histogram[:bucket] = adherence_rollup.delay_histogram[:bucket] + 1
+            """;
+
+    /**
+     * Find the rollup days of the given patients within the date range (oldest first)
+     */
+    public List<AdherenceDay> findByPatientsAndRange(Collection<Long> patientIds, LocalDate from, LocalDate to) {
+        if (patientIds.isEmpty()) {
+            return List.of();
+        }
+        return find("patient.id in ?1 and planDate between ?2 and ?3 order by planDate", patientIds, from, to)
+                .project(AdherenceDay.class)
+                .list();
+    }
+
+    /**
+     * Take over the task counts of a plan, e.g. after a task was added (current tenant)
+     */
+    public void upsertCounts(DailyPlan dailyPlan) {
+        getEntityManager().createNativeQuery(UPSERT_COUNTS_SQL)
+                .setParameter("tenantId", tenantId())
+                .setParameter("patientId", dailyPlan.getPatient().getId())
+                .setParameter("planDate", dailyPlan.getPlanDate())
+                .setParameter("totalTasks", dailyPlan.getTotalTasks())
+                .setParameter("confirmedTasks", dailyPlan.getCompletedTasks())
+                .setParameter("buckets", AdherenceRollup.DELAY_BUCKETS)
+                .executeUpdate();
+    }
+
+    /**
+     * Take over the task counts of a plan and count one confirmation in the given delay bucket (0-based)
+     */
+    public void upsertConfirmation(DailyPlan dailyPlan, int delayBucket) {
+        getEntityManager().createNativeQuery(UPSERT_CONFIRMATION_SQL)
+                .setParameter("tenantId", tenantId())
+                .setParameter("patientId", dailyPlan.getPatient().getId())
+                .setParameter("planDate", dailyPlan.getPlanDate())
+                .setParameter("totalTasks", dailyPlan.getTotalTasks())
+                .setParameter("confirmedTasks", dailyPlan.getCompletedTasks())
+                .setParameter("bucket", delayBucket + 1)
+                .setParameter("buckets", AdherenceRollup.DELAY_BUCKETS)
+                .executeUpdate();
+    }
+
+    private String tenantId() {
+        return getEntityManager().unwrap(Session.class).getTenantIdentifier();
+    }
+}
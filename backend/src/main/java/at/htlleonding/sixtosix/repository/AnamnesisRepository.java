@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.Anamnesis;
 import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.Optional;
@@ -11,6 +12,7 @@ import java.util.Optional;
  * Handles CRUD and queries for Anamnesis.
  */
 @ApplicationScoped
+@Measured
 public class AnamnesisRepository implements PanacheRepository<Anamnesis> {
 
     /**
@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.Anamnesis;
 import at.htlleonding.sixtosix.entity.AnamnesisVersion;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.List;
@@ -12,6 +13,7 @@ import java.util.Optional;
  * Handles CRUD and versioning queries for Anamnesis.
  */
 @ApplicationScoped
+@Measured
 public class AnamnesisVersionRepository implements PanacheRepository<AnamnesisVersion> {
 
     /**
@@ -0,0 +1,63 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.ADLDefinition;
+import at.htlleonding.sixtosix.entity.AssessmentStatusRun;
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.SkillDefinition;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for AssessmentStatusRun Entity
+ * Handles maintenance and queries of the run-length encoded ADL/skill status history.
+ */
+@ApplicationScoped
+@Measured
+public class AssessmentStatusRunRepository implements PanacheRepository<AssessmentStatusRun> {
+
+    /**
+     * Find and lock the current (open) run of an ADL for a patient
+     */
+    public Optional<AssessmentStatusRun> lockCurrentAdlRun(Patient patient, ADLDefinition definition) {
+        return find("patient = ?1 and adlDefinition = ?2 and endedAt is null", patient, definition)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .firstResultOptional();
+    }
+
+    /**
+     * Find and lock the current (open) run of a skill for a patient
+     */
+    public Optional<AssessmentStatusRun> lockCurrentSkillRun(Patient patient, SkillDefinition definition) {
+        return find("patient = ?1 and skillDefinition = ?2 and endedAt is null", patient, definition)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .firstResultOptional();
+    }
+
+    /**
+     * Find the ADL runs of a patient, optionally for one ADL (ordered by ADL and time)
+     */
+    public List<AssessmentStatusRun> findAdlTrend(Patient patient, Long adlDefinitionId) {
+        if (adlDefinitionId == null) {
+            return find("SELECT r FROM AssessmentStatusRun r JOIN FETCH r.adlDefinition d " +
+                    "WHERE r.patient = ?1 ORDER BY d.name, r.startedAt", patient).list();
+        }
+        return find("SELECT r FROM AssessmentStatusRun r JOIN FETCH r.adlDefinition d " +
+                "WHERE r.patient = ?1 AND d.id = ?2 ORDER BY r.startedAt", patient, adlDefinitionId).list();
+    }
+
+    /**
+     * Find the skill runs of a patient, optionally for one skill (ordered by skill and time)
+     */
+    public List<AssessmentStatusRun> findSkillTrend(Patient patient, Long skillDefinitionId) {
+        if (skillDefinitionId == null) {
+            return find("SELECT r FROM AssessmentStatusRun r JOIN FETCH r.skillDefinition d " +
+                    "WHERE r.patient = ?1 ORDER BY d.name, r.startedAt", patient).list();
+        }
+        return find("SELECT r FROM AssessmentStatusRun r JOIN FETCH r.skillDefinition d " +
+                "WHERE r.patient = ?1 AND d.id = ?2 ORDER BY r.startedAt", patient, skillDefinitionId).list();
+    }
+}
@@ -0,0 +1,27 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.AuditAction;
+import io.quarkus.hibernate.orm.panache.common.ProjectedFieldName;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDateTime;
+
+/**
+ * Projektion eines AuditLog-Eintrags für die Ketten-Verifikation.
+ * Lädt nur die gehashten Spalten, ohne Entity-Graph und Persistence-Context
+ * (auch für noch unverkettete Einträge, dann sind chainSeq, previousHash und hash null).
+ * Für Reflection registriert, da Hibernate den Konstruktor auch im Native Image aufruft.
+ */
+@RegisterForReflection
+public record AuditChainEntry(
+    Long id,
+    Long chainSeq,
+    String entity,
+    Long entityId,
+    AuditAction action,
+    @ProjectedFieldName("performedBy.id") Long performedById,
+    LocalDateTime performedAt,
+    String details,
+    String previousHash,
+    String hash
+) {
+}
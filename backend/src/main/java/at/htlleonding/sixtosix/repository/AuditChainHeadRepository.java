@@ -0,0 +1,53 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.AuditChainHead;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Session;
+import java.util.Optional;
+
+/**
+ * Repository for AuditChainHead Entity
+ * Handles locking and reading of the audit hash chain head (one per tenant).
+ */
+@ApplicationScoped
+@Measured
+public class AuditChainHeadRepository implements PanacheRepository<AuditChainHead> {
+
+    /**
+     * Legt den Kettenkopf der Organisation an; parallele erste Einträge erzeugen nur eine Zeile.
+     */
+    private static final String CREATE_HEAD_SQL = """
+            INSERT INTO audit_chain_head (tenant_id, head_hash, entry_count) VALUES (:tenantId, :genesisHash, 0)
+            ON CONFLICT ON CONSTRAINT uk_audit_chain_head_tenant DO NOTHING
+            """;
+
+    /**
+     * Lock the chain head of the current tenant (SELECT ... FOR UPDATE) until the transaction ends.
+     * Creates the head on first use.
+     */
+    public AuditChainHead lockHead(String genesisHash) {
+        Optional<AuditChainHead> head = find("from AuditChainHead")
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .firstResultOptional();
+        if (head.isPresent()) {
+            return head.get();
+        }
+        getEntityManager().createNativeQuery(CREATE_HEAD_SQL)
+                .setParameter("tenantId", getEntityManager().unwrap(Session.class).getTenantIdentifier())
+                .setParameter("genesisHash", genesisHash)
+                .executeUpdate();
+        return find("from AuditChainHead")
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .singleResult();
+    }
+
+    /**
+     * Read the chain head of the current tenant without locking
+     */
+    public Optional<AuditChainHead> findHead() {
+        return find("from AuditChainHead").firstResultOptional();
+    }
+}
@@ -0,0 +1,12 @@
+package at.htlleonding.sixtosix.repository;
+
+/**
+ * Verkettung eines Audit-Eintrags: Position, Hash des Vorgängers und eigener Hash.
+ */
+public record AuditChainLink(
+    Long auditLogId,
+    long chainSeq,
+    String previousHash,
+    String hash
+) {
+}
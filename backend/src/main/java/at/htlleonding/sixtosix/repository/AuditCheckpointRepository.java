@@ -0,0 +1,30 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.AuditCheckpoint;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.List;
+
+/**
+ * Repository for AuditCheckpoint Entity
+ * Handles queries for signed audit chain checkpoints.
+ */
+@ApplicationScoped
+@Measured
+public class AuditCheckpointRepository implements PanacheRepository<AuditCheckpoint> {
+
+    /**
+     * Find all checkpoints in chain order
+     */
+    public List<AuditCheckpoint> findAllOrdered() {
+        return find("order by entryCount asc").list();
+    }
+
+    /**
+     * Find checkpoints after a given chain position (entry count) in chain order
+     */
+    public List<AuditCheckpoint> findAfter(long entryCount) {
+        return find("entryCount > ?1 order by entryCount asc", entryCount).list();
+    }
+}
@@ -3,8 +3,12 @@ package at.htlleonding.sixtosix.repository;
 import at.htlleonding.sixtosix.entity.AuditLog;
 import at.htlleonding.sixtosix.entity.AuditAction;
 import at.htlleonding.sixtosix.entity.UserAccount;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Page;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
+import java.sql.PreparedStatement;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -13,8 +17,18 @@ import java.util.List;
  * Handles queries for Audit Logs (immutable records).
  */
 @ApplicationScoped
+@Measured
 public class AuditLogRepository implements PanacheRepository<AuditLog> {
 
+    /**
+     * Verkettet einen Eintrag; AuditLog ist @Immutable, daher nativ.
+     * hash IS NULL schützt bereits verkettete Einträge.
+     */
+    private static final String LINK_SQL = """
+            UPDATE audit_log SET chain_seq = ?, previous_hash = ?, hash = ?
+            WHERE id = ? AND hash IS NULL
+            """;
+
     /**
      * Find all audit logs for an entity
      */
@@ -50,5 +64,53 @@ public class AuditLogRepository implements PanacheRepository<AuditLog> {
         return find("entity = ?1 and entityId = ?2 and performedAt between ?3 and ?4 order by performedAt desc",
                 entity, entityId, startDate, endDate).list();
     }
-}
 
+    /**
+     * Find a page of the hash chain in chain order (chainSeq ascending).
+     * Returns entries with afterSeq < chainSeq <= upToSeq as lightweight projections.
+     */
+    public List<AuditChainEntry> findChainPage(long afterSeq, long upToSeq, int pageSize) {
+        return find("chainSeq > ?1 and chainSeq <= ?2 order by chainSeq asc", afterSeq, upToSeq)
+                .project(AuditChainEntry.class)
+                .page(Page.ofSize(pageSize))
+                .list();
+    }
+
+    /**
+     * Find the oldest entries not yet linked into the chain (id ascending, committed entries only)
+     */
+    public List<AuditChainEntry> findUnlinked(int limit) {
+        return find("hash is null order by id asc")
+                .project(AuditChainEntry.class)
+                .page(Page.ofSize(limit))
+                .list();
+    }
+
+    /**
+     * Count the entries not yet linked into the chain
+     */
+    public long countUnlinked() {
+        return count("hash is null");
+    }
+
+    /**
+     * Link entries into the chain as a single JDBC batch
+     */
+    public void link(List<AuditChainLink> links) {
+        if (links.isEmpty()) {
+            return;
+        }
+        getEntityManager().unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(LINK_SQL)) {
+                for (AuditChainLink link : links) {
+                    statement.setLong(1, link.chainSeq());
+                    statement.setString(2, link.previousHash());
+                    statement.setString(3, link.hash());
+                    statement.setLong(4, link.auditLogId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
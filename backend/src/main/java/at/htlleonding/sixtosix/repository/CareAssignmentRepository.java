@@ -3,6 +3,7 @@ package at.htlleonding.sixtosix.repository;
 import at.htlleonding.sixtosix.entity.CareAssignment;
 import at.htlleonding.sixtosix.entity.Patient;
 import at.htlleonding.sixtosix.entity.UserAccount;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.Optional;
  * Handles CRUD and complex queries for Care Assignments.
  */
 @ApplicationScoped
+@Measured
 public class CareAssignmentRepository implements PanacheRepository<CareAssignment> {
 
     /**
@@ -30,10 +32,37 @@ public class CareAssignmentRepository implements PanacheRepository<CareAssignmen
     }
 
     /**
-     * Find all active assignments for a pfleger
+     * Find all assignments of patients that are not soft-deleted.
+     * Deleted patients are hidden by @SQLRestriction, the patient proxy of their
+     * assignments could not be initialized anymore.
+     */
+    public List<CareAssignment> findAllForActivePatients() {
+        return find("patient.deleted = false").list();
+    }
+
+    /**
+     * Find an assignment unless its patient is soft-deleted
+     */
+    public CareAssignment findByIdForActivePatient(Long id) {
+        return find("id = ?1 and patient.deleted = false", id).firstResult();
+    }
+
+    /**
+     * Find all active assignments for a pfleger (patients not soft-deleted)
      */
     public List<CareAssignment> findActiveByPfleger(UserAccount pfleger) {
-        return find("pfleger = ?1 and active = true", pfleger).list();
+        return find("pfleger = ?1 and active = true and patient.deleted = false", pfleger).list();
+    }
+
+    /**
+     * Ids of the active patients assigned to a pfleger (caseload), without loading assignments
+     */
+    public List<Long> findActivePatientIdsByPfleger(UserAccount pfleger) {
+        return getEntityManager()
+                .createQuery("select a.patient.id from CareAssignment a " +
+                        "where a.pfleger = ?1 and a.active = true and a.patient.deleted = false", Long.class)
+                .setParameter(1, pfleger)
+                .getResultList();
     }
 
     /**
@@ -2,8 +2,10 @@ package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.DailyPlan;
 import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -13,8 +15,21 @@ import java.util.Optional;
  * Handles CRUD and queries for Daily Plans.
  */
 @ApplicationScoped
+@Measured
 public class DailyPlanRepository implements PanacheRepository<DailyPlan> {
 
+    /**
+     * Zählt Fortschritt relativ zum aktuellen Stand in der Zeile fort (keine verlorenen Updates
+     * bei gleichzeitigen Bestätigungen); plan_date beschränkt das Update auf die Monatspartition.
+     * Erhöht die Version: Zähler und Tasks gehören zum Stand des Plans.
+     */
+    private static final String ADJUST_TASK_COUNTERS_SQL = """
+            UPDATE daily_plan
+            SET total_tasks = total_tasks + :total, completed_tasks = completed_tasks + :completed,
+                version = version + 1
+            WHERE tenant_id = :tenantId AND id = :id AND plan_date = :planDate
+            """;
+
     /**
      * Find plan for a specific date
      */
@@ -30,7 +45,8 @@ public class DailyPlanRepository implements PanacheRepository<DailyPlan> {
     }
 
     /**
-     * Find plans within date range
+     * Find plans within date range.
+     * The plan_date range prunes the month partitions, archived months are read the same way.
      */
     public List<DailyPlan> findByPatientAndDateRange(Patient patient, LocalDate startDate, LocalDate endDate) {
         return find("patient = ?1 and planDate between ?2 and ?3 order by planDate desc",
@@ -43,5 +59,22 @@ public class DailyPlanRepository implements PanacheRepository<DailyPlan> {
     public Optional<DailyPlan> findTodaysPlan(Patient patient) {
         return findByPatientAndDate(patient, LocalDate.now());
     }
-}
 
+    /**
+     * Atomically adjust the task counters of a plan in the database, bump its version
+     * and refresh the entity, so later changes in the same transaction are checked against the
+     * new version. The row stays locked until commit, so concurrent confirmations of one plan serialize here.
+     */
+    public void adjustTaskCounters(DailyPlan dailyPlan, int totalDelta, int completedDelta) {
+        // refresh() would discard pending changes
+        getEntityManager().flush();
+        getEntityManager().createNativeQuery(ADJUST_TASK_COUNTERS_SQL)
+                .setParameter("total", totalDelta)
+                .setParameter("completed", completedDelta)
+                .setParameter("tenantId", getEntityManager().unwrap(Session.class).getTenantIdentifier())
+                .setParameter("id", dailyPlan.getId())
+                .setParameter("planDate", dailyPlan.getPlanDate())
+                .executeUpdate();
+        getEntityManager().refresh(dailyPlan);
+    }
+}
@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.DailyTask;
 import at.htlleonding.sixtosix.entity.DailyPlan;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.List;
@@ -9,43 +10,32 @@ import java.util.List;
 /**
  * Repository for DailyTask Entity
  * Handles CRUD and queries for Daily Tasks.
+ *
+ * daily_task is partitioned by plan month; every query also filters on the plan date
+ * so PostgreSQL only reads the partition of the plan's month.
  */
 @ApplicationScoped
+@Measured
 public class DailyTaskRepository implements PanacheRepository<DailyTask> {
 
     /**
      * Find all tasks for a daily plan
      */
     public List<DailyTask> findByDailyPlan(DailyPlan dailyPlan) {
-        return find("dailyPlan = ?1 order by id", dailyPlan).list();
+        return find("dailyPlan = ?1 and planDate = ?2 order by id", dailyPlan, dailyPlan.getPlanDate()).list();
     }
 
     /**
      * Find completed tasks
      */
     public List<DailyTask> findCompletedByDailyPlan(DailyPlan dailyPlan) {
-        return find("dailyPlan = ?1 and completed = true", dailyPlan).list();
+        return find("dailyPlan = ?1 and planDate = ?2 and completed = true", dailyPlan, dailyPlan.getPlanDate()).list();
     }
 
     /**
      * Find pending tasks
      */
     public List<DailyTask> findPendingByDailyPlan(DailyPlan dailyPlan) {
-        return find("dailyPlan = ?1 and completed = false", dailyPlan).list();
-    }
-
-    /**
-     * Count completed tasks
-     */
-    public long countCompleted(DailyPlan dailyPlan) {
-        return find("dailyPlan = ?1 and completed = true", dailyPlan).count();
-    }
-
-    /**
-     * Count total tasks
-     */
-    public long countTotal(DailyPlan dailyPlan) {
-        return find("dailyPlan = ?1", dailyPlan).count();
+        return find("dailyPlan = ?1 and planDate = ?2 and completed = false", dailyPlan, dailyPlan.getPlanDate()).list();
     }
 }
-
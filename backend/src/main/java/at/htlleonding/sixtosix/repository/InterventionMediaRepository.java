@@ -0,0 +1,36 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.Intervention;
+import at.htlleonding.sixtosix.entity.InterventionMedia;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.List;
+
+/**
+ * Repository for InterventionMedia Entity
+ * Handles the graphical instructions attached to interventions.
+ */
+@ApplicationScoped
+@Measured
+public class InterventionMediaRepository implements PanacheRepository<InterventionMedia> {
+
+    /**
+     * Find the media of an intervention in step order, with their blobs (one query)
+     */
+    public List<InterventionMedia> findByIntervention(Intervention intervention) {
+        return find("from InterventionMedia m join fetch m.blob where m.intervention = ?1 order by m.position, m.id",
+                intervention).list();
+    }
+
+    /**
+     * Next free step position of an intervention
+     */
+    public int nextPosition(Intervention intervention) {
+        Integer max = getEntityManager()
+                .createQuery("select max(m.position) from InterventionMedia m where m.intervention = ?1", Integer.class)
+                .setParameter(1, intervention)
+                .getSingleResult();
+        return max == null ? 1 : max + 1;
+    }
+}
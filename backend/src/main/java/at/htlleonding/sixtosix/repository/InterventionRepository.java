@@ -2,8 +2,10 @@ package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.Intervention;
 import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
 import java.util.List;
 
 /**
@@ -11,8 +13,20 @@ import java.util.List;
  * Handles CRUD and queries for Interventions.
  */
 @ApplicationScoped
+@Measured
 public class InterventionRepository implements PanacheRepository<Intervention> {
 
+    /**
+     * Zählt Fortschritt relativ zum aktuellen Stand in der Zeile fort (keine verlorenen Updates
+     * bei gleichzeitigen Erledigungen). Erhöht die Version: Zähler und Tasks gehören zum ETag.
+     */
+    private static final String ADJUST_TASK_COUNTERS_SQL = """
+            UPDATE intervention
+            SET total_tasks = total_tasks + :total, completed_tasks = completed_tasks + :completed,
+                version = version + 1
+            WHERE tenant_id = :tenantId AND id = :id
+            """;
+
     /**
      * Find all interventions for a patient
      */
@@ -51,5 +65,21 @@ public class InterventionRepository implements PanacheRepository<Intervention> {
             persistAndFlush(intervention);
         }
     }
-}
 
+    /**
+     * Atomically adjust the task counters of an intervention in the database, bump its version
+     * and refresh the entity, so later changes in the same transaction are checked against the
+     * new version. The row stays locked until commit, so concurrent completions of one intervention serialize here.
+     */
+    public void adjustTaskCounters(Intervention intervention, int totalDelta, int completedDelta) {
+        // refresh() would discard pending changes
+        getEntityManager().flush();
+        getEntityManager().createNativeQuery(ADJUST_TASK_COUNTERS_SQL)
+                .setParameter("total", totalDelta)
+                .setParameter("completed", completedDelta)
+                .setParameter("tenantId", getEntityManager().unwrap(Session.class).getTenantIdentifier())
+                .setParameter("id", intervention.getId())
+                .executeUpdate();
+        getEntityManager().refresh(intervention);
+    }
+}
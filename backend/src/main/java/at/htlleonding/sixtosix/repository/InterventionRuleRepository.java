@@ -0,0 +1,43 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.InterventionRule;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.List;
+
+/**
+ * Repository for InterventionRule Entity
+ * Handles CRUD and queries for the intervention suggestion rules.
+ */
+@ApplicationScoped
+@Measured
+public class InterventionRuleRepository implements PanacheRepository<InterventionRule> {
+
+    /**
+     * Change stamp over all rules of the current tenant, active or not.
+     * New and deleted rules change count and highest id, every update bumps a version.
+     */
+    public record ChangeStamp(long count, long maxId, long versionSum) {
+    }
+
+    /**
+     * Find all active rules including their ADL/skill definitions
+     */
+    public List<InterventionRule> findAllActive() {
+        return find("SELECT r FROM InterventionRule r " +
+                "LEFT JOIN FETCH r.adlDefinition LEFT JOIN FETCH r.skillDefinition " +
+                "WHERE r.active = true").list();
+    }
+
+    /**
+     * Cheap aggregate used to detect rule changes made by other nodes
+     */
+    public ChangeStamp findChangeStamp() {
+        Object[] stamp = getEntityManager().createQuery("SELECT count(r), coalesce(max(r.id), 0), " +
+                "coalesce(sum(r.version), 0) FROM InterventionRule r", Object[].class)
+                .getSingleResult();
+        return new ChangeStamp(((Number) stamp[0]).longValue(), ((Number) stamp[1]).longValue(),
+                ((Number) stamp[2]).longValue());
+    }
+}
@@ -0,0 +1,43 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.InterventionSuggestion;
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.SuggestionStatus;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for InterventionSuggestion Entity
+ * Handles CRUD and queries for the intervention suggestions.
+ */
+@ApplicationScoped
+@Measured
+public class InterventionSuggestionRepository implements PanacheRepository<InterventionSuggestion> {
+
+    /**
+     * Find open suggestions for a patient (newest first)
+     */
+    public List<InterventionSuggestion> findOpenByPatient(Patient patient) {
+        return find("patient = ?1 and status = ?2 order by createdAt desc",
+                patient, SuggestionStatus.OPEN).list();
+    }
+
+    /**
+     * Find the suggestions of the given rules whose triggering condition is still active
+     */
+    public List<InterventionSuggestion> findConditionActive(Patient patient, Collection<Long> ruleIds) {
+        return find("patient = ?1 and rule.id in ?2 and conditionActive = true", patient, ruleIds).list();
+    }
+
+    /**
+     * End the running episode of a rule (e.g. when the rule is deactivated); open suggestions become obsolete.
+     * Bulk updates bypass @Version, so the version is incremented explicitly.
+     */
+    public void endConditionForRule(Long ruleId) {
+        update("status = ?1, version = version + 1 where rule.id = ?2 and status = ?3", SuggestionStatus.OBSOLETE, ruleId, SuggestionStatus.OPEN);
+        update("conditionActive = false, version = version + 1 where rule.id = ?1 and conditionActive = true", ruleId);
+    }
+}
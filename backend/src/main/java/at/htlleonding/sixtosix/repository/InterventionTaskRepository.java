@@ -2,6 +2,7 @@ package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.InterventionTask;
 import at.htlleonding.sixtosix.entity.Intervention;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.List;
@@ -11,6 +12,7 @@ import java.util.List;
  * Handles CRUD and queries for Intervention Tasks.
  */
 @ApplicationScoped
+@Measured
 public class InterventionTaskRepository implements PanacheRepository<InterventionTask> {
 
     /**
@@ -33,19 +35,4 @@ public class InterventionTaskRepository implements PanacheRepository<Interventio
     public List<InterventionTask> findPendingByIntervention(Intervention intervention) {
         return find("intervention = ?1 and completed = false", intervention).list();
     }
-
-    /**
-     * Count completed tasks
-     */
-    public long countCompleted(Intervention intervention) {
-        return find("intervention = ?1 and completed = true", intervention).count();
-    }
-
-    /**
-     * Count total tasks
-     */
-    public long countTotal(Intervention intervention) {
-        return find("intervention = ?1", intervention).count();
-    }
 }
-
@@ -0,0 +1,51 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.MediaBlob;
+import at.htlleonding.sixtosix.entity.MediaDerivativeStatus;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for MediaBlob Entity
+ * Handles the content-addressed blob rows of the media store (one row per tenant and SHA-256).
+ */
+@ApplicationScoped
+@Measured
+public class MediaBlobRepository implements PanacheRepository<MediaBlob> {
+
+    /**
+     * Legt die Zeile an, wenn der Inhalt in der Organisation noch nicht bekannt ist
+     * (gleichzeitige Uploads desselben Inhalts laufen nicht auf die Unique-Constraint).
+     */
+    private static final String INSERT_IF_ABSENT_SQL = """
+            INSERT INTO media_blob (tenant_id, sha256, content_type, size_bytes, derivative_status, created_at)
+            VALUES (:tenantId, :sha256, :contentType, :sizeBytes, :status, :createdAt)
+            ON CONFLICT ON CONSTRAINT uk_media_blob_tenant_sha256 DO NOTHING
+            """;
+
+    /**
+     * Find a blob of the current tenant by its content hash
+     */
+    public Optional<MediaBlob> findBySha256(String sha256) {
+        return find("sha256", sha256).firstResultOptional();
+    }
+
+    /**
+     * Find or create the blob row for stored content (deduplicated per tenant)
+     */
+    public MediaBlob findOrCreate(String sha256, String contentType, long sizeBytes) {
+        getEntityManager().createNativeQuery(INSERT_IF_ABSENT_SQL)
+                .setParameter("tenantId", getEntityManager().unwrap(Session.class).getTenantIdentifier())
+                .setParameter("sha256", sha256)
+                .setParameter("contentType", contentType)
+                .setParameter("sizeBytes", sizeBytes)
+                .setParameter("status", MediaDerivativeStatus.PENDING.name())
+                .setParameter("createdAt", LocalDateTime.now())
+                .executeUpdate();
+        return findBySha256(sha256).orElseThrow();
+    }
+}
@@ -0,0 +1,181 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.dto.DailyPlanDTO;
+import at.htlleonding.sixtosix.dto.DailyTaskDTO;
+import at.htlleonding.sixtosix.dto.MedicationDTO;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking read queries for the patient app hot paths (reactive PostgreSQL client).
+ * Runs side by side with the blocking Panache repositories on the same database;
+ * a connection is only borrowed while a single statement executes.
+ * Hibernate's tenant restriction does not apply here, every statement filters on tenant_id.
+ */
+@ApplicationScoped
+@Measured
+public class PatientAppReadRepository {
+
+    private static final String ACTIVE_PATIENT_SQL =
+            "SELECT 1 FROM patient WHERE tenant_id = $1 AND id = $2 AND deleted = false";
+
+    private static final String PLAN_WITH_TASKS_SQL = """
+            SELECT dp.id AS plan_id, dp.plan_date, dp.completed_tasks, dp.total_tasks,
+                   t.id AS task_id, t.title, t.reminder_level, t.completed, t.confirmed_at
+            FROM daily_plan dp
+            LEFT JOIN daily_task t ON t.daily_plan_id = dp.id AND t.plan_date = dp.plan_date
+            WHERE dp.tenant_id = $1 AND dp.patient_id = $2 AND dp.plan_date = $3
+            ORDER BY t.id
+            """;
+
+    private static final String TASKS_BY_PLAN_SQL = """
+            SELECT dp.id AS plan_id,
+                   t.id AS task_id, t.title, t.reminder_level, t.completed, t.confirmed_at
+            FROM daily_plan dp
+            LEFT JOIN daily_task t ON t.daily_plan_id = dp.id AND t.plan_date = dp.plan_date
+            WHERE dp.tenant_id = $1 AND dp.id = $2
+            ORDER BY t.id
+            """;
+
+    private static final String MEDICATIONS_BY_PATIENT_SQL = """
+            SELECT id, patient_id, name, dosage, intake_time, confirmable, created_at
+            FROM medication
+            WHERE tenant_id = $1 AND patient_id = $2
+            ORDER BY created_at DESC
+            """;
+
+    @Inject
+    Pool pool;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * Check whether a patient exists and is not soft-deleted (index-only scan on idx_patient_active)
+     */
+    public Uni<Boolean> isActivePatient(String tenantId, Long patientId) {
+        return query(ACTIVE_PATIENT_SQL, Tuple.of(tenantId, patientId))
+                .map(rows -> rows.size() > 0);
+    }
+
+    /**
+     * Find the plan of a patient for a date including its tasks (one statement)
+     */
+    public Uni<Optional<DailyPlanDTO>> findPlanWithTasks(String tenantId, Long patientId, LocalDate date) {
+        return query(PLAN_WITH_TASKS_SQL, Tuple.of(tenantId, patientId, date))
+                .map(rows -> {
+                    Long planId = null;
+                    LocalDate planDate = null;
+                    Integer completedTasks = null;
+                    Integer totalTasks = null;
+                    List<DailyTaskDTO> tasks = new ArrayList<>();
+                    for (Row row : rows) {
+                        planId = row.getLong("plan_id");
+                        planDate = row.getLocalDate("plan_date");
+                        completedTasks = row.getInteger("completed_tasks");
+                        totalTasks = row.getInteger("total_tasks");
+                        if (row.getLong("task_id") != null) {
+                            tasks.add(mapTask(planId, row));
+                        }
+                    }
+                    return planId == null
+                            ? Optional.<DailyPlanDTO>empty()
+                            : Optional.of(new DailyPlanDTO(planId, patientId, planDate, completedTasks, totalTasks, tasks));
+                });
+    }
+
+    /**
+     * Find the tasks of a plan; empty if the plan does not exist
+     */
+    public Uni<Optional<List<DailyTaskDTO>>> findTasksByPlan(String tenantId, Long planId) {
+        return query(TASKS_BY_PLAN_SQL, Tuple.of(tenantId, planId))
+                .map(rows -> {
+                    if (rows.size() == 0) {
+                        return Optional.<List<DailyTaskDTO>>empty();
+                    }
+                    List<DailyTaskDTO> tasks = new ArrayList<>(rows.size());
+                    for (Row row : rows) {
+                        if (row.getLong("task_id") != null) {
+                            tasks.add(mapTask(planId, row));
+                        }
+                    }
+                    return Optional.of(tasks);
+                });
+    }
+
+    /**
+     * Find all medications for a patient
+     */
+    public Uni<List<MedicationDTO>> findMedicationsByPatient(String tenantId, Long patientId) {
+        return query(MEDICATIONS_BY_PATIENT_SQL, Tuple.of(tenantId, patientId))
+                .map(rows -> {
+                    List<MedicationDTO> medications = new ArrayList<>(rows.size());
+                    for (Row row : rows) {
+                        medications.add(new MedicationDTO(
+                                row.getLong("id"),
+                                row.getLong("patient_id"),
+                                row.getString("name"),
+                                row.getString("dosage"),
+                                row.getString("intake_time"),
+                                row.getBoolean("confirmable"),
+                                row.getLocalDateTime("created_at")
+                        ));
+                    }
+                    return medications;
+                });
+    }
+
+    /**
+     * Statements currently in flight. Each holds one connection while it executes;
+     * beyond the pool size they wait for a connection instead of a thread.
+     */
+    public int statementsInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Highest number of statements in flight since the last reset
+     */
+    public int maxStatementsInFlight() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * Reset the peak to the current value
+     */
+    public void resetMaxStatementsInFlight() {
+        maxInFlight.set(inFlight.get());
+    }
+
+    private Uni<RowSet<Row>> query(String sql, Tuple parameters) {
+        return Uni.createFrom().deferred(() -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return pool.preparedQuery(sql)
+                    .execute(parameters)
+                    .onTermination().invoke(inFlight::decrementAndGet);
+        });
+    }
+
+    private static DailyTaskDTO mapTask(Long planId, Row row) {
+        return new DailyTaskDTO(
+                row.getLong("task_id"),
+                planId,
+                row.getString("title"),
+                row.getString("reminder_level"),
+                row.getBoolean("completed"),
+                row.getLocalDateTime("confirmed_at")
+        );
+    }
+}
@@ -0,0 +1,132 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.PatientPurge;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Session;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for PatientPurge Entity
+ * Handles purge orders and the set-based batch deletes of a patient's data.
+ *
+ * The steps run in dependency order (children before parents), so no foreign key is
+ * violated and no cascade is needed. Each step deletes at most {@code limit} rows per call
+ * with a single DELETE ... WHERE key IN (SELECT ... LIMIT n); a step is done once a call
+ * deletes fewer rows than the limit. Native statements bypass Hibernate's tenant filter,
+ * every statement filters on tenant_id.
+ */
+@ApplicationScoped
+@Measured
+public class PatientPurgeRepository implements PanacheRepository<PatientPurge> {
+
+    /**
+     * Table, key column(s) and the keys of one patient's rows in that table
+     */
+    private record PurgeStep(String table, String key, String keysSql) {
+    }
+
+    // Reihenfolge: abhängige Tabellen vor den Tabellen, auf die sie verweisen; patient zuletzt
+    private static final List<PurgeStep> STEPS = List.of(
+            new PurgeStep("daily_task", "(id, plan_date)", """
+                    SELECT t.id, t.plan_date FROM daily_task t
+                    JOIN daily_plan p ON p.id = t.daily_plan_id AND p.plan_date = t.plan_date
+                    WHERE p.tenant_id = :tenantId AND p.patient_id = :patientId"""),
+            new PurgeStep("daily_plan", "(id, plan_date)",
+                    "SELECT id, plan_date FROM daily_plan WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("intervention_suggestion", "id",
+                    "SELECT id FROM intervention_suggestion WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("intervention_task", "id", """
+                    SELECT t.id FROM intervention_task t
+                    JOIN intervention i ON i.id = t.intervention_id
+                    WHERE i.tenant_id = :tenantId AND i.patient_id = :patientId"""),
+            new PurgeStep("intervention_media", "id", """
+                    SELECT m.id FROM intervention_media m
+                    JOIN intervention i ON i.id = m.intervention_id
+                    WHERE i.tenant_id = :tenantId AND i.patient_id = :patientId"""),
+            new PurgeStep("intervention", "id",
+                    "SELECT id FROM intervention WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("vital_threshold", "id",
+                    "SELECT id FROM vital_threshold WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("care_need", "id",
+                    "SELECT id FROM care_need WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("adherence_rollup", "id",
+                    "SELECT id FROM adherence_rollup WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("vital_rollup", "id",
+                    "SELECT id FROM vital_rollup WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("vital_measurement", "id",
+                    "SELECT id FROM vital_measurement WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("medication", "id",
+                    "SELECT id FROM medication WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("resource", "id",
+                    "SELECT id FROM resource WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("adl_assessment", "id",
+                    "SELECT id FROM adl_assessment WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("skill_assessment", "id",
+                    "SELECT id FROM skill_assessment WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("assessment_status_run", "id",
+                    "SELECT id FROM assessment_status_run WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("anamnesis_version", "id", """
+                    SELECT v.id FROM anamnesis_version v
+                    JOIN anamnesis a ON a.id = v.anamnesis_id
+                    WHERE a.tenant_id = :tenantId AND a.patient_id = :patientId"""),
+            new PurgeStep("anamnesis", "id",
+                    "SELECT id FROM anamnesis WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("care_assignment", "id",
+                    "SELECT id FROM care_assignment WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("sync_change", "id",
+                    "SELECT id FROM sync_change WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("sync_mutation", "id",
+                    "SELECT id FROM sync_mutation WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("sync_sequence", "patient_id",
+                    "SELECT patient_id FROM sync_sequence WHERE tenant_id = :tenantId AND patient_id = :patientId"),
+            new PurgeStep("patient", "id",
+                    "SELECT id FROM patient WHERE tenant_id = :tenantId AND id = :patientId AND deleted = true"));
+
+    /**
+     * Find the purge order of a patient
+     */
+    public Optional<PatientPurge> findByPatientId(Long patientId) {
+        return find("patientId", patientId).firstResultOptional();
+    }
+
+    /**
+     * Lock a purge order until the transaction ends (one batch at a time, also across instances)
+     */
+    public PatientPurge lockById(Long purgeId) {
+        return findById(purgeId, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /**
+     * Number of purge steps (tables)
+     */
+    public int stepCount() {
+        return STEPS.size();
+    }
+
+    /**
+     * Table purged by the given step
+     */
+    public String stepTable(int step) {
+        return STEPS.get(step).table();
+    }
+
+    /**
+     * Delete up to {@code limit} rows of the patient from the table of the given step.
+     *
+     * @return number of deleted rows; fewer than limit means the table holds no more rows of the patient
+     */
+    public int deleteBatch(int step, Long patientId, int limit) {
+        PurgeStep purgeStep = STEPS.get(step);
+        String sql = "DELETE FROM " + purgeStep.table() + " WHERE " + purgeStep.key()
+                + " IN (" + purgeStep.keysSql() + " LIMIT :limit)";
+        return getEntityManager().createNativeQuery(sql)
+                .setParameter("tenantId", getEntityManager().unwrap(Session.class).getTenantIdentifier())
+                .setParameter("patientId", patientId)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+}
@@ -1,8 +1,11 @@
 package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -10,20 +13,93 @@ import java.util.List;
  * Handles CRUD and complex queries for Patients.
  */
 @ApplicationScoped
+@Measured
 public class PatientRepository implements PanacheRepository<Patient> {
 
     /**
-     * Find all active patients (not deleted)
+     * Typeahead-Suche ab 3 Zeichen: Trigramm-Wortähnlichkeit, sortiert per KNN
+     * über den partiellen GiST-Index auf (tenant_id, patient.search_name) (siehe V28__patient_name_search.sql).
+     * Der Suchbegriff wird mit derselben Funktion fold_name gefaltet wie die Spalte.
+     * Native Abfragen werden nicht von Hibernate eingeschränkt, daher tenant_id explizit.
+     */
+    private static final String FUZZY_NAME_SEARCH_SQL = """
+            SELECT * FROM patient
+            WHERE tenant_id = :tenantId AND deleted = false
+              AND (fold_name(:term) <% search_name OR search_name LIKE fold_name(:contains) ESCAPE '!')
+            ORDER BY search_name <<-> fold_name(:term)
+            LIMIT :limit
+            """;
+
+    /**
+     * Präfixsuche für sehr kurze Begriffe (1-2 Zeichen), bei denen Trigramme nicht tragen:
+     * Vorname über search_name, Nachname über fold_name(lastname), beide mit text_pattern_ops-Index.
+     */
+    private static final String PREFIX_NAME_SEARCH_SQL = """
+            SELECT * FROM patient
+            WHERE tenant_id = :tenantId AND deleted = false
+              AND (search_name LIKE fold_name(:prefix) ESCAPE '!' OR fold_name(lastname) LIKE fold_name(:prefix) ESCAPE '!')
+            ORDER BY lastname, firstname
+            LIMIT :limit
+            """;
+
+    private static final String DELETED_PATIENTS_SQL = """
+            SELECT * FROM patient
+            WHERE tenant_id = :tenantId AND deleted = true
+            ORDER BY lastname, firstname
+            """;
+
+    private static final String DELETED_PATIENT_EXISTS_SQL =
+            "SELECT 1 FROM patient WHERE tenant_id = :tenantId AND id = :id AND deleted = true";
+
+    /**
+     * Find all active patients (soft-deleted patients are excluded by the entity's @SQLRestriction)
      */
     public List<Patient> findAllActive() {
-        return find("deleted", false).list();
+        return findAll().list();
     }
 
     /**
-     * Find all deleted patients
+     * Find all deleted patients.
+     * The @SQLRestriction hides them from HQL, so this is the one native query that reads them.
      */
+    @SuppressWarnings("unchecked")
     public List<Patient> findAllDeleted() {
-        return find("deleted", true).list();
+        return getEntityManager().createNativeQuery(DELETED_PATIENTS_SQL, Patient.class)
+                .setParameter("tenantId", getEntityManager().unwrap(Session.class).getTenantIdentifier())
+                .getResultList();
+    }
+
+    /**
+     * Cheap existence check for validation: index-only lookup on idx_patient_active,
+     * the patient row is neither read nor hydrated.
+     */
+    public boolean existsActive(Long patientId) {
+        return !getEntityManager()
+                .createQuery("select 1 from Patient p where p.id = ?1", Integer.class)
+                .setParameter(1, patientId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Whether a soft-deleted patient with this id exists (native, the @SQLRestriction hides it from HQL)
+     */
+    public boolean existsDeleted(Long patientId) {
+        return !getEntityManager().createNativeQuery(DELETED_PATIENT_EXISTS_SQL)
+                .setParameter("tenantId", getEntityManager().unwrap(Session.class).getTenantIdentifier())
+                .setParameter("id", patientId)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Like findById for active patients, but returns an uninitialized reference after
+     * {@link #existsActive}. Enough for query parameters, new associations and getId();
+     * reading other fields loads the row. Returns null if the patient does not exist or is deleted.
+     */
+    public Patient findReferenceById(Long patientId) {
+        return existsActive(patientId) ? getEntityManager().getReference(Patient.class, patientId) : null;
     }
 
     /**
@@ -38,10 +114,54 @@ public class PatientRepository implements PanacheRepository<Patient> {
     }
 
     /**
-     * Find patient by name
+     * Find active patient by name
      */
     public List<Patient> findByName(String firstname, String lastname) {
         return find("firstname = ?1 and lastname = ?2", firstname, lastname).list();
     }
-}
 
+    /**
+     * Find the ids of active patients among the given ids
+     */
+    public List<Long> findActiveIds(Collection<Long> patientIds) {
+        return getEntityManager()
+                .createQuery("select p.id from Patient p where p.id in ?1", Long.class)
+                .setParameter(1, patientIds)
+                .getResultList();
+    }
+
+    /**
+     * Typeahead search on firstname/lastname of active patients (prefix and typo tolerant).
+     * Term and column are folded by the same database function fold_name (umlauts spelled out,
+     * other accents removed), so "Müller", "Mueller" and "Muler" find the same patient.
+     * Terms shorter than 3 characters only match the start of the first or last name.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Patient> searchByName(String term, int limit) {
+        String trimmed = term.strip();
+        if (trimmed.isEmpty()) {
+            return List.of();
+        }
+
+        String tenantId = getEntityManager().unwrap(Session.class).getTenantIdentifier();
+        String escaped = escapeLike(trimmed);
+        if (trimmed.codePointCount(0, trimmed.length()) < 3) {
+            return getEntityManager().createNativeQuery(PREFIX_NAME_SEARCH_SQL, Patient.class)
+                    .setParameter("tenantId", tenantId)
+                    .setParameter("prefix", escaped + "%")
+                    .setParameter("limit", limit)
+                    .getResultList();
+        }
+
+        return getEntityManager().createNativeQuery(FUZZY_NAME_SEARCH_SQL, Patient.class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("term", trimmed)
+                .setParameter("contains", "%" + escaped + "%")
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -0,0 +1,110 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.SyncChange;
+import at.htlleonding.sixtosix.entity.SyncEntityType;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Page;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for SyncChange Entity
+ * Handles the per-patient change sequence and the delta sync feed.
+ */
+@ApplicationScoped
+@Measured
+public class SyncChangeRepository implements PanacheRepository<SyncChange> {
+
+    /**
+     * Zieht die nächste Nummer und sperrt den Zähler des Patienten bis zum Commit.
+     */
+    private static final String NEXT_SEQ_SQL = """
+            INSERT INTO sync_sequence (tenant_id, patient_id, last_seq) VALUES (:tenantId, :patientId, 1)
+            ON CONFLICT (patient_id) DO UPDATE SET last_seq = sync_sequence.last_seq + 1
+            RETURNING last_seq
+            """;
+
+    /**
+     * Sperrt den Zähler des Patienten bis zum Commit, ohne ihn zu erhöhen.
+     */
+    private static final String LOCK_SEQ_SQL = """
+            INSERT INTO sync_sequence (tenant_id, patient_id, last_seq) VALUES (:tenantId, :patientId, 0)
+            ON CONFLICT (patient_id) DO UPDATE SET last_seq = sync_sequence.last_seq
+            RETURNING last_seq
+            """;
+
+    private static final String UPSERT_CHANGE_SQL = """
+            INSERT INTO sync_change (tenant_id, patient_id, entity_type, entity_id, seq, deleted, changed_at)
+            VALUES (:tenantId, :patientId, :entityType, :entityId, :seq, :deleted, :changedAt)
+            ON CONFLICT ON CONSTRAINT uk_sync_change_entity DO UPDATE SET
+                seq = EXCLUDED.seq,
+                deleted = EXCLUDED.deleted,
+                changed_at = EXCLUDED.changed_at
+            """;
+
+    /**
+     * Allocate the next change number of a patient (row stays locked until commit)
+     */
+    public long nextSeq(Long patientId) {
+        return ((Number) getEntityManager().createNativeQuery(NEXT_SEQ_SQL)
+                .setParameter("tenantId", tenantId())
+                .setParameter("patientId", patientId)
+                .getSingleResult()).longValue();
+    }
+
+    /**
+     * Lock the change sequence of a patient and return its current value
+     */
+    public long lockSeq(Long patientId) {
+        return ((Number) getEntityManager().createNativeQuery(LOCK_SEQ_SQL)
+                .setParameter("tenantId", tenantId())
+                .setParameter("patientId", patientId)
+                .getSingleResult()).longValue();
+    }
+
+    /**
+     * Current change number of a patient (0 if nothing was recorded yet)
+     */
+    public long currentSeq(Long patientId) {
+        List<?> result = getEntityManager()
+                .createQuery("select s.lastSeq from SyncSequence s where s.patientId = ?1")
+                .setParameter(1, patientId)
+                .getResultList();
+        return result.isEmpty() ? 0L : ((Number) result.get(0)).longValue();
+    }
+
+    /**
+     * Record the latest change of one row (insert, update or tombstone)
+     */
+    public void upsertChange(Long patientId, SyncEntityType type, Long entityId, long seq, boolean deleted) {
+        getEntityManager().createNativeQuery(UPSERT_CHANGE_SQL)
+                .setParameter("tenantId", tenantId())
+                .setParameter("patientId", patientId)
+                .setParameter("entityType", type.name())
+                .setParameter("entityId", entityId)
+                .setParameter("seq", seq)
+                .setParameter("deleted", deleted)
+                .setParameter("changedAt", LocalDateTime.now())
+                .executeUpdate();
+    }
+
+    /**
+     * Find the changes of a patient after the given change number (ascending, limited)
+     */
+    public List<SyncChange> findSince(Patient patient, long since, int limit) {
+        return find("patient = ?1 and seq > ?2 order by seq", patient, since)
+                .page(Page.ofSize(limit))
+                .list();
+    }
+
+    /**
+     * Tenant of the current session; native statements have to set tenant_id themselves
+     */
+    private String tenantId() {
+        return getEntityManager().unwrap(Session.class).getTenantIdentifier();
+    }
+}
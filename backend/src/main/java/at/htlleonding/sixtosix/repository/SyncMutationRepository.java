@@ -0,0 +1,25 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.SyncMutation;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Optional;
+
+/**
+ * Repository for SyncMutation Entity
+ * Handles idempotency lookups for offline uploads.
+ */
+@ApplicationScoped
+@Measured
+public class SyncMutationRepository implements PanacheRepository<SyncMutation> {
+
+    /**
+     * Find an already processed offline mutation of this patient
+     * (uk_sync_mutation_tenant_patient_client_id covers the lookup)
+     */
+    public Optional<SyncMutation> findByPatientAndClientMutationId(Patient patient, String clientMutationId) {
+        return find("patient = ?1 and clientMutationId = ?2", patient, clientMutationId).firstResultOptional();
+    }
+}
@@ -1,6 +1,7 @@
 package at.htlleonding.sixtosix.repository;
 
 import at.htlleonding.sixtosix.entity.UserAccount;
+import at.htlleonding.sixtosix.metrics.Measured;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.Optional;
@@ -10,6 +11,7 @@ import java.util.Optional;
  * Handles CRUD and complex queries for Users.
  */
 @ApplicationScoped
+@Measured
 public class UserAccountRepository implements PanacheRepository<UserAccount> {
 
     /**
@@ -0,0 +1,40 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.VitalMeasurement;
+import at.htlleonding.sixtosix.entity.VitalSignType;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Page;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for VitalMeasurement Entity
+ * Handles queries for the vital sign time series.
+ */
+@ApplicationScoped
+@Measured
+public class VitalMeasurementRepository implements PanacheRepository<VitalMeasurement> {
+
+    /**
+     * Find raw measurements of one type within a time range (newest first, limited)
+     */
+    public List<VitalMeasurement> findByPatientAndTypeAndRange(Patient patient, VitalSignType type,
+                                                               LocalDateTime from, LocalDateTime to, int limit) {
+        return find("patient = ?1 and type = ?2 and measuredAt between ?3 and ?4 order by measuredAt desc",
+                patient, type, from, to)
+                .page(Page.ofSize(limit))
+                .list();
+    }
+
+    /**
+     * Find latest measurement of one type
+     */
+    public List<VitalMeasurement> findLatestByPatientAndType(Patient patient, VitalSignType type, int limit) {
+        return find("patient = ?1 and type = ?2 order by measuredAt desc", patient, type)
+                .page(Page.ofSize(limit))
+                .list();
+    }
+}
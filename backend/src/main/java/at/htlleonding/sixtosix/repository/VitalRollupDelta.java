@@ -0,0 +1,25 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.VitalRollupGranularity;
+import at.htlleonding.sixtosix.entity.VitalSignType;
+import java.time.LocalDateTime;
+
+/**
+ * Zuwachs eines Verdichtungs-Zeitfensters aus einer Ingest-Gruppe.
+ * Wird per Upsert auf die bestehende VitalRollup-Zeile addiert.
+ */
+public record VitalRollupDelta(
+    Long patientId,
+    VitalSignType type,
+    VitalRollupGranularity granularity,
+    LocalDateTime bucketStart,
+    long sampleCount,
+    double valueSum,
+    double minValue,
+    double maxValue,
+    long secondaryCount,
+    double secondarySum,
+    Double secondaryMin,
+    Double secondaryMax
+) {
+}
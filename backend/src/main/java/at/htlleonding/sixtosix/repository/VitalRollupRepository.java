@@ -0,0 +1,87 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.VitalRollup;
+import at.htlleonding.sixtosix.entity.VitalRollupGranularity;
+import at.htlleonding.sixtosix.entity.VitalSignType;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Session;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for VitalRollup Entity
+ * Handles incremental maintenance and range queries of the downsampled vital history.
+ */
+@ApplicationScoped
+@Measured
+public class VitalRollupRepository implements PanacheRepository<VitalRollup> {
+
+    /**
+     * Addiert einen Zuwachs auf das Zeitfenster (legt es bei Bedarf an).
+     * Minimum/Maximum über LEAST/GREATEST, die NULL-Werte ignorieren.
+     */
+    private static final String UPSERT_SQL = """
+            INSERT INTO vital_rollup (tenant_id, patient_id, type, granularity, bucket_start,
+                                      sample_count, value_sum, min_value, max_value,
+                                      secondary_count, secondary_sum, secondary_min, secondary_max)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT ON CONSTRAINT uk_vital_rollup_bucket DO UPDATE SET
+                sample_count = vital_rollup.sample_count + EXCLUDED.sample_count,
+                value_sum = vital_rollup.value_sum + EXCLUDED.value_sum,
+                min_value = LEAST(vital_rollup.min_value, EXCLUDED.min_value),
+                max_value = GREATEST(vital_rollup.max_value, EXCLUDED.max_value),
+                secondary_count = vital_rollup.secondary_count + EXCLUDED.secondary_count,
+                secondary_sum = vital_rollup.secondary_sum + EXCLUDED.secondary_sum,
+                secondary_min = LEAST(vital_rollup.secondary_min, EXCLUDED.secondary_min),
+                secondary_max = GREATEST(vital_rollup.secondary_max, EXCLUDED.secondary_max)
+            """;
+
+    /**
+     * Find the rollups of one type and granularity touching the given time range (oldest first)
+     */
+    public List<VitalRollup> findByPatientAndTypeAndRange(Patient patient, VitalSignType type,
+                                                          VitalRollupGranularity granularity,
+                                                          LocalDateTime from, LocalDateTime to) {
+        return find("patient = ?1 and type = ?2 and granularity = ?3 and bucketStart between ?4 and ?5 order by bucketStart",
+                patient, type, granularity, granularity.bucketStart(from), to)
+                .list();
+    }
+
+    /**
+     * Apply the deltas of one ingest group as a single JDBC batch of upserts (current tenant)
+     */
+    public void applyDeltas(Collection<VitalRollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Session session = getEntityManager().unwrap(Session.class);
+        String tenantId = session.getTenantIdentifier();
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+                for (VitalRollupDelta delta : deltas) {
+                    statement.setString(1, tenantId);
+                    statement.setLong(2, delta.patientId());
+                    statement.setString(3, delta.type().name());
+                    statement.setString(4, delta.granularity().name());
+                    statement.setObject(5, delta.bucketStart());
+                    statement.setLong(6, delta.sampleCount());
+                    statement.setDouble(7, delta.valueSum());
+                    statement.setDouble(8, delta.minValue());
+                    statement.setDouble(9, delta.maxValue());
+                    statement.setLong(10, delta.secondaryCount());
+                    statement.setDouble(11, delta.secondarySum());
+                    statement.setObject(12, delta.secondaryMin(), Types.DOUBLE);
+                    statement.setObject(13, delta.secondaryMax(), Types.DOUBLE);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
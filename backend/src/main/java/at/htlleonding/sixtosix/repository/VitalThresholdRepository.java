@@ -0,0 +1,49 @@
+package at.htlleonding.sixtosix.repository;
+
+import at.htlleonding.sixtosix.entity.CareNeed;
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.VitalSignType;
+import at.htlleonding.sixtosix.entity.VitalThreshold;
+import at.htlleonding.sixtosix.metrics.Measured;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for VitalThreshold Entity
+ * Handles queries for per-patient vital sign threshold rules.
+ */
+@ApplicationScoped
+@Measured
+public class VitalThresholdRepository implements PanacheRepository<VitalThreshold> {
+
+    /**
+     * Find all threshold rules of a patient
+     */
+    public List<VitalThreshold> findByPatient(Patient patient) {
+        return find("patient = ?1 order by type", patient).list();
+    }
+
+    /**
+     * Find the threshold rule of a patient for one vital sign type
+     */
+    public Optional<VitalThreshold> findByPatientAndType(Patient patient, VitalSignType type) {
+        return find("patient = ?1 and type = ?2", patient, type).firstResultOptional();
+    }
+
+    /**
+     * Find all threshold rules for a set of patients (one query per ingest batch)
+     */
+    public List<VitalThreshold> findByPatientIds(Collection<Long> patientIds) {
+        return find("from VitalThreshold t left join fetch t.openCareNeed where t.patient.id in ?1", patientIds).list();
+    }
+
+    /**
+     * Detach a care need from the rule that opened it (before the care need is deleted)
+     */
+    public void clearOpenCareNeed(CareNeed careNeed) {
+        update("openCareNeed = null where openCareNeed = ?1", careNeed);
+    }
+}
@@ -2,9 +2,16 @@ package at.htlleonding.sixtosix.resource;
 
 import at.htlleonding.sixtosix.dto.ADLAssessmentDTO;
 import at.htlleonding.sixtosix.dto.ADLDefinitionDTO;
+import at.htlleonding.sixtosix.dto.AssessmentTrendDTO;
 import at.htlleonding.sixtosix.entity.*;
 import at.htlleonding.sixtosix.repository.*;
+import at.htlleonding.sixtosix.service.AssessmentTrendService;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.InterventionSuggestionEngine;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -22,10 +29,12 @@ import java.util.List;
  * - POST   /patients/{patientId}/adl-assessments - Neue ADL-Bewertung
  * - GET    /patients/{patientId}/adl-assessments - ADL-Bewertungen eines Patienten
  * - GET    /adl-assessments/{id}                 - ADL-Bewertung-Details
+ * - GET    /patients/{patientId}/adl-trend       - Status-Verlauf (Abschnitte pro ADL)
  */
 @Path("/adl")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class ADLAssessmentResource {
 
     @Inject
@@ -40,6 +49,18 @@ public class ADLAssessmentResource {
     @Inject
     UserAccountRepository userAccountRepository;
 
+    @Inject
+    AssessmentStatusRunRepository statusRunRepository;
+
+    @Inject
+    AssessmentTrendService trendService;
+
+    @Inject
+    InterventionSuggestionEngine suggestionEngine;
+
+    @Inject
+    AuditChainService auditChainService;
+
     // ==================== ADL Definitions ====================
 
     /**
@@ -73,6 +94,7 @@ public class ADLAssessmentResource {
      */
     @POST
     @Path("/definitions")
+    @Transactional
     public Response createADLDefinition(@QueryParam("name") String name) {
         if (name == null || name.isBlank()) {
             return Response.status(Response.Status.BAD_REQUEST)
@@ -112,6 +134,7 @@ public class ADLAssessmentResource {
      * Status-Werte: INTACT, RESTRICTED, NURSING_RELEVANT
      *
      * Basierend auf FSD Abschnitt 5.2 (ADLs können mehrfach neu eingeschätzt werden)
+     * und FSD Abschnitt 5.3 (die Regeln dieser ADL erzeugen ggf. Interventionsvorschläge)
      *
      * @param patientId Patient-ID
      * @param adlDefinitionId ADL-Definition-ID
@@ -121,6 +144,7 @@ public class ADLAssessmentResource {
      */
     @POST
     @Path("/patients/{patientId}/assessments")
+    @Transactional
     public Response createADLAssessment(
             @PathParam("patientId") Long patientId,
             @QueryParam("adlDefinitionId") Long adlDefinitionId,
@@ -128,8 +152,8 @@ public class ADLAssessmentResource {
             @QueryParam("assessedById") Long assessedById) {
 
         // Validiere Patient
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -164,6 +188,9 @@ public class ADLAssessmentResource {
         // Erstelle neue Bewertung
         ADLAssessment assessment = new ADLAssessment(adlDefinition, patient, assessmentStatus, assessedBy);
         adlAssessmentRepository.persist(assessment);
+        auditChainService.record("ADLAssessment", assessment.getId(), AuditAction.CREATE, assessedBy, null);
+        trendService.onAdlAssessment(assessment);
+        suggestionEngine.onAdlAssessment(assessment);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -182,10 +209,11 @@ public class ADLAssessmentResource {
      */
     @GET
     @Path("/patients/{patientId}/assessments")
+    @QueryBudget(4)
     public Response getADLAssessmentsForPatient(@PathParam("patientId") Long patientId) {
         // Validiere Patient
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -232,9 +260,10 @@ public class ADLAssessmentResource {
      */
     @GET
     @Path("/patients/{patientId}/assessments/latest")
+    @QueryBudget(4)
     public Response getLatestADLAssessments(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -249,6 +278,42 @@ public class ADLAssessmentResource {
         return Response.ok(latestAssessments).build();
     }
 
+    /**
+     * GET /patients/{patientId}/adl-trend
+     * Gibt den Status-Verlauf eines Patienten als Abschnitte gleichbleibenden Status zurück,
+     * z.B. Mobilität INTACT → RESTRICTED → NURSING_RELEVANT.
+     *
+     * Gelesen wird die bei jeder Bewertung fortgeschriebene Verlaufstabelle,
+     * nicht die einzelnen Bewertungen.
+     *
+     * Basierend auf FSD Abschnitt 5.2 (Der zeitliche Verlauf ist nachvollziehbar)
+     *
+     * @param patientId Patient-ID
+     * @param adlDefinitionId optional, nur eine ADL
+     * @return Abschnitte, sortiert nach ADL und Beginn
+     */
+    @GET
+    @Path("/patients/{patientId}/trend")
+    public Response getADLTrend(
+            @PathParam("patientId") Long patientId,
+            @QueryParam("adlDefinitionId") Long adlDefinitionId) {
+
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        List<AssessmentTrendDTO> trend = statusRunRepository
+                .findAdlTrend(patient, adlDefinitionId)
+                .stream()
+                .map(this::mapRunToDTO)
+                .toList();
+
+        return Response.ok(trend).build();
+    }
+
     // ==================== Mapping Methods ====================
 
     /**
@@ -276,7 +341,19 @@ public class ADLAssessmentResource {
                 assessment.getAssessedBy().getKeycloakId()
         );
     }
-}
-
-
 
+    /**
+     * Mappt AssessmentStatusRun Entity zu AssessmentTrendDTO
+     */
+    private AssessmentTrendDTO mapRunToDTO(AssessmentStatusRun run) {
+        return new AssessmentTrendDTO(
+                run.getAdlDefinition().getId(),
+                run.getAdlDefinition().getName(),
+                run.getStatus().toString(),
+                run.getStartedAt(),
+                run.getLastAssessedAt(),
+                run.getEndedAt(),
+                run.getAssessmentCount()
+        );
+    }
+}
@@ -0,0 +1,152 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.dto.AdherenceTrendDTO;
+import at.htlleonding.sixtosix.entity.AdherenceGranularity;
+import at.htlleonding.sixtosix.entity.UserAccount;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import at.htlleonding.sixtosix.repository.CareAssignmentRepository;
+import at.htlleonding.sixtosix.repository.PatientRepository;
+import at.htlleonding.sixtosix.repository.UserAccountRepository;
+import at.htlleonding.sixtosix.service.AdherenceService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * REST Resource für Auswertungen
+ * Therapietreue der Tagesstruktur (Anteil bestätigter Aufgaben, Median der Bestätigungsverzögerung)
+ * je Patient oder über die Caseload eines Pflegers
+ *
+ * Gelesen werden nur die verdichteten Tageszeilen (adherence_rollup), nie die Aufgaben.
+ *
+ * Endpunkte:
+ * - GET /analytics/adherence/patients/{patientId}   - Verlauf eines Patienten
+ * - GET /analytics/adherence/pflegers/{userId}      - Verlauf über die aktiven Patienten eines Pflegers
+ */
+@Path("/analytics")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class AnalyticsResource {
+
+    private static final int MAX_RANGE_DAYS = 731;
+
+    @Inject
+    AdherenceService adherenceService;
+
+    @Inject
+    PatientRepository patientRepository;
+
+    @Inject
+    UserAccountRepository userAccountRepository;
+
+    @Inject
+    CareAssignmentRepository careAssignmentRepository;
+
+    // ==================== Adherence ====================
+
+    /**
+     * GET /analytics/adherence/patients/{patientId}
+     * Gibt den Verlauf der Therapietreue eines Patienten zurück.
+     *
+     * Query Parameter:
+     * - from, to: Zeitraum (Format: YYYY-MM-DD, beide inklusive, höchstens zwei Jahre)
+     * - granularity: DAY oder WEEK (Standard DAY)
+     *
+     * @param patientId Patient-ID
+     * @return Liste der Zeitfenster mit Plan (älteste zuerst)
+     */
+    @GET
+    @Path("/adherence/patients/{patientId}")
+    @QueryBudget(2)
+    public Response getPatientAdherence(
+            @PathParam("patientId") Long patientId,
+            @QueryParam("from") String from,
+            @QueryParam("to") String to,
+            @QueryParam("granularity") String granularity) {
+
+        if (!patientRepository.existsActive(patientId)) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        return trend(List.of(patientId), from, to, granularity);
+    }
+
+    /**
+     * GET /analytics/adherence/pflegers/{userId}
+     * Gibt den Verlauf der Therapietreue über alle aktiv zugeordneten Patienten eines Pflegers zurück.
+     * Aufgaben aller Patienten werden je Zeitfenster summiert.
+     *
+     * Query Parameter: wie bei Patienten
+     *
+     * @param userId User-ID des Pflegers
+     * @return Liste der Zeitfenster mit Plan (älteste zuerst)
+     */
+    @GET
+    @Path("/adherence/pflegers/{userId}")
+    @QueryBudget(3)
+    public Response getPflegerAdherence(
+            @PathParam("userId") Long userId,
+            @QueryParam("from") String from,
+            @QueryParam("to") String to,
+            @QueryParam("granularity") String granularity) {
+
+        UserAccount user = userAccountRepository.findById(userId);
+        if (user == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Benutzer nicht gefunden")
+                    .build();
+        }
+
+        return trend(careAssignmentRepository.findActivePatientIdsByPfleger(user), from, to, granularity);
+    }
+
+    /**
+     * Prüft Zeitraum und Auflösung und liefert den Verlauf der Patienten
+     */
+    private Response trend(List<Long> patientIds, String from, String to, String granularity) {
+        LocalDate rangeFrom;
+        LocalDate rangeTo;
+        AdherenceGranularity resolution;
+        try {
+            rangeFrom = LocalDate.parse(from);
+            rangeTo = LocalDate.parse(to);
+        } catch (Exception e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Ungültiger Zeitraum (erwartet: YYYY-MM-DD)")
+                    .build();
+        }
+        try {
+            resolution = granularity == null || granularity.isBlank()
+                    ? AdherenceGranularity.DAY
+                    : AdherenceGranularity.valueOf(granularity);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Ungültige Auflösung: " + granularity)
+                    .build();
+        }
+        if (rangeTo.isBefore(rangeFrom)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Zeitraum-Ende liegt vor dem Beginn")
+                    .build();
+        }
+        if (ChronoUnit.DAYS.between(rangeFrom, rangeTo) >= MAX_RANGE_DAYS) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Zeitraum zu lang (höchstens " + MAX_RANGE_DAYS + " Tage)")
+                    .build();
+        }
+
+        // Wochen vollständig lesen, auch wenn der Zeitraum mitten in der Woche beginnt
+        List<AdherenceTrendDTO> trend = adherenceService.trend(
+                patientIds, resolution.bucketStart(rangeFrom), rangeTo, resolution);
+
+        return Response.ok(trend).build();
+    }
+}
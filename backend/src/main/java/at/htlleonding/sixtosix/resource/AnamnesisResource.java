@@ -4,10 +4,16 @@ import at.htlleonding.sixtosix.dto.AnamnesisDTO;
 import at.htlleonding.sixtosix.dto.AnamnesisVersionDTO;
 import at.htlleonding.sixtosix.entity.*;
 import at.htlleonding.sixtosix.repository.*;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 
@@ -29,6 +35,7 @@ import java.util.List;
 @Path("/anamnesis")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class AnamnesisResource {
 
     @Inject
@@ -43,6 +50,9 @@ public class AnamnesisResource {
     @Inject
     UserAccountRepository userAccountRepository;
 
+    @Inject
+    AuditChainService auditChainService;
+
     /**
      * POST /patients/{patientId}/anamnesis
      * Erstellt eine neue Anamnese für einen Patienten.
@@ -54,10 +64,11 @@ public class AnamnesisResource {
      */
     @POST
     @Path("/patients/{patientId}")
+    @Transactional
     public Response createAnamnesis(@PathParam("patientId") Long patientId) {
         // Validiere Patient
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -73,6 +84,7 @@ public class AnamnesisResource {
         // Erstelle neue Anamnese
         Anamnesis anamnesis = new Anamnesis(patient);
         anamnesisRepository.persist(anamnesis);
+        auditChainService.record("Anamnesis", anamnesis.getId(), AuditAction.CREATE, null);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -93,8 +105,8 @@ public class AnamnesisResource {
     @Path("/patients/{patientId}")
     public Response getAnamnesisForPatient(@PathParam("patientId") Long patientId) {
         // Validiere Patient
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -128,6 +140,7 @@ public class AnamnesisResource {
      */
     @POST
     @Path("/{anamnesisId}/versions")
+    @Transactional
     public Response addVersion(@PathParam("anamnesisId") Long anamnesisId, @Valid AnamnesisVersionDTO versionDTO) {
         // Validiere Anamnesis
         Anamnesis anamnesis = anamnesisRepository.findById(anamnesisId);
@@ -156,6 +169,7 @@ public class AnamnesisResource {
                 creator
         );
         versionRepository.persist(newVersion);
+        auditChainService.record("AnamnesisVersion", newVersion.getId(), AuditAction.CREATE, creator, null);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -174,6 +188,7 @@ public class AnamnesisResource {
      */
     @GET
     @Path("/{anamnesisId}/versions")
+    @QueryBudget(3)
     public Response getVersions(@PathParam("anamnesisId") Long anamnesisId) {
         Anamnesis anamnesis = anamnesisRepository.findById(anamnesisId);
         if (anamnesis == null) {
@@ -197,11 +212,12 @@ public class AnamnesisResource {
      *
      * @param anamnesisId Anamnesis-ID
      * @param vNum Versionsnummer
-     * @return Version-Details
+     * @return Version-Details mit ETag (304 bei passendem If-None-Match)
      */
     @GET
     @Path("/{anamnesisId}/versions/{vNum}")
-    public Response getVersion(@PathParam("anamnesisId") Long anamnesisId, @PathParam("vNum") Long vNum) {
+    public Response getVersion(@PathParam("anamnesisId") Long anamnesisId, @PathParam("vNum") Long vNum,
+                               @Context Request request) {
         Anamnesis anamnesis = anamnesisRepository.findById(anamnesisId);
         if (anamnesis == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -216,21 +232,31 @@ public class AnamnesisResource {
                     .build();
         }
 
-        return Response.ok(mapVersionToDTO(version.get())).build();
+        Response precondition = EntityTags.evaluatePreconditions(request, version.get().getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapVersionToDTO(version.get()))
+                .tag(EntityTags.of(version.get().getVersion()))
+                .build();
     }
 
     /**
      * PUT /anamnesis/versions/{versionId}/finalize
      * Finalisiert eine Version (macht sie unveränderbar).
      *
+     * Header: If-Match mit dem ETag aus GET /anamnesis/{anamnesisId}/versions/{vNum} (optional)
+     *
      * Basierend auf FSD Abschnitt 4.3 (Nach Finalisierung ist der Eintrag nicht mehr änderbar)
      *
      * @param versionId AnamnesisVersion-ID
-     * @return Finalisierte Version
+     * @return Finalisierte Version mit neuem ETag; 412 bei Versionskonflikt
      */
     @PUT
     @Path("/versions/{versionId}/finalize")
-    public Response finalizeVersion(@PathParam("versionId") Long versionId) {
+    @Transactional
+    public Response finalizeVersion(@PathParam("versionId") Long versionId, @Context Request request) {
         AnamnesisVersion version = versionRepository.findById(versionId);
 
         if (version == null) {
@@ -239,6 +265,11 @@ public class AnamnesisResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, version.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         if (version.getFinalized()) {
             return Response.status(Response.Status.CONFLICT)
                     .entity("Version ist bereits finalisiert")
@@ -246,9 +277,12 @@ public class AnamnesisResource {
         }
 
         version.finalize();
-        versionRepository.persist(version);
+        versionRepository.persistAndFlush(version);
+        auditChainService.record("AnamnesisVersion", version.getId(), AuditAction.FINALIZE, null);
 
-        return Response.ok(mapVersionToDTO(version)).build();
+        return Response.ok(mapVersionToDTO(version))
+                .tag(EntityTags.of(version.getVersion()))
+                .build();
     }
 
     // ==================== Mapping Methods ====================
@@ -0,0 +1,85 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.datasource.ReadFromPrimary;
+import at.htlleonding.sixtosix.dto.AuditVerificationDTO;
+import at.htlleonding.sixtosix.entity.AuditCheckpoint;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.AuditChainVerifier;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST Resource für die Audit-Hash-Kette
+ * Prüfung der Revisionssicherheit des Audit-Logs
+ *
+ * Basierend auf TSD Abschnitt 5.1 (Revisionssicherheit)
+ * und TSD Abschnitt 5.11 (audit_log Tabelle)
+ *
+ * Endpunkte:
+ * - GET    /audit/verify              - Kette verifizieren (inkrementell oder vollständig)
+ * - POST   /audit/checkpoints         - Checkpoint am Kettenende erzwingen
+ */
+@Path("/audit")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class AuditResource {
+
+    @Inject
+    AuditChainService auditChainService;
+
+    @Inject
+    AuditChainVerifier auditChainVerifier;
+
+    /**
+     * GET /audit/verify
+     * Verifiziert die Audit-Hash-Kette.
+     *
+     * Query Parameter:
+     * - full: true = gesamte Kette, false = nur seit letztem verifizierten Checkpoint
+     *
+     * @param full vollständige Prüfung
+     * Liest vom Primary: die Prüfung schreibt Checkpoints und liest parallel auf Pool-Threads.
+     *
+     * @return 200 bei gültiger Kette, 409 mit erstem ungültigen Eintrag bei Manipulation
+     */
+    @GET
+    @Path("/verify")
+    @ReadFromPrimary
+    public Response verify(@QueryParam("full") @DefaultValue("false") boolean full) {
+        AuditVerificationDTO result = full
+                ? auditChainVerifier.verifyFull()
+                : auditChainVerifier.verifyIncremental();
+
+        if (!result.valid()) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(result)
+                    .build();
+        }
+
+        return Response.ok(result).build();
+    }
+
+    /**
+     * POST /audit/checkpoints
+     * Schreibt einen signierten Checkpoint am aktuellen Kettenende.
+     *
+     * @return 201 Created mit Checkpoint-ID oder 204, wenn kein neuer Checkpoint nötig ist
+     */
+    @POST
+    @Path("/checkpoints")
+    public Response createCheckpoint() {
+        AuditCheckpoint checkpoint = auditChainService.checkpointNow();
+        if (checkpoint == null) {
+            return Response.noContent().build();
+        }
+
+        return Response
+                .status(Response.Status.CREATED)
+                .entity(checkpoint.getId())
+                .build();
+    }
+}
@@ -1,16 +1,23 @@
 package at.htlleonding.sixtosix.resource;
 
 import at.htlleonding.sixtosix.dto.CareAssignmentDTO;
+import at.htlleonding.sixtosix.entity.AuditAction;
 import at.htlleonding.sixtosix.entity.CareAssignment;
 import at.htlleonding.sixtosix.entity.Patient;
 import at.htlleonding.sixtosix.entity.UserAccount;
 import at.htlleonding.sixtosix.repository.CareAssignmentRepository;
 import at.htlleonding.sixtosix.repository.PatientRepository;
 import at.htlleonding.sixtosix.repository.UserAccountRepository;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 
@@ -27,10 +34,13 @@ import java.util.List;
  * - GET    /care-assignments/{id}         - Zuordnung-Details
  * - PUT    /care-assignments/{id}         - Zuordnung aktualisieren
  * - DELETE /care-assignments/{id}         - Zuordnung deaktivieren
+ *
+ * GET /care-assignments/{id} liefert die Version als ETag; PUT und DELETE prüfen If-Match (412 bei Konflikt).
  */
 @Path("/care-assignments")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class CareAssignmentResource {
 
     @Inject
@@ -42,15 +52,19 @@ public class CareAssignmentResource {
     @Inject
     PatientRepository patientRepository;
 
+    @Inject
+    AuditChainService auditChainService;
+
     /**
      * GET /care-assignments
-     * Gibt alle Zuordnungen zurück.
+     * Gibt alle Zuordnungen zurück (ohne Zuordnungen gelöschter Patienten).
      *
      * @return Liste aller Care Assignments
      */
     @GET
+    @QueryBudget(3)
     public List<CareAssignmentDTO> getAllAssignments() {
-        return careAssignmentRepository.listAll()
+        return careAssignmentRepository.findAllForActivePatients()
                 .stream()
                 .map(this::mapToDTO)
                 .toList();
@@ -72,6 +86,7 @@ public class CareAssignmentResource {
      * @return 201 Created mit neuer Zuordnung
      */
     @POST
+    @Transactional
     public Response createAssignment(CareAssignmentDTO assignmentDTO) {
         // Validiere Pfleger
         UserAccount pfleger = userAccountRepository.findById(assignmentDTO.pflegerUserId());
@@ -83,7 +98,7 @@ public class CareAssignmentResource {
 
         // Validiere Patient
         Patient patient = patientRepository.findById(assignmentDTO.patientId());
-        if (patient == null || patient.getDeleted()) {
+        if (patient == null) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Patient nicht gefunden oder gelöscht")
                     .build();
@@ -100,6 +115,7 @@ public class CareAssignmentResource {
         // Erstelle neue Zuordnung
         CareAssignment assignment = new CareAssignment(pfleger, patient);
         careAssignmentRepository.persist(assignment);
+        auditChainService.record("CareAssignment", assignment.getId(), AuditAction.CREATE, null);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -112,12 +128,12 @@ public class CareAssignmentResource {
      * Gibt eine einzelne Zuordnung zurück.
      *
      * @param id CareAssignment-ID
-     * @return Zuordnung-Details
+     * @return Zuordnung-Details mit ETag (304 bei passendem If-None-Match)
      */
     @GET
     @Path("/{id}")
-    public Response getAssignment(@PathParam("id") Long id) {
-        CareAssignment assignment = careAssignmentRepository.findById(id);
+    public Response getAssignment(@PathParam("id") Long id, @Context Request request) {
+        CareAssignment assignment = careAssignmentRepository.findByIdForActivePatient(id);
 
         if (assignment == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -125,7 +141,14 @@ public class CareAssignmentResource {
                     .build();
         }
 
-        return Response.ok(mapToDTO(assignment)).build();
+        Response precondition = EntityTags.evaluatePreconditions(request, assignment.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapToDTO(assignment))
+                .tag(EntityTags.of(assignment.getVersion()))
+                .build();
     }
 
     /**
@@ -137,14 +160,18 @@ public class CareAssignmentResource {
      *   "active": false
      * }
      *
+     * Header: If-Match mit dem ETag aus GET /care-assignments/{id} (optional)
+     *
      * @param id CareAssignment-ID
      * @param updateDTO Update-Daten
-     * @return Aktualisierte Zuordnung
+     * @return Aktualisierte Zuordnung mit neuem ETag; 412 bei Versionskonflikt
      */
     @PUT
     @Path("/{id}")
-    public Response updateAssignment(@PathParam("id") Long id, CareAssignmentDTO updateDTO) {
-        CareAssignment assignment = careAssignmentRepository.findById(id);
+    @Transactional
+    public Response updateAssignment(@PathParam("id") Long id, CareAssignmentDTO updateDTO,
+                                     @Context Request request) {
+        CareAssignment assignment = careAssignmentRepository.findByIdForActivePatient(id);
 
         if (assignment == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -152,13 +179,21 @@ public class CareAssignmentResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, assignment.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         // Nur active-Flag kann geändert werden
         if (updateDTO.active() != null) {
             assignment.setActive(updateDTO.active());
-            careAssignmentRepository.persist(assignment);
+            careAssignmentRepository.persistAndFlush(assignment);
+            auditChainService.record("CareAssignment", assignment.getId(), AuditAction.UPDATE, null);
         }
 
-        return Response.ok(mapToDTO(assignment)).build();
+        return Response.ok(mapToDTO(assignment))
+                .tag(EntityTags.of(assignment.getVersion()))
+                .build();
     }
 
     /**
@@ -167,13 +202,16 @@ public class CareAssignmentResource {
      *
      * Basierend auf FSD Abschnitt 3 (Rechte können nachträglich geändert werden)
      *
+     * Header: If-Match (optional)
+     *
      * @param id CareAssignment-ID
-     * @return 204 No Content
+     * @return 204 No Content; 412 bei Versionskonflikt
      */
     @DELETE
     @Path("/{id}")
-    public Response deleteAssignment(@PathParam("id") Long id) {
-        CareAssignment assignment = careAssignmentRepository.findById(id);
+    @Transactional
+    public Response deleteAssignment(@PathParam("id") Long id, @Context Request request) {
+        CareAssignment assignment = careAssignmentRepository.findByIdForActivePatient(id);
 
         if (assignment == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -181,7 +219,13 @@ public class CareAssignmentResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, assignment.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         careAssignmentRepository.deactivateAssignment(id);
+        auditChainService.record("CareAssignment", id, AuditAction.DELETE, "deaktiviert");
 
         return Response.noContent().build();
     }
@@ -195,6 +239,7 @@ public class CareAssignmentResource {
      */
     @GET
     @Path("/pfleger/{pflegerId}/active")
+    @QueryBudget(3)
     public Response getActiveAssignmentsForPfleger(@PathParam("pflegerId") Long pflegerId) {
         UserAccount pfleger = userAccountRepository.findById(pflegerId);
 
@@ -222,10 +267,11 @@ public class CareAssignmentResource {
      */
     @GET
     @Path("/patient/{patientId}/active")
+    @QueryBudget(3)
     public Response getActiveAssignmentsForPatient(@PathParam("patientId") Long patientId) {
         Patient patient = patientRepository.findById(patientId);
 
-        if (patient == null || patient.getDeleted()) {
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -1,13 +1,24 @@
 package at.htlleonding.sixtosix.resource;
 
 import at.htlleonding.sixtosix.dto.CareNeedDTO;
+import at.htlleonding.sixtosix.entity.AuditAction;
 import at.htlleonding.sixtosix.entity.CareNeed;
 import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.SyncEntityType;
 import at.htlleonding.sixtosix.repository.CareNeedRepository;
 import at.htlleonding.sixtosix.repository.PatientRepository;
+import at.htlleonding.sixtosix.repository.VitalThresholdRepository;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.InterventionSuggestionEngine;
+import at.htlleonding.sixtosix.service.SyncChangeService;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 
@@ -23,12 +34,14 @@ import java.util.List;
  * - GET    /patients/{patientId}/care-needs              - Alle Bedarfe eines Patienten
  * - GET    /patients/{patientId}/care-needs/active       - Aktive Bedarfe
  * - GET    /patients/{patientId}/care-needs/resolved     - Gelöste Bedarfe
+ * - GET    /care-needs/{id}                             - Einzelner Bedarf (ETag)
  * - PUT    /care-needs/{id}/resolve                     - Bedarf als gelöst markieren
  * - DELETE /care-needs/{id}                             - Bedarf löschen
  */
 @Path("/care-needs")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class CareNeedResource {
 
     @Inject
@@ -37,6 +50,18 @@ public class CareNeedResource {
     @Inject
     PatientRepository patientRepository;
 
+    @Inject
+    VitalThresholdRepository vitalThresholdRepository;
+
+    @Inject
+    InterventionSuggestionEngine suggestionEngine;
+
+    @Inject
+    SyncChangeService syncChangeService;
+
+    @Inject
+    AuditChainService auditChainService;
+
     /**
      * POST /patients/{patientId}/care-needs
      * Erfasst einen neuen Bedarf/Krise für einen Patienten.
@@ -53,13 +78,14 @@ public class CareNeedResource {
      */
     @POST
     @Path("/patients/{patientId}")
+    @Transactional
     public Response createCareNeed(
             @PathParam("patientId") Long patientId,
             @QueryParam("description") String description) {
 
         // Validiere Patient
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -75,6 +101,9 @@ public class CareNeedResource {
         // Erstelle neuen Bedarf
         CareNeed careNeed = new CareNeed(patient, description);
         careNeedRepository.persist(careNeed);
+        syncChangeService.recordChange(patient, SyncEntityType.CARE_NEED, careNeed.getId());
+        auditChainService.record("CareNeed", careNeed.getId(), AuditAction.CREATE, null);
+        suggestionEngine.onCareNeedsChanged(patient);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -94,9 +123,10 @@ public class CareNeedResource {
      */
     @GET
     @Path("/patients/{patientId}")
+    @QueryBudget(2)
     public Response getCareNeedsForPatient(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -122,9 +152,10 @@ public class CareNeedResource {
      */
     @GET
     @Path("/patients/{patientId}/active")
+    @QueryBudget(2)
     public Response getActiveCareNeedsForPatient(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -148,9 +179,10 @@ public class CareNeedResource {
      */
     @GET
     @Path("/patients/{patientId}/resolved")
+    @QueryBudget(2)
     public Response getResolvedCareNeedsForPatient(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -165,18 +197,49 @@ public class CareNeedResource {
         return Response.ok(careNeeds).build();
     }
 
+    /**
+     * GET /care-needs/{id}
+     * Gibt einen einzelnen Bedarf zurück.
+     *
+     * @param id CareNeed-ID
+     * @return Bedarf mit ETag (304 bei passendem If-None-Match)
+     */
+    @GET
+    @Path("/{id}")
+    public Response getCareNeed(@PathParam("id") Long id, @Context Request request) {
+        CareNeed careNeed = careNeedRepository.findById(id);
+
+        if (careNeed == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Bedarf nicht gefunden")
+                    .build();
+        }
+
+        Response precondition = EntityTags.evaluatePreconditions(request, careNeed.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapToDTO(careNeed))
+                .tag(EntityTags.of(careNeed.getVersion()))
+                .build();
+    }
+
     /**
      * PUT /care-needs/{id}/resolve
      * Markiert einen Bedarf als gelöst.
      *
+     * Header: If-Match mit dem ETag aus GET /care-needs/{id} (optional)
+     *
      * Basierend auf FSD Abschnitt 10 (Bedarf bleibt aktiv bis er beendet wird)
      *
      * @param id CareNeed-ID
-     * @return Gelöster Bedarf
+     * @return Gelöster Bedarf mit neuem ETag; 412 bei Versionskonflikt
      */
     @PUT
     @Path("/{id}/resolve")
-    public Response resolveCareNeed(@PathParam("id") Long id) {
+    @Transactional
+    public Response resolveCareNeed(@PathParam("id") Long id, @Context Request request) {
         CareNeed careNeed = careNeedRepository.findById(id);
 
         if (careNeed == null) {
@@ -185,6 +248,11 @@ public class CareNeedResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, careNeed.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         if (!careNeed.getActive()) {
             return Response.status(Response.Status.CONFLICT)
                     .entity("Bedarf ist bereits gelöst")
@@ -192,21 +260,29 @@ public class CareNeedResource {
         }
 
         careNeed.resolve();
-        careNeedRepository.persist(careNeed);
+        careNeedRepository.persistAndFlush(careNeed);
+        syncChangeService.recordChange(careNeed.getPatient(), SyncEntityType.CARE_NEED, careNeed.getId());
+        auditChainService.record("CareNeed", careNeed.getId(), AuditAction.RESOLVE, null);
+        suggestionEngine.onCareNeedsChanged(careNeed.getPatient());
 
-        return Response.ok(mapToDTO(careNeed)).build();
+        return Response.ok(mapToDTO(careNeed))
+                .tag(EntityTags.of(careNeed.getVersion()))
+                .build();
     }
 
     /**
      * DELETE /care-needs/{id}
      * Löscht einen Bedarf.
      *
+     * Header: If-Match (optional)
+     *
      * @param id CareNeed-ID
-     * @return 204 No Content
+     * @return 204 No Content; 412 bei Versionskonflikt
      */
     @DELETE
     @Path("/{id}")
-    public Response deleteCareNeed(@PathParam("id") Long id) {
+    @Transactional
+    public Response deleteCareNeed(@PathParam("id") Long id, @Context Request request) {
         CareNeed careNeed = careNeedRepository.findById(id);
 
         if (careNeed == null) {
@@ -215,7 +291,16 @@ public class CareNeedResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, careNeed.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        vitalThresholdRepository.clearOpenCareNeed(careNeed);
+        syncChangeService.recordDelete(careNeed.getPatient(), SyncEntityType.CARE_NEED, careNeed.getId());
+        auditChainService.record("CareNeed", careNeed.getId(), AuditAction.DELETE, null);
         careNeedRepository.delete(careNeed);
+        suggestionEngine.onCareNeedsChanged(careNeed.getPatient());
 
         return Response.noContent().build();
     }
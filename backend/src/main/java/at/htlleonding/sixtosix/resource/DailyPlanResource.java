@@ -4,9 +4,17 @@ import at.htlleonding.sixtosix.dto.DailyPlanDTO;
 import at.htlleonding.sixtosix.dto.DailyTaskDTO;
 import at.htlleonding.sixtosix.entity.*;
 import at.htlleonding.sixtosix.repository.*;
+import at.htlleonding.sixtosix.service.AdherenceService;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.SyncChangeService;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.time.LocalDate;
 import java.util.List;
@@ -19,16 +27,19 @@ import java.util.List;
  * und TSD Abschnitt 5.8 (daily_plan und daily_task Tabellen)
  *
  * Endpunkte:
- * - POST   /patients/{patientId}/daily-plans              - Neuer Tagesplan
- * - GET    /patients/{patientId}/daily-plans              - Alle Tagespläne eines Patienten
- * - GET    /patients/{patientId}/daily-plans/{date}       - Tagesplan für Datum
- * - GET    /patients/{patientId}/daily-plans/today        - Heutiger Plan
- * - POST   /daily-plans/{planId}/tasks                   - Task zum Plan hinzufügen
- * - PUT    /daily-tasks/{taskId}/confirm                 - Task bestätigen
+ * - POST   /daily-plans/patients/{patientId}              - Neuer Tagesplan
+ * - GET    /daily-plans/patients/{patientId}              - Alle Tagespläne eines Patienten
+ * - GET    /daily-plans/patients/{patientId}/by-date      - Tagesplan für Datum
+ * - GET    /daily-plans/patients/{patientId}/today        - Heutiger Plan
+ * - POST   /daily-plans/{planId}/tasks                    - Task zum Plan hinzufügen
+ * - GET    /daily-plans/{planId}/tasks                    - Tasks eines Plans
+ * - GET    /daily-plans/tasks/{taskId}                    - Einzelne Task (ETag)
+ * - PUT    /daily-plans/tasks/{taskId}/confirm            - Task bestätigen
  */
 @Path("/daily-plans")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class DailyPlanResource {
 
     @Inject
@@ -40,10 +51,19 @@ public class DailyPlanResource {
     @Inject
     PatientRepository patientRepository;
 
+    @Inject
+    SyncChangeService syncChangeService;
+
+    @Inject
+    AdherenceService adherenceService;
+
+    @Inject
+    AuditChainService auditChainService;
+
     // ==================== Daily Plans ====================
 
     /**
-     * POST /patients/{patientId}/daily-plans
+     * POST /daily-plans/patients/{patientId}
      * Erstellt einen neuen Tagesplan für einen Patienten.
      *
      * Query Parameter:
@@ -57,13 +77,14 @@ public class DailyPlanResource {
      */
     @POST
     @Path("/patients/{patientId}")
+    @Transactional
     public Response createDailyPlan(
             @PathParam("patientId") Long patientId,
             @QueryParam("date") String date) {
 
         // Validiere Patient
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -90,6 +111,8 @@ public class DailyPlanResource {
         // Erstelle neuen Tagesplan
         DailyPlan dailyPlan = new DailyPlan(patient, planDate);
         dailyPlanRepository.persist(dailyPlan);
+        syncChangeService.recordChange(patient, SyncEntityType.DAILY_PLAN, dailyPlan.getId());
+        auditChainService.record("DailyPlan", dailyPlan.getId(), AuditAction.CREATE, null);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -98,7 +121,7 @@ public class DailyPlanResource {
     }
 
     /**
-     * GET /patients/{patientId}/daily-plans
+     * GET /daily-plans/patients/{patientId}
      * Gibt alle Tagespläne eines Patienten zurück.
      *
      * @param patientId Patient-ID
@@ -106,9 +129,10 @@ public class DailyPlanResource {
      */
     @GET
     @Path("/patients/{patientId}")
+    @QueryBudget(3)
     public Response getDailyPlansForPatient(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -124,7 +148,7 @@ public class DailyPlanResource {
     }
 
     /**
-     * GET /patients/{patientId}/daily-plans/{date}
+     * GET /daily-plans/patients/{patientId}/by-date?date=YYYY-MM-DD
      * Gibt den Tagesplan für ein spezifisches Datum zurück.
      *
      * Query Parameter:
@@ -140,8 +164,8 @@ public class DailyPlanResource {
             @PathParam("patientId") Long patientId,
             @QueryParam("date") String date) {
 
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -168,7 +192,7 @@ public class DailyPlanResource {
     }
 
     /**
-     * GET /patients/{patientId}/daily-plans/today
+     * GET /daily-plans/patients/{patientId}/today
      * Gibt den Tagesplan für heute zurück.
      *
      * Basierend auf FSD Abschnitt 8 (Tagesstruktur unterstützt Patient im Tagesablauf)
@@ -178,9 +202,10 @@ public class DailyPlanResource {
      */
     @GET
     @Path("/patients/{patientId}/today")
+    @QueryBudget(3)
     public Response getTodaysDailyPlan(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -216,6 +241,7 @@ public class DailyPlanResource {
      */
     @POST
     @Path("/{planId}/tasks")
+    @Transactional
     public Response addTaskToDailyPlan(
             @PathParam("planId") Long planId,
             @QueryParam("title") String title,
@@ -249,6 +275,11 @@ public class DailyPlanResource {
         // Erstelle neue Task
         DailyTask task = new DailyTask(dailyPlan, title, reminderLvl);
         taskRepository.persist(task);
+        dailyPlanRepository.adjustTaskCounters(dailyPlan, 1, 0);
+        adherenceService.taskAdded(dailyPlan);
+        syncChangeService.recordChange(dailyPlan.getPatient(), SyncEntityType.DAILY_PLAN, dailyPlan.getId());
+        syncChangeService.recordChange(dailyPlan.getPatient(), SyncEntityType.DAILY_TASK, task.getId());
+        auditChainService.record("DailyTask", task.getId(), AuditAction.CREATE, null);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -265,6 +296,7 @@ public class DailyPlanResource {
      */
     @GET
     @Path("/{planId}/tasks")
+    @QueryBudget(2)
     public Response getTasksForDailyPlan(@PathParam("planId") Long planId) {
         DailyPlan dailyPlan = dailyPlanRepository.findById(planId);
         if (dailyPlan == null) {
@@ -283,17 +315,48 @@ public class DailyPlanResource {
     }
 
     /**
-     * PUT /daily-tasks/{taskId}/confirm
+     * GET /daily-plans/tasks/{taskId}
+     * Gibt eine einzelne Task zurück.
+     *
+     * @param taskId Daily Task-ID
+     * @return Task mit ETag (304 bei passendem If-None-Match)
+     */
+    @GET
+    @Path("/tasks/{taskId}")
+    public Response getTask(@PathParam("taskId") Long taskId, @Context Request request) {
+        DailyTask task = taskRepository.findById(taskId);
+
+        if (task == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Task nicht gefunden")
+                    .build();
+        }
+
+        Response precondition = EntityTags.evaluatePreconditions(request, task.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapTaskToDTO(task))
+                .tag(EntityTags.of(task.getVersion()))
+                .build();
+    }
+
+    /**
+     * PUT /daily-plans/tasks/{taskId}/confirm
      * Bestätigt eine Daily Task als durchgeführt.
      *
      * Basierend auf FSD Abschnitt 8.2 (Tätigkeiten können manuell bestätigt werden)
      *
+     * Header: If-Match mit dem ETag aus GET /daily-plans/tasks/{taskId} (optional)
+     *
      * @param taskId Daily Task-ID
-     * @return Bestätigte Task
+     * @return Bestätigte Task mit neuem ETag; 412 bei Versionskonflikt
      */
     @PUT
     @Path("/tasks/{taskId}/confirm")
-    public Response confirmTask(@PathParam("taskId") Long taskId) {
+    @Transactional
+    public Response confirmTask(@PathParam("taskId") Long taskId, @Context Request request) {
         DailyTask task = taskRepository.findById(taskId);
 
         if (task == null) {
@@ -302,6 +365,11 @@ public class DailyPlanResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, task.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         if (task.getCompleted()) {
             return Response.status(Response.Status.CONFLICT)
                     .entity("Task ist bereits bestätigt")
@@ -309,9 +377,16 @@ public class DailyPlanResource {
         }
 
         task.confirm();
-        taskRepository.persist(task);
-
-        return Response.ok(mapTaskToDTO(task)).build();
+        taskRepository.persistAndFlush(task);
+        dailyPlanRepository.adjustTaskCounters(task.getDailyPlan(), 0, 1);
+        adherenceService.taskConfirmed(task);
+        syncChangeService.recordChange(task.getDailyPlan().getPatient(), SyncEntityType.DAILY_PLAN, task.getDailyPlan().getId());
+        syncChangeService.recordChange(task.getDailyPlan().getPatient(), SyncEntityType.DAILY_TASK, task.getId());
+        auditChainService.record("DailyTask", task.getId(), AuditAction.CONFIRM, null);
+
+        return Response.ok(mapTaskToDTO(task))
+                .tag(EntityTags.of(task.getVersion()))
+                .build();
     }
 
     // ==================== Mapping Methods ====================
@@ -329,6 +404,8 @@ public class DailyPlanResource {
                 dailyPlan.getId(),
                 dailyPlan.getPatient().getId(),
                 dailyPlan.getPlanDate(),
+                dailyPlan.getCompletedTasks(),
+                dailyPlan.getTotalTasks(),
                 tasks
         );
     }
@@ -0,0 +1,57 @@
+package at.htlleonding.sixtosix.resource;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * ETag / If-Match für versionierte Entities (Optimistic Locking)
+ *
+ * Das ETag einer Ressource ist ihre @Version. Clients senden es bei PUT/DELETE
+ * als If-Match mit; passt es nicht mehr zur gespeicherten Version, wurde der
+ * Datensatz zwischenzeitlich geändert und die Anfrage wird mit 412 abgelehnt.
+ * Bei GET liefert ein passendes If-None-Match 304 Not Modified.
+ *
+ * Ohne If-Match wird die Änderung bewusst ausgeführt (kein 428): Bestätigungen sind
+ * idempotent und die Patienten-App synchronisiert über /sync mit eigener
+ * Konfliktbehandlung. Gleichzeitige Schreibzugriffe fängt dann nur @Version ab.
+ *
+ * Basierend auf TSD Abschnitt 7.1 (REST Prinzipien)
+ */
+public final class EntityTags {
+
+    static final String CONFLICT_MESSAGE = "Datensatz wurde zwischenzeitlich geändert";
+
+    private EntityTags() {
+    }
+
+    /**
+     * ETag zur Version einer Entity
+     */
+    public static EntityTag of(Long version) {
+        return new EntityTag(String.valueOf(version));
+    }
+
+    /**
+     * Prüft If-Match / If-None-Match gegen die aktuelle Version.
+     *
+     * @param request aktueller Request
+     * @param version aktuelle Version der Entity
+     * @return 412 (bzw. 304 bei GET), wenn die Vorbedingung nicht erfüllt ist; sonst null
+     */
+    public static Response evaluatePreconditions(Request request, Long version) {
+        Response.ResponseBuilder failed = request.evaluatePreconditions(of(version));
+        if (failed == null) {
+            return null;
+        }
+
+        Response response = failed.build();
+        if (response.getStatus() != Response.Status.PRECONDITION_FAILED.getStatusCode()) {
+            return response;
+        }
+        return Response.status(Response.Status.PRECONDITION_FAILED)
+                .tag(of(version))
+                .entity(CONFLICT_MESSAGE)
+                .build();
+    }
+}
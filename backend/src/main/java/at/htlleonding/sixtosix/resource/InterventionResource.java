@@ -4,9 +4,16 @@ import at.htlleonding.sixtosix.dto.InterventionDTO;
 import at.htlleonding.sixtosix.dto.InterventionTaskDTO;
 import at.htlleonding.sixtosix.entity.*;
 import at.htlleonding.sixtosix.repository.*;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.SyncChangeService;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 
@@ -24,11 +31,15 @@ import java.util.List;
  * - PUT    /interventions/{id}                          - Intervention aktualisieren
  * - DELETE /interventions/{id}                          - Intervention deaktivieren
  * - POST   /interventions/{interventionId}/tasks        - Task zur Intervention hinzufügen
+ * - GET    /interventions/tasks/{taskId}                - Einzelne Task (ETag)
  * - PUT    /intervention-tasks/{taskId}/complete        - Task markieren als erledigt
+ *
+ * GET /interventions/{id} liefert die Version als ETag; PUT und DELETE prüfen If-Match (412 bei Konflikt).
  */
 @Path("/interventions")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class InterventionResource {
 
     @Inject
@@ -40,6 +51,12 @@ public class InterventionResource {
     @Inject
     PatientRepository patientRepository;
 
+    @Inject
+    SyncChangeService syncChangeService;
+
+    @Inject
+    AuditChainService auditChainService;
+
     // ==================== Interventions ====================
 
     /**
@@ -65,6 +82,7 @@ public class InterventionResource {
      */
     @POST
     @Path("/patients/{patientId}")
+    @Transactional
     public Response createIntervention(
             @PathParam("patientId") Long patientId,
             @QueryParam("source") String source,
@@ -72,8 +90,8 @@ public class InterventionResource {
             @QueryParam("description") String description) {
 
         // Validiere Patient
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -102,6 +120,8 @@ public class InterventionResource {
             intervention.setDescription(description);
         }
         interventionRepository.persist(intervention);
+        syncChangeService.recordChange(patient, SyncEntityType.INTERVENTION, intervention.getId());
+        auditChainService.record("Intervention", intervention.getId(), AuditAction.CREATE, null);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -120,9 +140,10 @@ public class InterventionResource {
      */
     @GET
     @Path("/patients/{patientId}")
+    @QueryBudget(3)
     public Response getInterventionsForPatient(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -141,12 +162,16 @@ public class InterventionResource {
      * GET /interventions/{id}
      * Gibt eine einzelne Intervention mit ihren Tasks zurück.
      *
+     * Das ETag ist die Version der Intervention. Anlegen und Erledigen einer Task erhöhen sie
+     * (InterventionRepository.adjustTaskCounters), das ETag deckt also auch Tasks und Zähler ab.
+     *
      * @param id Intervention-ID
-     * @return Intervention-Details
+     * @return Intervention-Details mit ETag (304 bei passendem If-None-Match)
      */
     @GET
     @Path("/{id}")
-    public Response getIntervention(@PathParam("id") Long id) {
+    @QueryBudget(2)
+    public Response getIntervention(@PathParam("id") Long id, @Context Request request) {
         Intervention intervention = interventionRepository.findById(id);
 
         if (intervention == null) {
@@ -155,24 +180,35 @@ public class InterventionResource {
                     .build();
         }
 
-        return Response.ok(mapToDTO(intervention)).build();
+        Response precondition = EntityTags.evaluatePreconditions(request, intervention.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapToDTO(intervention))
+                .tag(EntityTags.of(intervention.getVersion()))
+                .build();
     }
 
     /**
      * PUT /interventions/{id}
      * Aktualisiert eine Intervention.
      *
+     * Header: If-Match mit dem ETag aus GET /interventions/{id} (optional)
+     *
      * @param id Intervention-ID
      * @param title Neuer Titel
      * @param description Neue Beschreibung
-     * @return Aktualisierte Intervention
+     * @return Aktualisierte Intervention mit neuem ETag; 412 bei Versionskonflikt
      */
     @PUT
     @Path("/{id}")
+    @Transactional
     public Response updateIntervention(
             @PathParam("id") Long id,
             @QueryParam("title") String title,
-            @QueryParam("description") String description) {
+            @QueryParam("description") String description,
+            @Context Request request) {
 
         Intervention intervention = interventionRepository.findById(id);
         if (intervention == null) {
@@ -181,27 +217,39 @@ public class InterventionResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, intervention.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         if (title != null && !title.isBlank()) {
             intervention.setTitle(title);
         }
         if (description != null && !description.isBlank()) {
             intervention.setDescription(description);
         }
-        interventionRepository.persist(intervention);
+        interventionRepository.persistAndFlush(intervention);
+        syncChangeService.recordChange(intervention.getPatient(), SyncEntityType.INTERVENTION, intervention.getId());
+        auditChainService.record("Intervention", intervention.getId(), AuditAction.UPDATE, null);
 
-        return Response.ok(mapToDTO(intervention)).build();
+        return Response.ok(mapToDTO(intervention))
+                .tag(EntityTags.of(intervention.getVersion()))
+                .build();
     }
 
     /**
      * DELETE /interventions/{id}
      * Deaktiviert eine Intervention.
      *
+     * Header: If-Match (optional)
+     *
      * @param id Intervention-ID
-     * @return 204 No Content
+     * @return 204 No Content; 412 bei Versionskonflikt
      */
     @DELETE
     @Path("/{id}")
-    public Response deactivateIntervention(@PathParam("id") Long id) {
+    @Transactional
+    public Response deactivateIntervention(@PathParam("id") Long id, @Context Request request) {
         Intervention intervention = interventionRepository.findById(id);
         if (intervention == null) {
             return Response.status(Response.Status.NOT_FOUND)
@@ -209,7 +257,14 @@ public class InterventionResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, intervention.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         interventionRepository.deactivateIntervention(id);
+        syncChangeService.recordChange(intervention.getPatient(), SyncEntityType.INTERVENTION, id);
+        auditChainService.record("Intervention", id, AuditAction.DELETE, "deaktiviert");
 
         return Response.noContent().build();
     }
@@ -233,6 +288,7 @@ public class InterventionResource {
      */
     @POST
     @Path("/{interventionId}/tasks")
+    @Transactional
     public Response addTaskToIntervention(
             @PathParam("interventionId") Long interventionId,
             @QueryParam("description") String description) {
@@ -255,6 +311,10 @@ public class InterventionResource {
         // Erstelle neue Task
         InterventionTask task = new InterventionTask(intervention, description);
         taskRepository.persist(task);
+        interventionRepository.adjustTaskCounters(intervention, 1, 0);
+        syncChangeService.recordChange(intervention.getPatient(), SyncEntityType.INTERVENTION, intervention.getId());
+        syncChangeService.recordChange(intervention.getPatient(), SyncEntityType.INTERVENTION_TASK, task.getId());
+        auditChainService.record("InterventionTask", task.getId(), AuditAction.CREATE, null);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -271,6 +331,7 @@ public class InterventionResource {
      */
     @GET
     @Path("/{interventionId}/tasks")
+    @QueryBudget(2)
     public Response getTasksForIntervention(@PathParam("interventionId") Long interventionId) {
         Intervention intervention = interventionRepository.findById(interventionId);
         if (intervention == null) {
@@ -288,18 +349,49 @@ public class InterventionResource {
         return Response.ok(tasks).build();
     }
 
+    /**
+     * GET /interventions/tasks/{taskId}
+     * Gibt eine einzelne Task zurück.
+     *
+     * @param taskId Task-ID
+     * @return Task mit ETag (304 bei passendem If-None-Match)
+     */
+    @GET
+    @Path("/tasks/{taskId}")
+    public Response getTask(@PathParam("taskId") Long taskId, @Context Request request) {
+        InterventionTask task = taskRepository.findById(taskId);
+
+        if (task == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Task nicht gefunden")
+                    .build();
+        }
+
+        Response precondition = EntityTags.evaluatePreconditions(request, task.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapTaskToDTO(task))
+                .tag(EntityTags.of(task.getVersion()))
+                .build();
+    }
+
     /**
      * PUT /intervention-tasks/{taskId}/complete
      * Markiert eine Task als erledigt.
      *
      * Basierend auf FSD Abschnitt 7.2 (Können als durchgeführt markiert werden)
      *
+     * Header: If-Match mit dem ETag aus GET /interventions/tasks/{taskId} (optional)
+     *
      * @param taskId Task-ID
-     * @return Aktualisierte Task
+     * @return Aktualisierte Task mit neuem ETag; 412 bei Versionskonflikt
      */
     @PUT
     @Path("/tasks/{taskId}/complete")
-    public Response completeTask(@PathParam("taskId") Long taskId) {
+    @Transactional
+    public Response completeTask(@PathParam("taskId") Long taskId, @Context Request request) {
         InterventionTask task = taskRepository.findById(taskId);
 
         if (task == null) {
@@ -308,10 +400,24 @@ public class InterventionResource {
                     .build();
         }
 
-        task.markCompleted();
-        taskRepository.persist(task);
+        Response precondition = EntityTags.evaluatePreconditions(request, task.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
 
-        return Response.ok(mapTaskToDTO(task)).build();
+        // Erneutes Erledigen ändert nichts (Zeitpunkt und Zähler bleiben)
+        if (!task.getCompleted()) {
+            task.markCompleted();
+            taskRepository.persistAndFlush(task);
+            interventionRepository.adjustTaskCounters(task.getIntervention(), 0, 1);
+            syncChangeService.recordChange(task.getIntervention().getPatient(), SyncEntityType.INTERVENTION, task.getIntervention().getId());
+            syncChangeService.recordChange(task.getIntervention().getPatient(), SyncEntityType.INTERVENTION_TASK, task.getId());
+            auditChainService.record("InterventionTask", task.getId(), AuditAction.CONFIRM, null);
+        }
+
+        return Response.ok(mapTaskToDTO(task))
+                .tag(EntityTags.of(task.getVersion()))
+                .build();
     }
 
     // ==================== Mapping Methods ====================
@@ -333,6 +439,8 @@ public class InterventionResource {
                 intervention.getDescription(),
                 intervention.getActive(),
                 intervention.getCreatedAt(),
+                intervention.getCompletedTasks(),
+                intervention.getTotalTasks(),
                 tasks
         );
     }
@@ -0,0 +1,447 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.dto.InterventionRuleDTO;
+import at.htlleonding.sixtosix.dto.InterventionSuggestionDTO;
+import at.htlleonding.sixtosix.entity.*;
+import at.htlleonding.sixtosix.repository.*;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.InterventionSuggestionEngine;
+import at.htlleonding.sixtosix.service.SyncChangeService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+/**
+ * REST Resource für Interventionsvorschläge
+ * Regeln (ADL/Skill-Status + optional aktiver Bedarf → Intervention) und die daraus
+ * erzeugten Vorschläge, die der Pfleger bestätigt oder verwirft
+ *
+ * Basierend auf FSD Abschnitt 5.3 (Überleitung in Interventionen)
+ * und FSD Abschnitt 13.2 (Übernahme nur nach Bestätigung durch den Pfleger)
+ *
+ * Endpunkte:
+ * - GET    /suggestions/patients/{patientId}   - Offene Vorschläge eines Patienten
+ * - GET    /suggestions/{id}                   - Einzelner Vorschlag (ETag)
+ * - PUT    /suggestions/{id}/accept            - Vorschlag übernehmen (legt Intervention an)
+ * - PUT    /suggestions/{id}/dismiss           - Vorschlag verwerfen
+ * - GET    /suggestions/rules                  - Aktive Regeln
+ * - GET    /suggestions/rules/{id}             - Einzelne Regel (ETag)
+ * - POST   /suggestions/rules                  - Neue Regel
+ * - DELETE /suggestions/rules/{id}             - Regel deaktivieren
+ */
+@Path("/suggestions")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class InterventionSuggestionResource {
+
+    @Inject
+    InterventionSuggestionRepository suggestionRepository;
+
+    @Inject
+    InterventionRuleRepository ruleRepository;
+
+    @Inject
+    InterventionRepository interventionRepository;
+
+    @Inject
+    ADLDefinitionRepository adlDefinitionRepository;
+
+    @Inject
+    SkillDefinitionRepository skillDefinitionRepository;
+
+    @Inject
+    PatientRepository patientRepository;
+
+    @Inject
+    UserAccountRepository userAccountRepository;
+
+    @Inject
+    SyncChangeService syncChangeService;
+
+    @Inject
+    Event<InterventionSuggestionEngine.RulesChanged> rulesChanged;
+
+    @Inject
+    AuditChainService auditChainService;
+
+    // ==================== Suggestions ====================
+
+    /**
+     * GET /suggestions/patients/{patientId}
+     * Gibt alle offenen Vorschläge eines Patienten zurück.
+     *
+     * @param patientId Patient-ID
+     * @return Liste offener Vorschläge
+     */
+    @GET
+    @Path("/patients/{patientId}")
+    public Response getOpenSuggestions(@PathParam("patientId") Long patientId) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        List<InterventionSuggestionDTO> suggestions = suggestionRepository
+                .findOpenByPatient(patient)
+                .stream()
+                .map(this::mapSuggestionToDTO)
+                .toList();
+
+        return Response.ok(suggestions).build();
+    }
+
+    /**
+     * GET /suggestions/{id}
+     * Gibt einen einzelnen Vorschlag zurück.
+     *
+     * @param id Vorschlag-ID
+     * @return Vorschlag mit ETag (304 bei passendem If-None-Match)
+     */
+    @GET
+    @Path("/{id}")
+    public Response getSuggestion(@PathParam("id") Long id, @Context Request request) {
+        InterventionSuggestion suggestion = suggestionRepository.findById(id);
+        if (suggestion == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Vorschlag nicht gefunden")
+                    .build();
+        }
+
+        Response precondition = EntityTags.evaluatePreconditions(request, suggestion.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapSuggestionToDTO(suggestion))
+                .tag(EntityTags.of(suggestion.getVersion()))
+                .build();
+    }
+
+    /**
+     * PUT /suggestions/{id}/accept
+     * Übernimmt einen Vorschlag: legt die Intervention samt Aufgaben aus der Regel-Vorlage an.
+     *
+     * Header: If-Match mit dem ETag aus GET /suggestions/{id} (optional)
+     *
+     * @param id Vorschlag-ID
+     * @param userId ID des bestätigenden Pflegers
+     * @return Übernommener Vorschlag (mit interventionId) und neuem ETag; 412 bei Versionskonflikt
+     */
+    @PUT
+    @Path("/{id}/accept")
+    @Transactional
+    public Response acceptSuggestion(@PathParam("id") Long id, @QueryParam("userId") Long userId,
+                                     @Context Request request) {
+        InterventionSuggestion suggestion = suggestionRepository.findById(id);
+        if (suggestion == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Vorschlag nicht gefunden")
+                    .build();
+        }
+
+        Response precondition = EntityTags.evaluatePreconditions(request, suggestion.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        if (suggestion.getStatus() != SuggestionStatus.OPEN) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Vorschlag ist nicht mehr offen: " + suggestion.getStatus())
+                    .build();
+        }
+
+        UserAccount user = userId != null ? userAccountRepository.findById(userId) : null;
+        if (user == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Pfleger nicht gefunden")
+                    .build();
+        }
+
+        Intervention intervention = new Intervention(suggestion.getPatient(), suggestion.getSource(), suggestion.getTitle());
+        intervention.setDescription(suggestion.getDescription());
+        String taskTemplate = suggestion.getRule().getTaskTemplate();
+        if (taskTemplate != null) {
+            taskTemplate.lines()
+                    .map(String::strip)
+                    .filter(line -> !line.isEmpty())
+                    .forEach(line -> intervention.getTasks().add(new InterventionTask(intervention, line)));
+        }
+        interventionRepository.persist(intervention);
+        syncChangeService.recordChange(intervention.getPatient(), SyncEntityType.INTERVENTION, intervention.getId());
+        for (InterventionTask task : intervention.getTasks()) {
+            syncChangeService.recordChange(intervention.getPatient(), SyncEntityType.INTERVENTION_TASK, task.getId());
+        }
+
+        suggestion.accept(user, intervention);
+        // Versionsprüfung: bei gleichzeitiger Annahme wird die zweite Intervention verworfen (412)
+        suggestionRepository.flush();
+        auditChainService.record("InterventionSuggestion", suggestion.getId(), AuditAction.APPROVE, user, "Intervention " + intervention.getId());
+
+        return Response.ok(mapSuggestionToDTO(suggestion))
+                .tag(EntityTags.of(suggestion.getVersion()))
+                .build();
+    }
+
+    /**
+     * PUT /suggestions/{id}/dismiss
+     * Verwirft einen Vorschlag. Solange die Bedingung erfüllt bleibt, wird er nicht erneut vorgeschlagen.
+     *
+     * Header: If-Match (optional)
+     *
+     * @param id Vorschlag-ID
+     * @param userId ID des Pflegers
+     * @return Verworfener Vorschlag mit neuem ETag; 412 bei Versionskonflikt
+     */
+    @PUT
+    @Path("/{id}/dismiss")
+    @Transactional
+    public Response dismissSuggestion(@PathParam("id") Long id, @QueryParam("userId") Long userId,
+                                      @Context Request request) {
+        InterventionSuggestion suggestion = suggestionRepository.findById(id);
+        if (suggestion == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Vorschlag nicht gefunden")
+                    .build();
+        }
+
+        Response precondition = EntityTags.evaluatePreconditions(request, suggestion.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        if (suggestion.getStatus() != SuggestionStatus.OPEN) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Vorschlag ist nicht mehr offen: " + suggestion.getStatus())
+                    .build();
+        }
+
+        UserAccount user = userId != null ? userAccountRepository.findById(userId) : null;
+        if (user == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Pfleger nicht gefunden")
+                    .build();
+        }
+
+        suggestion.dismiss(user);
+        suggestionRepository.flush();
+        auditChainService.record("InterventionSuggestion", suggestion.getId(), AuditAction.UPDATE, user, "verworfen");
+
+        return Response.ok(mapSuggestionToDTO(suggestion))
+                .tag(EntityTags.of(suggestion.getVersion()))
+                .build();
+    }
+
+    // ==================== Rules ====================
+
+    /**
+     * GET /suggestions/rules
+     * Gibt alle aktiven Regeln zurück.
+     *
+     * @return Liste aktiver Regeln
+     */
+    @GET
+    @Path("/rules")
+    public List<InterventionRuleDTO> getRules() {
+        return ruleRepository.findAllActive()
+                .stream()
+                .map(this::mapRuleToDTO)
+                .toList();
+    }
+
+    /**
+     * POST /suggestions/rules
+     * Erstellt eine neue Regel (Admin-Funktion). Die Regel wirkt ab der nächsten Bewertung.
+     *
+     * Query Parameter:
+     * - source: ADL oder SKILL
+     * - definitionId: ID der ADL- bzw. Skill-Definition
+     * - status: auslösender Status (INTACT, RESTRICTED, NURSING_RELEVANT)
+     * - careNeedKeyword: optional, Regel greift nur bei aktivem Bedarf mit diesem Stichwort
+     * - title, description: Vorlage der Intervention
+     * - taskTemplate: optional, Aufgaben (eine pro Zeile)
+     *
+     * @return 201 Created mit neuer Regel
+     */
+    @POST
+    @Path("/rules")
+    @Transactional
+    public Response createRule(
+            @QueryParam("source") String source,
+            @QueryParam("definitionId") Long definitionId,
+            @QueryParam("status") String status,
+            @QueryParam("careNeedKeyword") String careNeedKeyword,
+            @QueryParam("title") String title,
+            @QueryParam("description") String description,
+            @QueryParam("taskTemplate") String taskTemplate) {
+
+        // Validiere Source und Status
+        InterventionSource ruleSource;
+        AssessmentStatus ruleStatus;
+        try {
+            ruleSource = InterventionSource.valueOf(source);
+            ruleStatus = AssessmentStatus.valueOf(status);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Ungültige Source oder ungültiger Status")
+                    .build();
+        }
+
+        if (title == null || title.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Titel darf nicht leer sein")
+                    .build();
+        }
+
+        InterventionRule rule = new InterventionRule(ruleSource, ruleStatus, title);
+
+        // Validiere Definition passend zur Source
+        if (ruleSource == InterventionSource.ADL) {
+            ADLDefinition definition = definitionId != null ? adlDefinitionRepository.findById(definitionId) : null;
+            if (definition == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("ADL-Definition nicht gefunden")
+                        .build();
+            }
+            rule.setAdlDefinition(definition);
+        } else if (ruleSource == InterventionSource.SKILL) {
+            SkillDefinition definition = definitionId != null ? skillDefinitionRepository.findById(definitionId) : null;
+            if (definition == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Skill-Definition nicht gefunden")
+                        .build();
+            }
+            rule.setSkillDefinition(definition);
+        } else {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Regeln sind nur für ADL und SKILL möglich")
+                    .build();
+        }
+
+        if (careNeedKeyword != null && !careNeedKeyword.isBlank()) {
+            rule.setCareNeedKeyword(careNeedKeyword.strip());
+        }
+        rule.setDescription(description);
+        rule.setTaskTemplate(taskTemplate);
+        ruleRepository.persist(rule);
+        auditChainService.record("InterventionRule", rule.getId(), AuditAction.CREATE, null);
+        rulesChanged.fire(new InterventionSuggestionEngine.RulesChanged());
+
+        return Response
+                .status(Response.Status.CREATED)
+                .entity(mapRuleToDTO(rule))
+                .build();
+    }
+
+    /**
+     * GET /suggestions/rules/{id}
+     * Gibt eine einzelne Regel zurück.
+     *
+     * @param id Regel-ID
+     * @return Regel mit ETag (304 bei passendem If-None-Match)
+     */
+    @GET
+    @Path("/rules/{id}")
+    public Response getRule(@PathParam("id") Long id, @Context Request request) {
+        InterventionRule rule = ruleRepository.findById(id);
+
+        if (rule == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Regel nicht gefunden")
+                    .build();
+        }
+
+        Response precondition = EntityTags.evaluatePreconditions(request, rule.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapRuleToDTO(rule))
+                .tag(EntityTags.of(rule.getVersion()))
+                .build();
+    }
+
+    /**
+     * DELETE /suggestions/rules/{id}
+     * Deaktiviert eine Regel. Offene Vorschläge der Regel werden als überholt markiert.
+     *
+     * Header: If-Match (optional)
+     *
+     * @param id Regel-ID
+     * @return 204 No Content; 412 bei Versionskonflikt
+     */
+    @DELETE
+    @Path("/rules/{id}")
+    @Transactional
+    public Response deactivateRule(@PathParam("id") Long id, @Context Request request) {
+        InterventionRule rule = ruleRepository.findById(id);
+
+        if (rule == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Regel nicht gefunden")
+                    .build();
+        }
+
+        Response precondition = EntityTags.evaluatePreconditions(request, rule.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        rule.setActive(false);
+        suggestionRepository.endConditionForRule(id);
+        auditChainService.record("InterventionRule", id, AuditAction.DELETE, "deaktiviert");
+        rulesChanged.fire(new InterventionSuggestionEngine.RulesChanged());
+
+        return Response.noContent().build();
+    }
+
+    // ==================== Mapping Methods ====================
+
+    /**
+     * Mappt InterventionSuggestion Entity zu InterventionSuggestionDTO
+     */
+    private InterventionSuggestionDTO mapSuggestionToDTO(InterventionSuggestion suggestion) {
+        return new InterventionSuggestionDTO(
+                suggestion.getId(),
+                suggestion.getPatient().getId(),
+                suggestion.getRule().getId(),
+                suggestion.getSource().toString(),
+                suggestion.getTitle(),
+                suggestion.getDescription(),
+                suggestion.getAssessmentId(),
+                suggestion.getStatus().toString(),
+                suggestion.getCreatedAt(),
+                suggestion.getDecidedAt(),
+                suggestion.getDecidedBy() != null ? suggestion.getDecidedBy().getId() : null,
+                suggestion.getIntervention() != null ? suggestion.getIntervention().getId() : null
+        );
+    }
+
+    /**
+     * Mappt InterventionRule Entity zu InterventionRuleDTO
+     */
+    private InterventionRuleDTO mapRuleToDTO(InterventionRule rule) {
+        boolean adl = rule.getSource() == InterventionSource.ADL;
+        return new InterventionRuleDTO(
+                rule.getId(),
+                rule.getSource().toString(),
+                adl ? rule.getAdlDefinition().getId() : rule.getSkillDefinition().getId(),
+                adl ? rule.getAdlDefinition().getName() : rule.getSkillDefinition().getName(),
+                rule.getStatus().toString(),
+                rule.getCareNeedKeyword(),
+                rule.getTitle(),
+                rule.getDescription(),
+                rule.getTaskTemplate(),
+                rule.getActive()
+        );
+    }
+}
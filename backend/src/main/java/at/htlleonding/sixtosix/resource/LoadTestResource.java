@@ -0,0 +1,76 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.dto.ConnectionStatsDTO;
+import at.htlleonding.sixtosix.repository.PatientAppReadRepository;
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.quarkus.arc.profile.IfBuildProfile;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * REST Resource für Lastmessungen (Vergleich blockierender vs. reaktiver Lesepfad)
+ *
+ * Nur in den Build-Profilen dev, test und loadtest enthalten; ein normaler Prod-Build
+ * hat diese Endpunkte nicht, da sie Pool-Interna preisgeben und Spitzenwerte ohne
+ * Berechtigung zurücksetzen. Build für Messungen: {@code ./mvnw package -Dquarkus.profile=loadtest}.
+ * Im Betrieb stehen die Pool-Kennzahlen unter /q/metrics zur Verfügung.
+ *
+ * Endpunkte:
+ * - GET    /loadtest/connections        - Verbindungsnutzung beider Pools
+ * - POST   /loadtest/connections/reset  - Spitzenwerte zurücksetzen
+ */
+@Path("/loadtest")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@IfBuildProfile(anyOf = {"dev", "test", "loadtest"})
+public class LoadTestResource {
+
+    @Inject
+    PatientAppReadRepository readRepository;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "quarkus.datasource.reactive.max-size", defaultValue = "20")
+    int reactivePoolSize;
+
+    /**
+     * GET /loadtest/connections
+     * Aktuelle und maximale Verbindungsnutzung des JDBC-Pools (blockierend)
+     * und des reaktiven Pools seit dem letzten Zurücksetzen.
+     *
+     * @return Verbindungsnutzung beider Pools
+     */
+    @GET
+    @Path("/connections")
+    public ConnectionStatsDTO getConnectionStats() {
+        AgroalDataSourceMetrics metrics = dataSource.getMetrics();
+        int reactivePeak = readRepository.maxStatementsInFlight();
+        return new ConnectionStatsDTO(
+                metrics.activeCount(),
+                metrics.maxUsedCount(),
+                metrics.awaitingCount(),
+                readRepository.statementsInFlight(),
+                reactivePeak,
+                Math.min(reactivePeak, reactivePoolSize)
+        );
+    }
+
+    /**
+     * POST /loadtest/connections/reset
+     * Setzt die Spitzenwerte beider Pools zurück (vor einem Messlauf).
+     *
+     * @return 204 No Content
+     */
+    @POST
+    @Path("/connections/reset")
+    public Response resetConnectionStats() {
+        dataSource.getMetrics().reset();
+        readRepository.resetMaxStatementsInFlight();
+        return Response.noContent().build();
+    }
+}
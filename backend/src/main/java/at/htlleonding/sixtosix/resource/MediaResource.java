@@ -0,0 +1,371 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.dto.InterventionMediaDTO;
+import at.htlleonding.sixtosix.entity.Intervention;
+import at.htlleonding.sixtosix.entity.InterventionMedia;
+import at.htlleonding.sixtosix.entity.MediaBlob;
+import at.htlleonding.sixtosix.entity.MediaDerivativeStatus;
+import at.htlleonding.sixtosix.entity.MediaVariant;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import at.htlleonding.sixtosix.repository.InterventionMediaRepository;
+import at.htlleonding.sixtosix.repository.InterventionRepository;
+import at.htlleonding.sixtosix.repository.MediaBlobRepository;
+import at.htlleonding.sixtosix.service.MediaService;
+import at.htlleonding.sixtosix.service.MediaStore;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.PathPart;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * REST Resource für grafische Anleitungen (Bilder, Schrittdarstellungen) zu Interventionen
+ *
+ * Inhalte liegen inhaltsadressiert im MediaStore und werden über ihren SHA-256-Hash
+ * ausgeliefert. Da sich der Inhalt zu einem Hash nie ändert, ist der Hash ein starkes
+ * ETag und die Antworten dürfen unbegrenzt zwischengespeichert werden. Dateien werden
+ * per sendfile direkt aus dem Page Cache gesendet; Range-Anfragen (ein Bereich) liefern
+ * 206 Partial Content.
+ *
+ * Basierend auf FSD Abschnitt 7.3 (Grafische Anleitungen)
+ *
+ * Endpunkte:
+ * - POST   /media/interventions/{interventionId}       - Bild hochladen und anhängen
+ * - GET    /media/interventions/{interventionId}       - Anleitungen einer Intervention
+ * - DELETE /media/attachments/{id}                     - Anleitung entfernen
+ * - GET    /media/blobs/{sha256}                       - Original
+ * - GET    /media/blobs/{sha256}/{variant}             - Abgeleitetes Bild (thumbnail, preview)
+ */
+@Path("/media")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class MediaResource {
+
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    private static final Pattern BYTE_RANGE = Pattern.compile("bytes=\\s*(\\d*)-(\\d*)\\s*");
+
+    @Inject
+    MediaStore mediaStore;
+
+    @Inject
+    MediaService mediaService;
+
+    @Inject
+    InterventionRepository interventionRepository;
+
+    @Inject
+    InterventionMediaRepository mediaRepository;
+
+    @Inject
+    MediaBlobRepository blobRepository;
+
+    // ==================== Interventionen ====================
+
+    /**
+     * POST /media/interventions/{interventionId}
+     * Lädt ein Bild hoch (Body: Bilddaten, PNG/JPEG/GIF) und hängt es als nächsten Schritt an.
+     * Das Format wird am Inhalt erkannt, nicht am Content-Type.
+     *
+     * @param interventionId Intervention-ID
+     * @param caption Bildunterschrift (optional)
+     * @param content Bilddaten
+     * @return 201 Created mit der neuen Anleitung; 400 bei unbekanntem Format oder zu großer Datei
+     */
+    @POST
+    @Path("/interventions/{interventionId}")
+    @Consumes({"image/png", "image/jpeg", "image/gif", MediaType.APPLICATION_OCTET_STREAM})
+    @StreamedUpload
+    public Response uploadMedia(
+            @PathParam("interventionId") Long interventionId,
+            @QueryParam("caption") String caption,
+            InputStream content) throws IOException {
+
+        if (interventionRepository.findById(interventionId) == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Intervention nicht gefunden")
+                    .build();
+        }
+
+        // Datei vor der Transaktion schreiben; keine Verbindung während des Uploads
+        MediaStore.StoredContent stored;
+        try {
+            stored = mediaStore.store(content);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        }
+
+        InterventionMedia media = mediaService.attach(interventionId, stored,
+                caption != null && !caption.isBlank() ? caption : null);
+        if (media == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Intervention nicht gefunden")
+                    .build();
+        }
+
+        return Response
+                .status(Response.Status.CREATED)
+                .entity(mapToDTO(media))
+                .build();
+    }
+
+    /**
+     * GET /media/interventions/{interventionId}
+     * Gibt die Anleitungen einer Intervention in Schrittreihenfolge zurück.
+     *
+     * @param interventionId Intervention-ID
+     * @return Liste der Anleitungen
+     */
+    @GET
+    @Path("/interventions/{interventionId}")
+    @QueryBudget(2)
+    public Response getMediaForIntervention(@PathParam("interventionId") Long interventionId) {
+        Intervention intervention = interventionRepository.findById(interventionId);
+        if (intervention == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Intervention nicht gefunden")
+                    .build();
+        }
+
+        List<InterventionMediaDTO> media = mediaRepository
+                .findByIntervention(intervention)
+                .stream()
+                .map(this::mapToDTO)
+                .toList();
+
+        return Response.ok(media).build();
+    }
+
+    /**
+     * DELETE /media/attachments/{id}
+     * Entfernt eine Anleitung von ihrer Intervention; der Inhalt selbst bleibt erhalten.
+     *
+     * @param id Anleitungs-ID
+     * @return 204 No Content
+     */
+    @DELETE
+    @Path("/attachments/{id}")
+    public Response deleteMedia(@PathParam("id") Long id) {
+        if (!mediaService.detach(id)) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Anleitung nicht gefunden")
+                    .build();
+        }
+        return Response.noContent().build();
+    }
+
+    // ==================== Inhalte ====================
+
+    /**
+     * GET /media/blobs/{sha256}
+     * Liefert das Original. Unterstützt If-None-Match (304), Range und If-Range (206, 416).
+     *
+     * @param sha256 Hash des Inhalts (64 Hex-Zeichen, klein)
+     * @return Bilddaten
+     */
+    @GET
+    @Path("/blobs/{sha256}")
+    @Produces({"image/png", "image/jpeg", "image/gif"})
+    @QueryBudget(1)
+    public Response getBlob(
+            @PathParam("sha256") String sha256,
+            @Context Request request,
+            @Context HttpHeaders headers) {
+
+        Optional<MediaBlob> blob = findBlob(sha256);
+        if (blob.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .type(MediaType.TEXT_PLAIN)
+                    .entity("Medium nicht gefunden")
+                    .build();
+        }
+
+        return serve(mediaStore.blobPath(sha256), new EntityTag(sha256), blob.get().getContentType(),
+                request, headers);
+    }
+
+    /**
+     * GET /media/blobs/{sha256}/{variant}
+     * Liefert ein abgeleitetes Bild (JPEG), sobald es erzeugt wurde.
+     *
+     * @param sha256 Hash des Originals
+     * @param variant thumbnail oder preview
+     * @return Bilddaten; 404, solange das Bild noch erzeugt wird
+     */
+    @GET
+    @Path("/blobs/{sha256}/{variant}")
+    @Produces("image/jpeg")
+    @QueryBudget(1)
+    public Response getDerivative(
+            @PathParam("sha256") String sha256,
+            @PathParam("variant") String variant,
+            @Context Request request,
+            @Context HttpHeaders headers) {
+
+        MediaVariant mediaVariant;
+        try {
+            mediaVariant = MediaVariant.valueOf(variant.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .type(MediaType.TEXT_PLAIN)
+                    .entity("Unbekannte Variante: " + variant)
+                    .build();
+        }
+
+        Optional<MediaBlob> blob = findBlob(sha256);
+        if (blob.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .type(MediaType.TEXT_PLAIN)
+                    .entity("Medium nicht gefunden")
+                    .build();
+        }
+
+        java.nio.file.Path file = mediaStore.derivativePath(sha256, mediaVariant);
+        if (blob.get().getDerivativeStatus() != MediaDerivativeStatus.READY || !Files.exists(file)) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .type(MediaType.TEXT_PLAIN)
+                    .entity(blob.get().getDerivativeStatus() == MediaDerivativeStatus.FAILED
+                            ? "Keine Vorschau verfügbar"
+                            : "Vorschau wird noch erzeugt")
+                    .build();
+        }
+
+        return serve(file, new EntityTag(sha256 + "-" + mediaVariant.pathName()), "image/jpeg", request, headers);
+    }
+
+    // ==================== Hilfsmethoden ====================
+
+    /**
+     * Nur Inhalte, die die eigene Organisation hochgeladen hat (die Datei selbst ist geteilt)
+     */
+    private Optional<MediaBlob> findBlob(String sha256) {
+        if (!MediaStore.isValidSha256(sha256)) {
+            return Optional.empty();
+        }
+        return blobRepository.findBySha256(sha256);
+    }
+
+    /**
+     * Sendet die Datei ganz (sendfile) oder den angefragten Bereich
+     */
+    private Response serve(java.nio.file.Path file, EntityTag tag, String contentType,
+                           Request request, HttpHeaders headers) {
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.tag(tag).header("Cache-Control", CACHE_CONTROL).build();
+        }
+
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .type(MediaType.TEXT_PLAIN)
+                    .entity("Medium nicht gefunden")
+                    .build();
+        }
+
+        String range = headers.getHeaderString("Range");
+        String ifRange = headers.getHeaderString("If-Range");
+        // Passt If-Range nicht (mehr), wird der ganze Inhalt gesendet
+        if (range != null && (ifRange == null || ifRange.equals(tag.toString()))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header("Content-Range", "bytes */" + size)
+                        .build();
+            }
+            if (bounds.length == 2) {
+                long length = bounds[1] - bounds[0] + 1;
+                return Response.status(Response.Status.PARTIAL_CONTENT)
+                        .entity(new PathPart(file, bounds[0], length))
+                        .type(contentType)
+                        .tag(tag)
+                        .header("Content-Range", "bytes " + bounds[0] + "-" + bounds[1] + "/" + size)
+                        .header("Accept-Ranges", "bytes")
+                        .header("Cache-Control", CACHE_CONTROL)
+                        .build();
+            }
+        }
+
+        return Response.ok(file, contentType)
+                .tag(tag)
+                .header("Accept-Ranges", "bytes")
+                .header("Cache-Control", CACHE_CONTROL)
+                .build();
+    }
+
+    /**
+     * Wertet einen Range-Header mit genau einem Bereich aus.
+     * Ungültige Angaben (anderes Format, mehrere Bereiche, Ende vor Anfang) werden ignoriert;
+     * nicht erfüllbar ist ein gültiger Bereich, der hinter dem Ende des Inhalts beginnt.
+     *
+     * @return {erstes, letztes Byte}; leeres Array, wenn der Header ignoriert wird;
+     *         null, wenn der Bereich nicht erfüllbar ist (416)
+     */
+    static long[] parseRange(String header, long size) {
+        Matcher matcher = BYTE_RANGE.matcher(header);
+        if (!matcher.matches()) {
+            return new long[0];
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return new long[0];
+                }
+                // Suffix: die letzten n Bytes
+                long suffix = Long.parseLong(last);
+                if (suffix == 0 || size == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+            long start = Long.parseLong(first);
+            if (!last.isEmpty() && Long.parseLong(last) < start) {
+                return new long[0];
+            }
+            if (start >= size) {
+                return null;
+            }
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            // Überlauf
+            return new long[0];
+        }
+    }
+
+    private InterventionMediaDTO mapToDTO(InterventionMedia media) {
+        MediaBlob blob = media.getBlob();
+        return new InterventionMediaDTO(
+                media.getId(),
+                media.getIntervention().getId(),
+                blob.getSha256(),
+                blob.getContentType(),
+                blob.getSizeBytes(),
+                blob.getWidth(),
+                blob.getHeight(),
+                media.getCaption(),
+                media.getPosition(),
+                blob.getDerivativeStatus().toString(),
+                media.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package at.htlleonding.sixtosix.resource;
+
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Übersetzt einen Versionskonflikt beim Schreiben in 412 Precondition Failed.
+ *
+ * Tritt auf, wenn zwischen Prüfung von If-Match und Flush eine andere
+ * Transaktion denselben Datensatz geändert hat.
+ */
+@Provider
+public class OptimisticLockExceptionMapper implements ExceptionMapper<OptimisticLockException> {
+
+    @Override
+    public Response toResponse(OptimisticLockException exception) {
+        return Response.status(Response.Status.PRECONDITION_FAILED)
+                .entity(EntityTags.CONFLICT_MESSAGE)
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.repository.PatientAppReadRepository;
+import at.htlleonding.sixtosix.tenant.CurrentTenant;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.time.LocalDate;
+
+/**
+ * REST Resource für die häufigsten Lesezugriffe der Patienten-App (nicht blockierend)
+ * Läuft auf dem Event-Loop mit dem reaktiven PostgreSQL-Client, parallel zu den
+ * blockierenden Endpunkten; eine Verbindung wird nur für die Dauer einer Abfrage belegt.
+ *
+ * Antworten entsprechen den blockierenden Endpunkten (gleiche DTOs und Statuscodes).
+ *
+ * Basierend auf FSD Abschnitt 8 (Tagesstruktur) und 9 (Medikation)
+ *
+ * Endpunkte:
+ * - GET    /app/daily-plans/patients/{patientId}/today  - Heutiger Tagesplan mit Tasks
+ * - GET    /app/daily-plans/{planId}/tasks              - Tasks eines Tagesplans
+ * - GET    /app/medications/patients/{patientId}        - Medikamente eines Patienten
+ */
+@Path("/app")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class PatientAppResource {
+
+    @Inject
+    PatientAppReadRepository readRepository;
+
+    @Inject
+    CurrentTenant currentTenant;
+
+    /**
+     * GET /app/daily-plans/patients/{patientId}/today
+     * Gibt den Tagesplan für heute inklusive Tasks zurück.
+     *
+     * @param patientId Patient-ID
+     * @return Heutiger Tagesplan oder 404
+     */
+    @GET
+    @Path("/daily-plans/patients/{patientId}/today")
+    public Uni<Response> getTodaysDailyPlan(@PathParam("patientId") Long patientId) {
+        return readRepository.isActivePatient(currentTenant.get(), patientId)
+                .chain(active -> {
+                    if (!active) {
+                        return Uni.createFrom().item(Response.status(Response.Status.NOT_FOUND)
+                                .entity("Patient nicht gefunden")
+                                .build());
+                    }
+                    return readRepository.findPlanWithTasks(currentTenant.get(), patientId, LocalDate.now())
+                            .map(plan -> plan
+                                    .map(dto -> Response.ok(dto).build())
+                                    .orElseGet(() -> Response.status(Response.Status.NOT_FOUND)
+                                            .entity("Kein Tagesplan für heute")
+                                            .build()));
+                });
+    }
+
+    /**
+     * GET /app/daily-plans/{planId}/tasks
+     * Gibt alle Tasks eines Tagesplans zurück.
+     *
+     * @param planId Daily Plan-ID
+     * @return Liste aller Tasks
+     */
+    @GET
+    @Path("/daily-plans/{planId}/tasks")
+    public Uni<Response> getTasksForDailyPlan(@PathParam("planId") Long planId) {
+        return readRepository.findTasksByPlan(currentTenant.get(), planId)
+                .map(tasks -> tasks
+                        .map(list -> Response.ok(list).build())
+                        .orElseGet(() -> Response.status(Response.Status.NOT_FOUND)
+                                .entity("Tagesplan nicht gefunden")
+                                .build()));
+    }
+
+    /**
+     * GET /app/medications/patients/{patientId}
+     * Gibt alle Medikamente eines Patienten zurück (neueste zuerst).
+     *
+     * @param patientId Patient-ID
+     * @return Liste der Medikamente
+     */
+    @GET
+    @Path("/medications/patients/{patientId}")
+    public Uni<Response> getMedicationsForPatient(@PathParam("patientId") Long patientId) {
+        return readRepository.isActivePatient(currentTenant.get(), patientId)
+                .chain(active -> {
+                    if (!active) {
+                        return Uni.createFrom().item(Response.status(Response.Status.NOT_FOUND)
+                                .entity("Patient nicht gefunden")
+                                .build());
+                    }
+                    return readRepository.findMedicationsByPatient(currentTenant.get(), patientId)
+                            .map(medications -> Response.ok(medications).build());
+                });
+    }
+}
@@ -3,12 +3,21 @@ package at.htlleonding.sixtosix.resource;
 import at.htlleonding.sixtosix.dto.PatientCreateUpdateDTO;
 import at.htlleonding.sixtosix.dto.PatientResponseDTO;
 import at.htlleonding.sixtosix.dto.PatientDetailDTO;
+import at.htlleonding.sixtosix.dto.PatientPurgeDTO;
+import at.htlleonding.sixtosix.entity.AuditAction;
 import at.htlleonding.sixtosix.entity.Patient;
 import at.htlleonding.sixtosix.repository.PatientRepository;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.PatientPurgeService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 
@@ -18,20 +27,34 @@ import java.util.List;
  *
  * Endpunkte:
  * - GET    /patients              - Alle aktiven Patienten
+ * - GET    /patients/search       - Typeahead-Suche nach Namen
  * - POST   /patients              - Neuer Patient
  * - GET    /patients/{id}         - Patient (einfach)
  * - GET    /patients/{id}/details - Patient mit Relationen
  * - PUT    /patients/{id}         - Patient aktualisieren
  * - DELETE /patients/{id}         - Patient löschen (Soft Delete)
+ * - POST   /patients/{id}/purge   - Soft-gelöschten Patienten endgültig löschen (Hintergrundjob)
+ * - GET    /patients/{id}/purge   - Fortschritt des endgültigen Löschens
+ *
+ * GET /patients/{id} liefert die Version als ETag; PUT und DELETE prüfen If-Match (412 bei Konflikt).
  */
 @Path("/patients")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class PatientResource {
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     @Inject
     PatientRepository patientRepository;
 
+    @Inject
+    PatientPurgeService purgeService;
+
+    @Inject
+    AuditChainService auditChainService;
+
     /**
      * GET /patients
      * Gibt alle aktiven (nicht gelöschten) Patienten zurück.
@@ -39,6 +62,7 @@ public class PatientResource {
      * @return Liste aller Patienten (einfache View)
      */
     @GET
+    @QueryBudget(1)
     public List<PatientResponseDTO> getAllPatients() {
         return patientRepository.findAllActive()
                 .stream()
@@ -46,6 +70,40 @@ public class PatientResource {
                 .toList();
     }
 
+    /**
+     * GET /patients/search
+     * Typeahead-Suche nach Vor- und Nachname (Präfix- und tippfehlertolerant).
+     *
+     * Query Parameter:
+     * - q: Suchbegriff (Umlaute werden gefaltet: "Müller" = "Mueller")
+     * - limit: maximale Anzahl Treffer (Standard 20, höchstens 50)
+     *
+     * @param q Suchbegriff
+     * @param limit maximale Trefferanzahl
+     * @return Beste Treffer unter den aktiven Patienten
+     */
+    @GET
+    @Path("/search")
+    @QueryBudget(1)
+    public Response searchPatients(
+            @QueryParam("q") String q,
+            @QueryParam("limit") @DefaultValue("20") int limit) {
+
+        if (q == null || q.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Suchbegriff darf nicht leer sein")
+                    .build();
+        }
+
+        List<PatientResponseDTO> patients = patientRepository
+                .searchByName(q, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)))
+                .stream()
+                .map(this::mapToResponseDTO)
+                .toList();
+
+        return Response.ok(patients).build();
+    }
+
     /**
      * POST /patients
      * Erstellt einen neuen Patienten.
@@ -54,6 +112,7 @@ public class PatientResource {
      * @return 201 Created mit neuer Patient-Ressource
      */
     @POST
+    @Transactional
     public Response createPatient(@Valid PatientCreateUpdateDTO createDTO) {
         Patient patient = new Patient(
                 createDTO.firstname(),
@@ -61,6 +120,7 @@ public class PatientResource {
                 createDTO.birthdate()
         );
         patientRepository.persist(patient);
+        auditChainService.record("Patient", patient.getId(), AuditAction.CREATE, null);
 
         PatientResponseDTO responseDTO = mapToResponseDTO(patient);
 
@@ -75,20 +135,28 @@ public class PatientResource {
      * Gibt einen einzelnen Patienten zurück (einfache View ohne Relationen).
      *
      * @param id Patient-ID
-     * @return Patient-Daten
+     * @return Patient-Daten mit ETag (304 bei passendem If-None-Match)
      */
     @GET
     @Path("/{id}")
-    public Response getPatient(@PathParam("id") Long id) {
+    @QueryBudget(1)
+    public Response getPatient(@PathParam("id") Long id, @Context Request request) {
         Patient patient = patientRepository.findById(id);
 
-        if (patient == null || patient.getDeleted()) {
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
         }
 
-        return Response.ok(mapToResponseDTO(patient)).build();
+        Response precondition = EntityTags.evaluatePreconditions(request, patient.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapToResponseDTO(patient))
+                .tag(EntityTags.of(patient.getVersion()))
+                .build();
     }
 
     /**
@@ -102,10 +170,11 @@ public class PatientResource {
      */
     @GET
     @Path("/{id}/details")
+    @QueryBudget(1)
     public Response getPatientDetails(@PathParam("id") Long id) {
         Patient patient = patientRepository.findById(id);
 
-        if (patient == null || patient.getDeleted()) {
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -118,27 +187,39 @@ public class PatientResource {
      * PUT /patients/{id}
      * Aktualisiert einen Patienten.
      *
+     * Header: If-Match mit dem ETag aus GET /patients/{id} (optional)
+     *
      * @param id Patient-ID
      * @param updateDTO Update-Daten mit Validierung
-     * @return Aktualisierte Patient-Daten
+     * @return Aktualisierte Patient-Daten mit neuem ETag; 412 bei Versionskonflikt
      */
     @PUT
     @Path("/{id}")
-    public Response updatePatient(@PathParam("id") Long id, @Valid PatientCreateUpdateDTO updateDTO) {
+    @Transactional
+    public Response updatePatient(@PathParam("id") Long id, @Valid PatientCreateUpdateDTO updateDTO,
+                                  @Context Request request) {
         Patient patient = patientRepository.findById(id);
 
-        if (patient == null || patient.getDeleted()) {
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, patient.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         patient.setFirstname(updateDTO.firstname());
         patient.setLastname(updateDTO.lastname());
         patient.setBirthdate(updateDTO.birthdate());
-        patientRepository.persist(patient);
+        patientRepository.persistAndFlush(patient);
+        auditChainService.record("Patient", patient.getId(), AuditAction.UPDATE, null);
 
-        return Response.ok(mapToResponseDTO(patient)).build();
+        return Response.ok(mapToResponseDTO(patient))
+                .tag(EntityTags.of(patient.getVersion()))
+                .build();
     }
 
     /**
@@ -147,25 +228,88 @@ public class PatientResource {
      *
      * Basierend auf TSD Abschnitt 5.1 (Soft Deletes)
      *
+     * Header: If-Match (optional)
+     *
      * @param id Patient-ID
-     * @return 204 No Content
+     * @return 204 No Content; 412 bei Versionskonflikt
      */
     @DELETE
     @Path("/{id}")
-    public Response deletePatient(@PathParam("id") Long id) {
+    @Transactional
+    public Response deletePatient(@PathParam("id") Long id, @Context Request request) {
         Patient patient = patientRepository.findById(id);
 
-        if (patient == null || patient.getDeleted()) {
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, patient.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         patientRepository.softDelete(id);
+        auditChainService.record("Patient", id, AuditAction.DELETE, "Soft Delete");
 
         return Response.noContent().build();
     }
 
+    /**
+     * POST /patients/{id}/purge
+     * Fordert das endgültige Löschen eines soft-gelöschten Patienten samt aller Daten an.
+     * Ein Hintergrundjob löscht batchweise; der Fortschritt ist über GET abrufbar.
+     * Wiederholte Anforderungen liefern den bestehenden Auftrag.
+     *
+     * @param id Patient-ID
+     * @return 202 Accepted mit Auftrag; 409 wenn der Patient noch nicht gelöscht ist
+     */
+    @POST
+    @Path("/{id}/purge")
+    @Transactional
+    public Response requestPurge(@PathParam("id") Long id) {
+        PatientPurgeDTO existing = purgeService.status(id);
+        if (existing != null) {
+            return Response.ok(existing).build();
+        }
+
+        if (patientRepository.existsActive(id)) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Patient muss zuerst gelöscht werden (Soft Delete)")
+                    .build();
+        }
+        if (!patientRepository.existsDeleted(id)) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        PatientPurgeDTO purge = purgeService.request(id);
+        auditChainService.record("Patient", id, AuditAction.DELETE, "Hard Purge angefordert");
+
+        return Response.accepted(purge).build();
+    }
+
+    /**
+     * GET /patients/{id}/purge
+     * Gibt Status und Fortschritt des endgültigen Löschens zurück.
+     *
+     * @param id Patient-ID
+     * @return Auftrag mit erledigten Schritten, aktueller Tabelle und gelöschten Zeilen
+     */
+    @GET
+    @Path("/{id}/purge")
+    public Response getPurgeStatus(@PathParam("id") Long id) {
+        PatientPurgeDTO purge = purgeService.status(id);
+        if (purge == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Kein Purge für diesen Patienten angefordert")
+                    .build();
+        }
+        return Response.ok(purge).build();
+    }
+
     // ==================== Mapping Methods ====================
 
     /**
@@ -0,0 +1,98 @@
+package at.htlleonding.sixtosix.resource;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Begrenzt Request-Bodies pro Route.
+ *
+ * Die HTTP-Schicht lässt Bodies bis quarkus.http.limits.max-body-size zu, damit
+ * Bild-Uploads durchkommen. Diese Größe gilt nur für Endpunkte mit {@link StreamedUpload};
+ * alle anderen sind auf sixtosix.http.max-body-size begrenzt: mit Content-Length wird
+ * sofort mit 413 abgelehnt, ohne (chunked) bricht der Entity-Stream beim Überschreiten ab.
+ */
+@Provider
+public class RequestBodyLimitFilter implements ContainerRequestFilter {
+
+    @ConfigProperty(name = "sixtosix.http.max-body-size", defaultValue = "1M")
+    MemorySize maxBodySize;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (!request.hasEntity() || streamedUpload()) {
+            return;
+        }
+        long limit = maxBodySize.asLongValue();
+        if (request.getLength() > limit) {
+            request.abortWith(tooLarge(limit));
+            return;
+        }
+        request.setEntityStream(new LimitedInputStream(request.getEntityStream(), limit));
+    }
+
+    private boolean streamedUpload() {
+        return resourceInfo.getResourceMethod() != null
+                && resourceInfo.getResourceMethod().isAnnotationPresent(StreamedUpload.class);
+    }
+
+    private static Response tooLarge(long limit) {
+        return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                .entity("Anfrage zu groß (höchstens " + limit + " Bytes)")
+                .type(MediaType.TEXT_PLAIN_TYPE)
+                .build();
+    }
+
+    /**
+     * Zählt gelesene Bytes und bricht mit 413 ab, sobald die Grenze überschritten ist
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+
+        private long read;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            read += n;
+            if (read > limit) {
+                throw new WebApplicationException(tooLarge(limit));
+            }
+        }
+    }
+}
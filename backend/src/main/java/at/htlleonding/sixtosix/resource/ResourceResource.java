@@ -1,15 +1,24 @@
 package at.htlleonding.sixtosix.resource;
 
 import at.htlleonding.sixtosix.dto.ResourceDTO;
+import at.htlleonding.sixtosix.entity.AuditAction;
 import at.htlleonding.sixtosix.entity.Patient;
 import at.htlleonding.sixtosix.entity.Resource;
+import at.htlleonding.sixtosix.entity.SyncEntityType;
 import at.htlleonding.sixtosix.entity.UserAccount;
 import at.htlleonding.sixtosix.repository.PatientRepository;
 import at.htlleonding.sixtosix.repository.ResourceRepository;
 import at.htlleonding.sixtosix.repository.UserAccountRepository;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.SyncChangeService;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 
@@ -25,12 +34,14 @@ import java.util.List;
  * - GET    /patients/{patientId}/resources              - Alle Ressourcen eines Patienten
  * - GET    /patients/{patientId}/resources/approved     - Bestätigte Ressourcen
  * - GET    /patients/{patientId}/resources/pending      - Ausstehende Ressourcen
+ * - GET    /resources/{id}                             - Einzelne Ressource (ETag)
  * - PUT    /resources/{id}/approve                     - Ressource bestätigen
  * - DELETE /resources/{id}                             - Ressource löschen
  */
 @Path("/resources")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class ResourceResource {
 
     @Inject
@@ -42,6 +53,12 @@ public class ResourceResource {
     @Inject
     UserAccountRepository userAccountRepository;
 
+    @Inject
+    SyncChangeService syncChangeService;
+
+    @Inject
+    AuditChainService auditChainService;
+
     /**
      * POST /patients/{patientId}/resources
      * Fügt eine neue Ressource für einen Patienten hinzu.
@@ -62,6 +79,7 @@ public class ResourceResource {
      */
     @POST
     @Path("/patients/{patientId}")
+    @Transactional
     public Response createResource(
             @PathParam("patientId") Long patientId,
             @QueryParam("type") String type,
@@ -69,8 +87,8 @@ public class ResourceResource {
             @QueryParam("proposedById") Long proposedById) {
 
         // Validiere Patient
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -102,6 +120,8 @@ public class ResourceResource {
         }
 
         resourceRepository.persist(resource);
+        syncChangeService.recordChange(patient, SyncEntityType.RESOURCE, resource.getId());
+        auditChainService.record("Resource", resource.getId(), AuditAction.CREATE, null);
 
         return Response
                 .status(Response.Status.CREATED)
@@ -120,9 +140,10 @@ public class ResourceResource {
      */
     @GET
     @Path("/patients/{patientId}")
+    @QueryBudget(3)
     public Response getResourcesForPatient(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -146,9 +167,10 @@ public class ResourceResource {
      */
     @GET
     @Path("/patients/{patientId}/approved")
+    @QueryBudget(3)
     public Response getApprovedResourcesForPatient(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -174,9 +196,10 @@ public class ResourceResource {
      */
     @GET
     @Path("/patients/{patientId}/pending")
+    @QueryBudget(3)
     public Response getPendingResourcesForPatient(@PathParam("patientId") Long patientId) {
-        Patient patient = patientRepository.findById(patientId);
-        if (patient == null || patient.getDeleted()) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
             return Response.status(Response.Status.NOT_FOUND)
                     .entity("Patient nicht gefunden")
                     .build();
@@ -191,18 +214,49 @@ public class ResourceResource {
         return Response.ok(resources).build();
     }
 
+    /**
+     * GET /resources/{id}
+     * Gibt eine einzelne Ressource zurück.
+     *
+     * @param id Resource-ID
+     * @return Ressource mit ETag (304 bei passendem If-None-Match)
+     */
+    @GET
+    @Path("/{id}")
+    public Response getResource(@PathParam("id") Long id, @Context Request request) {
+        Resource resource = resourceRepository.findById(id);
+
+        if (resource == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Ressource nicht gefunden")
+                    .build();
+        }
+
+        Response precondition = EntityTags.evaluatePreconditions(request, resource.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        return Response.ok(mapToDTO(resource))
+                .tag(EntityTags.of(resource.getVersion()))
+                .build();
+    }
+
     /**
      * PUT /resources/{id}/approve
      * Bestätigt eine Ressource.
      *
+     * Header: If-Match mit dem ETag aus GET /resources/{id} (optional)
+     *
      * Basierend auf FSD Abschnitt 6.3 (Pfleger prüfen und bestätigen)
      *
      * @param id Resource-ID
-     * @return Bestätigte Ressource
+     * @return Bestätigte Ressource mit neuem ETag; 412 bei Versionskonflikt
      */
     @PUT
     @Path("/{id}/approve")
-    public Response approveResource(@PathParam("id") Long id) {
+    @Transactional
+    public Response approveResource(@PathParam("id") Long id, @Context Request request) {
         Resource resource = resourceRepository.findById(id);
 
         if (resource == null) {
@@ -211,22 +265,34 @@ public class ResourceResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, resource.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
         resource.setApproved(true);
-        resourceRepository.persist(resource);
+        resourceRepository.persistAndFlush(resource);
+        syncChangeService.recordChange(resource.getPatient(), SyncEntityType.RESOURCE, resource.getId());
+        auditChainService.record("Resource", resource.getId(), AuditAction.APPROVE, null);
 
-        return Response.ok(mapToDTO(resource)).build();
+        return Response.ok(mapToDTO(resource))
+                .tag(EntityTags.of(resource.getVersion()))
+                .build();
     }
 
     /**
      * DELETE /resources/{id}
      * Löscht eine Ressource.
      *
+     * Header: If-Match (optional)
+     *
      * @param id Resource-ID
-     * @return 204 No Content
+     * @return 204 No Content; 412 bei Versionskonflikt
      */
     @DELETE
     @Path("/{id}")
-    public Response deleteResource(@PathParam("id") Long id) {
+    @Transactional
+    public Response deleteResource(@PathParam("id") Long id, @Context Request request) {
         Resource resource = resourceRepository.findById(id);
 
         if (resource == null) {
@@ -235,6 +301,13 @@ public class ResourceResource {
                     .build();
         }
 
+        Response precondition = EntityTags.evaluatePreconditions(request, resource.getVersion());
+        if (precondition != null) {
+            return precondition;
+        }
+
+        syncChangeService.recordDelete(resource.getPatient(), SyncEntityType.RESOURCE, resource.getId());
+        auditChainService.record("Resource", resource.getId(), AuditAction.DELETE, null);
         resourceRepository.delete(resource);
 
         return Response.noContent().build();
@@ -0,0 +1,74 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.dto.SearchHitDTO;
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.repository.PatientRepository;
+import at.htlleonding.sixtosix.service.PatientSearchService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+/**
+ * REST Resource für die Volltextsuche
+ * Suche über Anamnese, Bedarfe, Ressourcen und Interventionen eines Patienten
+ *
+ * Basierend auf FSD Abschnitt 4 (Dokumentation & Nachvollziehbarkeit)
+ *
+ * Endpunkte:
+ * - GET    /search/patients/{patientId}?q=Sturz   - Volltextsuche mit Ranking
+ */
+@Path("/search")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class SearchResource {
+
+    @Inject
+    PatientSearchService searchService;
+
+    @Inject
+    PatientRepository patientRepository;
+
+    /**
+     * GET /search/patients/{patientId}
+     * Durchsucht die Dokumentation eines Patienten.
+     *
+     * Query Parameter:
+     * - q: Suchbegriff(e)
+     * - limit: maximale Anzahl Treffer (Standard 20, höchstens 100)
+     *
+     * @param patientId Patient-ID
+     * @param q Suchbegriff
+     * @param limit maximale Trefferanzahl
+     * @return Treffer absteigend nach Relevanz
+     */
+    @GET
+    @Path("/patients/{patientId}")
+    public Response searchPatientDocumentation(
+            @PathParam("patientId") Long patientId,
+            @QueryParam("q") String q,
+            @QueryParam("limit") @DefaultValue("20") int limit) {
+
+        // Validiere Patient
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        // Validiere Suchbegriff
+        if (q == null || q.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Suchbegriff darf nicht leer sein")
+                    .build();
+        }
+
+        List<SearchHitDTO> hits = searchService.search(patientId, q.strip(), limit);
+
+        return Response.ok(hits).build();
+    }
+}
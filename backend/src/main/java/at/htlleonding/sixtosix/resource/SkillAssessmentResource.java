@@ -0,0 +1,330 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.dto.AssessmentTrendDTO;
+import at.htlleonding.sixtosix.dto.SkillAssessmentDTO;
+import at.htlleonding.sixtosix.dto.SkillDefinitionDTO;
+import at.htlleonding.sixtosix.entity.*;
+import at.htlleonding.sixtosix.repository.*;
+import at.htlleonding.sixtosix.service.AssessmentTrendService;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.InterventionSuggestionEngine;
+import at.htlleonding.sixtosix.metrics.QueryBudget;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+/**
+ * REST Resource für Skill-Operationen (Fähigkeitsbereiche)
+ * Verwaltung von Skill-Definitionen und Skill-Bewertungen, analog zu den ADLs
+ *
+ * Basierend auf FSD Abschnitt 5 (ADLs und Skills)
+ * und TSD Abschnitt 5.5 (skill_definition und skill_assessment Tabellen)
+ *
+ * Endpunkte:
+ * - GET    /skills/definitions                            - Alle vordefinierten Skills
+ * - POST   /skills/definitions                            - Neue Skill-Definition
+ * - POST   /skills/patients/{patientId}/assessments       - Neue Skill-Bewertung
+ * - GET    /skills/patients/{patientId}/assessments       - Skill-Bewertungen eines Patienten
+ * - GET    /skills/patients/{patientId}/assessments/latest - Neueste Bewertung pro Skill
+ * - GET    /skills/assessments/{id}                       - Skill-Bewertung-Details
+ * - GET    /skills/patients/{patientId}/trend             - Status-Verlauf (Abschnitte pro Skill)
+ */
+@Path("/skills")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class SkillAssessmentResource {
+
+    @Inject
+    SkillDefinitionRepository skillDefinitionRepository;
+
+    @Inject
+    SkillAssessmentRepository skillAssessmentRepository;
+
+    @Inject
+    PatientRepository patientRepository;
+
+    @Inject
+    AssessmentStatusRunRepository statusRunRepository;
+
+    @Inject
+    AssessmentTrendService trendService;
+
+    @Inject
+    InterventionSuggestionEngine suggestionEngine;
+
+    @Inject
+    AuditChainService auditChainService;
+
+    // ==================== Skill Definitions ====================
+
+    /**
+     * GET /skills/definitions
+     * Gibt alle vordefinierten Skills zurück.
+     *
+     * @return Liste aller Skill-Definitionen
+     */
+    @GET
+    @Path("/definitions")
+    public List<SkillDefinitionDTO> getAllSkillDefinitions() {
+        return skillDefinitionRepository.listAll()
+                .stream()
+                .map(this::mapDefinitionToDTO)
+                .toList();
+    }
+
+    /**
+     * POST /skills/definitions
+     * Erstellt eine neue Skill-Definition (Admin-Funktion).
+     *
+     * @param name Skill-Name
+     * @return 201 Created mit neuer Definition
+     */
+    @POST
+    @Path("/definitions")
+    @Transactional
+    public Response createSkillDefinition(@QueryParam("name") String name) {
+        if (name == null || name.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Skill-Name darf nicht leer sein")
+                    .build();
+        }
+
+        // Prüfe ob Skill bereits existiert
+        if (skillDefinitionRepository.existsByName(name)) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Skill-Definition existiert bereits")
+                    .build();
+        }
+
+        SkillDefinition definition = new SkillDefinition(name);
+        skillDefinitionRepository.persist(definition);
+
+        return Response
+                .status(Response.Status.CREATED)
+                .entity(mapDefinitionToDTO(definition))
+                .build();
+    }
+
+    // ==================== Skill Assessments ====================
+
+    /**
+     * POST /skills/patients/{patientId}/assessments
+     * Erstellt eine neue Skill-Bewertung für einen Patienten.
+     *
+     * Status-Werte: INTACT, RESTRICTED, NURSING_RELEVANT
+     *
+     * Basierend auf FSD Abschnitt 5.2 (Skills können mehrfach neu eingeschätzt werden)
+     * und FSD Abschnitt 5.3 (die Regeln dieses Skills erzeugen ggf. Interventionsvorschläge)
+     *
+     * @param patientId Patient-ID
+     * @param skillDefinitionId Skill-Definition-ID
+     * @param status Bewertungs-Status
+     * @param comment optionaler Kommentar
+     * @return 201 Created mit neuer Bewertung
+     */
+    @POST
+    @Path("/patients/{patientId}/assessments")
+    @Transactional
+    public Response createSkillAssessment(
+            @PathParam("patientId") Long patientId,
+            @QueryParam("skillDefinitionId") Long skillDefinitionId,
+            @QueryParam("status") String status,
+            @QueryParam("comment") String comment) {
+
+        // Validiere Patient
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        // Validiere Skill-Definition
+        SkillDefinition skillDefinition = skillDefinitionRepository.findById(skillDefinitionId);
+        if (skillDefinition == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Skill-Definition nicht gefunden")
+                    .build();
+        }
+
+        // Validiere Status
+        AssessmentStatus assessmentStatus;
+        try {
+            assessmentStatus = AssessmentStatus.valueOf(status);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Ungültiger Status: " + status)
+                    .build();
+        }
+
+        // Erstelle neue Bewertung
+        SkillAssessment assessment = new SkillAssessment(skillDefinition, patient, assessmentStatus);
+        assessment.setComment(comment);
+        skillAssessmentRepository.persist(assessment);
+        auditChainService.record("SkillAssessment", assessment.getId(), AuditAction.CREATE, null);
+        trendService.onSkillAssessment(assessment);
+        suggestionEngine.onSkillAssessment(assessment);
+
+        return Response
+                .status(Response.Status.CREATED)
+                .entity(mapAssessmentToDTO(assessment))
+                .build();
+    }
+
+    /**
+     * GET /skills/patients/{patientId}/assessments
+     * Gibt alle Skill-Bewertungen eines Patienten zurück.
+     *
+     * @param patientId Patient-ID
+     * @return Liste aller Bewertungen für den Patienten
+     */
+    @GET
+    @Path("/patients/{patientId}/assessments")
+    @QueryBudget(4)
+    public Response getSkillAssessmentsForPatient(@PathParam("patientId") Long patientId) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        List<SkillAssessmentDTO> assessments = skillAssessmentRepository
+                .findByPatient(patient)
+                .stream()
+                .map(this::mapAssessmentToDTO)
+                .toList();
+
+        return Response.ok(assessments).build();
+    }
+
+    /**
+     * GET /skills/assessments/{id}
+     * Gibt eine einzelne Skill-Bewertung zurück.
+     *
+     * @param id SkillAssessment-ID
+     * @return Bewertungs-Details
+     */
+    @GET
+    @Path("/assessments/{id}")
+    public Response getSkillAssessment(@PathParam("id") Long id) {
+        SkillAssessment assessment = skillAssessmentRepository.findById(id);
+
+        if (assessment == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Skill-Bewertung nicht gefunden")
+                    .build();
+        }
+
+        return Response.ok(mapAssessmentToDTO(assessment)).build();
+    }
+
+    /**
+     * GET /skills/patients/{patientId}/assessments/latest
+     * Gibt die neuesten Skill-Bewertungen pro Skill für einen Patienten zurück.
+     *
+     * @param patientId Patient-ID
+     * @return Neueste Bewertungen pro Skill
+     */
+    @GET
+    @Path("/patients/{patientId}/assessments/latest")
+    @QueryBudget(4)
+    public Response getLatestSkillAssessments(@PathParam("patientId") Long patientId) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        List<SkillAssessmentDTO> latestAssessments = skillAssessmentRepository
+                .findLatestByPatient(patient)
+                .stream()
+                .map(this::mapAssessmentToDTO)
+                .toList();
+
+        return Response.ok(latestAssessments).build();
+    }
+
+    /**
+     * GET /skills/patients/{patientId}/trend
+     * Gibt den Status-Verlauf eines Patienten als Abschnitte gleichbleibenden Status zurück.
+     *
+     * Gelesen wird die bei jeder Bewertung fortgeschriebene Verlaufstabelle,
+     * nicht die einzelnen Bewertungen.
+     *
+     * Basierend auf FSD Abschnitt 5.2 (Der zeitliche Verlauf ist nachvollziehbar)
+     *
+     * @param patientId Patient-ID
+     * @param skillDefinitionId optional, nur ein Skill
+     * @return Abschnitte, sortiert nach Skill und Beginn
+     */
+    @GET
+    @Path("/patients/{patientId}/trend")
+    public Response getSkillTrend(
+            @PathParam("patientId") Long patientId,
+            @QueryParam("skillDefinitionId") Long skillDefinitionId) {
+
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        List<AssessmentTrendDTO> trend = statusRunRepository
+                .findSkillTrend(patient, skillDefinitionId)
+                .stream()
+                .map(this::mapRunToDTO)
+                .toList();
+
+        return Response.ok(trend).build();
+    }
+
+    // ==================== Mapping Methods ====================
+
+    /**
+     * Mappt SkillDefinition Entity zu SkillDefinitionDTO
+     */
+    private SkillDefinitionDTO mapDefinitionToDTO(SkillDefinition definition) {
+        return new SkillDefinitionDTO(
+                definition.getId(),
+                definition.getName()
+        );
+    }
+
+    /**
+     * Mappt SkillAssessment Entity zu SkillAssessmentDTO
+     */
+    private SkillAssessmentDTO mapAssessmentToDTO(SkillAssessment assessment) {
+        return new SkillAssessmentDTO(
+                assessment.getId(),
+                assessment.getSkillDefinition().getId(),
+                assessment.getSkillDefinition().getName(),
+                assessment.getPatient().getId(),
+                assessment.getStatus().toString(),
+                assessment.getComment(),
+                assessment.getAssessedAt()
+        );
+    }
+
+    /**
+     * Mappt AssessmentStatusRun Entity zu AssessmentTrendDTO
+     */
+    private AssessmentTrendDTO mapRunToDTO(AssessmentStatusRun run) {
+        return new AssessmentTrendDTO(
+                run.getSkillDefinition().getId(),
+                run.getSkillDefinition().getName(),
+                run.getStatus().toString(),
+                run.getStartedAt(),
+                run.getLastAssessedAt(),
+                run.getEndedAt(),
+                run.getAssessmentCount()
+        );
+    }
+}
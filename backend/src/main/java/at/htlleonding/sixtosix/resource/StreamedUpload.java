@@ -0,0 +1,18 @@
+package at.htlleonding.sixtosix.resource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Endpunkt nimmt den Body als Stream entgegen und begrenzt dessen Größe selbst
+ * (z.B. MediaStore mit sixtosix.media.max-size); für ihn gilt nur die Grenze der
+ * HTTP-Schicht (quarkus.http.limits.max-body-size).
+ *
+ * @see RequestBodyLimitFilter
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StreamedUpload {
+}
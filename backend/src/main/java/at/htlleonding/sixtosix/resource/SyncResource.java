@@ -0,0 +1,382 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.dto.*;
+import at.htlleonding.sixtosix.entity.*;
+import at.htlleonding.sixtosix.repository.*;
+import at.htlleonding.sixtosix.service.AdherenceService;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.SyncChangeService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * REST Resource für den Delta-Sync der Tablets (Patient und Pfleger)
+ * Statt nach jedem Verbindungsabbruch alle Listen neu zu laden, fragen Tablets nur
+ * die Änderungen seit ihrem letzten Stand ab und laden offline erfasste Bestätigungen hoch.
+ *
+ * Abgedeckt: DailyPlan, DailyTask, Intervention, InterventionTask, Medication, Resource, CareNeed.
+ * Pläne und Interventionen werden ohne Aufgabenliste übertragen; ihre Aufgaben
+ * sind eigene Einträge im Feed.
+ *
+ * Endpunkte:
+ * - GET    /sync/patients/{patientId}/changes         - Änderungen seit Nummer N
+ * - POST   /sync/patients/{patientId}/confirmations   - Offline erfasste Bestätigungen hochladen
+ */
+@Path("/sync")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class SyncResource {
+
+    private static final int MAX_CHANGES = 1000;
+
+    private static final int MAX_UPLOAD = 500;
+
+    @Inject
+    SyncChangeRepository syncChangeRepository;
+
+    @Inject
+    SyncMutationRepository syncMutationRepository;
+
+    @Inject
+    SyncChangeService syncChangeService;
+
+    @Inject
+    AdherenceService adherenceService;
+
+    @Inject
+    PatientRepository patientRepository;
+
+    @Inject
+    DailyPlanRepository dailyPlanRepository;
+
+    @Inject
+    DailyTaskRepository dailyTaskRepository;
+
+    @Inject
+    InterventionRepository interventionRepository;
+
+    @Inject
+    InterventionTaskRepository interventionTaskRepository;
+
+    @Inject
+    MedicationRepository medicationRepository;
+
+    @Inject
+    ResourceRepository resourceRepository;
+
+    @Inject
+    CareNeedRepository careNeedRepository;
+
+    @Inject
+    AuditChainService auditChainService;
+
+    /**
+     * GET /sync/patients/{patientId}/changes
+     * Gibt die Änderungen eines Patienten nach der übergebenen Nummer zurück.
+     * Pro Zeile wird nur der letzte Stand geliefert, gelöschte Zeilen als Tombstone.
+     *
+     * Query Parameter:
+     * - since: letzte bekannte Nummer (0 = Erstabgleich)
+     * - limit: maximale Anzahl Einträge (Standard 500)
+     *
+     * @param patientId Patient-ID
+     * @return Änderungen mit nextSince für den nächsten Abruf
+     */
+    @GET
+    @Path("/patients/{patientId}/changes")
+    public Response getChanges(
+            @PathParam("patientId") Long patientId,
+            @QueryParam("since") @DefaultValue("0") long since,
+            @QueryParam("limit") @DefaultValue("500") int limit) {
+
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_CHANGES));
+        List<SyncChange> changes = syncChangeRepository.findSince(patient, since, pageSize + 1);
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        // Aktuellen Stand pro Typ mit einer Abfrage laden
+        Map<SyncEntityType, List<Long>> idsByType = changes.stream()
+                .filter(change -> !change.getDeleted())
+                .collect(Collectors.groupingBy(SyncChange::getEntityType,
+                        () -> new EnumMap<>(SyncEntityType.class),
+                        Collectors.mapping(SyncChange::getEntityId, Collectors.toList())));
+        Map<SyncEntityType, Map<Long, Object>> data = new EnumMap<>(SyncEntityType.class);
+        idsByType.forEach((type, ids) -> data.put(type, loadData(type, ids)));
+
+        List<SyncChangeDTO> result = new ArrayList<>(changes.size());
+        for (SyncChange change : changes) {
+            Object current = change.getDeleted()
+                    ? null
+                    : data.getOrDefault(change.getEntityType(), Map.of()).get(change.getEntityId());
+            result.add(new SyncChangeDTO(
+                    change.getSeq(),
+                    change.getEntityType().toString(),
+                    change.getEntityId(),
+                    change.getDeleted() || current == null,
+                    current
+            ));
+        }
+
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return Response.ok(new SyncFeedDTO(patientId, since, nextSince, hasMore, result)).build();
+    }
+
+    /**
+     * POST /sync/patients/{patientId}/confirmations
+     * Wendet offline erfasste Bestätigungen von Tagesplan- und Interventionsaufgaben an.
+     * Idempotent: eine für diesen Patienten bereits verarbeitete clientMutationId liefert das gespeicherte Ergebnis.
+     *
+     * Request Body:
+     * [
+     *   { "clientMutationId": "3f2a...", "entityType": "DAILY_TASK", "entityId": 12,
+     *     "confirmedAt": "2026-03-01T09:30:00" }
+     * ]
+     *
+     * Typ-Werte: DAILY_TASK, INTERVENTION_TASK
+     *
+     * @param patientId Patient-ID
+     * @param confirmations Offline erfasste Bestätigungen (in Erfassungsreihenfolge)
+     * @return Ergebnis pro Bestätigung und aktueller Stand des Änderungszählers
+     */
+    @POST
+    @Path("/patients/{patientId}/confirmations")
+    @Transactional
+    public Response uploadConfirmations(
+            @PathParam("patientId") Long patientId,
+            @Valid List<@Valid OfflineConfirmationDTO> confirmations) {
+
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        if (confirmations == null || confirmations.size() > MAX_UPLOAD) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Zwischen 0 und " + MAX_UPLOAD + " Bestätigungen pro Upload")
+                    .build();
+        }
+
+        // Uploads eines Patienten serialisieren (Wiederholung während laufendem Upload)
+        syncChangeRepository.lockSeq(patientId);
+
+        List<OfflineConfirmationResultDTO> results = new ArrayList<>(confirmations.size());
+        for (OfflineConfirmationDTO confirmation : confirmations) {
+            Optional<SyncMutation> processed = syncMutationRepository
+                    .findByPatientAndClientMutationId(patient, confirmation.clientMutationId());
+            if (processed.isPresent()) {
+                results.add(new OfflineConfirmationResultDTO(
+                        confirmation.clientMutationId(), "DUPLICATE", processed.get().getMessage()));
+                continue;
+            }
+
+            OfflineConfirmationResultDTO result = applyConfirmation(patient, confirmation);
+            syncMutationRepository.persist(new SyncMutation(
+                    result.clientMutationId(), patient, result.outcome(), result.message()));
+            results.add(result);
+        }
+        // Versionskonflikte vor dem Commit melden (412); der Client wiederholt den Upload idempotent
+        syncMutationRepository.flush();
+
+        return Response.ok(new SyncUploadResultDTO(
+                patientId, syncChangeRepository.currentSeq(patientId), results)).build();
+    }
+
+    /**
+     * Wendet eine einzelne Bestätigung an. Bereits bestätigte Aufgaben bleiben unverändert.
+     */
+    private OfflineConfirmationResultDTO applyConfirmation(Patient patient, OfflineConfirmationDTO confirmation) {
+        String mutationId = confirmation.clientMutationId();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime confirmedAt = confirmation.confirmedAt().isAfter(now) ? now : confirmation.confirmedAt();
+
+        if ("DAILY_TASK".equals(confirmation.entityType())) {
+            DailyTask task = dailyTaskRepository.findById(confirmation.entityId());
+            if (task == null || !task.getDailyPlan().getPatient().getId().equals(patient.getId())) {
+                return new OfflineConfirmationResultDTO(mutationId, "REJECTED", "Task nicht gefunden");
+            }
+            if (task.getCompleted()) {
+                return new OfflineConfirmationResultDTO(mutationId, "DUPLICATE", "Task ist bereits bestätigt");
+            }
+            task.confirm(confirmedAt);
+            dailyPlanRepository.adjustTaskCounters(task.getDailyPlan(), 0, 1);
+            adherenceService.taskConfirmed(task);
+            syncChangeService.recordChange(patient, SyncEntityType.DAILY_PLAN, task.getDailyPlan().getId());
+            syncChangeService.recordChange(patient, SyncEntityType.DAILY_TASK, task.getId());
+            auditChainService.record("DailyTask", task.getId(), AuditAction.CONFIRM, "offline " + mutationId);
+            return new OfflineConfirmationResultDTO(mutationId, "APPLIED", null);
+        }
+
+        if ("INTERVENTION_TASK".equals(confirmation.entityType())) {
+            InterventionTask task = interventionTaskRepository.findById(confirmation.entityId());
+            if (task == null || !task.getIntervention().getPatient().getId().equals(patient.getId())) {
+                return new OfflineConfirmationResultDTO(mutationId, "REJECTED", "Task nicht gefunden");
+            }
+            if (task.getCompleted()) {
+                return new OfflineConfirmationResultDTO(mutationId, "DUPLICATE", "Task ist bereits erledigt");
+            }
+            task.markCompleted(confirmedAt);
+            interventionRepository.adjustTaskCounters(task.getIntervention(), 0, 1);
+            syncChangeService.recordChange(patient, SyncEntityType.INTERVENTION, task.getIntervention().getId());
+            syncChangeService.recordChange(patient, SyncEntityType.INTERVENTION_TASK, task.getId());
+            auditChainService.record("InterventionTask", task.getId(), AuditAction.CONFIRM, "offline " + mutationId);
+            return new OfflineConfirmationResultDTO(mutationId, "APPLIED", null);
+        }
+
+        return new OfflineConfirmationResultDTO(mutationId, "REJECTED",
+                "Ungültiger Typ: " + confirmation.entityType());
+    }
+
+    /**
+     * Lädt den aktuellen Stand der Zeilen eines Typs (eine Abfrage) und mappt ihn auf das DTO.
+     */
+    private Map<Long, Object> loadData(SyncEntityType type, List<Long> ids) {
+        return switch (type) {
+            case DAILY_PLAN -> index(dailyPlanRepository.list("id in ?1", ids), DailyPlan::getId, this::mapDailyPlan);
+            case DAILY_TASK -> index(dailyTaskRepository.list("id in ?1", ids), DailyTask::getId, this::mapDailyTask);
+            case INTERVENTION -> index(interventionRepository.list("id in ?1", ids), Intervention::getId, this::mapIntervention);
+            case INTERVENTION_TASK -> index(interventionTaskRepository.list("id in ?1", ids), InterventionTask::getId, this::mapInterventionTask);
+            case MEDICATION -> index(medicationRepository.list("id in ?1", ids), Medication::getId, this::mapMedication);
+            case RESOURCE -> index(resourceRepository.list("id in ?1", ids), Resource::getId, this::mapResource);
+            case CARE_NEED -> index(careNeedRepository.list("id in ?1", ids), CareNeed::getId, this::mapCareNeed);
+        };
+    }
+
+    private static <T> Map<Long, Object> index(List<T> entities, Function<T, Long> id, Function<T, Object> mapper) {
+        Map<Long, Object> result = new HashMap<>();
+        for (T entity : entities) {
+            result.put(id.apply(entity), mapper.apply(entity));
+        }
+        return result;
+    }
+
+    // ==================== Mapping Methods ====================
+
+    /**
+     * Mappt DailyPlan Entity zu DailyPlanDTO (ohne Aufgaben, Fortschritt über die Zähler)
+     */
+    private DailyPlanDTO mapDailyPlan(DailyPlan dailyPlan) {
+        return new DailyPlanDTO(
+                dailyPlan.getId(),
+                dailyPlan.getPatient().getId(),
+                dailyPlan.getPlanDate(),
+                dailyPlan.getCompletedTasks(),
+                dailyPlan.getTotalTasks(),
+                List.of()
+        );
+    }
+
+    /**
+     * Mappt DailyTask Entity zu DailyTaskDTO
+     */
+    private DailyTaskDTO mapDailyTask(DailyTask task) {
+        return new DailyTaskDTO(
+                task.getId(),
+                task.getDailyPlan().getId(),
+                task.getTitle(),
+                task.getReminderLevel().toString(),
+                task.getCompleted(),
+                task.getConfirmedAt()
+        );
+    }
+
+    /**
+     * Mappt Intervention Entity zu InterventionDTO (ohne Aufgaben, Fortschritt über die Zähler)
+     */
+    private InterventionDTO mapIntervention(Intervention intervention) {
+        return new InterventionDTO(
+                intervention.getId(),
+                intervention.getPatient().getId(),
+                intervention.getSource().toString(),
+                intervention.getTitle(),
+                intervention.getDescription(),
+                intervention.getActive(),
+                intervention.getCreatedAt(),
+                intervention.getCompletedTasks(),
+                intervention.getTotalTasks(),
+                List.of()
+        );
+    }
+
+    /**
+     * Mappt InterventionTask Entity zu InterventionTaskDTO
+     */
+    private InterventionTaskDTO mapInterventionTask(InterventionTask task) {
+        return new InterventionTaskDTO(
+                task.getId(),
+                task.getIntervention().getId(),
+                task.getDescription(),
+                task.getCompleted()
+        );
+    }
+
+    /**
+     * Mappt Medication Entity zu MedicationDTO
+     */
+    private MedicationDTO mapMedication(Medication medication) {
+        return new MedicationDTO(
+                medication.getId(),
+                medication.getPatient().getId(),
+                medication.getName(),
+                medication.getDosage(),
+                medication.getIntakeTime(),
+                medication.getConfirmable(),
+                medication.getCreatedAt()
+        );
+    }
+
+    /**
+     * Mappt Resource Entity zu ResourceDTO
+     */
+    private ResourceDTO mapResource(Resource resource) {
+        return new ResourceDTO(
+                resource.getId(),
+                resource.getPatient().getId(),
+                resource.getType(),
+                resource.getDescription(),
+                resource.getProposedBy() != null ? resource.getProposedBy().getId() : null,
+                resource.getProposedBy() != null ? resource.getProposedBy().getKeycloakId() : null,
+                resource.getApproved(),
+                resource.getCreatedAt()
+        );
+    }
+
+    /**
+     * Mappt CareNeed Entity zu CareNeedDTO
+     */
+    private CareNeedDTO mapCareNeed(CareNeed careNeed) {
+        return new CareNeedDTO(
+                careNeed.getId(),
+                careNeed.getPatient().getId(),
+                careNeed.getDescription(),
+                careNeed.getActive(),
+                careNeed.getCreatedAt(),
+                careNeed.getResolvedAt()
+        );
+    }
+}
@@ -3,8 +3,11 @@ package at.htlleonding.sixtosix.resource;
 import at.htlleonding.sixtosix.dto.UserAccountDTO;
 import at.htlleonding.sixtosix.entity.UserAccount;
 import at.htlleonding.sixtosix.entity.UserRole;
+import at.htlleonding.sixtosix.repository.CareAssignmentRepository;
 import at.htlleonding.sixtosix.repository.UserAccountRepository;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -23,11 +26,15 @@ import java.util.List;
 @Path("/users")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class UserAccountResource {
 
     @Inject
     UserAccountRepository userAccountRepository;
 
+    @Inject
+    CareAssignmentRepository careAssignmentRepository;
+
     /**
      * GET /users
      * Gibt alle Benutzer zurück.
@@ -108,6 +115,7 @@ public class UserAccountResource {
      */
     @POST
     @Path("/sync")
+    @Transactional
     public Response syncUserFromKeycloak(
             @QueryParam("keycloakId") String keycloakId,
             @QueryParam("role") String role) {
@@ -159,12 +167,8 @@ public class UserAccountResource {
                     .build();
         }
 
-        // Mappt Patienten über CareAssignments
-        List<Long> patientIds = user.getCareAssignments()
-                .stream()
-                .filter(assignment -> assignment.getActive())
-                .map(assignment -> assignment.getPatient().getId())
-                .toList();
+        // Aktive Zuordnungen zu nicht gelöschten Patienten, nur die IDs
+        List<Long> patientIds = careAssignmentRepository.findActivePatientIdsByPfleger(user);
 
         return Response.ok(patientIds).build();
     }
@@ -0,0 +1,494 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.dto.VitalIngestResultDTO;
+import at.htlleonding.sixtosix.dto.VitalMeasurementDTO;
+import at.htlleonding.sixtosix.dto.VitalRollupDTO;
+import at.htlleonding.sixtosix.dto.VitalThresholdDTO;
+import at.htlleonding.sixtosix.entity.AuditAction;
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.VitalMeasurement;
+import at.htlleonding.sixtosix.entity.VitalRollup;
+import at.htlleonding.sixtosix.entity.VitalRollupGranularity;
+import at.htlleonding.sixtosix.entity.VitalSignType;
+import at.htlleonding.sixtosix.entity.VitalThreshold;
+import at.htlleonding.sixtosix.repository.PatientRepository;
+import at.htlleonding.sixtosix.repository.VitalMeasurementRepository;
+import at.htlleonding.sixtosix.repository.VitalRollupRepository;
+import at.htlleonding.sixtosix.repository.VitalThresholdRepository;
+import at.htlleonding.sixtosix.service.AuditChainService;
+import at.htlleonding.sixtosix.service.VitalSignIngestService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * REST Resource für Vitalwerte
+ * Ingest von Messwerten (z.B. Heimgeräte) und Grenzwert-Regeln, die automatisch
+ * Bedarfe (CareNeed) eröffnen und lösen
+ *
+ * Basierend auf FSD Abschnitt 10 (Bedarf und Krisensituationen, Beispiel: Blutdruck > 160/90)
+ *
+ * Endpunkte:
+ * - POST   /vitals/measurements                         - Messwert-Paket einspielen
+ * - GET    /vitals/patients/{patientId}/measurements    - Rohdaten eines Zeitraums
+ * - GET    /vitals/patients/{patientId}/history         - Verdichteter Verlauf (Stunde/Tag/Woche)
+ * - GET    /vitals/patients/{patientId}/thresholds      - Grenzwert-Regeln eines Patienten
+ * - PUT    /vitals/patients/{patientId}/thresholds      - Grenzwert-Regel anlegen/ändern
+ * - DELETE /vitals/thresholds/{id}                      - Grenzwert-Regel löschen
+ */
+@Path("/vitals")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class VitalSignResource {
+
+    private static final int MAX_READINGS_PER_REQUEST = 5000;
+
+    private static final int MAX_RAW_RESULTS = 5000;
+
+    private static final int MAX_HISTORY_BUCKETS = 500;
+
+    @Inject
+    VitalSignIngestService ingestService;
+
+    @Inject
+    VitalMeasurementRepository measurementRepository;
+
+    @Inject
+    VitalRollupRepository rollupRepository;
+
+    @Inject
+    VitalThresholdRepository thresholdRepository;
+
+    @Inject
+    PatientRepository patientRepository;
+
+    @Inject
+    AuditChainService auditChainService;
+
+    @ConfigProperty(name = "sixtosix.vitals.ingest.timeout", defaultValue = "5s")
+    Duration ingestTimeout;
+
+    // ==================== Measurements ====================
+
+    /**
+     * POST /vitals/measurements
+     * Spielt ein Paket von Messwerten ein (auch für mehrere Patienten).
+     *
+     * Request Body:
+     * [
+     *   { "patientId": 1, "type": "BLOOD_PRESSURE", "value": 172, "secondaryValue": 95,
+     *     "measuredAt": "2026-03-01T08:15:00" },
+     *   { "patientId": 1, "type": "PULSE", "value": 88, "measuredAt": "2026-03-01T08:15:00" }
+     * ]
+     *
+     * Typ-Werte: BLOOD_PRESSURE, PULSE, GLUCOSE, WEIGHT
+     *
+     * Messwerte werden mit anderen Paketen gebündelt in einer Transaktion geschrieben
+     * und dabei gegen die Grenzwert-Regeln ausgewertet.
+     *
+     * Antwortet der Writer nicht innerhalb von {@code sixtosix.vitals.ingest.timeout}, wird das
+     * Paket zurückgezogen (503, erneut senden). Hat der Writer es bereits übernommen, wartet
+     * der Request auf den Commit; 503 bedeutet also immer, dass nichts gespeichert wurde.
+     *
+     * @param measurements Messwerte
+     * @return 201 Created mit Anzahl übernommener Messwerte und geöffneter/gelöster Bedarfe
+     */
+    @POST
+    @Path("/measurements")
+    public Response ingestMeasurements(@Valid List<@Valid VitalMeasurementDTO> measurements) {
+        if (measurements == null || measurements.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Keine Messwerte übermittelt")
+                    .build();
+        }
+        if (measurements.size() > MAX_READINGS_PER_REQUEST) {
+            return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                    .entity("Höchstens " + MAX_READINGS_PER_REQUEST + " Messwerte pro Paket")
+                    .build();
+        }
+
+        // Validiere und konvertiere Messwerte
+        LocalDateTime latestAllowed = LocalDateTime.now().plusMinutes(5);
+        List<VitalSignIngestService.Reading> readings = new ArrayList<>(measurements.size());
+        for (VitalMeasurementDTO measurement : measurements) {
+            VitalSignType type;
+            try {
+                type = VitalSignType.valueOf(measurement.type());
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Ungültiger Typ: " + measurement.type())
+                        .build();
+            }
+            if (type == VitalSignType.BLOOD_PRESSURE && measurement.secondaryValue() == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Blutdruck benötigt systolischen und diastolischen Wert")
+                        .build();
+            }
+            if (measurement.measuredAt().isAfter(latestAllowed)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Messzeitpunkt liegt in der Zukunft")
+                        .build();
+            }
+            readings.add(new VitalSignIngestService.Reading(
+                    measurement.patientId(),
+                    type,
+                    measurement.value(),
+                    measurement.secondaryValue(),
+                    measurement.measuredAt()
+            ));
+        }
+
+        CompletableFuture<VitalIngestResultDTO> pending = ingestService.submit(readings);
+        if (pending == null) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity("Ingest ausgelastet, bitte später erneut senden")
+                    .build();
+        }
+
+        try {
+            VitalIngestResultDTO result;
+            try {
+                result = pending.get(ingestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.cancel(false)) {
+                    // Paket zurückgezogen, es wird nicht mehr geschrieben
+                    return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                            .entity("Messwerte wurden nicht gespeichert, bitte erneut senden")
+                            .build();
+                }
+                // Writer schreibt das Paket bereits: Ausgang abwarten statt zum erneuten Senden aufzufordern
+                result = pending.get();
+            }
+            return Response
+                    .status(Response.Status.CREATED)
+                    .entity(result)
+                    .build();
+        } catch (ExecutionException e) {
+            // Transaktion zurückgerollt, nichts gespeichert
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity("Messwerte wurden nicht gespeichert, bitte erneut senden")
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.cancel(false)) {
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+            }
+            // Writer schreibt bereits (Shutdown): Ausgang unbekannt, nicht erneut senden lassen
+            return Response.status(Response.Status.ACCEPTED).build();
+        }
+    }
+
+    /**
+     * GET /vitals/patients/{patientId}/measurements
+     * Gibt Rohdaten eines Vitalwert-Typs in einem Zeitraum zurück (neueste zuerst).
+     *
+     * Query Parameter:
+     * - type: Vitalwert-Typ
+     * - from, to: Zeitraum (Format: YYYY-MM-DDTHH:MM:SS)
+     * - limit: maximale Anzahl (Standard 500)
+     *
+     * @param patientId Patient-ID
+     * @return Liste der Messwerte
+     */
+    @GET
+    @Path("/patients/{patientId}/measurements")
+    public Response getMeasurements(
+            @PathParam("patientId") Long patientId,
+            @QueryParam("type") String type,
+            @QueryParam("from") String from,
+            @QueryParam("to") String to,
+            @QueryParam("limit") @DefaultValue("500") int limit) {
+
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        VitalSignType vitalSignType;
+        LocalDateTime rangeFrom;
+        LocalDateTime rangeTo;
+        try {
+            vitalSignType = VitalSignType.valueOf(type);
+            rangeFrom = LocalDateTime.parse(from);
+            rangeTo = LocalDateTime.parse(to);
+        } catch (Exception e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Ungültiger Typ oder Zeitraum (erwartet: YYYY-MM-DDTHH:MM:SS)")
+                    .build();
+        }
+
+        List<VitalMeasurementDTO> measurements = measurementRepository
+                .findByPatientAndTypeAndRange(patient, vitalSignType, rangeFrom, rangeTo,
+                        Math.max(1, Math.min(limit, MAX_RAW_RESULTS)))
+                .stream()
+                .map(this::mapMeasurementToDTO)
+                .toList();
+
+        return Response.ok(measurements).build();
+    }
+
+    /**
+     * GET /vitals/patients/{patientId}/history
+     * Gibt den verdichteten Verlauf eines Vitalwert-Typs zurück (Min/Max/Mittelwert pro Zeitfenster).
+     * Gelesen werden nur die beim Ingest gepflegten Verdichtungen, nie die Rohdaten;
+     * die Antwort umfasst höchstens 500 Zeitfenster, unabhängig von der Länge des Zeitraums.
+     *
+     * Query Parameter:
+     * - type: Vitalwert-Typ
+     * - from, to: Zeitraum (Format: YYYY-MM-DDTHH:MM:SS)
+     * - granularity: HOUR, DAY oder WEEK (optional; ohne Angabe die feinste passende Auflösung)
+     *
+     * @param patientId Patient-ID
+     * @return Liste der Zeitfenster (älteste zuerst)
+     */
+    @GET
+    @Path("/patients/{patientId}/history")
+    public Response getHistory(
+            @PathParam("patientId") Long patientId,
+            @QueryParam("type") String type,
+            @QueryParam("from") String from,
+            @QueryParam("to") String to,
+            @QueryParam("granularity") String granularity) {
+
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        VitalSignType vitalSignType;
+        LocalDateTime rangeFrom;
+        LocalDateTime rangeTo;
+        try {
+            vitalSignType = VitalSignType.valueOf(type);
+            rangeFrom = LocalDateTime.parse(from);
+            rangeTo = LocalDateTime.parse(to);
+        } catch (Exception e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Ungültiger Typ oder Zeitraum (erwartet: YYYY-MM-DDTHH:MM:SS)")
+                    .build();
+        }
+        if (rangeTo.isBefore(rangeFrom)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Zeitraum-Ende liegt vor dem Beginn")
+                    .build();
+        }
+
+        VitalRollupGranularity resolution;
+        if (granularity == null || granularity.isBlank()) {
+            resolution = selectGranularity(rangeFrom, rangeTo);
+        } else {
+            try {
+                resolution = VitalRollupGranularity.valueOf(granularity);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Ungültige Auflösung: " + granularity)
+                        .build();
+            }
+        }
+        if (resolution.bucketCount(rangeFrom, rangeTo) > MAX_HISTORY_BUCKETS) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Zeitraum zu lang für Auflösung " + resolution
+                            + " (höchstens " + MAX_HISTORY_BUCKETS + " Zeitfenster)")
+                    .build();
+        }
+
+        List<VitalRollupDTO> history = rollupRepository
+                .findByPatientAndTypeAndRange(patient, vitalSignType, resolution, rangeFrom, rangeTo)
+                .stream()
+                .map(this::mapRollupToDTO)
+                .toList();
+
+        return Response.ok(history).build();
+    }
+
+    /**
+     * Feinste Auflösung, bei der der Zeitraum in die maximale Anzahl an Zeitfenstern passt
+     */
+    private VitalRollupGranularity selectGranularity(LocalDateTime from, LocalDateTime to) {
+        for (VitalRollupGranularity candidate : VitalRollupGranularity.values()) {
+            if (candidate.bucketCount(from, to) <= MAX_HISTORY_BUCKETS) {
+                return candidate;
+            }
+        }
+        return VitalRollupGranularity.WEEK;
+    }
+
+    // ==================== Thresholds ====================
+
+    /**
+     * GET /vitals/patients/{patientId}/thresholds
+     * Gibt alle Grenzwert-Regeln eines Patienten zurück.
+     *
+     * @param patientId Patient-ID
+     * @return Liste der Regeln
+     */
+    @GET
+    @Path("/patients/{patientId}/thresholds")
+    public Response getThresholds(@PathParam("patientId") Long patientId) {
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        List<VitalThresholdDTO> thresholds = thresholdRepository
+                .findByPatient(patient)
+                .stream()
+                .map(this::mapThresholdToDTO)
+                .toList();
+
+        return Response.ok(thresholds).build();
+    }
+
+    /**
+     * PUT /vitals/patients/{patientId}/thresholds
+     * Legt die Grenzwert-Regel eines Vitalwert-Typs an oder ändert sie.
+     *
+     * Query Parameter:
+     * - type: Vitalwert-Typ
+     * - minValue: Untergrenze (optional)
+     * - maxValue: Obergrenze (optional, bei Blutdruck systolisch)
+     * - secondaryMaxValue: Obergrenze diastolisch (optional, nur Blutdruck)
+     *
+     * Beispiel (FSD 10): type=BLOOD_PRESSURE&maxValue=160&secondaryMaxValue=90
+     *
+     * @param patientId Patient-ID
+     * @return Gespeicherte Regel
+     */
+    @PUT
+    @Path("/patients/{patientId}/thresholds")
+    @Transactional
+    public Response saveThreshold(
+            @PathParam("patientId") Long patientId,
+            @QueryParam("type") String type,
+            @QueryParam("minValue") Double minValue,
+            @QueryParam("maxValue") Double maxValue,
+            @QueryParam("secondaryMaxValue") Double secondaryMaxValue) {
+
+        Patient patient = patientRepository.findReferenceById(patientId);
+        if (patient == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Patient nicht gefunden")
+                    .build();
+        }
+
+        VitalSignType vitalSignType;
+        try {
+            vitalSignType = VitalSignType.valueOf(type);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Ungültiger Typ: " + type)
+                    .build();
+        }
+
+        if (minValue == null && maxValue == null && secondaryMaxValue == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Mindestens ein Grenzwert muss gesetzt sein")
+                    .build();
+        }
+
+        VitalThreshold threshold = thresholdRepository
+                .findByPatientAndType(patient, vitalSignType)
+                .orElseGet(() -> new VitalThreshold(patient, vitalSignType));
+        threshold.setMinValue(minValue);
+        threshold.setMaxValue(maxValue);
+        threshold.setSecondaryMaxValue(secondaryMaxValue);
+        AuditAction action = threshold.getId() == null ? AuditAction.CREATE : AuditAction.UPDATE;
+        thresholdRepository.persist(threshold);
+        auditChainService.record("VitalThreshold", threshold.getId(), action, null);
+
+        return Response.ok(mapThresholdToDTO(threshold)).build();
+    }
+
+    /**
+     * DELETE /vitals/thresholds/{id}
+     * Löscht eine Grenzwert-Regel. Bereits eröffnete Bedarfe bleiben bestehen.
+     *
+     * @param id Regel-ID
+     * @return 204 No Content
+     */
+    @DELETE
+    @Path("/thresholds/{id}")
+    @Transactional
+    public Response deleteThreshold(@PathParam("id") Long id) {
+        VitalThreshold threshold = thresholdRepository.findById(id);
+
+        if (threshold == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Grenzwert-Regel nicht gefunden")
+                    .build();
+        }
+
+        auditChainService.record("VitalThreshold", threshold.getId(), AuditAction.DELETE, null);
+        thresholdRepository.delete(threshold);
+
+        return Response.noContent().build();
+    }
+
+    // ==================== Mapping Methods ====================
+
+    /**
+     * Mappt VitalMeasurement Entity zu VitalMeasurementDTO
+     */
+    private VitalMeasurementDTO mapMeasurementToDTO(VitalMeasurement measurement) {
+        return new VitalMeasurementDTO(
+                measurement.getId(),
+                measurement.getPatient().getId(),
+                measurement.getType().toString(),
+                measurement.getValue(),
+                measurement.getSecondaryValue(),
+                measurement.getMeasuredAt()
+        );
+    }
+
+    /**
+     * Mappt VitalRollup Entity zu VitalRollupDTO
+     */
+    private VitalRollupDTO mapRollupToDTO(VitalRollup rollup) {
+        return new VitalRollupDTO(
+                rollup.getGranularity().toString(),
+                rollup.getBucketStart(),
+                rollup.getSampleCount(),
+                rollup.getMinValue(),
+                rollup.getMaxValue(),
+                rollup.getAverage(),
+                rollup.getSecondaryMin(),
+                rollup.getSecondaryMax(),
+                rollup.getSecondaryAverage()
+        );
+    }
+
+    /**
+     * Mappt VitalThreshold Entity zu VitalThresholdDTO
+     */
+    private VitalThresholdDTO mapThresholdToDTO(VitalThreshold threshold) {
+        return new VitalThresholdDTO(
+                threshold.getId(),
+                threshold.getPatient().getId(),
+                threshold.getType().toString(),
+                threshold.getMinValue(),
+                threshold.getMaxValue(),
+                threshold.getSecondaryMaxValue(),
+                threshold.getOpenCareNeed() != null ? threshold.getOpenCareNeed().getId() : null
+        );
+    }
+}
@@ -0,0 +1,227 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.dto.AdherenceTrendDTO;
+import at.htlleonding.sixtosix.entity.AdherenceGranularity;
+import at.htlleonding.sixtosix.entity.AdherenceRollup;
+import at.htlleonding.sixtosix.entity.DailyPlan;
+import at.htlleonding.sixtosix.entity.DailyTask;
+import at.htlleonding.sixtosix.repository.AdherenceDay;
+import at.htlleonding.sixtosix.repository.AdherenceRollupRepository;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Therapietreue (Adherence) der Tagesstruktur: Anteil bestätigter Aufgaben und
+ * Bestätigungsverzögerung je Patient und Tag.
+ *
+ * Die Tageszeilen (adherence_rollup) werden beim Anlegen und Bestätigen von Aufgaben in
+ * derselben Transaktion fortgeschrieben. Der Tagesabschluss berechnet die letzten
+ * {@code recompute-days} Tage aus daily_task neu und markiert sie als abgeschlossen;
+ * damit kommen auch spät hochgeladene Offline-Bestätigungen sicher an. Auswertungen lesen
+ * nur die Tageszeilen und fassen sie bei Bedarf zu Wochen zusammen.
+ */
+@ApplicationScoped
+public class AdherenceService {
+
+    private static final String LOCK_KEY = "hashtext('sixtosix.adherence-close')";
+
+    /**
+     * Berechnet die Tage [from, to) aller Tenants aus den Aufgaben neu (überschreibt die Zeilen).
+     * Fach = Minuten ab Beginn des Plantags / Fachbreite, begrenzt auf das letzte Fach (1-basiert).
+     */
+    private static final String CLOSE_DAYS_SQL = """
+            WITH days AS (
+                SELECT p.tenant_id, p.patient_id, p.plan_date,
+                       count(t.id) AS total_tasks,
+                       count(t.id) FILTER (WHERE t.completed) AS confirmed_tasks,
+                       array_agg(LEAST(?, GREATEST(0, floor(extract(epoch FROM t.confirmed_at - p.plan_date::timestamp) / 60 / ?)))::int + 1)
+                           FILTER (WHERE t.completed AND t.confirmed_at IS NOT NULL) AS buckets
+                FROM daily_plan p
+                LEFT JOIN daily_task t ON t.daily_plan_id = p.id AND t.plan_date = p.plan_date
+                WHERE p.plan_date >= ? AND p.plan_date < ?
+                GROUP BY p.tenant_id, p.patient_id, p.plan_date
+            )
+            INSERT INTO adherence_rollup (tenant_id, patient_id, plan_date, total_tasks, confirmed_tasks,
+                                          delay_histogram, closed)
+            SELECT d.tenant_id, d.patient_id, d.plan_date, d.total_tasks, d.confirmed_tasks,
+                   ARRAY(SELECT count(b) FILTER (WHERE b = i)::int
+                         FROM generate_series(1, ?) i LEFT JOIN unnest(d.buckets) b ON true
+                         GROUP BY i ORDER BY i),
+                   true
+            FROM days d
+            ORDER BY d.tenant_id, d.patient_id, d.plan_date
+            ON CONFLICT ON CONSTRAINT uk_adherence_rollup_day DO UPDATE SET
+                total_tasks = EXCLUDED.total_tasks,
+                confirmed_tasks = EXCLUDED.confirmed_tasks,
+                delay_histogram = EXCLUDED.delay_histogram,
+                closed = true
+            """;
+
+    @Inject
+    AdherenceRollupRepository rollupRepository;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "sixtosix.adherence.recompute-days", defaultValue = "7")
+    int recomputeDays;
+
+    // ==================== Fortschreiben ====================
+
+    /**
+     * Übernimmt die Aufgabenzahl des Plans nach dem Anlegen einer Aufgabe
+     * (nach DailyPlanRepository.adjustTaskCounters aufrufen).
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void taskAdded(DailyPlan dailyPlan) {
+        rollupRepository.upsertCounts(dailyPlan);
+    }
+
+    /**
+     * Zählt eine Bestätigung samt Verzögerung (nach DailyPlanRepository.adjustTaskCounters aufrufen).
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void taskConfirmed(DailyTask task) {
+        rollupRepository.upsertConfirmation(task.getDailyPlan(),
+                AdherenceRollup.delayBucket(task.getPlanDate(), task.getConfirmedAt()));
+    }
+
+    // ==================== Tagesabschluss ====================
+
+    @Scheduled(cron = "${sixtosix.adherence.close-cron:0 15 0 * * ?}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledClose() throws SQLException {
+        LocalDate today = LocalDate.now();
+        closeDays(today.minusDays(recomputeDays), today);
+    }
+
+    /**
+     * Berechnet die Tage [from, to) aller Tenants aus den Aufgaben neu und schließt sie ab.
+     * Eine Transaktion; mehrere Instanzen stimmen sich über einen Advisory Lock ab.
+     *
+     * @return Anzahl geschriebener Tageszeilen, -1 wenn eine andere Instanz gerade abschließt
+     */
+    public int closeDays(LocalDate from, LocalDate to) throws SQLException {
+        long startedAt = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                if (!tryLock(connection)) {
+                    connection.rollback();
+                    return -1;
+                }
+                int rows;
+                try (PreparedStatement statement = connection.prepareStatement(CLOSE_DAYS_SQL)) {
+                    statement.setInt(1, AdherenceRollup.DELAY_BUCKETS - 1);
+                    statement.setInt(2, AdherenceRollup.DELAY_BUCKET_MINUTES);
+                    statement.setObject(3, from);
+                    statement.setObject(4, to);
+                    statement.setInt(5, AdherenceRollup.DELAY_BUCKETS);
+                    rows = statement.executeUpdate();
+                }
+                connection.commit();
+                Log.infof("Therapietreue %s bis %s abgeschlossen: %d Tage in %d ms", from, to.minusDays(1),
+                        rows, System.currentTimeMillis() - startedAt);
+                return rows;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_try_advisory_xact_lock(" + LOCK_KEY + ")")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    // ==================== Auswertung ====================
+
+    /**
+     * Verlauf über die Tageszeilen der Patienten, je Tag oder Woche summiert (älteste zuerst).
+     * Fenster ohne Plan fehlen in der Liste.
+     */
+    public List<AdherenceTrendDTO> trend(Collection<Long> patientIds, LocalDate from, LocalDate to,
+                                         AdherenceGranularity granularity) {
+        Map<LocalDate, Bucket> buckets = new TreeMap<>();
+        for (AdherenceDay day : rollupRepository.findByPatientsAndRange(patientIds, from, to)) {
+            buckets.computeIfAbsent(granularity.bucketStart(day.planDate()), start -> new Bucket()).add(day);
+        }
+
+        List<AdherenceTrendDTO> trend = new ArrayList<>(buckets.size());
+        buckets.forEach((start, bucket) -> trend.add(new AdherenceTrendDTO(
+                granularity.toString(),
+                start,
+                bucket.totalTasks,
+                bucket.confirmedTasks,
+                bucket.totalTasks > 0 ? (double) bucket.confirmedTasks / bucket.totalTasks : null,
+                medianDelayMinutes(bucket.histogram),
+                bucket.closed
+        )));
+        return trend;
+    }
+
+    /**
+     * Median aus dem Histogramm, innerhalb des Fachs linear interpoliert.
+     * Liegt er im letzten Fach (nach dem Plantag), wird dessen Untergrenze geliefert.
+     */
+    static Double medianDelayMinutes(long[] histogram) {
+        long count = 0;
+        for (long n : histogram) {
+            count += n;
+        }
+        if (count == 0) {
+            return null;
+        }
+        double half = count / 2.0;
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] > 0 && seen + histogram[i] >= half) {
+                double position = i == histogram.length - 1 ? i : i + (half - seen) / histogram[i];
+                return position * AdherenceRollup.DELAY_BUCKET_MINUTES;
+            }
+            seen += histogram[i];
+        }
+        return (double) (histogram.length - 1) * AdherenceRollup.DELAY_BUCKET_MINUTES;
+    }
+
+    /**
+     * Summe der Tageszeilen eines Zeitfensters
+     */
+    private static final class Bucket {
+        private long totalTasks;
+        private long confirmedTasks;
+        private final long[] histogram = new long[AdherenceRollup.DELAY_BUCKETS];
+        private boolean closed = true;
+
+        void add(AdherenceDay day) {
+            totalTasks += day.totalTasks();
+            confirmedTasks += day.confirmedTasks();
+            int[] delays = day.delayHistogram();
+            for (int i = 0; i < Math.min(delays.length, histogram.length); i++) {
+                histogram[i] += delays[i];
+            }
+            closed &= day.closed();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.entity.ADLAssessment;
+import at.htlleonding.sixtosix.entity.AssessmentStatusRun;
+import at.htlleonding.sixtosix.entity.InterventionSource;
+import at.htlleonding.sixtosix.entity.SkillAssessment;
+import at.htlleonding.sixtosix.repository.AssessmentStatusRunRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.util.Optional;
+
+/**
+ * Schreibt den lauflängenkodierten Status-Verlauf (AssessmentStatusRun) fort.
+ *
+ * Pro neuer Bewertung wird nur der aktuelle Abschnitt der Definition gelesen (gesperrt):
+ * gleicher Status verlängert ihn, ein Statuswechsel beendet ihn und beginnt einen neuen.
+ * Trend-Abfragen lesen damit O(Statuswechsel) statt O(Bewertungen) Zeilen.
+ *
+ * Basierend auf FSD Abschnitt 5.2 (Der zeitliche Verlauf ist nachvollziehbar)
+ */
+@ApplicationScoped
+public class AssessmentTrendService {
+
+    @Inject
+    AssessmentStatusRunRepository runRepository;
+
+    /**
+     * Übernimmt eine neue (bereits persistierte) ADL-Bewertung in den Verlauf.
+     */
+    @Transactional
+    public void onAdlAssessment(ADLAssessment assessment) {
+        Optional<AssessmentStatusRun> current = runRepository
+                .lockCurrentAdlRun(assessment.getPatient(), assessment.getAdlDefinition());
+        if (current.isPresent() && current.get().getStatus() == assessment.getStatus()) {
+            current.get().extend(assessment.getAssessedAt());
+            return;
+        }
+        current.ifPresent(run -> run.end(assessment.getAssessedAt()));
+
+        AssessmentStatusRun run = new AssessmentStatusRun(assessment.getPatient(), InterventionSource.ADL,
+                assessment.getStatus(), assessment.getAssessedAt());
+        run.setAdlDefinition(assessment.getAdlDefinition());
+        runRepository.persist(run);
+    }
+
+    /**
+     * Übernimmt eine neue (bereits persistierte) Skill-Bewertung in den Verlauf.
+     */
+    @Transactional
+    public void onSkillAssessment(SkillAssessment assessment) {
+        Optional<AssessmentStatusRun> current = runRepository
+                .lockCurrentSkillRun(assessment.getPatient(), assessment.getSkillDefinition());
+        if (current.isPresent() && current.get().getStatus() == assessment.getStatus()) {
+            current.get().extend(assessment.getAssessedAt());
+            return;
+        }
+        current.ifPresent(run -> run.end(assessment.getAssessedAt()));
+
+        AssessmentStatusRun run = new AssessmentStatusRun(assessment.getPatient(), InterventionSource.SKILL,
+                assessment.getStatus(), assessment.getAssessedAt());
+        run.setSkillDefinition(assessment.getSkillDefinition());
+        runRepository.persist(run);
+    }
+}
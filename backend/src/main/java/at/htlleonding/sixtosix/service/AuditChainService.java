@@ -0,0 +1,249 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.entity.AuditAction;
+import at.htlleonding.sixtosix.entity.AuditChainHead;
+import at.htlleonding.sixtosix.entity.AuditCheckpoint;
+import at.htlleonding.sixtosix.entity.AuditLog;
+import at.htlleonding.sixtosix.entity.UserAccount;
+import at.htlleonding.sixtosix.repository.AuditChainEntry;
+import at.htlleonding.sixtosix.repository.AuditChainHeadRepository;
+import at.htlleonding.sixtosix.repository.AuditChainLink;
+import at.htlleonding.sixtosix.repository.AuditCheckpointRepository;
+import at.htlleonding.sixtosix.repository.AuditLogRepository;
+import at.htlleonding.sixtosix.repository.UserAccountRepository;
+import at.htlleonding.sixtosix.tenant.TenantScope;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schreibt Audit-Einträge in die manipulationssichere Hash-Kette.
+ *
+ * Die Resources rufen {@link #record} in der Transaktion der Änderung auf: Änderung und
+ * Eintrag werden gemeinsam committet oder gemeinsam verworfen. Der Eintrag ist dabei ein
+ * reines INSERT ohne Sperre, parallele Schreibzugriffe einer Organisation warten also
+ * nicht aufeinander.
+ *
+ * Verkettet wird im Hintergrund: {@link #linkPending} sperrt in einer kurzen eigenen
+ * Transaktion den Kettenkopf der Organisation, hängt die committeten, noch unverketteten
+ * Einträge in id-Reihenfolge an (chainSeq, previousHash, hash) und schreibt alle
+ * {@code sixtosix.audit.checkpoint-interval} Einträge einen signierten Checkpoint, an dem
+ * die Verifikation die Kette aufteilt. Bis zur Verkettung (höchstens
+ * {@code sixtosix.audit.chain-every}) ist ein Eintrag nur durch die Datenbankrechte geschützt.
+ *
+ * Basierend auf TSD Abschnitt 5.1 (Revisionssicherheit)
+ */
+@ApplicationScoped
+public class AuditChainService {
+
+    /**
+     * Mindestlänge des HMAC-Schlüssels der Checkpoints
+     */
+    static final int MIN_SECRET_LENGTH = 32;
+
+    @Inject
+    AuditLogRepository auditLogRepository;
+
+    @Inject
+    AuditChainHeadRepository headRepository;
+
+    @Inject
+    AuditCheckpointRepository checkpointRepository;
+
+    @Inject
+    UserAccountRepository userAccountRepository;
+
+    @Inject
+    SecurityIdentity identity;
+
+    @Inject
+    TenantScope tenantScope;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "sixtosix.audit.checkpoint-interval", defaultValue = "10000")
+    long checkpointInterval;
+
+    @ConfigProperty(name = "sixtosix.audit.checkpoint-secret")
+    String checkpointSecret;
+
+    @ConfigProperty(name = "sixtosix.audit.chain-batch", defaultValue = "500")
+    int chainBatch;
+
+    /**
+     * Ohne ausreichend langen Schlüssel ließen sich Checkpoints fälschen; dann gar nicht erst starten.
+     */
+    void onStart(@Observes StartupEvent event) {
+        if (checkpointSecret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("sixtosix.audit.checkpoint-secret (AUDIT_CHECKPOINT_SECRET) muss mindestens "
+                    + MIN_SECRET_LENGTH + " Zeichen lang sein");
+        }
+    }
+
+    /**
+     * Schreibt einen Audit-Eintrag für den angemeldeten Benutzer
+     * (Keycloak-ID aus dem Token; ohne Anmeldung oder Benutzerkonto ohne Benutzer).
+     *
+     * @param entity Entity-Typ (z.B. "Patient")
+     * @param entityId ID der betroffenen Entity
+     * @param action durchgeführte Aktion
+     * @param details optionale Details
+     * @return persistierter, noch unverketteter Audit-Eintrag
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public AuditLog record(String entity, Long entityId, AuditAction action, String details) {
+        return record(entity, entityId, action, currentUser(), details);
+    }
+
+    /**
+     * Schreibt einen neuen Audit-Eintrag; verkettet wird er von {@link #linkPending}.
+     *
+     * @param entity Entity-Typ (z.B. "Patient")
+     * @param entityId ID der betroffenen Entity
+     * @param action durchgeführte Aktion
+     * @param performer ausführender Benutzer (null = unbekannt bzw. System)
+     * @param details optionale Details
+     * @return persistierter, noch unverketteter Audit-Eintrag
+     */
+    @Transactional
+    public AuditLog record(String entity, Long entityId, AuditAction action, UserAccount performer, String details) {
+        AuditLog auditLog = new AuditLog(entity, entityId, action, performer);
+        auditLog.setDetails(details);
+        auditLog.setPerformedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        auditLogRepository.persist(auditLog);
+        return auditLog;
+    }
+
+    @Scheduled(every = "${sixtosix.audit.chain-every:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledLinking() throws SQLException {
+        for (String tenantId : pendingTenants()) {
+            tenantScope.runIsolated(tenantId, this::linkPending);
+        }
+    }
+
+    /**
+     * Verkettet alle committeten, noch unverketteten Einträge des aktuellen Tenants,
+     * je Batch in einer eigenen Transaktion (der Kettenkopf bleibt nur kurz gesperrt).
+     *
+     * @return Anzahl neu verketteter Einträge
+     */
+    public long linkPending() {
+        long linked = 0;
+        int batch;
+        do {
+            batch = QuarkusTransaction.requiringNew().call(this::linkBatch);
+            linked += batch;
+        } while (batch == chainBatch);
+        return linked;
+    }
+
+    /**
+     * Schreibt sofort einen Checkpoint am aktuellen Kettenende
+     * (z.B. vor einem Export oder Backup); ausstehende Einträge werden vorher verkettet.
+     *
+     * @return neuer Checkpoint oder null, wenn die Kette leer ist
+     *         oder am Ende bereits ein Checkpoint steht
+     */
+    public AuditCheckpoint checkpointNow() {
+        linkPending();
+        return QuarkusTransaction.requiringNew().call(() -> {
+            AuditChainHead head = headRepository.lockHead(AuditHashing.GENESIS_HASH);
+            if (head.getLastAuditLogId() == null
+                    || checkpointRepository.count("lastAuditLogId", head.getLastAuditLogId()) > 0) {
+                return null;
+            }
+            return writeCheckpoint(head);
+        });
+    }
+
+    /**
+     * Sperrt den Kettenkopf und verkettet den nächsten Batch. Erst nach der Sperre lesen:
+     * ein parallel laufender Knoten hat seine Einträge dann bereits committet.
+     */
+    private int linkBatch() {
+        AuditChainHead head = headRepository.lockHead(AuditHashing.GENESIS_HASH);
+        List<AuditChainEntry> pending = auditLogRepository.findUnlinked(chainBatch);
+
+        List<AuditChainLink> links = new ArrayList<>(pending.size());
+        for (AuditChainEntry entry : pending) {
+            String previousHash = head.getHeadHash();
+            String hash = AuditHashing.hash(
+                    head.getTenantId(),
+                    previousHash,
+                    entry.entity(),
+                    entry.entityId(),
+                    entry.action(),
+                    entry.performedById(),
+                    entry.performedAt(),
+                    entry.details()
+            );
+            head.advance(entry.id(), hash);
+            links.add(new AuditChainLink(entry.id(), head.getEntryCount(), previousHash, hash));
+
+            if (head.getEntryCount() % checkpointInterval == 0) {
+                writeCheckpoint(head);
+            }
+        }
+        auditLogRepository.link(links);
+
+        if (!pending.isEmpty()) {
+            Log.debugf("Audit-Kette %s: %d Einträge verkettet, Länge %d",
+                    head.getTenantId(), pending.size(), head.getEntryCount());
+        }
+        return pending.size();
+    }
+
+    /**
+     * Organisationen mit unverketteten Einträgen; liest über alle Tenants, daher direkt per JDBC
+     * (partieller Index idx_audit_log_unlinked).
+     */
+    private List<String> pendingTenants() throws SQLException {
+        List<String> tenants = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "SELECT DISTINCT tenant_id FROM audit_log WHERE hash IS NULL ORDER BY tenant_id")) {
+            while (result.next()) {
+                tenants.add(result.getString(1));
+            }
+        }
+        return tenants;
+    }
+
+    private UserAccount currentUser() {
+        if (identity.isAnonymous() || !(identity.getPrincipal() instanceof JsonWebToken token)) {
+            return null;
+        }
+        return userAccountRepository.findByKeycloakId(token.getSubject()).orElse(null);
+    }
+
+    private AuditCheckpoint writeCheckpoint(AuditChainHead head) {
+        AuditCheckpoint checkpoint = new AuditCheckpoint(
+                head.getLastAuditLogId(),
+                head.getHeadHash(),
+                head.getEntryCount(),
+                AuditHashing.sign(checkpointSecret, head.getTenantId(), head.getLastAuditLogId(),
+                        head.getEntryCount(), head.getHeadHash())
+        );
+        checkpointRepository.persist(checkpoint);
+        return checkpoint;
+    }
+}
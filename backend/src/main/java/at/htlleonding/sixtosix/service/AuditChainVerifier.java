@@ -0,0 +1,320 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.dto.AuditVerificationDTO;
+import at.htlleonding.sixtosix.entity.AuditChainHead;
+import at.htlleonding.sixtosix.entity.AuditCheckpoint;
+import at.htlleonding.sixtosix.repository.AuditChainEntry;
+import at.htlleonding.sixtosix.repository.AuditChainHeadRepository;
+import at.htlleonding.sixtosix.repository.AuditCheckpointRepository;
+import at.htlleonding.sixtosix.repository.AuditLogRepository;
+import at.htlleonding.sixtosix.tenant.CurrentTenant;
+import at.htlleonding.sixtosix.tenant.TenantScope;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Verifiziert die Audit-Hash-Kette.
+ *
+ * Geprüft wird die Kette in Kettenreihenfolge (chainSeq); noch unverkettete Einträge
+ * (siehe AuditChainService) gehören nicht dazu und werden nur gezählt. Die Positionen
+ * müssen lückenlos aufeinander folgen, so fällt auch ein gelöschter Eintrag mitten in
+ * der Kette auf.
+ *
+ * Die Kette wird an den signierten Checkpoints in Segmente geteilt. Jedes Segment
+ * beginnt mit dem (signierten) Hash des vorherigen Checkpoints und ist damit
+ * unabhängig prüfbar. Die Segmente werden per Fork/Join parallel auf allen Kernen
+ * verifiziert, jedes Segment liest seine Einträge seitenweise per Keyset-Pagination.
+ *
+ * Der Scheduler prüft inkrementell: nur Segmente nach dem zuletzt erfolgreich
+ * verifizierten Checkpoint sowie das offene Kettenende.
+ *
+ * Das offene Kettenende wird gegen den Kettenkopf (audit_chain_head) geprüft: letzter
+ * Eintrag, Hash und Anzahl müssen übereinstimmen. So fällt auch auf, wenn Einträge am
+ * Ende gelöscht wurden.
+ *
+ * Jede Organisation hat ihre eigene Kette; Prüfung und Startpunkt gelten pro Tenant.
+ * Die Organisation geht in Hash und Signatur ein, Einträge oder Checkpoints einer anderen
+ * Organisation verifizieren daher nicht.
+ */
+@ApplicationScoped
+public class AuditChainVerifier {
+
+    @Inject
+    AuditLogRepository auditLogRepository;
+
+    @Inject
+    AuditCheckpointRepository checkpointRepository;
+
+    @Inject
+    AuditChainHeadRepository headRepository;
+
+    @Inject
+    CurrentTenant currentTenant;
+
+    @Inject
+    TenantScope tenantScope;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "sixtosix.audit.checkpoint-secret")
+    String checkpointSecret;
+
+    @ConfigProperty(name = "sixtosix.audit.verify-page-size", defaultValue = "5000")
+    int pageSize;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Zuletzt vollständig verifizierter Checkpoint pro Tenant (Startpunkt der inkrementellen Prüfung).
+     */
+    private final Map<String, Anchor> verifiedAnchors = new ConcurrentHashMap<>();
+
+    /**
+     * Prüft die gesamte Kette des aktuellen Tenants ab dem Genesis-Eintrag.
+     */
+    public AuditVerificationDTO verifyFull() {
+        return verifyFrom(currentTenant.get(), Anchor.GENESIS, false);
+    }
+
+    /**
+     * Prüft nur die Segmente nach dem zuletzt verifizierten Checkpoint des aktuellen Tenants.
+     */
+    public AuditVerificationDTO verifyIncremental() {
+        String tenantId = currentTenant.get();
+        return verifyFrom(tenantId, verifiedAnchors.getOrDefault(tenantId, Anchor.GENESIS), true);
+    }
+
+    @Scheduled(every = "${sixtosix.audit.verify-every:5m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledVerification() throws SQLException {
+        for (String tenantId : chainTenants()) {
+            tenantScope.runIsolated(tenantId, () -> {
+                AuditVerificationDTO result = verifyIncremental();
+                if (!result.valid()) {
+                    Log.errorf("Audit-Kette von %s ungültig ab Eintrag %d: %s",
+                            tenantId, result.firstInvalidAuditLogId(), result.reason());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Organisationen mit Audit-Kette; liest über alle Tenants, daher direkt per JDBC.
+     */
+    private List<String> chainTenants() throws SQLException {
+        List<String> tenants = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT tenant_id FROM audit_chain_head ORDER BY tenant_id")) {
+            while (result.next()) {
+                tenants.add(result.getString(1));
+            }
+        }
+        return tenants;
+    }
+
+    private AuditVerificationDTO verifyFrom(String tenantId, Anchor start, boolean incremental) {
+        long startedAt = System.currentTimeMillis();
+
+        List<AuditCheckpoint> checkpoints = QuarkusTransaction.requiringNew()
+                .call(() -> checkpointRepository.findAfter(start.entryCount()));
+        // Erst nach den Checkpoints lesen: inzwischen geschriebene Checkpoints liegen dann im letzten Segment
+        Anchor head = QuarkusTransaction.requiringNew()
+                .call(() -> headRepository.findHead().map(Anchor::of).orElse(Anchor.GENESIS));
+
+        List<Segment> segments = new ArrayList<>();
+        Anchor previous = start;
+        for (AuditCheckpoint checkpoint : checkpoints) {
+            segments.add(new Segment(previous, Anchor.of(checkpoint), checkpoint));
+            previous = Anchor.of(checkpoint);
+        }
+
+        SegmentResult result;
+        if (head.entryCount() < previous.entryCount()) {
+            result = SegmentResult.broken(0, previous.lastAuditLogId(), "Kettenkopf liegt vor dem letzten Checkpoint");
+        } else {
+            // Auch ohne neue Einträge: Hash und Anzahl des Kopfes müssen zum letzten Checkpoint passen
+            segments.add(new Segment(previous, head, null));
+            result = pool.invoke(new SegmentTask(tenantId, segments));
+        }
+        long pending = QuarkusTransaction.requiringNew().call(auditLogRepository::countUnlinked);
+
+        if (result.valid() && !checkpoints.isEmpty()) {
+            Anchor last = Anchor.of(checkpoints.get(checkpoints.size() - 1));
+            verifiedAnchors.merge(tenantId, last,
+                    (current, candidate) -> candidate.entryCount() > current.entryCount() ? candidate : current);
+        }
+
+        return new AuditVerificationDTO(
+                result.valid(),
+                incremental,
+                result.verifiedEntries(),
+                pending,
+                segments.size(),
+                result.firstInvalidAuditLogId(),
+                result.reason(),
+                LocalDateTime.now(),
+                System.currentTimeMillis() - startedAt
+        );
+    }
+
+    private SegmentResult verifySegment(String tenantId, Segment segment) {
+        String expectedPrevious = segment.start().chainHash();
+        long cursor = segment.start().entryCount();
+        Long lastAuditLogId = segment.start().lastAuditLogId();
+        long verified = 0;
+
+        while (true) {
+            long afterSeq = cursor;
+            List<AuditChainEntry> page = QuarkusTransaction.requiringNew()
+                    .call(() -> auditLogRepository.findChainPage(afterSeq, segment.end().entryCount(), pageSize));
+
+            for (AuditChainEntry entry : page) {
+                if (entry.chainSeq() != cursor + 1) {
+                    return SegmentResult.broken(verified, entry.id(), "Lücke in der Kette vor Position " + entry.chainSeq());
+                }
+                if (!expectedPrevious.equals(entry.previousHash())) {
+                    return SegmentResult.broken(verified, entry.id(), "Verkettung unterbrochen (previousHash)");
+                }
+                String recomputed = AuditHashing.hash(
+                        tenantId,
+                        expectedPrevious,
+                        entry.entity(),
+                        entry.entityId(),
+                        entry.action(),
+                        entry.performedById(),
+                        entry.performedAt(),
+                        entry.details()
+                );
+                if (!recomputed.equals(entry.hash())) {
+                    return SegmentResult.broken(verified, entry.id(), "Inhalt verändert (hash)");
+                }
+                expectedPrevious = recomputed;
+                cursor = entry.chainSeq();
+                lastAuditLogId = entry.id();
+                verified++;
+            }
+
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        AuditCheckpoint checkpoint = segment.endCheckpoint();
+        if (checkpoint != null) {
+            boolean signatureValid = AuditHashing.constantTimeEquals(
+                    checkpoint.getSignature(),
+                    AuditHashing.sign(checkpointSecret, tenantId, checkpoint.getLastAuditLogId(),
+                            checkpoint.getEntryCount(), checkpoint.getChainHash()));
+            if (!signatureValid) {
+                return SegmentResult.broken(verified, checkpoint.getLastAuditLogId(), "Checkpoint-Signatur ungültig");
+            }
+        }
+
+        Anchor end = segment.end();
+        String endName = checkpoint != null ? "Checkpoint" : "Kettenkopf";
+        if (cursor != end.entryCount()) {
+            return SegmentResult.broken(verified, end.lastAuditLogId(),
+                    "Anzahl der Einträge stimmt nicht (" + endName + ")");
+        }
+        if (!end.lastAuditLogId().equals(lastAuditLogId) || !expectedPrevious.equals(end.chainHash())) {
+            return SegmentResult.broken(verified, end.lastAuditLogId(), "Kette endet nicht am " + endName);
+        }
+
+        return SegmentResult.ok(verified);
+    }
+
+    // ==================== Fork/Join ====================
+
+    private final class SegmentTask extends RecursiveTask<SegmentResult> {
+
+        private final String tenantId;
+
+        private final List<Segment> segments;
+
+        SegmentTask(String tenantId, List<Segment> segments) {
+            this.tenantId = tenantId;
+            this.segments = segments;
+        }
+
+        @Override
+        protected SegmentResult compute() {
+            if (segments.size() == 1) {
+                // Pool-Threads haben keinen Request-Kontext; Blätter forken nicht, der Kontext bleibt pro Segment
+                return tenantScope.call(tenantId, () -> verifySegment(tenantId, segments.get(0)));
+            }
+            int middle = segments.size() / 2;
+            SegmentTask left = new SegmentTask(tenantId, segments.subList(0, middle));
+            SegmentTask right = new SegmentTask(tenantId, segments.subList(middle, segments.size()));
+            left.fork();
+            SegmentResult rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+    }
+
+    private record Anchor(Long lastAuditLogId, String chainHash, Long entryCount) {
+
+        static final Anchor GENESIS = new Anchor(0L, AuditHashing.GENESIS_HASH, 0L);
+
+        static Anchor of(AuditCheckpoint checkpoint) {
+            return new Anchor(checkpoint.getLastAuditLogId(), checkpoint.getChainHash(), checkpoint.getEntryCount());
+        }
+
+        static Anchor of(AuditChainHead head) {
+            return head.getLastAuditLogId() == null
+                    ? GENESIS
+                    : new Anchor(head.getLastAuditLogId(), head.getHeadHash(), head.getEntryCount());
+        }
+    }
+
+    /**
+     * Teil der Kette zwischen zwei Ankern; endet an einem Checkpoint oder (endCheckpoint null) am Kettenkopf
+     */
+    private record Segment(Anchor start, Anchor end, AuditCheckpoint endCheckpoint) {
+    }
+
+    private record SegmentResult(boolean valid, long verifiedEntries, Long firstInvalidAuditLogId, String reason) {
+
+        static SegmentResult ok(long verifiedEntries) {
+            return new SegmentResult(true, verifiedEntries, null, null);
+        }
+
+        static SegmentResult broken(long verifiedEntries, Long auditLogId, String reason) {
+            return new SegmentResult(false, verifiedEntries, auditLogId, reason);
+        }
+
+        /**
+         * Fasst das Ergebnis mit dem des folgenden Kettenabschnitts zusammen; gemeldet wird der früheste Bruch.
+         */
+        SegmentResult merge(SegmentResult following) {
+            long total = verifiedEntries + following.verifiedEntries;
+            if (valid && following.valid) {
+                return ok(total);
+            }
+            SegmentResult first = !valid ? this : following;
+            return new SegmentResult(false, total, first.firstInvalidAuditLogId, first.reason);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.entity.AuditAction;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.InvalidKeyException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Hash-Funktionen der Audit-Kette.
+ * hash = SHA-256(tenantId | previousHash | entity | entityId | action | performedBy | performedAt | details)
+ * Checkpoints werden mit HMAC-SHA256 über (tenantId | lastAuditLogId | entryCount | chainHash) signiert.
+ * Die Organisation ist Teil beider Payloads: in eine andere Organisation verschobene Einträge,
+ * Ketten oder Checkpoints verifizieren dort nicht mehr.
+ */
+final class AuditHashing {
+
+    static final String GENESIS_HASH = "0".repeat(64);
+
+    private static final char SEPARATOR = '\u001F';
+
+    private AuditHashing() {
+    }
+
+    static String hash(String tenantId, String previousHash, String entity, Long entityId, AuditAction action,
+                       Long performedById, LocalDateTime performedAt, String details) {
+        String canonical = tenantId + SEPARATOR
+                + previousHash + SEPARATOR
+                + entity + SEPARATOR
+                + entityId + SEPARATOR
+                + action + SEPARATOR
+                + performedById + SEPARATOR
+                + performedAt + SEPARATOR
+                + (details != null ? details : "");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    static String sign(String secret, String tenantId, Long lastAuditLogId, Long entryCount, String chainHash) {
+        String payload = tenantId + SEPARATOR + lastAuditLogId + SEPARATOR + entryCount + SEPARATOR + chainHash;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HmacSHA256 nicht verfügbar", e);
+        }
+    }
+
+    static boolean constantTimeEquals(String a, String b) {
+        return a != null && b != null && MessageDigest.isEqual(
+                a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+}
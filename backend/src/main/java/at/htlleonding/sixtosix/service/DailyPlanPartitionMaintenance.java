@@ -0,0 +1,281 @@
+package at.htlleonding.sixtosix.service;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Pflegt die Monatspartitionen von daily_plan und daily_task (Partitionsschlüssel plan_date).
+ *
+ * - Legt Partitionen für den laufenden und die nächsten {@code months-ahead} Monate an.
+ * - Zeilen, die in der DEFAULT-Partition gelandet sind (z.B. nachgetragene Pläne), werden
+ *   in eigene Monatspartitionen verschoben.
+ * - Monate vor dem Archivierungshorizont ({@code archive-after-months}) werden archiviert:
+ *   die Partitionen werden dicht neu geschrieben (fillfactor 100, VACUUM FULL mit FREEZE)
+ *   und optional samt Indizes in einen Cold-Tablespace verschoben, z.B. auf einem
+ *   komprimierenden Dateisystem. PostgreSQL selbst komprimiert Tabellenseiten nicht.
+ *
+ * Plan und Aufgaben eines Monats liegen in gleichnamigen Partitionen (daily_plan_p202501,
+ * daily_task_p202501). Abfragen laufen weiter über die Elterntabellen; PostgreSQL liest
+ * über plan_date nur die betroffenen Monate (Partition Pruning), archivierte Monate bleiben
+ * lesbar und änderbar.
+ *
+ * Arbeitet über alle Tenants, daher direkt per JDBC. Mehrere Instanzen stimmen sich über
+ * einen Advisory Lock ab, DDL wartet höchstens {@code lock-timeout} auf Sperren. Scheitert ein
+ * Monat (z.B. am lock_timeout), wird das geloggt und mit den übrigen Monaten weitergemacht;
+ * der nächste Lauf holt ihn nach. Ein halb archivierter Monat trägt noch keinen Kommentar an
+ * der Plan-Partition und wird vollständig wiederholt.
+ */
+@ApplicationScoped
+public class DailyPlanPartitionMaintenance {
+
+    static final String ARCHIVED_COMMENT = "archiviert";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String LOCK_KEY = "hashtext('sixtosix.daily-plan-partitions')";
+
+    // Plan vor Aufgaben anhängen: der FK von daily_task prüft gegen daily_plan
+    private static final String[] TABLES = {"daily_plan", "daily_task"};
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "sixtosix.daily-plan.partitions.months-ahead", defaultValue = "3")
+    int monthsAhead;
+
+    @ConfigProperty(name = "sixtosix.daily-plan.partitions.archive-after-months", defaultValue = "12")
+    int archiveAfterMonths;
+
+    @ConfigProperty(name = "sixtosix.daily-plan.partitions.archive-tablespace")
+    Optional<String> archiveTablespace;
+
+    @ConfigProperty(name = "sixtosix.daily-plan.partitions.lock-timeout", defaultValue = "5s")
+    Duration lockTimeout;
+
+    void onStart(@Observes StartupEvent event) {
+        // Beim Start nur anlegen, das Archivieren schreibt Partitionen neu und bleibt dem Scheduler vorbehalten
+        try {
+            maintain(false);
+        } catch (SQLException e) {
+            Log.errorf(e, "Monatspartitionen der Tagespläne konnten nicht angelegt werden");
+        }
+    }
+
+    @Scheduled(cron = "${sixtosix.daily-plan.partitions.cron:0 30 3 * * ?}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledMaintenance() throws SQLException {
+        maintain(true);
+    }
+
+    /**
+     * Legt fehlende Monatspartitionen an und archiviert auf Wunsch Monate vor dem Horizont.
+     */
+    void maintain(boolean archive) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!isPartitioned(connection)) {
+                Log.debug("daily_plan ist nicht partitioniert, Partitionspflege übersprungen");
+                return;
+            }
+            if (!tryLock(connection)) {
+                return;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET lock_timeout = " + lockTimeout.toMillis());
+                YearMonth current = YearMonth.now();
+                List<YearMonth> months = new ArrayList<>(monthsInDefault(connection));
+                for (int i = 0; i <= monthsAhead; i++) {
+                    months.add(current.plusMonths(i));
+                }
+                for (YearMonth month : months) {
+                    try {
+                        createPartitions(connection, month);
+                    } catch (SQLException e) {
+                        Log.warnf(e, "Monatspartitionen %s nicht angelegt, nächster Lauf versucht es erneut", month);
+                    }
+                }
+                if (archive) {
+                    YearMonth horizon = current.minusMonths(archiveAfterMonths);
+                    for (YearMonth month : activeMonths(connection)) {
+                        if (month.isBefore(horizon)) {
+                            // z.B. lock_timeout bei VACUUM FULL: Monat bleibt aktiv, die übrigen laufen weiter
+                            try {
+                                archive(connection, month);
+                            } catch (SQLException e) {
+                                Log.warnf(e, "Tagespläne %s nicht archiviert, nächster Lauf versucht es erneut", month);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("RESET lock_timeout");
+                    statement.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                }
+            }
+        }
+    }
+
+    // ==================== Partitionen anlegen ====================
+
+    /**
+     * Legt die Partitionen eines Monats an und übernimmt dessen Zeilen aus der DEFAULT-Partition
+     * (sonst scheitert das Anhängen). Alles in einer Transaktion.
+     */
+    private void createPartitions(Connection connection, YearMonth month) throws SQLException {
+        if (exists(connection, partition("daily_plan", month))) {
+            return;
+        }
+        String range = "plan_date >= DATE '" + month.atDay(1) + "' AND plan_date < DATE '" + month.plusMonths(1).atDay(1) + "'";
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                String partition = partition(table, month);
+                statement.execute("CREATE TABLE " + partition + " (LIKE " + table + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                statement.execute("INSERT INTO " + partition + " SELECT * FROM " + table + "_default WHERE " + range);
+            }
+            // Aufgaben vor Plänen löschen (FK daily_task -> daily_plan)
+            int moved = statement.executeUpdate("DELETE FROM daily_task_default WHERE " + range);
+            moved += statement.executeUpdate("DELETE FROM daily_plan_default WHERE " + range);
+            for (String table : TABLES) {
+                statement.execute("ALTER TABLE " + table + " ATTACH PARTITION " + partition(table, month)
+                        + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            }
+            connection.commit();
+            Log.infof("Monatspartitionen %s angelegt (%d Zeilen aus DEFAULT übernommen)", month, moved);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private List<YearMonth> monthsInDefault(Connection connection) throws SQLException {
+        List<YearMonth> months = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "SELECT DISTINCT date_trunc('month', plan_date)::date FROM daily_plan_default ORDER BY 1")) {
+            while (result.next()) {
+                months.add(YearMonth.from(result.getDate(1).toLocalDate()));
+            }
+        }
+        return months;
+    }
+
+    // ==================== Archivierung ====================
+
+    /**
+     * Schreibt die Partitionen eines Monats dicht neu und verschiebt sie in den Cold-Tablespace.
+     * VACUUM FULL läuft außerhalb einer Transaktion und sperrt nur die jeweilige Partition.
+     * Aufgaben zuerst: der Monat gilt erst mit dem Kommentar an der Plan-Partition als archiviert.
+     */
+    private void archive(Connection connection, YearMonth month) throws SQLException {
+        long startedAt = System.currentTimeMillis();
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[]{"daily_task", "daily_plan"}) {
+                String partition = partition(table, month);
+                statement.execute("ALTER TABLE " + partition + " SET (fillfactor = 100)");
+                statement.execute("VACUUM (FULL, FREEZE, ANALYZE) " + partition);
+                if (archiveTablespace.isPresent()) {
+                    String tablespace = quoteIdentifier(archiveTablespace.get());
+                    statement.execute("ALTER TABLE " + partition + " SET TABLESPACE " + tablespace);
+                    for (String index : indexes(connection, partition)) {
+                        statement.execute("ALTER INDEX " + index + " SET TABLESPACE " + tablespace);
+                    }
+                }
+                statement.execute("COMMENT ON TABLE " + partition + " IS '" + ARCHIVED_COMMENT + "'");
+            }
+        }
+        Log.infof("Tagespläne %s archiviert in %d ms", month, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Monatspartitionen von daily_plan, die noch nicht archiviert sind
+     */
+    private List<YearMonth> activeMonths(Connection connection) throws SQLException {
+        List<YearMonth> months = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'daily_plan'::regclass
+                  AND c.relname ~ '^daily_plan_p[0-9]{6}$'
+                  AND coalesce(obj_description(c.oid, 'pg_class'), '') <> ?
+                ORDER BY c.relname
+                """)) {
+            statement.setString(1, ARCHIVED_COMMENT);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    String name = result.getString(1);
+                    months.add(YearMonth.parse(name.substring(name.length() - 6), SUFFIX));
+                }
+            }
+        }
+        return months;
+    }
+
+    private List<String> indexes(Connection connection, String partition) throws SQLException {
+        List<String> indexes = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT indexrelid::regclass::text FROM pg_index WHERE indrelid = ?::regclass")) {
+            statement.setString(1, partition);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    indexes.add(result.getString(1));
+                }
+            }
+        }
+        return indexes;
+    }
+
+    // ==================== Hilfsmethoden ====================
+
+    static String partition(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    private static boolean isPartitioned(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass('daily_plan')")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private static boolean exists(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, table);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,274 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.entity.ADLAssessment;
+import at.htlleonding.sixtosix.entity.AssessmentStatus;
+import at.htlleonding.sixtosix.entity.AuditAction;
+import at.htlleonding.sixtosix.entity.InterventionRule;
+import at.htlleonding.sixtosix.entity.InterventionSource;
+import at.htlleonding.sixtosix.entity.InterventionSuggestion;
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.SkillAssessment;
+import at.htlleonding.sixtosix.repository.ADLAssessmentRepository;
+import at.htlleonding.sixtosix.repository.CareNeedRepository;
+import at.htlleonding.sixtosix.repository.InterventionRuleRepository;
+import at.htlleonding.sixtosix.repository.InterventionSuggestionRepository;
+import at.htlleonding.sixtosix.repository.SkillAssessmentRepository;
+import at.htlleonding.sixtosix.tenant.CurrentTenant;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Regelbasierte Interventionsvorschläge aus ADL- und Skill-Bewertungen.
+ *
+ * Die aktiven Regeln werden pro Organisation einmal in einen unveränderlichen Index
+ * übersetzt (Schlüssel: Herkunft + ADL-/Skill-Definition), beim ersten Bedarf geladen. Trifft eine neue Bewertung ein,
+ * werden nur die Regeln ihrer Definition ausgewertet; Regeln mit Bedarfs-Stichwort
+ * zusätzlich, wenn sich die aktiven Bedarfe eines Patienten ändern. Die Historie
+ * des Patienten wird dabei nicht erneut gelesen.
+ *
+ * Der Index ist pro Knoten gecacht. Änderungen auf diesem Knoten bauen ihn sofort neu auf
+ * (RulesChanged); Änderungen anderer Knoten werden spätestens nach
+ * sixtosix.suggestions.rule-check-interval erkannt: dann wird ein Änderungsstempel
+ * (Anzahl, höchste ID, Summe der Versionen) der Regeln gelesen und der Index nur bei
+ * Abweichung neu geladen.
+ *
+ * Ergebnis sind Vorschläge (InterventionSuggestion); eine Intervention entsteht erst
+ * nach Bestätigung durch den Pfleger.
+ *
+ * Basierend auf FSD Abschnitt 5.3 (Überleitung in Interventionen) und 13.2
+ */
+@ApplicationScoped
+public class InterventionSuggestionEngine {
+
+    /**
+     * CDI-Event nach Änderung der Regeln; der Index des aktuellen Tenants wird nach
+     * erfolgreichem Commit neu aufgebaut.
+     */
+    public static final class RulesChanged {
+    }
+
+    /**
+     * Kompilierte Regel, unabhängig vom Persistence Context.
+     * Das Stichwort ist bereits kleingeschrieben (null = keine Bedarfs-Bedingung).
+     */
+    record CompiledRule(Long id, DefinitionKey key, AssessmentStatus status, String careNeedKeyword) {
+
+        boolean needsCareNeed() {
+            return careNeedKeyword != null;
+        }
+    }
+
+    record DefinitionKey(InterventionSource source, Long definitionId) {
+    }
+
+    private record RuleIndex(Map<DefinitionKey, List<CompiledRule>> byDefinition, List<CompiledRule> careNeedRules,
+                             InterventionRuleRepository.ChangeStamp stamp, long checkedAt) {
+
+        RuleIndex checked(long now) {
+            return new RuleIndex(byDefinition, careNeedRules, stamp, now);
+        }
+    }
+
+    private record Trigger(AssessmentStatus status, Long assessmentId) {
+    }
+
+    @Inject
+    InterventionRuleRepository ruleRepository;
+
+    @Inject
+    InterventionSuggestionRepository suggestionRepository;
+
+    @Inject
+    ADLAssessmentRepository adlAssessmentRepository;
+
+    @Inject
+    SkillAssessmentRepository skillAssessmentRepository;
+
+    @Inject
+    CareNeedRepository careNeedRepository;
+
+    @Inject
+    AuditChainService auditChainService;
+
+    @Inject
+    CurrentTenant currentTenant;
+
+    @ConfigProperty(name = "sixtosix.suggestions.rule-check-interval", defaultValue = "30s")
+    Duration ruleCheckInterval;
+
+    private final Map<String, RuleIndex> indexes = new ConcurrentHashMap<>();
+
+    void onRulesChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) RulesChanged event) {
+        reload();
+    }
+
+    /**
+     * Übersetzt die aktiven Regeln des aktuellen Tenants neu und ersetzt dessen Index atomar.
+     */
+    public void reload() {
+        String tenantId = currentTenant.get();
+        long now = System.nanoTime();
+        // Stempel vor den Regeln lesen: eine Änderung dazwischen führt höchstens zu einem weiteren Neuladen
+        RuleIndex loaded = QuarkusTransaction.requiringNew().call(() -> {
+            InterventionRuleRepository.ChangeStamp stamp = ruleRepository.findChangeStamp();
+            List<CompiledRule> compiled = ruleRepository.findAllActive()
+                    .stream()
+                    .map(InterventionSuggestionEngine::compile)
+                    .toList();
+            return new RuleIndex(
+                    Map.copyOf(compiled.stream().collect(Collectors.groupingBy(CompiledRule::key))),
+                    compiled.stream().filter(CompiledRule::needsCareNeed).toList(),
+                    stamp, now);
+        });
+
+        indexes.put(tenantId, loaded);
+        Log.debugf("Interventionsregeln von %s geladen: %d aktiv",
+                tenantId, loaded.byDefinition().values().stream().mapToInt(List::size).sum());
+    }
+
+    private RuleIndex index() {
+        String tenantId = currentTenant.get();
+        RuleIndex index = indexes.get(tenantId);
+        if (index == null) {
+            reload();
+            return indexes.get(tenantId);
+        }
+
+        long now = System.nanoTime();
+        if (now - index.checkedAt() < ruleCheckInterval.toNanos()) {
+            return index;
+        }
+        if (!ruleRepository.findChangeStamp().equals(index.stamp())) {
+            Log.debugf("Interventionsregeln von %s auf einem anderen Knoten geändert, Index wird neu geladen", tenantId);
+            reload();
+            return indexes.get(tenantId);
+        }
+        RuleIndex checked = index.checked(now);
+        indexes.replace(tenantId, index, checked);
+        return checked;
+    }
+
+    /**
+     * Wertet die Regeln der Definition einer neuen ADL-Bewertung aus.
+     *
+     * @return Anzahl neu erzeugter Vorschläge
+     */
+    @Transactional
+    public int onAdlAssessment(ADLAssessment assessment) {
+        DefinitionKey key = new DefinitionKey(InterventionSource.ADL, assessment.getAdlDefinition().getId());
+        return evaluate(assessment.getPatient(), index().byDefinition().getOrDefault(key, List.of()),
+                Map.of(key, new Trigger(assessment.getStatus(), assessment.getId())));
+    }
+
+    /**
+     * Wertet die Regeln der Definition einer neuen Skill-Bewertung aus.
+     *
+     * @return Anzahl neu erzeugter Vorschläge
+     */
+    @Transactional
+    public int onSkillAssessment(SkillAssessment assessment) {
+        DefinitionKey key = new DefinitionKey(InterventionSource.SKILL, assessment.getSkillDefinition().getId());
+        return evaluate(assessment.getPatient(), index().byDefinition().getOrDefault(key, List.of()),
+                Map.of(key, new Trigger(assessment.getStatus(), assessment.getId())));
+    }
+
+    /**
+     * Wertet nach Anlage/Lösung eines Bedarfs die Regeln mit Bedarfs-Stichwort aus,
+     * jeweils gegen die letzte Bewertung ihrer Definition.
+     *
+     * @return Anzahl neu erzeugter Vorschläge
+     */
+    @Transactional
+    public int onCareNeedsChanged(Patient patient) {
+        List<CompiledRule> rules = index().careNeedRules();
+        if (rules.isEmpty()) {
+            return 0;
+        }
+
+        Map<DefinitionKey, Trigger> latest = new HashMap<>();
+        if (rules.stream().anyMatch(rule -> rule.key().source() == InterventionSource.ADL)) {
+            for (ADLAssessment assessment : adlAssessmentRepository.findLatestByPatient(patient)) {
+                latest.put(new DefinitionKey(InterventionSource.ADL, assessment.getAdlDefinition().getId()),
+                        new Trigger(assessment.getStatus(), assessment.getId()));
+            }
+        }
+        if (rules.stream().anyMatch(rule -> rule.key().source() == InterventionSource.SKILL)) {
+            for (SkillAssessment assessment : skillAssessmentRepository.findLatestByPatient(patient)) {
+                latest.put(new DefinitionKey(InterventionSource.SKILL, assessment.getSkillDefinition().getId()),
+                        new Trigger(assessment.getStatus(), assessment.getId()));
+            }
+        }
+
+        return evaluate(patient, rules.stream().filter(rule -> latest.containsKey(rule.key())).toList(), latest);
+    }
+
+    private int evaluate(Patient patient, List<CompiledRule> rules, Map<DefinitionKey, Trigger> triggers) {
+        if (rules.isEmpty()) {
+            return 0;
+        }
+
+        List<String> activeNeeds = rules.stream().anyMatch(CompiledRule::needsCareNeed)
+                ? careNeedRepository.findActiveByPatient(patient)
+                        .stream()
+                        .map(careNeed -> careNeed.getDescription().toLowerCase(Locale.GERMAN))
+                        .toList()
+                : List.of();
+
+        Map<Long, List<InterventionSuggestion>> running = suggestionRepository
+                .findConditionActive(patient, rules.stream().map(CompiledRule::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(suggestion -> suggestion.getRule().getId()));
+
+        int created = 0;
+        for (CompiledRule rule : rules) {
+            Trigger trigger = triggers.get(rule.key());
+            boolean matches = trigger != null
+                    && trigger.status() == rule.status()
+                    && (!rule.needsCareNeed() || activeNeeds.stream().anyMatch(need -> need.contains(rule.careNeedKeyword())));
+            List<InterventionSuggestion> current = running.getOrDefault(rule.id(), List.of());
+
+            if (matches && current.isEmpty()) {
+                // Bedingung neu erfüllt: ein Vorschlag pro Episode
+                InterventionSuggestion suggestion = new InterventionSuggestion(patient,
+                        ruleRepository.findById(rule.id()), trigger.assessmentId());
+                suggestionRepository.persist(suggestion);
+                auditChainService.record("InterventionSuggestion", suggestion.getId(), AuditAction.CREATE, null,
+                        "automatisch (Regel " + rule.id() + ")");
+                created++;
+            } else if (!matches) {
+                // Bedingung entfallen: offene Vorschläge sind überholt, nächste Erfüllung schlägt erneut vor
+                for (InterventionSuggestion suggestion : current) {
+                    suggestion.endCondition();
+                    auditChainService.record("InterventionSuggestion", suggestion.getId(), AuditAction.UPDATE, null,
+                            "automatisch: Bedingung entfallen");
+                }
+            }
+        }
+        return created;
+    }
+
+    private static CompiledRule compile(InterventionRule rule) {
+        Long definitionId = rule.getSource() == InterventionSource.ADL
+                ? rule.getAdlDefinition().getId()
+                : rule.getSkillDefinition().getId();
+        String keyword = rule.getCareNeedKeyword() == null || rule.getCareNeedKeyword().isBlank()
+                ? null
+                : rule.getCareNeedKeyword().strip().toLowerCase(Locale.GERMAN);
+
+        return new CompiledRule(rule.getId(), new DefinitionKey(rule.getSource(), definitionId),
+                rule.getStatus(), keyword);
+    }
+}
@@ -0,0 +1,276 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.entity.MediaDerivativeStatus;
+import at.htlleonding.sixtosix.entity.MediaVariant;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Erzeugt die abgeleiteten Bilder (Thumbnail, Vorschau) der Medien im Hintergrund.
+ *
+ * Nach dem Commit eines Uploads wird der Hash an einen festen Pool von Plattform-Threads
+ * übergeben (Bildverarbeitung ist CPU- und speicherlastig, daher nicht auf virtuellen
+ * Threads und nicht im Request). Die Warteschlange ist begrenzt; was nicht hineinpasst
+ * oder bei einem Neustart verloren geht, holt der regelmäßige Durchlauf über die noch
+ * ausstehenden Blobs nach. Ein Hash wird je Inhalt nur einmal erzeugt, auch wenn mehrere
+ * Organisationen denselben Inhalt hochladen; der Status wird für alle nachgetragen.
+ */
+@ApplicationScoped
+public class MediaDerivativeWorker {
+
+    /**
+     * CDI-Event nach dem Speichern eines Blobs; die Erzeugung startet nach erfolgreichem Commit.
+     */
+    public record BlobStored(String sha256) {
+    }
+
+    private static final String PENDING_SQL = """
+            SELECT DISTINCT sha256 FROM media_blob WHERE derivative_status = ? LIMIT ?
+            """;
+
+    private static final String MARK_SQL = """
+            UPDATE media_blob SET derivative_status = ?, width = ?, height = ?
+            WHERE sha256 = ? AND derivative_status <> ?
+            """;
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    @Inject
+    MediaStore mediaStore;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "sixtosix.media.derivatives.max-pixels", defaultValue = "40000000")
+    long maxPixels;
+
+    @ConfigProperty(name = "sixtosix.media.derivatives.sweep-batch", defaultValue = "100")
+    int sweepBatch;
+
+    @ConfigProperty(name = "sixtosix.media.derivatives.workers", defaultValue = "2")
+    int workers;
+
+    @ConfigProperty(name = "sixtosix.media.derivatives.queue-capacity", defaultValue = "1000")
+    int queueCapacity;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor pool;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "media-derivatives-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    void onBlobStored(@Observes(during = TransactionPhase.AFTER_SUCCESS) BlobStored event) {
+        submit(event.sha256());
+    }
+
+    @Scheduled(every = "${sixtosix.media.derivatives.sweep-every:1m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void sweep() throws SQLException {
+        for (String sha256 : findPending()) {
+            submit(sha256);
+        }
+    }
+
+    /**
+     * Stellt die Erzeugung in die Warteschlange; läuft sie für den Hash bereits oder ist
+     * die Warteschlange voll, passiert nichts (der nächste Durchlauf holt es nach).
+     */
+    public void submit(String sha256) {
+        if (!inFlight.add(sha256)) {
+            return;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    process(sha256);
+                } finally {
+                    inFlight.remove(sha256);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sha256);
+            Log.debugf("Warteschlange für abgeleitete Bilder voll, %s folgt später", sha256);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ==================== Erzeugung ====================
+
+    private void process(String sha256) {
+        try {
+            Path original = mediaStore.blobPath(sha256);
+            int[] size = readSize(original);
+            if ((long) size[0] * size[1] > maxPixels) {
+                throw new IllegalArgumentException("Bild zu groß: " + size[0] + "x" + size[1]);
+            }
+
+            if (!derivativesExist(sha256)) {
+                BufferedImage image = ImageIO.read(original.toFile());
+                if (image == null) {
+                    throw new IllegalArgumentException("Bild nicht lesbar");
+                }
+                for (MediaVariant variant : MediaVariant.values()) {
+                    mediaStore.storeDerivative(sha256, variant, toJpeg(scale(image, variant.getMaxEdge())));
+                }
+            }
+            mark(sha256, MediaDerivativeStatus.READY, size[0], size[1]);
+        } catch (Exception e) {
+            Log.warnf(e, "Abgeleitete Bilder für %s fehlgeschlagen", sha256);
+            try {
+                mark(sha256, MediaDerivativeStatus.FAILED, null, null);
+            } catch (SQLException sqlException) {
+                Log.error("Status für " + sha256 + " nicht gespeichert", sqlException);
+            }
+        }
+    }
+
+    /**
+     * Liest nur die Abmessungen aus dem Header, ohne das Bild zu dekodieren
+     * (schützt vor Dekompressionsbomben).
+     */
+    private static int[] readSize(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unbekanntes Bildformat");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new int[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private boolean derivativesExist(String sha256) {
+        for (MediaVariant variant : MediaVariant.values()) {
+            if (!Files.exists(mediaStore.derivativePath(sha256, variant))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passt das Bild seitenverhältnistreu in maxEdge ein (nie vergrößert), auf weißem
+     * Hintergrund, da JPEG keine Transparenz kennt.
+     */
+    static BufferedImage scale(BufferedImage image, int maxEdge) {
+        double factor = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] toJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    // ==================== Status ====================
+
+    private List<String> findPending() throws SQLException {
+        List<String> pending = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(PENDING_SQL)) {
+            statement.setString(1, MediaDerivativeStatus.PENDING.name());
+            statement.setInt(2, sweepBatch);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    pending.add(result.getString(1));
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Trägt den Status für alle Organisationen mit diesem Inhalt nach (eine Anweisung)
+     */
+    private void mark(String sha256, MediaDerivativeStatus status, Integer width, Integer height) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(MARK_SQL)) {
+            statement.setString(1, status.name());
+            statement.setObject(2, width);
+            statement.setObject(3, height);
+            statement.setString(4, sha256);
+            statement.setString(5, MediaDerivativeStatus.READY.name());
+            statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.entity.AuditAction;
+import at.htlleonding.sixtosix.entity.Intervention;
+import at.htlleonding.sixtosix.entity.InterventionMedia;
+import at.htlleonding.sixtosix.entity.MediaBlob;
+import at.htlleonding.sixtosix.entity.MediaDerivativeStatus;
+import at.htlleonding.sixtosix.repository.InterventionMediaRepository;
+import at.htlleonding.sixtosix.repository.InterventionRepository;
+import at.htlleonding.sixtosix.repository.MediaBlobRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Grafische Anleitungen zu Interventionen.
+ *
+ * Die Datei wird vorher außerhalb der Transaktion im MediaStore abgelegt (ein großer
+ * Upload hält so keine Datenbankverbindung); hier wird nur noch die Blob-Zeile der
+ * Organisation gesucht oder angelegt und der Intervention zugeordnet. Ist der Inhalt neu,
+ * startet nach dem Commit die Erzeugung der abgeleiteten Bilder.
+ *
+ * Basierend auf FSD Abschnitt 7.3 (Grafische Anleitungen)
+ */
+@ApplicationScoped
+public class MediaService {
+
+    @Inject
+    InterventionRepository interventionRepository;
+
+    @Inject
+    InterventionMediaRepository mediaRepository;
+
+    @Inject
+    MediaBlobRepository blobRepository;
+
+    @Inject
+    AuditChainService auditChainService;
+
+    @Inject
+    Event<MediaDerivativeWorker.BlobStored> blobStored;
+
+    /**
+     * Hängt gespeicherten Inhalt als nächsten Schritt an die Intervention an.
+     *
+     * @return neue Zuordnung; null, wenn die Intervention nicht existiert
+     */
+    @Transactional
+    public InterventionMedia attach(Long interventionId, MediaStore.StoredContent content, String caption) {
+        Intervention intervention = interventionRepository.findById(interventionId);
+        if (intervention == null) {
+            return null;
+        }
+
+        MediaBlob blob = blobRepository.findOrCreate(content.sha256(), content.contentType(), content.sizeBytes());
+        InterventionMedia media = new InterventionMedia(intervention, blob,
+                mediaRepository.nextPosition(intervention), caption);
+        mediaRepository.persist(media);
+        auditChainService.record("InterventionMedia", media.getId(), AuditAction.CREATE, blob.getSha256());
+
+        if (blob.getDerivativeStatus() == MediaDerivativeStatus.PENDING) {
+            blobStored.fire(new MediaDerivativeWorker.BlobStored(blob.getSha256()));
+        }
+        return media;
+    }
+
+    /**
+     * Entfernt eine Anleitung von der Intervention. Der Blob bleibt erhalten, da andere
+     * Interventionen denselben Inhalt verwenden können.
+     *
+     * @return false, wenn die Zuordnung nicht existiert
+     */
+    @Transactional
+    public boolean detach(Long mediaId) {
+        if (!mediaRepository.deleteById(mediaId)) {
+            return false;
+        }
+        auditChainService.record("InterventionMedia", mediaId, AuditAction.DELETE, null);
+        return true;
+    }
+}
@@ -0,0 +1,203 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.entity.MediaVariant;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Inhaltsadressierter Medienspeicher im lokalen Dateisystem.
+ *
+ * Eine Datei liegt unter ihrem SHA-256-Hash ({@code blobs/ab/cd/<hash>}) und wird nie
+ * verändert; gleiche Inhalte werden nur einmal gespeichert. Uploads landen zuerst in
+ * {@code tmp/} (gleiches Dateisystem), werden beim Schreiben gehasht, auf die Platte
+ * synchronisiert und dann atomar an ihren Platz verschoben. Abgeleitete Bilder liegen
+ * deterministisch daneben ({@code derivatives/ab/cd/<hash>-thumbnail.jpg}).
+ *
+ * Ausgeliefert werden die Dateien per sendfile aus dem Page Cache des Kernels; häufig
+ * verwendete Anleitungen liegen dort nur einmal, egal wie viele Interventionen sie nutzen.
+ */
+@ApplicationScoped
+public class MediaStore {
+
+    /**
+     * Gespeicherter Inhalt: Hash, Größe und erkannter Typ
+     */
+    public record StoredContent(String sha256, long sizeBytes, String contentType) {
+    }
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @ConfigProperty(name = "sixtosix.media.root", defaultValue = "data/media")
+    Path root;
+
+    @ConfigProperty(name = "sixtosix.media.max-size", defaultValue = "20M")
+    MemorySize maxSize;
+
+    void onStart(@Observes StartupEvent event) throws IOException {
+        Files.createDirectories(root.resolve("blobs"));
+        Files.createDirectories(root.resolve("derivatives"));
+        Files.createDirectories(root.resolve("tmp"));
+    }
+
+    /**
+     * Speichert einen Upload inhaltsadressiert. Ist der Inhalt schon vorhanden, wird die
+     * neue Kopie verworfen.
+     *
+     * @throws IllegalArgumentException bei unbekanntem Bildformat oder zu großem Inhalt
+     */
+    public StoredContent store(InputStream content) throws IOException {
+        MessageDigest digest = sha256Digest();
+        Path temp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+        try {
+            long size = 0;
+            byte[] head = null;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.readNBytes(buffer, 0, buffer.length)) > 0) {
+                    if (head == null) {
+                        head = Arrays.copyOf(buffer, Math.min(read, 16));
+                    }
+                    size += read;
+                    if (size > maxSize.asLongValue()) {
+                        throw new IllegalArgumentException("Datei zu groß (höchstens " + maxSize.asLongValue() + " Bytes)");
+                    }
+                    digest.update(buffer, 0, read);
+                    ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                }
+                channel.force(true);
+            }
+
+            String contentType = head == null ? null : sniffContentType(head);
+            if (contentType == null) {
+                throw new IllegalArgumentException("Nur PNG-, JPEG- und GIF-Bilder werden unterstützt");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = blobPath(sha256);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                publish(temp, target);
+            }
+            return new StoredContent(sha256, size, contentType);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Legt ein abgeleitetes Bild atomar ab (erst in tmp/ schreiben, dann verschieben).
+     */
+    public void storeDerivative(String sha256, MediaVariant variant, byte[] jpeg) throws IOException {
+        Path temp = Files.createTempFile(root.resolve("tmp"), "derivative-", ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer bytes = ByteBuffer.wrap(jpeg);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+            Path target = derivativePath(sha256, variant);
+            Files.createDirectories(target.getParent());
+            publish(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Pfad des Originals; der Hash muss gültig sein (kein Pfad aus Benutzereingaben ohne Prüfung)
+     */
+    public Path blobPath(String sha256) {
+        return shard("blobs", sha256).resolve(sha256);
+    }
+
+    public Path derivativePath(String sha256, MediaVariant variant) {
+        return shard("derivatives", sha256).resolve(sha256 + "-" + variant.pathName() + ".jpg");
+    }
+
+    public static boolean isValidSha256(String value) {
+        return value != null && SHA256.matcher(value).matches();
+    }
+
+    // ==================== Hilfsmethoden ====================
+
+    private Path shard(String area, String sha256) {
+        if (!isValidSha256(sha256)) {
+            throw new IllegalArgumentException("Ungültiger Hash: " + sha256);
+        }
+        return root.resolve(area).resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4));
+    }
+
+    /**
+     * Verschiebt atomar; existiert das Ziel inzwischen (gleichzeitiger Upload desselben
+     * Inhalts), ist es inhaltsgleich und bleibt stehen.
+     */
+    private static void publish(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Inhaltsgleich, temporäre Kopie wird vom Aufrufer gelöscht
+        }
+    }
+
+    /**
+     * Erkennt das Bildformat an den ersten Bytes statt am Content-Type des Clients.
+     * SVG wird bewusst nicht angenommen (kann Skripte enthalten).
+     */
+    static String sniffContentType(byte[] head) {
+        if (startsWith(head, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int... signature) {
+        if (head.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.dto.PatientPurgeDTO;
+import at.htlleonding.sixtosix.entity.PatientPurge;
+import at.htlleonding.sixtosix.entity.PurgeStatus;
+import at.htlleonding.sixtosix.repository.PatientPurgeRepository;
+import at.htlleonding.sixtosix.tenant.TenantScope;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endgültiges Löschen (Hard Purge) soft-gelöschter Patienten im Hintergrund.
+ *
+ * Statt über die Cascades von Patient jede Kindzeile einzeln zu laden und zu löschen,
+ * leert der Job die Tabellen mengenbasiert in Abhängigkeitsreihenfolge
+ * ({@link PatientPurgeRepository}): je Batch höchstens {@code batch-size} Zeilen in einer
+ * eigenen kurzen Transaktion, die auch den Fortschritt fortschreibt. Nach einem Absturz
+ * setzt der nächste Lauf beim letzten committeten Batch fort.
+ *
+ * Der Audit-Log bleibt erhalten (Revisionssicherheit, Hash-Kette); er enthält nur IDs.
+ */
+@ApplicationScoped
+public class PatientPurgeService {
+
+    @Inject
+    PatientPurgeRepository purgeRepository;
+
+    @Inject
+    TenantScope tenantScope;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "sixtosix.purge.batch-size", defaultValue = "5000")
+    int batchSize;
+
+    @ConfigProperty(name = "sixtosix.purge.pause", defaultValue = "20ms")
+    Duration pause;
+
+    @ConfigProperty(name = "sixtosix.purge.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    /**
+     * Legt den Purge-Auftrag für einen soft-gelöschten Patienten an (idempotent).
+     * Muss in einer Transaktion laufen; der Job greift den Auftrag beim nächsten Lauf auf.
+     */
+    public PatientPurgeDTO request(Long patientId) {
+        PatientPurge purge = purgeRepository.findByPatientId(patientId).orElse(null);
+        if (purge == null) {
+            purge = new PatientPurge(patientId);
+            purgeRepository.persist(purge);
+        }
+        return toDTO(purge);
+    }
+
+    /**
+     * Status und Fortschritt des Purge eines Patienten (null, wenn keiner angefordert ist)
+     */
+    public PatientPurgeDTO status(Long patientId) {
+        return purgeRepository.findByPatientId(patientId).map(this::toDTO).orElse(null);
+    }
+
+    @Scheduled(every = "${sixtosix.purge.every:30s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void processOpenPurges() throws SQLException {
+        for (Map.Entry<Long, String> open : openPurges().entrySet()) {
+            tenantScope.runIsolated(open.getValue(), () -> process(open.getKey()));
+        }
+    }
+
+    /**
+     * Arbeitet einen Auftrag bis zum Ende ab, ein Batch pro Transaktion
+     */
+    void process(Long purgeId) {
+        boolean more = true;
+        while (more) {
+            try {
+                more = QuarkusTransaction.requiringNew().call(() -> nextBatch(purgeId));
+            } catch (RuntimeException e) {
+                Log.errorf(e, "Purge %d fehlgeschlagen", purgeId);
+                QuarkusTransaction.requiringNew().run(() -> purgeRepository.lockById(purgeId)
+                        .recordFailure(e.getMessage(), maxAttempts));
+                return;
+            }
+            if (more && !pause.isZero()) {
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Löscht einen Batch des aktuellen Schritts und schreibt den Fortschritt in derselben Transaktion fort.
+     *
+     * @return true, wenn noch Batches ausstehen
+     */
+    private boolean nextBatch(Long purgeId) {
+        PatientPurge purge = purgeRepository.lockById(purgeId);
+        if (purge == null || purge.isFinished()) {
+            return false;
+        }
+        int step = purge.getCompletedSteps();
+        int deleted = purgeRepository.deleteBatch(step, purge.getPatientId(), batchSize);
+        purge.recordBatch(deleted, deleted < batchSize, purgeRepository.stepCount());
+
+        if (deleted < batchSize) {
+            Log.infof("Purge %d (Patient %d): %s geleert, Schritt %d/%d, %d Zeilen gesamt", purgeId,
+                    purge.getPatientId(), purgeRepository.stepTable(step), purge.getCompletedSteps(),
+                    purgeRepository.stepCount(), purge.getDeletedRows());
+        }
+        return !purge.isFinished();
+    }
+
+    /**
+     * Offene Aufträge aller Organisationen (ID -> Tenant); liest über alle Tenants, daher direkt per JDBC.
+     */
+    private Map<Long, String> openPurges() throws SQLException {
+        Map<Long, String> purges = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT id, tenant_id FROM patient_purge "
+                     + "WHERE status IN ('" + PurgeStatus.PENDING + "', '" + PurgeStatus.RUNNING + "') ORDER BY id")) {
+            while (result.next()) {
+                purges.put(result.getLong(1), result.getString(2));
+            }
+        }
+        return purges;
+    }
+
+    private PatientPurgeDTO toDTO(PatientPurge purge) {
+        int total = purgeRepository.stepCount();
+        int completed = purge.getCompletedSteps();
+        return new PatientPurgeDTO(
+                purge.getId(),
+                purge.getPatientId(),
+                purge.getStatus().toString(),
+                completed,
+                total,
+                completed < total && !purge.isFinished() ? purgeRepository.stepTable(completed) : null,
+                purge.getDeletedRows(),
+                purge.getLastError(),
+                purge.getRequestedAt(),
+                purge.getStartedAt(),
+                purge.getCompletedAt()
+        );
+    }
+}
@@ -0,0 +1,95 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.dto.SearchHitDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Volltextsuche über die Dokumentation eines Patienten.
+ *
+ * Durchsucht anamnesis_version.content, care_need.description, resource.description
+ * sowie intervention.title/description. Die Suchvektoren sind generierte
+ * tsvector-Spalten (siehe V27__fulltext_search.sql) und werden von PostgreSQL bei jedem
+ * Schreibvorgang mitgeführt; GIN-Indizes mit führender Tenant- und Patient-Spalte
+ * halten die Suche unabhängig von der Größe der Historie und der Zahl der Organisationen.
+ *
+ * Snippets (ts_headline) werden erst nach dem LIMIT berechnet.
+ */
+@ApplicationScoped
+public class PatientSearchService {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final String SEARCH_SQL = """
+            SELECT hit.source, hit.id, hit.title,
+                   ts_headline('german', hit.body, tsq, 'MaxFragments=2, MaxWords=20, MinWords=5') AS snippet,
+                   hit.rank, hit.created_at
+            FROM (
+                SELECT 'ANAMNESIS' AS source, v.id, CAST('Version ' || v.version_number AS TEXT) AS title,
+                       v.content AS body, ts_rank(v.search_vector, q) AS rank, v.created_at
+                FROM anamnesis_version v, websearch_to_tsquery('german', :query) q
+                WHERE v.tenant_id = :tenantId
+                  AND v.anamnesis_id = (SELECT a.id FROM anamnesis a WHERE a.tenant_id = :tenantId AND a.patient_id = :patientId)
+                  AND v.search_vector @@ q
+                UNION ALL
+                SELECT 'CARE_NEED', c.id, CAST(NULL AS TEXT), c.description, ts_rank(c.search_vector, q), c.created_at
+                FROM care_need c, websearch_to_tsquery('german', :query) q
+                WHERE c.tenant_id = :tenantId AND c.patient_id = :patientId AND c.search_vector @@ q
+                UNION ALL
+                SELECT 'RESOURCE', r.id, r.type, r.description, ts_rank(r.search_vector, q), r.created_at
+                FROM resource r, websearch_to_tsquery('german', :query) q
+                WHERE r.tenant_id = :tenantId AND r.patient_id = :patientId AND r.search_vector @@ q
+                UNION ALL
+                SELECT 'INTERVENTION', i.id, i.title, coalesce(i.description, i.title), ts_rank(i.search_vector, q), i.created_at
+                FROM intervention i, websearch_to_tsquery('german', :query) q
+                WHERE i.tenant_id = :tenantId AND i.patient_id = :patientId AND i.search_vector @@ q
+                ORDER BY rank DESC, created_at DESC
+                LIMIT :limit
+            ) hit, websearch_to_tsquery('german', :query) tsq
+            ORDER BY hit.rank DESC, hit.created_at DESC
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Sucht in der Dokumentation eines Patienten.
+     *
+     * @param patientId Patient-ID
+     * @param query Suchbegriff(e), Websuche-Syntax ("Sturz", "Blutdruck -Messung", "\"Sturz im Bad\"")
+     * @param limit maximale Anzahl Treffer (1 bis MAX_LIMIT)
+     * @return Treffer absteigend nach Relevanz
+     */
+    @SuppressWarnings("unchecked")
+    public List<SearchHitDTO> search(Long patientId, String query, int limit) {
+        List<Object[]> rows = entityManager.createNativeQuery(SEARCH_SQL)
+                .setParameter("tenantId", entityManager.unwrap(Session.class).getTenantIdentifier())
+                .setParameter("patientId", patientId)
+                .setParameter("query", query)
+                .setParameter("limit", Math.max(1, Math.min(limit, MAX_LIMIT)))
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new SearchHitDTO(
+                        (String) row[0],
+                        ((Number) row[1]).longValue(),
+                        (String) row[2],
+                        (String) row[3],
+                        ((Number) row[4]).doubleValue(),
+                        toLocalDateTime(row[5])
+                ))
+                .toList();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,47 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.SyncEntityType;
+import at.htlleonding.sixtosix.repository.SyncChangeRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Protokolliert Änderungen für den Delta-Sync der Tablets.
+ *
+ * Jede Änderung zieht eine neue Nummer aus dem Zähler des Patienten (die Zeile bleibt
+ * bis zum Commit gesperrt) und überschreibt den Feed-Eintrag der Zeile. Dadurch werden
+ * Änderungen eines Patienten in Nummernreihenfolge sichtbar und ein Client, der
+ * "Änderungen seit N" abfragt, verpasst keine später committete kleinere Nummer.
+ *
+ * Muss in derselben Transaktion wie die Änderung selbst aufgerufen werden
+ * (nach persist, damit die ID vergeben ist).
+ */
+@ApplicationScoped
+public class SyncChangeService {
+
+    @Inject
+    SyncChangeRepository syncChangeRepository;
+
+    /**
+     * Protokolliert das Anlegen oder Ändern einer Zeile.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordChange(Patient patient, SyncEntityType type, Long entityId) {
+        record(patient.getId(), type, entityId, false);
+    }
+
+    /**
+     * Protokolliert das Löschen einer Zeile (Tombstone).
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordDelete(Patient patient, SyncEntityType type, Long entityId) {
+        record(patient.getId(), type, entityId, true);
+    }
+
+    private void record(Long patientId, SyncEntityType type, Long entityId, boolean deleted) {
+        long seq = syncChangeRepository.nextSeq(patientId);
+        syncChangeRepository.upsertChange(patientId, type, entityId, seq, deleted);
+    }
+}
@@ -0,0 +1,362 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.dto.VitalIngestResultDTO;
+import at.htlleonding.sixtosix.entity.Patient;
+import at.htlleonding.sixtosix.entity.VitalMeasurement;
+import at.htlleonding.sixtosix.entity.VitalRollupGranularity;
+import at.htlleonding.sixtosix.entity.VitalSignType;
+import at.htlleonding.sixtosix.entity.VitalThreshold;
+import at.htlleonding.sixtosix.repository.PatientRepository;
+import at.htlleonding.sixtosix.repository.VitalRollupDelta;
+import at.htlleonding.sixtosix.repository.VitalRollupRepository;
+import at.htlleonding.sixtosix.repository.VitalThresholdRepository;
+import at.htlleonding.sixtosix.tenant.CurrentTenant;
+import at.htlleonding.sixtosix.tenant.TenantScope;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Batch-Ingest für Vitalwerte von Heimgeräten.
+ *
+ * Eingehende Messwert-Pakete werden in eine Warteschlange gestellt und von einem
+ * einzelnen Writer-Thread gruppiert (Group Commit): alle Pakete, die innerhalb von
+ * {@code max-delay} eintreffen (höchstens {@code max-batch} Messwerte), werden in
+ * EINER Transaktion geschrieben und gegen die Grenzwert-Regeln ausgewertet.
+ * Aufrufer erhalten ihr Ergebnis erst nach dem Commit, Messwerte gehen also nicht
+ * verloren, obwohl nicht pro Messwert (oder pro Request) committed wird.
+ *
+ * In derselben Transaktion werden die Verdichtungen (Stunde/Tag/Woche) fortgeschrieben:
+ * die Gruppe wird zuerst im Speicher pro Zeitfenster aggregiert, danach wird je
+ * Zeitfenster genau ein Upsert abgesetzt.
+ *
+ * Jedes Paket merkt sich die Organisation des einreichenden Requests; eine Gruppe wird
+ * pro Organisation in einer eigenen Transaktion geschrieben.
+ *
+ * Basierend auf FSD Abschnitt 10 (Bedarf und Krisensituationen)
+ */
+@ApplicationScoped
+public class VitalSignIngestService {
+
+    /**
+     * Validierter Messwert, wie er in die Warteschlange gestellt wird.
+     */
+    public record Reading(Long patientId, VitalSignType type, Double value, Double secondaryValue,
+                          LocalDateTime measuredAt) {
+    }
+
+    private record Submission(String tenantId, List<Reading> readings, PendingResult result) {
+    }
+
+    /**
+     * Ergebnis eines eingestellten Pakets.
+     *
+     * Writer und abbrechender Aufrufer konkurrieren um das Paket: wer es zuerst übernimmt,
+     * entscheidet. Gelingt {@link #cancel}, wird das Paket garantiert nicht geschrieben;
+     * schlägt es fehl, schreibt der Writer gerade (Ergebnis abwarten, nicht erneut senden).
+     */
+    private static final class PendingResult extends CompletableFuture<VitalIngestResultDTO> {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return claim() && super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    private record RuleKey(Long patientId, VitalSignType type) {
+    }
+
+    private record BucketKey(Long patientId, VitalSignType type, VitalRollupGranularity granularity,
+                             LocalDateTime bucketStart) {
+    }
+
+    /**
+     * Aggregat eines Zeitfensters innerhalb einer Ingest-Gruppe
+     */
+    private static final class BucketAggregate {
+        long count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        long secondaryCount;
+        double secondarySum;
+        Double secondaryMin;
+        Double secondaryMax;
+
+        void add(Reading reading) {
+            count++;
+            sum += reading.value();
+            min = Math.min(min, reading.value());
+            max = Math.max(max, reading.value());
+            Double secondary = reading.secondaryValue();
+            if (secondary != null) {
+                secondaryCount++;
+                secondarySum += secondary;
+                secondaryMin = secondaryMin == null ? secondary : Math.min(secondaryMin, secondary);
+                secondaryMax = secondaryMax == null ? secondary : Math.max(secondaryMax, secondary);
+            }
+        }
+
+        VitalRollupDelta toDelta(BucketKey key) {
+            return new VitalRollupDelta(key.patientId(), key.type(), key.granularity(), key.bucketStart(),
+                    count, sum, min, max, secondaryCount, secondarySum, secondaryMin, secondaryMax);
+        }
+    }
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    PatientRepository patientRepository;
+
+    @Inject
+    VitalThresholdRepository thresholdRepository;
+
+    @Inject
+    VitalRollupRepository rollupRepository;
+
+    @Inject
+    VitalThresholdEvaluator evaluator;
+
+    @Inject
+    CurrentTenant currentTenant;
+
+    @Inject
+    TenantScope tenantScope;
+
+    @ConfigProperty(name = "sixtosix.vitals.ingest.max-batch", defaultValue = "2000")
+    int maxBatch;
+
+    @ConfigProperty(name = "sixtosix.vitals.ingest.max-delay", defaultValue = "20ms")
+    Duration maxDelay;
+
+    @ConfigProperty(name = "sixtosix.vitals.ingest.queue-capacity", defaultValue = "10000")
+    int queueCapacity;
+
+    @ConfigProperty(name = "sixtosix.vitals.ingest.flush-size", defaultValue = "500")
+    int flushSize;
+
+    private BlockingQueue<Submission> queue;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    void onStart(@Observes StartupEvent event) {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::writeLoop, "vital-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    /**
+     * Stellt ein Messwert-Paket zur Verarbeitung ein.
+     *
+     * @param readings validierte Messwerte
+     * @return Future, das nach dem Commit mit dem Ergebnis abgeschlossen wird;
+     *         null, wenn die Warteschlange voll ist (Backpressure).
+     *         cancel() liefert true nur, solange das Paket noch nicht geschrieben wird.
+     */
+    public CompletableFuture<VitalIngestResultDTO> submit(List<Reading> readings) {
+        PendingResult result = new PendingResult();
+        if (!queue.offer(new Submission(currentTenant.get(), List.copyOf(readings), result))) {
+            return null;
+        }
+        return result;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            List<Submission> group = new ArrayList<>();
+            try {
+                Submission first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                int readings = first.readings().size();
+                long deadline = System.nanoTime() + maxDelay.toNanos();
+
+                while (readings < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Submission next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                    readings += next.readings().size();
+                }
+
+                // Abgebrochene Pakete (Timeout beim Aufrufer) nicht mehr schreiben
+                group.removeIf(submission -> !submission.result().claim());
+                if (!group.isEmpty()) {
+                    writeByTenant(group);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(s -> s.result().completeExceptionally(e));
+                return;
+            } catch (RuntimeException e) {
+                Log.error("Vitalwert-Ingest fehlgeschlagen", e);
+                group.forEach(s -> s.result().completeExceptionally(e));
+            }
+        }
+    }
+
+    private void writeByTenant(List<Submission> group) {
+        Map<String, List<Submission>> byTenant = new LinkedHashMap<>();
+        group.forEach(s -> byTenant.computeIfAbsent(s.tenantId(), t -> new ArrayList<>()).add(s));
+
+        byTenant.forEach((tenantId, submissions) -> {
+            try {
+                tenantScope.run(tenantId, () -> writeGroup(submissions));
+            } catch (RuntimeException e) {
+                // Fehler einer Organisation betreffen nur deren Pakete
+                Log.errorf(e, "Vitalwert-Ingest für %s fehlgeschlagen", tenantId);
+                submissions.forEach(s -> s.result().completeExceptionally(e));
+            }
+        });
+    }
+
+    private void writeGroup(List<Submission> group) {
+        Map<Submission, int[]> counters;
+        try {
+            counters = writeGroupTransaction(group);
+        } catch (RuntimeException e) {
+            if (!isVersionConflict(e)) {
+                throw e;
+            }
+            // Ein Bedarf wurde gleichzeitig manuell geändert: Gruppe einmal mit frischem Stand wiederholen
+            Log.debug("Versionskonflikt beim Vitalwert-Ingest, Gruppe wird wiederholt");
+            counters = writeGroupTransaction(group);
+        }
+
+        counters.forEach((submission, counter) -> submission.result().complete(
+                new VitalIngestResultDTO(counter[0], counter[1], counter[2], counter[3])));
+    }
+
+    private Map<Submission, int[]> writeGroupTransaction(List<Submission> group) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Set<Long> patientIds = new HashSet<>();
+            group.forEach(s -> s.readings().forEach(r -> patientIds.add(r.patientId())));
+            Set<Long> activePatients = new HashSet<>(patientRepository.findActiveIds(patientIds));
+
+            Map<RuleKey, VitalThreshold> rules = new HashMap<>();
+            if (!activePatients.isEmpty()) {
+                for (VitalThreshold rule : thresholdRepository.findByPatientIds(activePatients)) {
+                    rules.put(new RuleKey(rule.getPatient().getId(), rule.getType()), rule);
+                }
+            }
+
+            // counters: [accepted, rejected, opened, resolved]
+            Map<Submission, int[]> result = new IdentityHashMap<>();
+            List<Map.Entry<Submission, Reading>> accepted = new ArrayList<>();
+            for (Submission submission : group) {
+                int[] counter = new int[4];
+                result.put(submission, counter);
+                for (Reading reading : submission.readings()) {
+                    if (activePatients.contains(reading.patientId())) {
+                        accepted.add(Map.entry(submission, reading));
+                        counter[0]++;
+                    } else {
+                        counter[1]++;
+                    }
+                }
+            }
+
+            // 1. Regeln in zeitlicher Reihenfolge auswerten (verwaltete Regeln, vor dem ersten clear())
+            accepted.sort(Comparator.comparing(entry -> entry.getValue().measuredAt()));
+            for (Map.Entry<Submission, Reading> entry : accepted) {
+                Reading reading = entry.getValue();
+                VitalThreshold rule = rules.get(new RuleKey(reading.patientId(), reading.type()));
+                if (rule == null) {
+                    continue;
+                }
+                switch (evaluator.evaluate(rule, reading.value(), reading.secondaryValue(), reading.measuredAt())) {
+                    case OPENED -> result.get(entry.getKey())[2]++;
+                    case RESOLVED -> result.get(entry.getKey())[3]++;
+                    case NONE -> { }
+                }
+            }
+            entityManager.flush();
+
+            // 2. Messwerte gebündelt schreiben (JDBC-Batching, Persistence Context klein halten)
+            int pending = 0;
+            for (Map.Entry<Submission, Reading> entry : accepted) {
+                Reading reading = entry.getValue();
+                entityManager.persist(new VitalMeasurement(
+                        entityManager.getReference(Patient.class, reading.patientId()),
+                        reading.type(),
+                        reading.value(),
+                        reading.secondaryValue(),
+                        reading.measuredAt()
+                ));
+                if (++pending % flushSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+
+            // 3. Verdichtungen fortschreiben (ein Upsert pro berührtem Zeitfenster)
+            Map<BucketKey, BucketAggregate> buckets = new HashMap<>();
+            for (Map.Entry<Submission, Reading> entry : accepted) {
+                Reading reading = entry.getValue();
+                for (VitalRollupGranularity granularity : VitalRollupGranularity.values()) {
+                    BucketKey key = new BucketKey(reading.patientId(), reading.type(), granularity,
+                            granularity.bucketStart(reading.measuredAt()));
+                    buckets.computeIfAbsent(key, k -> new BucketAggregate()).add(reading);
+                }
+            }
+            rollupRepository.applyDeltas(buckets.entrySet().stream()
+                    .map(bucket -> bucket.getValue().toDelta(bucket.getKey()))
+                    .toList());
+            return result;
+        });
+    }
+
+    private static boolean isVersionConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
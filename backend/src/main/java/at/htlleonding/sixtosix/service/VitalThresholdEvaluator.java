@@ -0,0 +1,121 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.entity.AuditAction;
+import at.htlleonding.sixtosix.entity.CareNeed;
+import at.htlleonding.sixtosix.entity.SyncEntityType;
+import at.htlleonding.sixtosix.entity.VitalSignType;
+import at.htlleonding.sixtosix.entity.VitalThreshold;
+import at.htlleonding.sixtosix.repository.CareNeedRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Wertet Messwerte gegen die Grenzwert-Regeln eines Patienten aus.
+ *
+ * Verletzt ein Messwert die Regel, wird ein CareNeed eröffnet (sofern noch keiner
+ * offen ist). Liegt ein späterer Messwert wieder im Normalbereich, wird der
+ * automatisch eröffnete CareNeed gelöst. Verspätet eintreffende Messwerte
+ * (älter als der zuletzt ausgewertete) ändern den Status nicht. Beides wird ohne
+ * ausführenden Benutzer in die Audit-Kette geschrieben.
+ *
+ * Basierend auf FSD Abschnitt 10 (Bedarf und Krisensituationen, z.B. Blutdruck > 160/90)
+ */
+@ApplicationScoped
+public class VitalThresholdEvaluator {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    public enum Outcome {
+        NONE,
+        OPENED,
+        RESOLVED
+    }
+
+    @Inject
+    CareNeedRepository careNeedRepository;
+
+    @Inject
+    InterventionSuggestionEngine suggestionEngine;
+
+    @Inject
+    SyncChangeService syncChangeService;
+
+    @Inject
+    AuditChainService auditChainService;
+
+    /**
+     * Wertet einen Messwert aus. Erwartet eine verwaltete (managed) Regel.
+     */
+    public Outcome evaluate(VitalThreshold threshold, Double value, Double secondaryValue, LocalDateTime measuredAt) {
+        if (threshold.getLastEvaluatedAt() != null && measuredAt.isBefore(threshold.getLastEvaluatedAt())) {
+            return Outcome.NONE;
+        }
+        threshold.setLastEvaluatedAt(measuredAt);
+
+        CareNeed openNeed = threshold.getOpenCareNeed();
+        if (openNeed != null && !openNeed.getActive()) {
+            // Bedarf wurde zwischenzeitlich manuell gelöst
+            threshold.setOpenCareNeed(null);
+            openNeed = null;
+        }
+
+        boolean violated = isViolated(threshold, value, secondaryValue);
+
+        if (violated && openNeed == null) {
+            CareNeed careNeed = new CareNeed(threshold.getPatient(), describe(threshold, value, secondaryValue, measuredAt));
+            careNeedRepository.persist(careNeed);
+            threshold.setOpenCareNeed(careNeed);
+            auditChainService.record("CareNeed", careNeed.getId(), AuditAction.CREATE, null,
+                    "automatisch eröffnet (Grenzwert " + threshold.getId() + ")");
+            syncChangeService.recordChange(threshold.getPatient(), SyncEntityType.CARE_NEED, careNeed.getId());
+            suggestionEngine.onCareNeedsChanged(threshold.getPatient());
+            return Outcome.OPENED;
+        }
+
+        if (!violated && openNeed != null) {
+            openNeed.resolve();
+            auditChainService.record("CareNeed", openNeed.getId(), AuditAction.RESOLVE, null,
+                    "automatisch gelöst (Grenzwert " + threshold.getId() + ")");
+            syncChangeService.recordChange(threshold.getPatient(), SyncEntityType.CARE_NEED, openNeed.getId());
+            threshold.setOpenCareNeed(null);
+            suggestionEngine.onCareNeedsChanged(threshold.getPatient());
+            return Outcome.RESOLVED;
+        }
+
+        return Outcome.NONE;
+    }
+
+    /**
+     * Prüft, ob ein Messwert außerhalb der Grenzwerte liegt.
+     */
+    public boolean isViolated(VitalThreshold threshold, Double value, Double secondaryValue) {
+        if (threshold.getMaxValue() != null && value > threshold.getMaxValue()) {
+            return true;
+        }
+        if (threshold.getMinValue() != null && value < threshold.getMinValue()) {
+            return true;
+        }
+        return threshold.getSecondaryMaxValue() != null
+                && secondaryValue != null
+                && secondaryValue > threshold.getSecondaryMaxValue();
+    }
+
+    private String describe(VitalThreshold threshold, Double value, Double secondaryValue, LocalDateTime measuredAt) {
+        VitalSignType type = threshold.getType();
+        String limit = threshold.getMinValue() != null && value < threshold.getMinValue()
+                ? "unter Untergrenze " + format(threshold.getMinValue())
+                : "über Grenzwert " + (threshold.getMaxValue() != null ? format(threshold.getMaxValue()) : "-")
+                        + (threshold.getSecondaryMaxValue() != null ? "/" + format(threshold.getSecondaryMaxValue()) : "");
+
+        return type.getLabel() + " " + format(value)
+                + (secondaryValue != null ? "/" + format(secondaryValue) : "")
+                + " " + type.getUnit() + " " + limit
+                + " (automatisch erfasst, Messung vom " + TIMESTAMP_FORMAT.format(measuredAt) + ")";
+    }
+
+    private static String format(Double value) {
+        return value == Math.rint(value) ? String.valueOf(value.longValue()) : String.valueOf(value);
+    }
+}
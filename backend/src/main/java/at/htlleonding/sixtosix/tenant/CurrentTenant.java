@@ -0,0 +1,32 @@
+package at.htlleonding.sixtosix.tenant;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Organisation (Tenant) des aktuellen Requests bzw. der aktuellen Hintergrundarbeit.
+ * Gesetzt vom {@link TenantRequestFilter} oder von {@link TenantScope}.
+ */
+@RequestScoped
+public class CurrentTenant {
+
+    private String id;
+
+    void set(String id) {
+        this.id = id;
+    }
+
+    public boolean isSet() {
+        return id != null;
+    }
+
+    /**
+     * @return Tenant-ID
+     * @throws IllegalStateException wenn für diesen Request kein Tenant aufgelöst wurde
+     */
+    public String get() {
+        if (id == null) {
+            throw new IllegalStateException("Kein Tenant aktiv");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,37 @@
+package at.htlleonding.sixtosix.tenant;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Liefert Hibernate die Organisation des aktuellen Requests.
+ * Hibernate setzt damit die Spalte tenant_id beim Einfügen und schränkt jede
+ * Entity-Abfrage (auch Laden per ID) auf diese Organisation ein ({@code @TenantId}).
+ *
+ * Ohne aufgelösten Tenant wird nicht auf einen Standard ausgewichen: Hintergrundarbeit
+ * muss über {@link TenantScope} laufen.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class OrganisationTenantResolver implements TenantResolver {
+
+    /**
+     * Nur für Verbindungen ohne Session (Schema-Erzeugung); trifft keine Daten.
+     */
+    static final String NO_TENANT = "-";
+
+    @Inject
+    CurrentTenant currentTenant;
+
+    @Override
+    public String getDefaultTenantId() {
+        return NO_TENANT;
+    }
+
+    @Override
+    public String resolveTenantId() {
+        return currentTenant.get();
+    }
+}
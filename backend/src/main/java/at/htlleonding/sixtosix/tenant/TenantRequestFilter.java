@@ -0,0 +1,67 @@
+package at.htlleonding.sixtosix.tenant;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Löst die Organisation (Tenant) des Requests aus dem OIDC-Token auf.
+ *
+ * - angemeldet: Claim {@code sixtosix.tenant.claim}; fehlt er, 403
+ * - anonym: {@code sixtosix.tenant.anonymous-tenant} (nur Dev/Test oder ausdrücklich gesetzt);
+ *   ist keiner konfiguriert, 401
+ *
+ * Der Tenant kommt bewusst nicht aus Header oder Pfad, damit ein Client keine
+ * fremde Organisation wählen kann.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class TenantRequestFilter implements ContainerRequestFilter {
+
+    static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    @Inject
+    SecurityIdentity identity;
+
+    @Inject
+    CurrentTenant currentTenant;
+
+    @ConfigProperty(name = "sixtosix.tenant.claim", defaultValue = "organisation")
+    String claim;
+
+    @ConfigProperty(name = "sixtosix.tenant.anonymous-tenant")
+    Optional<String> anonymousTenant;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (identity.isAnonymous()) {
+            if (anonymousTenant.isEmpty()) {
+                request.abortWith(error(Response.Status.UNAUTHORIZED, "Anmeldung erforderlich"));
+                return;
+            }
+            currentTenant.set(anonymousTenant.get());
+            return;
+        }
+
+        String tenant = identity.getPrincipal() instanceof JsonWebToken token ? token.getClaim(claim) : null;
+        if (tenant == null || !TENANT_ID.matcher(tenant).matches()) {
+            request.abortWith(error(Response.Status.FORBIDDEN, "Keine gültige Organisation im Token (Claim " + claim + ")"));
+            return;
+        }
+        currentTenant.set(tenant);
+    }
+
+    private static Response error(Response.Status status, String message) {
+        return Response.status(status).entity(message).type(MediaType.TEXT_PLAIN_TYPE).build();
+    }
+}
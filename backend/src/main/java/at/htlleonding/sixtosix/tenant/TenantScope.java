@@ -0,0 +1,80 @@
+package at.htlleonding.sixtosix.tenant;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Führt Hintergrundarbeit (Writer-Thread, Fork/Join-Pool, Scheduler) für eine Organisation aus.
+ *
+ * Aktiviert bei Bedarf einen Request-Kontext und setzt darin den Tenant; ein bereits
+ * aktiver Kontext mit anderem Tenant ist ein Programmierfehler. Wer (wie ein Scheduler)
+ * nacheinander für mehrere Organisationen arbeitet, nimmt {@link #runIsolated}.
+ */
+@ApplicationScoped
+public class TenantScope {
+
+    @Inject
+    CurrentTenant currentTenant;
+
+    private final ExecutorService isolated = Executors.newVirtualThreadPerTaskExecutor();
+
+    public void run(String tenantId, Runnable work) {
+        call(tenantId, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T call(String tenantId, Supplier<T> work) {
+        ManagedContext requestContext = Arc.container().requestContext();
+        if (requestContext.isActive()) {
+            enter(tenantId);
+            return work.get();
+        }
+
+        requestContext.activate();
+        try {
+            enter(tenantId);
+            return work.get();
+        } finally {
+            requestContext.terminate();
+        }
+    }
+
+    /**
+     * Führt die Arbeit auf einem eigenen virtuellen Thread (eigener Request-Kontext,
+     * eigene Session) aus und wartet darauf.
+     */
+    public void runIsolated(String tenantId, Runnable work) {
+        try {
+            isolated.submit(() -> run(tenantId, work)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Unterbrochen bei Tenant " + tenantId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        isolated.shutdownNow();
+    }
+
+    private void enter(String tenantId) {
+        if (currentTenant.isSet() && !currentTenant.get().equals(tenantId)) {
+            throw new IllegalStateException("Tenant " + currentTenant.get() + " ist bereits aktiv, nicht " + tenantId);
+        }
+        currentTenant.set(tenantId);
+    }
+}
@@ -0,0 +1,159 @@
+-- Ausgangsschema vor den Migrationen V26 ff. (je Anforderung eine Migration, nummeriert nach der Anforderung).
+-- Hibernate legt kein Schema an; IDs sind Identity-Spalten.
+
+-- ==================== Benutzer und Patienten ====================
+
+CREATE TABLE user_account (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    keycloak_id varchar(255) NOT NULL,
+    role varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_user_account_keycloak_id UNIQUE (keycloak_id)
+);
+
+CREATE TABLE patient (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    firstname varchar(255) NOT NULL,
+    lastname varchar(255) NOT NULL,
+    birthdate date NOT NULL,
+    deleted boolean NOT NULL
+);
+
+CREATE TABLE care_assignment (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pfleger_id bigint NOT NULL REFERENCES user_account (id),
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    active boolean NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_care_assignment_pfleger_patient UNIQUE (pfleger_id, patient_id)
+);
+
+-- ==================== ADL / Skills ====================
+
+CREATE TABLE adl_definition (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    CONSTRAINT uk_adl_definition_name UNIQUE (name)
+);
+
+CREATE TABLE skill_definition (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    CONSTRAINT uk_skill_definition_name UNIQUE (name)
+);
+
+CREATE TABLE adl_assessment (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    adl_definition_id bigint NOT NULL REFERENCES adl_definition (id),
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    status varchar(255) NOT NULL,
+    assessed_at timestamp(6) NOT NULL,
+    assessed_by bigint NOT NULL REFERENCES user_account (id)
+);
+
+CREATE TABLE skill_assessment (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    skill_definition_id bigint NOT NULL REFERENCES skill_definition (id),
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    status varchar(255) NOT NULL,
+    comment text,
+    assessed_at timestamp(6) NOT NULL
+);
+
+-- ==================== Anamnese, Bedarfe, Ressourcen ====================
+
+CREATE TABLE anamnesis (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_anamnesis_patient UNIQUE (patient_id)
+);
+
+CREATE TABLE anamnesis_version (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    anamnesis_id bigint NOT NULL REFERENCES anamnesis (id),
+    version_number bigint NOT NULL,
+    content text NOT NULL,
+    created_by bigint NOT NULL REFERENCES user_account (id),
+    created_at timestamp(6) NOT NULL,
+    finalized boolean NOT NULL
+);
+
+CREATE TABLE care_need (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    description text NOT NULL,
+    active boolean NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    resolved_at timestamp(6)
+);
+
+CREATE TABLE resource (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    type varchar(255) NOT NULL,
+    description text NOT NULL,
+    proposed_by bigint REFERENCES user_account (id),
+    approved boolean NOT NULL,
+    created_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE medication (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    name varchar(255) NOT NULL,
+    dosage varchar(255) NOT NULL,
+    intake_time varchar(255) NOT NULL,
+    confirmable boolean NOT NULL,
+    created_at timestamp(6) NOT NULL
+);
+
+-- ==================== Interventionen ====================
+
+CREATE TABLE intervention (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    source varchar(255) NOT NULL,
+    title varchar(255) NOT NULL,
+    description text,
+    active boolean NOT NULL,
+    created_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE intervention_task (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    intervention_id bigint NOT NULL REFERENCES intervention (id),
+    description text NOT NULL,
+    completed boolean NOT NULL,
+    completed_at timestamp(6)
+);
+
+-- ==================== Tagesstruktur ====================
+
+CREATE TABLE daily_plan (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    plan_date date NOT NULL,
+    CONSTRAINT uk_daily_plan_patient_date UNIQUE (patient_id, plan_date)
+);
+
+CREATE TABLE daily_task (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    daily_plan_id bigint NOT NULL REFERENCES daily_plan (id),
+    title varchar(255) NOT NULL,
+    reminder_level varchar(255) NOT NULL,
+    completed boolean NOT NULL,
+    confirmed_at timestamp(6)
+);
+
+-- ==================== Audit ====================
+
+CREATE TABLE audit_log (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity varchar(255) NOT NULL,
+    entity_id bigint NOT NULL,
+    action varchar(255) NOT NULL,
+    performed_by bigint NOT NULL REFERENCES user_account (id),
+    performed_at timestamp(6) NOT NULL,
+    details text
+);
@@ -0,0 +1,29 @@
+-- Audit-Hash-Kette (TSD 5.1 Revisionssicherheit): jeder Eintrag verweist über previous_hash auf seinen Vorgänger,
+-- hash deckt den kanonischen Inhalt samt Vorgänger ab. Systemaktionen haben keinen ausführenden Benutzer.
+-- Einträge entstehen unverkettet in der Transaktion der Änderung; AuditChainService verkettet sie im Hintergrund
+-- in id-Reihenfolge und vergibt chain_seq (Position in der Kette). Bestehende Einträge werden so ebenfalls verkettet.
+ALTER TABLE audit_log ALTER COLUMN performed_by DROP NOT NULL;
+ALTER TABLE audit_log ADD COLUMN chain_seq bigint;
+ALTER TABLE audit_log ADD COLUMN previous_hash varchar(64);
+ALTER TABLE audit_log ADD COLUMN hash varchar(64);
+ALTER TABLE audit_log ADD CONSTRAINT uk_audit_log_chain_seq UNIQUE (chain_seq);
+CREATE INDEX idx_audit_log_unlinked ON audit_log (id) WHERE hash IS NULL;
+
+-- Kopf der Kette, beginnend mit dem Genesis-Hash
+CREATE TABLE audit_chain_head (
+    id bigint PRIMARY KEY,
+    last_audit_log_id bigint,
+    head_hash varchar(64) NOT NULL,
+    entry_count bigint NOT NULL
+);
+INSERT INTO audit_chain_head (id, head_hash, entry_count) VALUES (1, '0000000000000000000000000000000000000000000000000000000000000000', 0);
+
+CREATE TABLE audit_checkpoint (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    last_audit_log_id bigint NOT NULL,
+    chain_hash varchar(64) NOT NULL,
+    entry_count bigint NOT NULL,
+    signature varchar(64) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_audit_checkpoint_last_audit_log_id UNIQUE (last_audit_log_id)
+);
@@ -0,0 +1,12 @@
+-- Volltextsuche: generierte tsvector-Spalten (von PostgreSQL bei jedem Schreibvorgang gepflegt) und GIN-Indizes
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+ALTER TABLE anamnesis_version ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (to_tsvector('german', coalesce(content, ''))) STORED;
+ALTER TABLE care_need ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (to_tsvector('german', coalesce(description, ''))) STORED;
+ALTER TABLE resource ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (setweight(to_tsvector('german', coalesce(type, '')), 'A') || setweight(to_tsvector('german', coalesce(description, '')), 'B')) STORED;
+ALTER TABLE intervention ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (setweight(to_tsvector('german', coalesce(title, '')), 'A') || setweight(to_tsvector('german', coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX idx_anamnesis_version_search ON anamnesis_version USING GIN (anamnesis_id, search_vector);
+CREATE INDEX idx_care_need_search ON care_need USING GIN (patient_id, search_vector);
+CREATE INDEX idx_resource_search ON resource USING GIN (patient_id, search_vector);
+CREATE INDEX idx_intervention_search ON intervention USING GIN (patient_id, search_vector);
@@ -0,0 +1,22 @@
+-- Patientensuche: gefalteter Name mit Trigramm-Index über aktive Patienten (Tippfehlertoleranz per pg_trgm)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- Eine Faltungsfunktion für Spalte und Suchbegriff: Kleinschreibung, Umlaute ausgeschrieben
+-- (ä → ae, ö → oe, ü → ue, ß → ss), übrige Akzente per unaccent entfernt, Leerraum zusammengefasst.
+-- unaccent selbst ist nur STABLE (Wörterbuch über search_path); mit fest angegebenem Wörterbuch
+-- ist das Ergebnis unveränderlich, daher der IMMUTABLE-Wrapper für generierte Spalte und Indizes.
+CREATE FUNCTION fold_name(name text) RETURNS text
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE
+    RETURN regexp_replace(
+        btrim(public.unaccent('public.unaccent'::regdictionary,
+            replace(replace(replace(replace(lower(name), 'ä', 'ae'), 'ö', 'oe'), 'ü', 'ue'), 'ß', 'ss'))),
+        '\s+', ' ', 'g');
+
+ALTER TABLE patient ADD COLUMN search_name text GENERATED ALWAYS AS (fold_name(firstname || ' ' || lastname)) STORED;
+CREATE INDEX idx_patient_search_name ON patient USING GIST (search_name gist_trgm_ops) WHERE deleted = false;
+
+-- Präfixsuche (1-2 Zeichen) per B-Tree: search_name beginnt mit dem Vornamen, der Nachname bekommt einen eigenen Ausdrucksindex.
+-- text_pattern_ops, damit LIKE 'ab%' unabhängig von der Datenbank-Collation als Bereichssuche läuft.
+CREATE INDEX idx_patient_search_name_prefix ON patient (search_name text_pattern_ops) WHERE deleted = false;
+CREATE INDEX idx_patient_lastname_prefix ON patient (fold_name(lastname) text_pattern_ops) WHERE deleted = false;
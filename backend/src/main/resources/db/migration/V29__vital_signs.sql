@@ -0,0 +1,27 @@
+-- Vitalwerte: Messungen kommen gebündelt über den Group-Commit-Ingest (VitalSignIngestService),
+-- vital_threshold hält die Grenzwerte je Patient und Typ samt dem dadurch geöffneten Pflegebedarf
+
+-- Sequenz statt Identity, damit der Ingest IDs in Blöcken von 100 vergibt (allocationSize)
+CREATE SEQUENCE vital_measurement_seq INCREMENT BY 100;
+
+CREATE TABLE vital_measurement (
+    id bigint PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    type varchar(16) NOT NULL,
+    value float(53) NOT NULL,
+    secondary_value float(53),
+    measured_at timestamp(6) NOT NULL
+);
+CREATE INDEX idx_vital_measurement_patient_type_time ON vital_measurement (patient_id, type, measured_at);
+
+CREATE TABLE vital_threshold (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    type varchar(16) NOT NULL,
+    min_value float(53),
+    max_value float(53),
+    secondary_max_value float(53),
+    open_care_need_id bigint REFERENCES care_need (id),
+    last_evaluated_at timestamp(6),
+    CONSTRAINT uk_vital_threshold_patient_type UNIQUE (patient_id, type)
+);
@@ -0,0 +1,19 @@
+-- Vitalwert-Verlauf: Stunden-, Tages- und Wochenbuckets je Patient und Typ, beim Ingest per Upsert fortgeschrieben
+-- (VitalRollupRepository); der Verlauf liest große Zeiträume aus den Buckets statt aus vital_measurement
+
+CREATE TABLE vital_rollup (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    type varchar(16) NOT NULL,
+    granularity varchar(8) NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    sample_count bigint NOT NULL,
+    value_sum float(53) NOT NULL,
+    min_value float(53) NOT NULL,
+    max_value float(53) NOT NULL,
+    secondary_count bigint NOT NULL,
+    secondary_sum float(53) NOT NULL,
+    secondary_min float(53),
+    secondary_max float(53),
+    CONSTRAINT uk_vital_rollup_bucket UNIQUE (patient_id, type, granularity, bucket_start)
+);
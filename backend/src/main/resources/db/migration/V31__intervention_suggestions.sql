@@ -0,0 +1,33 @@
+-- Interventionsvorschläge: Regeln je ADL/Skill und Status (InterventionSuggestionEngine), daraus erzeugte Vorschläge
+-- bleiben bis zur Entscheidung offen; condition_active zeigt, ob der auslösende Status noch besteht
+
+CREATE TABLE intervention_rule (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    source varchar(255) NOT NULL,
+    adl_definition_id bigint REFERENCES adl_definition (id),
+    skill_definition_id bigint REFERENCES skill_definition (id),
+    status varchar(255) NOT NULL,
+    care_need_keyword varchar(255),
+    title varchar(255) NOT NULL,
+    description text,
+    task_template text,
+    active boolean NOT NULL
+);
+
+CREATE TABLE intervention_suggestion (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    rule_id bigint NOT NULL REFERENCES intervention_rule (id),
+    source varchar(255) NOT NULL,
+    title varchar(255) NOT NULL,
+    description text,
+    assessment_id bigint,
+    status varchar(255) NOT NULL,
+    condition_active boolean NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    decided_at timestamp(6),
+    decided_by bigint REFERENCES user_account (id),
+    intervention_id bigint REFERENCES intervention (id)
+);
+CREATE INDEX idx_intervention_suggestion_patient_rule ON intervention_suggestion (patient_id, rule_id, condition_active);
+CREATE INDEX idx_intervention_suggestion_patient_status ON intervention_suggestion (patient_id, status);
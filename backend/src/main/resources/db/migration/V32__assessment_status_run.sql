@@ -0,0 +1,19 @@
+-- ADL/Skill-Verlauf lauflängenkodiert: ein Abschnitt je Patient, Definition und unverändertem Status
+CREATE TABLE assessment_status_run (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    source varchar(255) NOT NULL,
+    adl_definition_id bigint REFERENCES adl_definition (id),
+    skill_definition_id bigint REFERENCES skill_definition (id),
+    status varchar(255) NOT NULL,
+    started_at timestamp(6) NOT NULL,
+    last_assessed_at timestamp(6) NOT NULL,
+    ended_at timestamp(6),
+    assessment_count integer NOT NULL
+);
+CREATE INDEX idx_assessment_status_run_adl ON assessment_status_run (patient_id, adl_definition_id, started_at);
+CREATE INDEX idx_assessment_status_run_skill ON assessment_status_run (patient_id, skill_definition_id, started_at);
+
+-- Höchstens ein offener Abschnitt pro Patient und Definition
+CREATE UNIQUE INDEX uk_assessment_status_run_adl_current ON assessment_status_run (patient_id, adl_definition_id) WHERE ended_at IS NULL AND adl_definition_id IS NOT NULL;
+CREATE UNIQUE INDEX uk_assessment_status_run_skill_current ON assessment_status_run (patient_id, skill_definition_id) WHERE ended_at IS NULL AND skill_definition_id IS NOT NULL;
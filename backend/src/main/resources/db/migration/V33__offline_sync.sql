@@ -0,0 +1,30 @@
+-- Delta-Sync pro Patient: sync_sequence vergibt die fortlaufende Nummer je Patient, sync_change hält je Entity
+-- die letzte Änderung (Feed für ?since=), sync_mutation merkt sich verarbeitete Offline-Mutationen.
+-- clientMutationId ist nur pro Patient eindeutig (Lookup über Patient und ID).
+
+CREATE TABLE sync_sequence (
+    patient_id bigint PRIMARY KEY,
+    last_seq bigint NOT NULL
+);
+
+CREATE TABLE sync_change (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    entity_type varchar(32) NOT NULL,
+    entity_id bigint NOT NULL,
+    seq bigint NOT NULL,
+    deleted boolean NOT NULL,
+    changed_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_sync_change_entity UNIQUE (patient_id, entity_type, entity_id)
+);
+CREATE INDEX idx_sync_change_patient_seq ON sync_change (patient_id, seq);
+
+CREATE TABLE sync_mutation (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    client_mutation_id varchar(64) NOT NULL,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    outcome varchar(16) NOT NULL,
+    message varchar(255),
+    processed_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_sync_mutation_patient_client_id UNIQUE (patient_id, client_mutation_id)
+);
@@ -0,0 +1,13 @@
+-- Optimistische Sperre (@Version): Versionszähler auf allen Tabellen, die über die API geändert werden.
+-- Bestehende Zeilen starten mit Version 0; ETag und If-Match der Ressourcen bauen darauf auf.
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['user_account', 'patient', 'care_assignment', 'adl_definition', 'skill_definition',
+            'anamnesis', 'anamnesis_version', 'care_need', 'resource', 'medication', 'intervention',
+            'intervention_task', 'intervention_rule', 'intervention_suggestion', 'daily_plan', 'daily_task'] LOOP
+        EXECUTE format('ALTER TABLE %I ADD COLUMN version bigint NOT NULL DEFAULT 0', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN version DROP DEFAULT', t);
+    END LOOP;
+END $$;
@@ -0,0 +1,98 @@
+-- Mandantenfähigkeit (TSD 4.5): jede fachliche Tabelle trägt tenant_id (@TenantId).
+-- Bestehende Zeilen gehören der Organisation "default" (anonyme Dev/Test-Organisation).
+-- Eindeutigkeiten gelten je Organisation, Indizes führen mit tenant_id, damit jede Abfrage
+-- nur die Zeilen der eigenen Organisation durchläuft.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['user_account', 'patient', 'care_assignment', 'adl_definition', 'skill_definition',
+            'adl_assessment', 'skill_assessment', 'assessment_status_run', 'anamnesis', 'anamnesis_version',
+            'care_need', 'resource', 'medication', 'intervention', 'intervention_task', 'intervention_rule',
+            'intervention_suggestion', 'daily_plan', 'daily_task', 'vital_measurement', 'vital_rollup',
+            'vital_threshold', 'audit_log', 'audit_chain_head', 'audit_checkpoint', 'sync_sequence',
+            'sync_change', 'sync_mutation'] LOOP
+        EXECUTE format('ALTER TABLE %I ADD COLUMN tenant_id varchar(64) NOT NULL DEFAULT ''default''', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN tenant_id DROP DEFAULT', t);
+    END LOOP;
+END $$;
+
+-- ==================== Eindeutigkeit je Organisation ====================
+
+ALTER TABLE care_assignment DROP CONSTRAINT uk_care_assignment_pfleger_patient;
+ALTER TABLE care_assignment ADD CONSTRAINT uk_care_assignment_tenant_pfleger_patient UNIQUE (tenant_id, pfleger_id, patient_id);
+ALTER TABLE adl_definition DROP CONSTRAINT uk_adl_definition_name;
+ALTER TABLE adl_definition ADD CONSTRAINT uk_adl_definition_tenant_name UNIQUE (tenant_id, name);
+ALTER TABLE skill_definition DROP CONSTRAINT uk_skill_definition_name;
+ALTER TABLE skill_definition ADD CONSTRAINT uk_skill_definition_tenant_name UNIQUE (tenant_id, name);
+ALTER TABLE daily_plan DROP CONSTRAINT uk_daily_plan_patient_date;
+ALTER TABLE daily_plan ADD CONSTRAINT uk_daily_plan_tenant_patient_date UNIQUE (tenant_id, patient_id, plan_date);
+ALTER TABLE vital_rollup DROP CONSTRAINT uk_vital_rollup_bucket;
+ALTER TABLE vital_rollup ADD CONSTRAINT uk_vital_rollup_bucket UNIQUE (tenant_id, patient_id, type, granularity, bucket_start);
+ALTER TABLE vital_threshold DROP CONSTRAINT uk_vital_threshold_patient_type;
+ALTER TABLE vital_threshold ADD CONSTRAINT uk_vital_threshold_tenant_patient_type UNIQUE (tenant_id, patient_id, type);
+ALTER TABLE sync_change DROP CONSTRAINT uk_sync_change_entity;
+ALTER TABLE sync_change ADD CONSTRAINT uk_sync_change_entity UNIQUE (tenant_id, patient_id, entity_type, entity_id);
+ALTER TABLE sync_mutation DROP CONSTRAINT uk_sync_mutation_patient_client_id;
+ALTER TABLE sync_mutation ADD CONSTRAINT uk_sync_mutation_tenant_patient_client_id UNIQUE (tenant_id, patient_id, client_mutation_id);
+
+-- Eine Audit-Kette pro Organisation: Position je Tenant eindeutig, ein Kettenkopf pro Organisation
+-- (AuditChainHeadRepository legt ihn beim ersten Eintrag an)
+ALTER TABLE audit_log DROP CONSTRAINT uk_audit_log_chain_seq;
+ALTER TABLE audit_log ADD CONSTRAINT uk_audit_log_tenant_chain_seq UNIQUE (tenant_id, chain_seq);
+DROP INDEX idx_audit_log_unlinked;
+CREATE INDEX idx_audit_log_unlinked ON audit_log (tenant_id, id) WHERE hash IS NULL;
+ALTER TABLE audit_chain_head ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY;
+SELECT setval(pg_get_serial_sequence('audit_chain_head', 'id'), coalesce(max(id), 0) + 1, false) FROM audit_chain_head;
+ALTER TABLE audit_chain_head ADD CONSTRAINT uk_audit_chain_head_tenant UNIQUE (tenant_id);
+
+-- ==================== Indizes mit führender tenant_id ====================
+
+CREATE INDEX idx_user_account_tenant_role ON user_account (tenant_id, role);
+CREATE INDEX idx_care_assignment_tenant_patient ON care_assignment (tenant_id, patient_id, active);
+CREATE INDEX idx_adl_assessment_tenant_patient ON adl_assessment (tenant_id, patient_id, adl_definition_id);
+CREATE INDEX idx_skill_assessment_tenant_patient ON skill_assessment (tenant_id, patient_id, skill_definition_id);
+CREATE INDEX idx_anamnesis_version_tenant_anamnesis ON anamnesis_version (tenant_id, anamnesis_id);
+CREATE INDEX idx_care_need_tenant_patient ON care_need (tenant_id, patient_id);
+CREATE INDEX idx_resource_tenant_patient ON resource (tenant_id, patient_id);
+CREATE INDEX idx_medication_tenant_patient ON medication (tenant_id, patient_id);
+CREATE INDEX idx_intervention_tenant_patient ON intervention (tenant_id, patient_id);
+CREATE INDEX idx_intervention_task_tenant_intervention ON intervention_task (tenant_id, intervention_id);
+CREATE INDEX idx_intervention_rule_tenant_active ON intervention_rule (tenant_id, active);
+CREATE INDEX idx_daily_task_tenant_plan ON daily_task (tenant_id, daily_plan_id);
+CREATE INDEX idx_audit_log_tenant_entity ON audit_log (tenant_id, entity, entity_id);
+CREATE INDEX idx_audit_checkpoint_tenant_chain ON audit_checkpoint (tenant_id, entry_count);
+
+DROP INDEX idx_assessment_status_run_adl;
+DROP INDEX idx_assessment_status_run_skill;
+CREATE INDEX idx_assessment_status_run_adl ON assessment_status_run (tenant_id, patient_id, adl_definition_id, started_at);
+CREATE INDEX idx_assessment_status_run_skill ON assessment_status_run (tenant_id, patient_id, skill_definition_id, started_at);
+DROP INDEX idx_intervention_suggestion_patient_rule;
+DROP INDEX idx_intervention_suggestion_patient_status;
+CREATE INDEX idx_intervention_suggestion_patient_rule ON intervention_suggestion (tenant_id, patient_id, rule_id, condition_active);
+CREATE INDEX idx_intervention_suggestion_patient_status ON intervention_suggestion (tenant_id, patient_id, status);
+DROP INDEX idx_vital_measurement_patient_type_time;
+CREATE INDEX idx_vital_measurement_patient_type_time ON vital_measurement (tenant_id, patient_id, type, measured_at);
+DROP INDEX idx_sync_change_patient_seq;
+CREATE INDEX idx_sync_change_patient_seq ON sync_change (tenant_id, patient_id, seq);
+
+-- Volltextsuche
+DROP INDEX idx_anamnesis_version_search;
+DROP INDEX idx_care_need_search;
+DROP INDEX idx_resource_search;
+DROP INDEX idx_intervention_search;
+CREATE INDEX idx_anamnesis_version_search ON anamnesis_version USING GIN (tenant_id, anamnesis_id, search_vector);
+CREATE INDEX idx_care_need_search ON care_need USING GIN (tenant_id, patient_id, search_vector);
+CREATE INDEX idx_resource_search ON resource USING GIN (tenant_id, patient_id, search_vector);
+CREATE INDEX idx_intervention_search ON intervention USING GIN (tenant_id, patient_id, search_vector);
+
+-- Patientensuche: Tenant als führende Spalte auch im GiST-Index (btree_gist),
+-- damit die KNN-Suche nur Patienten der eigenen Organisation durchläuft
+DROP INDEX idx_patient_search_name;
+DROP INDEX idx_patient_search_name_prefix;
+DROP INDEX idx_patient_lastname_prefix;
+CREATE INDEX idx_patient_search_name ON patient USING GIST (tenant_id, search_name gist_trgm_ops) WHERE deleted = false;
+CREATE INDEX idx_patient_search_name_prefix ON patient (tenant_id, search_name text_pattern_ops) WHERE deleted = false;
+CREATE INDEX idx_patient_lastname_prefix ON patient (tenant_id, fold_name(lastname) text_pattern_ops) WHERE deleted = false;
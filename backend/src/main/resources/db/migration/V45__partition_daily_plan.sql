@@ -0,0 +1,54 @@
+-- Tagesstruktur nach Planmonat partitioniert (RANGE auf plan_date). plan_date ist Teil von Primärschlüssel und FK,
+-- damit Aufgaben in der Monatspartition ihres Plans liegen; daily_task bekommt dafür eine Kopie des Plandatums.
+-- Monatspartitionen legt DailyPlanPartitionMaintenance an und verschiebt dabei Zeilen aus der DEFAULT-Partition,
+-- die bis dahin (und für Ausreißer) alle Zeilen aufnimmt.
+-- Partitionierte Tabellen kennen keine Identity-Spalten, die IDs kommen aus eigenen Sequenzen.
+
+ALTER TABLE daily_task RENAME TO daily_task_unpartitioned;
+ALTER TABLE daily_plan RENAME TO daily_plan_unpartitioned;
+
+CREATE TABLE daily_plan (
+    id bigint NOT NULL,
+    tenant_id varchar(64) NOT NULL,
+    version bigint NOT NULL,
+    patient_id bigint NOT NULL,
+    plan_date date NOT NULL
+) PARTITION BY RANGE (plan_date);
+
+CREATE TABLE daily_task (
+    id bigint NOT NULL,
+    tenant_id varchar(64) NOT NULL,
+    version bigint NOT NULL,
+    daily_plan_id bigint NOT NULL,
+    plan_date date NOT NULL,
+    title varchar(255) NOT NULL,
+    reminder_level varchar(255) NOT NULL,
+    completed boolean NOT NULL,
+    confirmed_at timestamp(6)
+) PARTITION BY RANGE (plan_date);
+
+CREATE TABLE daily_plan_default PARTITION OF daily_plan DEFAULT;
+CREATE TABLE daily_task_default PARTITION OF daily_task DEFAULT;
+
+INSERT INTO daily_plan (id, tenant_id, version, patient_id, plan_date)
+SELECT id, tenant_id, version, patient_id, plan_date FROM daily_plan_unpartitioned;
+INSERT INTO daily_task (id, tenant_id, version, daily_plan_id, plan_date, title, reminder_level, completed, confirmed_at)
+SELECT t.id, t.tenant_id, t.version, t.daily_plan_id, p.plan_date, t.title, t.reminder_level, t.completed, t.confirmed_at
+FROM daily_task_unpartitioned t JOIN daily_plan_unpartitioned p ON p.id = t.daily_plan_id;
+
+DROP TABLE daily_task_unpartitioned;
+DROP TABLE daily_plan_unpartitioned;
+
+ALTER TABLE daily_plan ADD CONSTRAINT daily_plan_pkey PRIMARY KEY (id, plan_date);
+ALTER TABLE daily_plan ADD CONSTRAINT uk_daily_plan_tenant_patient_date UNIQUE (tenant_id, patient_id, plan_date);
+ALTER TABLE daily_plan ADD CONSTRAINT fk_daily_plan_patient FOREIGN KEY (patient_id) REFERENCES patient (id);
+ALTER TABLE daily_task ADD CONSTRAINT daily_task_pkey PRIMARY KEY (id, plan_date);
+ALTER TABLE daily_task ADD CONSTRAINT fk_daily_task_plan FOREIGN KEY (daily_plan_id, plan_date) REFERENCES daily_plan (id, plan_date);
+CREATE INDEX idx_daily_task_tenant_plan ON daily_task (tenant_id, daily_plan_id);
+
+CREATE SEQUENCE daily_plan_id_seq OWNED BY daily_plan.id;
+SELECT setval('daily_plan_id_seq', coalesce(max(id), 0) + 1, false) FROM daily_plan;
+ALTER TABLE daily_plan ALTER COLUMN id SET DEFAULT nextval('daily_plan_id_seq');
+CREATE SEQUENCE daily_task_id_seq OWNED BY daily_task.id;
+SELECT setval('daily_task_id_seq', coalesce(max(id), 0) + 1, false) FROM daily_task;
+ALTER TABLE daily_task ALTER COLUMN id SET DEFAULT nextval('daily_task_id_seq');
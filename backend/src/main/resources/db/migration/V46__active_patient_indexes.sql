@@ -0,0 +1,4 @@
+-- Soft Delete: Patient trägt @SQLRestriction("deleted = false"), Indizes daher nur über aktive Patienten.
+-- idx_patient_active deckt die Existenzprüfung (tenant_id, id) als Index-Only-Scan ab.
+CREATE INDEX idx_patient_active ON patient (tenant_id, id) WHERE deleted = false;
+CREATE INDEX idx_patient_tenant_name ON patient (tenant_id, lastname, firstname) WHERE deleted = false;
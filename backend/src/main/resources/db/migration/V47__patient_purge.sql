@@ -0,0 +1,23 @@
+-- Hard Purge soft-gelöschter Patienten: Fortschritt je Patient, damit ein abgebrochener Purge beim nächsten Lauf fortsetzt
+CREATE TABLE patient_purge (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tenant_id varchar(64) NOT NULL,
+    version bigint NOT NULL,
+    patient_id bigint NOT NULL,
+    status varchar(16) NOT NULL,
+    completed_steps integer NOT NULL,
+    deleted_rows bigint NOT NULL,
+    failures integer NOT NULL,
+    last_error varchar(1000),
+    requested_at timestamp(6) NOT NULL,
+    started_at timestamp(6),
+    completed_at timestamp(6),
+    CONSTRAINT uk_patient_purge_tenant_patient UNIQUE (tenant_id, patient_id)
+);
+
+-- Hard Purge (PatientPurgeRepository): beim Löschen von Eltern-Zeilen sucht PostgreSQL die verweisenden Zeilen ohne tenant_id.
+-- Ohne Index mit der FK-Spalte vorn wäre das je gelöschter Zeile ein Scan der Kindtabelle.
+CREATE INDEX idx_daily_task_plan_fk ON daily_task (daily_plan_id);
+CREATE INDEX idx_intervention_task_intervention_fk ON intervention_task (intervention_id);
+CREATE INDEX idx_intervention_suggestion_intervention_fk ON intervention_suggestion (intervention_id) WHERE intervention_id IS NOT NULL;
+CREATE INDEX idx_vital_threshold_open_care_need_fk ON vital_threshold (open_care_need_id) WHERE open_care_need_id IS NOT NULL;
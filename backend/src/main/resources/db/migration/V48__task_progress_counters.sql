@@ -0,0 +1,23 @@
+-- Fortschrittszähler auf Plan und Intervention, damit Listen den Fortschritt ohne Aggregat über die Aufgaben lesen.
+-- Gepflegt von ADJUST_TASK_COUNTERS_SQL der Repositories; bestehende Zeilen werden einmalig aus den Aufgaben berechnet.
+ALTER TABLE intervention ADD COLUMN total_tasks integer NOT NULL DEFAULT 0;
+ALTER TABLE intervention ADD COLUMN completed_tasks integer NOT NULL DEFAULT 0;
+ALTER TABLE daily_plan ADD COLUMN total_tasks integer NOT NULL DEFAULT 0;
+ALTER TABLE daily_plan ADD COLUMN completed_tasks integer NOT NULL DEFAULT 0;
+
+UPDATE intervention i
+SET total_tasks = t.total, completed_tasks = t.completed
+FROM (SELECT intervention_id, count(*) AS total, count(*) FILTER (WHERE completed) AS completed
+      FROM intervention_task GROUP BY intervention_id) t
+WHERE t.intervention_id = i.id;
+
+UPDATE daily_plan p
+SET total_tasks = t.total, completed_tasks = t.completed
+FROM (SELECT daily_plan_id, plan_date, count(*) AS total, count(*) FILTER (WHERE completed) AS completed
+      FROM daily_task GROUP BY daily_plan_id, plan_date) t
+WHERE t.daily_plan_id = p.id AND t.plan_date = p.plan_date;
+
+ALTER TABLE intervention ALTER COLUMN total_tasks DROP DEFAULT;
+ALTER TABLE intervention ALTER COLUMN completed_tasks DROP DEFAULT;
+ALTER TABLE daily_plan ALTER COLUMN total_tasks DROP DEFAULT;
+ALTER TABLE daily_plan ALTER COLUMN completed_tasks DROP DEFAULT;
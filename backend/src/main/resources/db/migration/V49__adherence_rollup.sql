@@ -0,0 +1,14 @@
+-- Therapietreue: Tageswerte je Patient, inkrementell bei Bestätigungen gepflegt und beim Tagesabschluss
+-- (AdherenceService) aus daily_task neu berechnet; delay_histogram zählt Bestätigungen je 30-Minuten-Verspätungsklasse
+
+CREATE TABLE adherence_rollup (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tenant_id varchar(64) NOT NULL,
+    patient_id bigint NOT NULL REFERENCES patient (id),
+    plan_date date NOT NULL,
+    total_tasks integer NOT NULL,
+    confirmed_tasks integer NOT NULL,
+    delay_histogram integer[] NOT NULL,
+    closed boolean NOT NULL,
+    CONSTRAINT uk_adherence_rollup_day UNIQUE (tenant_id, patient_id, plan_date)
+);
@@ -0,0 +1,27 @@
+-- Medienspeicher für grafische Anleitungen (FSD 7.3): Inhalte liegen inhaltsadressiert im Dateisystem,
+-- media_blob hält Hash und Metadaten je Organisation, intervention_media ordnet sie einer Intervention zu
+
+CREATE TABLE media_blob (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tenant_id varchar(64) NOT NULL,
+    sha256 varchar(64) NOT NULL,
+    content_type varchar(64) NOT NULL,
+    size_bytes bigint NOT NULL,
+    width integer,
+    height integer,
+    derivative_status varchar(16) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_media_blob_tenant_sha256 UNIQUE (tenant_id, sha256)
+);
+
+CREATE TABLE intervention_media (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tenant_id varchar(64) NOT NULL,
+    version bigint NOT NULL,
+    intervention_id bigint NOT NULL REFERENCES intervention (id),
+    media_blob_id bigint NOT NULL REFERENCES media_blob (id),
+    position integer NOT NULL,
+    caption varchar(255),
+    created_at timestamp(6) NOT NULL
+);
+CREATE INDEX idx_intervention_media_tenant_intervention ON intervention_media (tenant_id, intervention_id, position);
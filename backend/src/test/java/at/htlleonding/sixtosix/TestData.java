@@ -0,0 +1,229 @@
+package at.htlleonding.sixtosix;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Zusammenhängender Testdatenbestand, angelegt über die REST-API.
+ *
+ * Über die API statt über Repositories, damit dieselben Daten auch gegen das gepackte
+ * bzw. native Artefakt ({@code @QuarkusIntegrationTest}) funktionieren. Jede Sammlung
+ * hat {@link #ROWS} Einträge, mehr als jedes Query-Budget und als die Schwelle der
+ * N+1-Erkennung; ein Lazy-Load pro Zeile fällt dadurch sicher auf.
+ *
+ * @param pflegerId Pfleger, dem alle Patienten zugeordnet sind
+ * @param patientIds Patienten; der erste hat alle abhängigen Daten
+ * @param interventionId Intervention mit Aufgaben und Anleitungen
+ * @param dailyPlanId heutiger Tagesplan des ersten Patienten
+ * @param anamnesisId Anamnese des ersten Patienten mit mehreren Versionen
+ * @param mediaSha256 Hash einer hochgeladenen Anleitung
+ * @param lastname gemeinsamer, eindeutiger Nachname der Patienten (Suche)
+ */
+public record TestData(
+    long pflegerId,
+    List<Long> patientIds,
+    long interventionId,
+    long dailyPlanId,
+    long anamnesisId,
+    String mediaSha256,
+    String lastname
+) {
+
+    public static final int ROWS = 6;
+
+    public static final String BASE_PATH = "/api";
+
+    private static TestData shared;
+
+    /**
+     * Legt den Bestand einmal pro Testlauf an (die Anwendung läuft über alle Testklassen)
+     */
+    public static synchronized TestData shared() {
+        if (shared == null) {
+            shared = seed();
+        }
+        return shared;
+    }
+
+    public long patientId() {
+        return patientIds.get(0);
+    }
+
+    private static TestData seed() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String lastname = "Budget" + run;
+
+        long pflegerId = id(given().queryParam("keycloakId", "pfleger-" + run).queryParam("role", "PFLEGER")
+                .post(BASE_PATH + "/users/sync"));
+
+        List<Long> patientIds = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            long patientId = id(given().contentType(ContentType.JSON)
+                    .body(Map.of("firstname", "Test" + i, "lastname", lastname,
+                            "birthdate", LocalDate.of(1940 + i, 3, 1).toString()))
+                    .post(BASE_PATH + "/patients"));
+            patientIds.add(patientId);
+            id(given().contentType(ContentType.JSON)
+                    .body(Map.of("pflegerUserId", pflegerId, "patientId", patientId))
+                    .post(BASE_PATH + "/care-assignments"));
+        }
+        long patientId = patientIds.get(0);
+
+        // ADL-Bewertungen (je Definition eine, damit "latest" alle liefert)
+        for (int i = 0; i < ROWS; i++) {
+            long definitionId = id(given().queryParam("name", "ADL " + run + " " + i)
+                    .post(BASE_PATH + "/adl/definitions"));
+            id(given().queryParam("adlDefinitionId", definitionId)
+                    .queryParam("status", i % 2 == 0 ? "RESTRICTED" : "INTACT")
+                    .queryParam("assessedById", pflegerId)
+                    .post(BASE_PATH + "/adl/patients/" + patientId + "/assessments"));
+        }
+
+        // Skill-Bewertungen (je Definition eine)
+        for (int i = 0; i < ROWS; i++) {
+            long definitionId = id(given().queryParam("name", "Skill " + run + " " + i)
+                    .post(BASE_PATH + "/skills/definitions"));
+            id(given().queryParam("skillDefinitionId", definitionId)
+                    .queryParam("status", i % 2 == 0 ? "RESTRICTED" : "INTACT")
+                    .post(BASE_PATH + "/skills/patients/" + patientId + "/assessments"));
+        }
+
+        // Interventionen mit Aufgaben
+        long interventionId = 0;
+        for (int i = 0; i < ROWS; i++) {
+            long id = id(given().queryParam("source", "MANUAL").queryParam("title", "Intervention " + i)
+                    .post(BASE_PATH + "/interventions/patients/" + patientId));
+            for (int t = 0; t < 2; t++) {
+                long taskId = id(given().queryParam("description", "Aufgabe " + t)
+                        .post(BASE_PATH + "/interventions/" + id + "/tasks"));
+                if (t == 0) {
+                    ok(given().put(BASE_PATH + "/interventions/tasks/" + taskId + "/complete"));
+                }
+            }
+            if (i == 0) {
+                interventionId = id;
+            }
+        }
+
+        // Ressourcen, die Hälfte freigegeben
+        for (int i = 0; i < ROWS; i++) {
+            long resourceId = id(given().queryParam("type", "Familie").queryParam("description", "Ressource " + i)
+                    .queryParam("proposedById", pflegerId)
+                    .post(BASE_PATH + "/resources/patients/" + patientId));
+            if (i % 2 == 0) {
+                ok(given().put(BASE_PATH + "/resources/" + resourceId + "/approve"));
+            }
+        }
+
+        // Tagespläne der letzten Tage, je eine Aufgabe bestätigt
+        long dailyPlanId = 0;
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < ROWS; i++) {
+            long planId = id(given().queryParam("date", today.minusDays(i).toString())
+                    .post(BASE_PATH + "/daily-plans/patients/" + patientId));
+            for (int t = 0; t < 2; t++) {
+                long taskId = id(given().queryParam("title", "Aufgabe " + t).queryParam("reminderLevel", "NONE")
+                        .post(BASE_PATH + "/daily-plans/" + planId + "/tasks"));
+                if (t == 0) {
+                    ok(given().put(BASE_PATH + "/daily-plans/tasks/" + taskId + "/confirm"));
+                }
+            }
+            if (i == 0) {
+                dailyPlanId = planId;
+            }
+        }
+
+        // Bedarfe, die Hälfte gelöst
+        for (int i = 0; i < ROWS; i++) {
+            long careNeedId = id(given().queryParam("description", "Bedarf " + i)
+                    .post(BASE_PATH + "/care-needs/patients/" + patientId));
+            if (i % 2 == 0) {
+                ok(given().put(BASE_PATH + "/care-needs/" + careNeedId + "/resolve"));
+            }
+        }
+
+        // Anamnese mit mehreren Versionen
+        long anamnesisId = id(given().post(BASE_PATH + "/anamnesis/patients/" + patientId));
+        for (int i = 0; i < ROWS; i++) {
+            id(given().contentType(ContentType.JSON)
+                    .body(Map.of("content", "Version " + i, "createdById", pflegerId))
+                    .post(BASE_PATH + "/anamnesis/" + anamnesisId + "/versions"));
+        }
+
+        // Grafische Anleitungen (verschiedene Inhalte, damit jede Zeile ihren eigenen Blob hat)
+        String mediaSha256 = null;
+        for (int i = 0; i < ROWS; i++) {
+            Response upload = given().contentType("image/png")
+                    .queryParam("caption", "Schritt " + (i + 1))
+                    .body(png(new Color(40 * i, 120, 200)))
+                    .post(BASE_PATH + "/media/interventions/" + interventionId);
+            upload.then().statusCode(201);
+            if (i == 0) {
+                mediaSha256 = upload.jsonPath().getString("sha256");
+            }
+        }
+        awaitDerivatives(interventionId);
+
+        return new TestData(pflegerId, List.copyOf(patientIds), interventionId, dailyPlanId, anamnesisId,
+                mediaSha256, lastname);
+    }
+
+    /**
+     * Wartet, bis der Worker Thumbnails und Vorschauen erzeugt hat
+     */
+    private static void awaitDerivatives(long interventionId) {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            List<String> states = given().get(BASE_PATH + "/media/interventions/" + interventionId)
+                    .jsonPath().getList("derivativeStatus", String.class);
+            if (states.stream().allMatch("READY"::equals)) {
+                return;
+            }
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalStateException("Abgeleitete Bilder wurden nicht rechtzeitig erzeugt");
+    }
+
+    private static byte[] png(Color color) {
+        BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, 64, 48);
+        graphics.dispose();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long id(Response response) {
+        response.then().statusCode(201);
+        return response.jsonPath().getLong("id");
+    }
+
+    private static void ok(Response response) {
+        response.then().statusCode(200);
+    }
+}
@@ -0,0 +1,9 @@
+package at.htlleonding.sixtosix.metrics;
+
+import io.quarkus.test.junit.QuarkusIntegrationTest;
+
+@QuarkusIntegrationTest
+class QueryBudgetIT extends QueryBudgetTest {
+    // Alle budgetierten Endpunkte im gepackten bzw. nativen Artefakt: DTO-Records über Response,
+    // Hibernate-Projektionen und Lazy-Loads; fehlende Reflection-Registrierungen fallen hier auf
+}
@@ -0,0 +1,201 @@
+package at.htlleonding.sixtosix.metrics;
+
+import at.htlleonding.sixtosix.TestData;
+import at.htlleonding.sixtosix.resource.ADLAssessmentResource;
+import at.htlleonding.sixtosix.resource.AnalyticsResource;
+import at.htlleonding.sixtosix.resource.AnamnesisResource;
+import at.htlleonding.sixtosix.resource.AuditResource;
+import at.htlleonding.sixtosix.resource.CareAssignmentResource;
+import at.htlleonding.sixtosix.resource.CareNeedResource;
+import at.htlleonding.sixtosix.resource.DailyPlanResource;
+import at.htlleonding.sixtosix.resource.DoctorResource;
+import at.htlleonding.sixtosix.resource.InterventionResource;
+import at.htlleonding.sixtosix.resource.InterventionSuggestionResource;
+import at.htlleonding.sixtosix.resource.MediaResource;
+import at.htlleonding.sixtosix.resource.PatientAppResource;
+import at.htlleonding.sixtosix.resource.PatientResource;
+import at.htlleonding.sixtosix.resource.ResourceResource;
+import at.htlleonding.sixtosix.resource.SearchResource;
+import at.htlleonding.sixtosix.resource.SkillAssessmentResource;
+import at.htlleonding.sixtosix.resource.SyncResource;
+import at.htlleonding.sixtosix.resource.UserAccountResource;
+import at.htlleonding.sixtosix.resource.VitalSignResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ruft jeden Endpunkt mit {@link QueryBudget} gegen einen Datenbestand mit mehreren Zeilen
+ * auf und schlägt fehl, wenn der {@link QueryDiagnosticsFilter} mehr Statements als erlaubt
+ * oder ein wiederholtes Statement (N+1) meldet.
+ *
+ * Das Budget wird aus der Annotation gelesen, damit Test und Endpunkt nicht auseinanderlaufen.
+ * Kommt ein neuer Endpunkt mit Budget hinzu, schlägt {@link #everyBudgetedEndpointIsCovered()}
+ * fehl, bis er hier eingetragen ist.
+ */
+@QuarkusTest
+class QueryBudgetTest {
+
+    private static final List<Class<?>> RESOURCES = List.of(
+            ADLAssessmentResource.class,
+            AnalyticsResource.class,
+            AnamnesisResource.class,
+            AuditResource.class,
+            CareAssignmentResource.class,
+            CareNeedResource.class,
+            DailyPlanResource.class,
+            DoctorResource.class,
+            InterventionResource.class,
+            InterventionSuggestionResource.class,
+            MediaResource.class,
+            PatientAppResource.class,
+            PatientResource.class,
+            ResourceResource.class,
+            SearchResource.class,
+            SkillAssessmentResource.class,
+            SyncResource.class,
+            UserAccountResource.class,
+            VitalSignResource.class
+    );
+
+    /**
+     * Budgetierter Endpunkt: Resource-Methode und der Pfad, unter dem sie mit den Testdaten aufgerufen wird
+     */
+    private record Endpoint(Class<?> resource, String method, String path) {
+
+        String name() {
+            return resource.getSimpleName() + "#" + method;
+        }
+
+        int budget() {
+            return Arrays.stream(resource.getDeclaredMethods())
+                    .filter(m -> m.getName().equals(method))
+                    .map(m -> m.getAnnotation(QueryBudget.class))
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError(name() + " hat kein @QueryBudget"))
+                    .value();
+        }
+    }
+
+    private static List<Endpoint> endpoints(TestData data) {
+        long patient = data.patientId();
+        String period = "?from=" + LocalDate.now().minusDays(TestData.ROWS) + "&to=" + LocalDate.now();
+
+        return List.of(
+                new Endpoint(CareAssignmentResource.class, "getAllAssignments", "/care-assignments"),
+                new Endpoint(CareAssignmentResource.class, "getActiveAssignmentsForPfleger",
+                        "/care-assignments/pfleger/" + data.pflegerId() + "/active"),
+                new Endpoint(CareAssignmentResource.class, "getActiveAssignmentsForPatient",
+                        "/care-assignments/patient/" + patient + "/active"),
+
+                new Endpoint(PatientResource.class, "getAllPatients", "/patients"),
+                new Endpoint(PatientResource.class, "searchPatients", "/patients/search?q=" + data.lastname()),
+                new Endpoint(PatientResource.class, "getPatient", "/patients/" + patient),
+                new Endpoint(PatientResource.class, "getPatientDetails", "/patients/" + patient + "/details"),
+
+                new Endpoint(ADLAssessmentResource.class, "getADLAssessmentsForPatient",
+                        "/adl/patients/" + patient + "/assessments"),
+                new Endpoint(ADLAssessmentResource.class, "getLatestADLAssessments",
+                        "/adl/patients/" + patient + "/assessments/latest"),
+
+                new Endpoint(SkillAssessmentResource.class, "getSkillAssessmentsForPatient",
+                        "/skills/patients/" + patient + "/assessments"),
+                new Endpoint(SkillAssessmentResource.class, "getLatestSkillAssessments",
+                        "/skills/patients/" + patient + "/assessments/latest"),
+
+                new Endpoint(InterventionResource.class, "getInterventionsForPatient",
+                        "/interventions/patients/" + patient),
+                new Endpoint(InterventionResource.class, "getIntervention", "/interventions/" + data.interventionId()),
+                new Endpoint(InterventionResource.class, "getTasksForIntervention",
+                        "/interventions/" + data.interventionId() + "/tasks"),
+
+                new Endpoint(ResourceResource.class, "getResourcesForPatient", "/resources/patients/" + patient),
+                new Endpoint(ResourceResource.class, "getApprovedResourcesForPatient",
+                        "/resources/patients/" + patient + "/approved"),
+                new Endpoint(ResourceResource.class, "getPendingResourcesForPatient",
+                        "/resources/patients/" + patient + "/pending"),
+
+                new Endpoint(AnalyticsResource.class, "getPatientAdherence",
+                        "/analytics/adherence/patients/" + patient + period),
+                new Endpoint(AnalyticsResource.class, "getPflegerAdherence",
+                        "/analytics/adherence/pflegers/" + data.pflegerId() + period + "&granularity=WEEK"),
+
+                new Endpoint(DailyPlanResource.class, "getDailyPlansForPatient", "/daily-plans/patients/" + patient),
+                new Endpoint(DailyPlanResource.class, "getTodaysDailyPlan",
+                        "/daily-plans/patients/" + patient + "/today"),
+                new Endpoint(DailyPlanResource.class, "getTasksForDailyPlan",
+                        "/daily-plans/" + data.dailyPlanId() + "/tasks"),
+
+                new Endpoint(CareNeedResource.class, "getCareNeedsForPatient", "/care-needs/patients/" + patient),
+                new Endpoint(CareNeedResource.class, "getActiveCareNeedsForPatient",
+                        "/care-needs/patients/" + patient + "/active"),
+                new Endpoint(CareNeedResource.class, "getResolvedCareNeedsForPatient",
+                        "/care-needs/patients/" + patient + "/resolved"),
+
+                new Endpoint(MediaResource.class, "getMediaForIntervention",
+                        "/media/interventions/" + data.interventionId()),
+                new Endpoint(MediaResource.class, "getBlob", "/media/blobs/" + data.mediaSha256()),
+                new Endpoint(MediaResource.class, "getDerivative",
+                        "/media/blobs/" + data.mediaSha256() + "/thumbnail"),
+
+                new Endpoint(AnamnesisResource.class, "getVersions", "/anamnesis/" + data.anamnesisId() + "/versions")
+        );
+    }
+
+    @TestFactory
+    Stream<DynamicTest> budgetedEndpointsStayWithinBudget() {
+        TestData data = TestData.shared();
+        return endpoints(data).stream().map(endpoint -> DynamicTest.dynamicTest(endpoint.name(), () -> {
+            Response response = given().get(TestData.BASE_PATH + endpoint.path());
+
+            assertEquals(200, response.statusCode(),
+                    endpoint.name() + " (Budget überschritten?): " + response.body().asString());
+
+            String count = response.header(QueryDiagnosticsFilter.QUERY_COUNT_HEADER);
+            assertNotNull(count, endpoint.name() + " wurde nicht von der Query-Diagnose erfasst");
+            assertTrue(Integer.parseInt(count) <= endpoint.budget(),
+                    endpoint.name() + ": " + count + " Statements, Budget " + endpoint.budget());
+
+            assertNull(response.header(QueryDiagnosticsFilter.QUERY_REPEATED_HEADER),
+                    endpoint.name() + ": wiederholtes Statement (N+1)");
+        }));
+    }
+
+    @Test
+    void everyBudgetedEndpointIsCovered() {
+        Map<String, Endpoint> covered = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints(TestData.shared())) {
+            covered.put(endpoint.name(), endpoint);
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (Class<?> resource : RESOURCES) {
+            for (Method method : resource.getDeclaredMethods()) {
+                String name = resource.getSimpleName() + "#" + method.getName();
+                if (method.isAnnotationPresent(QueryBudget.class) && !covered.containsKey(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+
+        assertTrue(missing.isEmpty(), "Budgetierte Endpunkte ohne Test: " + missing);
+    }
+}
@@ -0,0 +1,96 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.TestData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Status-Verlauf: gleiche Bewertungen verlängern den aktuellen Abschnitt, ein Statuswechsel
+ * beendet ihn und beginnt einen neuen; für ADLs und Skills gleichermaßen.
+ */
+@QuarkusTest
+class AssessmentTrendTest {
+
+    private String run;
+
+    private long patientId;
+
+    @BeforeEach
+    void createPatient() {
+        run = UUID.randomUUID().toString().substring(0, 8);
+        patientId = given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Verlauf", "lastname", "Test", "birthdate", "1943-07-09"))
+                .post(TestData.BASE_PATH + "/patients")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    @Test
+    void adlAssessmentsAreRunLengthEncoded() {
+        long definitionId = create("/adl/definitions", "Mobilität " + run);
+        long pflegerId = given().queryParam("keycloakId", "verlauf-" + run).queryParam("role", "PFLEGER")
+                .post(TestData.BASE_PATH + "/users/sync")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+
+        for (String status : new String[] {"INTACT", "INTACT", "RESTRICTED"}) {
+            given().queryParam("adlDefinitionId", definitionId).queryParam("status", status)
+                    .queryParam("assessedById", pflegerId)
+                    .post(TestData.BASE_PATH + "/adl/patients/" + patientId + "/assessments")
+                    .then().statusCode(201);
+        }
+
+        assertTwoRuns(trend("/adl/patients/" + patientId + "/trend"), definitionId);
+    }
+
+    @Test
+    void skillAssessmentsAreRunLengthEncoded() {
+        long definitionId = create("/skills/definitions", "Haushalt " + run);
+
+        for (String status : new String[] {"INTACT", "INTACT", "RESTRICTED"}) {
+            given().queryParam("skillDefinitionId", definitionId).queryParam("status", status)
+                    .post(TestData.BASE_PATH + "/skills/patients/" + patientId + "/assessments")
+                    .then().statusCode(201);
+        }
+
+        assertTwoRuns(trend("/skills/patients/" + patientId + "/trend?skillDefinitionId=" + definitionId),
+                definitionId);
+        assertEquals(1, given().get(TestData.BASE_PATH + "/skills/patients/" + patientId + "/assessments/latest")
+                .then().statusCode(200)
+                .extract().jsonPath().getList("id").size());
+    }
+
+    private static void assertTwoRuns(JsonPath trend, long definitionId) {
+        assertEquals(2, trend.getList("$").size());
+        assertEquals(definitionId, trend.getLong("[0].definitionId"));
+        assertEquals("INTACT", trend.getString("[0].status"));
+        assertEquals(2, trend.getInt("[0].assessmentCount"));
+        assertNotNull(trend.getString("[0].endedAt"));
+        assertEquals("RESTRICTED", trend.getString("[1].status"));
+        assertEquals(1, trend.getInt("[1].assessmentCount"));
+        assertNull(trend.getString("[1].endedAt"));
+    }
+
+    private static long create(String path, String name) {
+        return given().queryParam("name", name)
+                .post(TestData.BASE_PATH + path)
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    private static JsonPath trend(String path) {
+        return given().get(TestData.BASE_PATH + path)
+                .then().statusCode(200)
+                .extract().jsonPath();
+    }
+}
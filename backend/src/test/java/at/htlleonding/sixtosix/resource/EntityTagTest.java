@@ -0,0 +1,123 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.TestData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * ETag / If-None-Match / If-Match: GET mit aktuellem ETag liefert 304, Änderungen mit
+ * veraltetem ETag werden mit 412 abgelehnt. Das ETag einer Intervention ändert sich auch,
+ * wenn sich nur ihre Tasks oder Zähler ändern.
+ */
+@QuarkusTest
+class EntityTagTest {
+
+    private long patientId;
+
+    @BeforeEach
+    void createPatient() {
+        patientId = id(given().contentType(ContentType.JSON)
+                .body(patient("Etag"))
+                .post(TestData.BASE_PATH + "/patients"));
+    }
+
+    @Test
+    void currentETagAnswersNotModified() {
+        String etag = etag(given().get(TestData.BASE_PATH + "/patients/" + patientId));
+
+        given().header("If-None-Match", etag)
+                .get(TestData.BASE_PATH + "/patients/" + patientId)
+                .then().statusCode(304);
+    }
+
+    @Test
+    void staleETagIsRejectedOnUpdate() {
+        String stale = etag(given().get(TestData.BASE_PATH + "/patients/" + patientId));
+        String current = etag(given().contentType(ContentType.JSON).header("If-Match", stale)
+                .body(patient("Etag2"))
+                .put(TestData.BASE_PATH + "/patients/" + patientId));
+
+        Response conflict = given().contentType(ContentType.JSON).header("If-Match", stale)
+                .body(patient("Etag3"))
+                .put(TestData.BASE_PATH + "/patients/" + patientId);
+
+        assertEquals(412, conflict.statusCode());
+        assertEquals(current, conflict.header("ETag"));
+        assertEquals(EntityTags.CONFLICT_MESSAGE, conflict.body().asString());
+    }
+
+    @Test
+    void interventionETagCoversTasksAndCounters() {
+        long interventionId = id(given().queryParam("source", "MANUAL").queryParam("title", "ETag")
+                .post(TestData.BASE_PATH + "/interventions/patients/" + patientId));
+        String created = etag(given().get(TestData.BASE_PATH + "/interventions/" + interventionId));
+
+        long taskId = id(given().queryParam("description", "Aufgabe")
+                .post(TestData.BASE_PATH + "/interventions/" + interventionId + "/tasks"));
+        Response withTask = given().header("If-None-Match", created)
+                .get(TestData.BASE_PATH + "/interventions/" + interventionId);
+        assertEquals(200, withTask.statusCode());
+        assertEquals(1, withTask.jsonPath().getInt("totalTasks"));
+        String added = etag(withTask);
+        assertNotEquals(created, added);
+
+        given().put(TestData.BASE_PATH + "/interventions/tasks/" + taskId + "/complete")
+                .then().statusCode(200);
+        Response completed = given().header("If-None-Match", added)
+                .get(TestData.BASE_PATH + "/interventions/" + interventionId);
+        assertEquals(200, completed.statusCode());
+        assertEquals(1, completed.jsonPath().getInt("completedTasks"));
+        assertNotEquals(added, etag(completed));
+
+        // Änderung auf Basis des Stands vor der Erledigung
+        given().header("If-Match", added).queryParam("title", "Neu")
+                .put(TestData.BASE_PATH + "/interventions/" + interventionId)
+                .then().statusCode(412);
+    }
+
+    @Test
+    void confirmedDailyTaskRejectsStaleETag() {
+        long planId = id(given().queryParam("date", LocalDate.now().toString())
+                .post(TestData.BASE_PATH + "/daily-plans/patients/" + patientId));
+        long taskId = id(given().queryParam("title", "Aufgabe").queryParam("reminderLevel", "NONE")
+                .post(TestData.BASE_PATH + "/daily-plans/" + planId + "/tasks"));
+        String open = etag(given().get(TestData.BASE_PATH + "/daily-plans/tasks/" + taskId));
+
+        String confirmed = etag(given().header("If-Match", open)
+                .put(TestData.BASE_PATH + "/daily-plans/tasks/" + taskId + "/confirm"));
+
+        assertNotEquals(open, confirmed);
+        given().header("If-Match", open)
+                .put(TestData.BASE_PATH + "/daily-plans/tasks/" + taskId + "/confirm")
+                .then().statusCode(412);
+        given().header("If-None-Match", confirmed)
+                .get(TestData.BASE_PATH + "/daily-plans/tasks/" + taskId)
+                .then().statusCode(304);
+    }
+
+    private static Map<String, String> patient(String lastname) {
+        return Map.of("firstname", "Test", "lastname", lastname, "birthdate", "1944-02-14");
+    }
+
+    private static String etag(Response response) {
+        assertEquals(200, response.statusCode(), response.body().asString());
+        String etag = response.header("ETag");
+        assertNotNull(etag, "kein ETag");
+        return etag;
+    }
+
+    private static long id(Response response) {
+        response.then().statusCode(201);
+        return response.jsonPath().getLong("id");
+    }
+}
@@ -0,0 +1,110 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.TestData;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Volltextsuche über die Dokumentation eines Patienten: Treffer nach Relevanz sortiert,
+ * Snippets mit hervorgehobenem Suchbegriff, Websuche-Syntax, und nur Zeilen der eigenen
+ * Organisation.
+ */
+@QuarkusTest
+class FulltextSearchTest {
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private long patientId;
+
+    private long fallOnce;
+
+    private long fallThrice;
+
+    @BeforeEach
+    void createDocumentation() {
+        patientId = given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Suche", "lastname", "Test", "birthdate", "1939-04-03"))
+                .post(TestData.BASE_PATH + "/patients")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+
+        fallOnce = careNeed("Sturz im Bad beim Duschen");
+        fallThrice = careNeed("Sturz in der Nacht, erneuter Sturz am Morgen, Sturz beim Aufstehen");
+        careNeed("Unterstützung beim Einkaufen");
+    }
+
+    @Test
+    void hitsAreRankedByRelevance() {
+        JsonPath hits = search("Sturz", 20);
+
+        assertEquals(List.of(fallThrice, fallOnce), hits.getList("id", Long.class));
+        List<Float> ranks = hits.getList("rank", Float.class);
+        assertTrue(ranks.get(0) > ranks.get(1), "Ranking: " + ranks);
+        assertEquals("CARE_NEED", hits.getString("[0].source"));
+    }
+
+    @Test
+    void snippetHighlightsTheSearchTerm() {
+        JsonPath hits = search("Duschen", 20);
+
+        assertEquals(List.of(fallOnce), hits.getList("id", Long.class));
+        assertTrue(hits.getString("[0].snippet").contains("<b>Duschen</b>"), hits.getString("[0].snippet"));
+    }
+
+    @Test
+    void limitKeepsTheBestHits() {
+        JsonPath hits = search("Sturz", 1);
+
+        assertEquals(List.of(fallThrice), hits.getList("id", Long.class));
+        assertTrue(hits.getString("[0].snippet").contains("<b>Sturz</b>"), hits.getString("[0].snippet"));
+    }
+
+    @Test
+    void websearchSyntaxExcludesTerms() {
+        assertEquals(List.of(fallThrice), search("Sturz -Bad", 20).getList("id", Long.class));
+        assertEquals(List.of(fallOnce), search("\"Sturz im Bad\"", 20).getList("id", Long.class));
+    }
+
+    @Test
+    void rowsOfOtherOrganisationsAreNotFound() throws SQLException {
+        // gleiche Patienten-ID, aber andere Organisation: darf trotz besserem Ranking nicht erscheinen
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO care_need (tenant_id, patient_id, description, active, created_at, version) "
+                             + "VALUES ('fremde-organisation', ?, 'Sturz Sturz Sturz Sturz Sturz', true, now(), 0)")) {
+            statement.setLong(1, patientId);
+            statement.executeUpdate();
+        }
+
+        assertEquals(List.of(fallThrice, fallOnce), search("Sturz", 20).getList("id", Long.class));
+    }
+
+    private long careNeed(String description) {
+        return given().queryParam("description", description)
+                .post(TestData.BASE_PATH + "/care-needs/patients/" + patientId)
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    private JsonPath search(String query, int limit) {
+        return given().queryParam("q", query).queryParam("limit", limit)
+                .get(TestData.BASE_PATH + "/search/patients/" + patientId)
+                .then().statusCode(200)
+                .extract().jsonPath();
+    }
+}
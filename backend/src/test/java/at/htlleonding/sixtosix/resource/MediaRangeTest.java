@@ -0,0 +1,39 @@
+package at.htlleonding.sixtosix.resource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Range-Header der Medienauslieferung: ungültige Angaben werden ignoriert (200 mit ganzem
+ * Inhalt), nur ein gültiger Bereich hinter dem Ende ist nicht erfüllbar (416).
+ */
+class MediaRangeTest {
+
+    private static final long SIZE = 10;
+
+    @Test
+    void validRangesAreClampedToContent() {
+        assertArrayEquals(new long[]{0, 4}, MediaResource.parseRange("bytes=0-4", SIZE));
+        assertArrayEquals(new long[]{3, 9}, MediaResource.parseRange("bytes=3-100", SIZE));
+        assertArrayEquals(new long[]{7, 9}, MediaResource.parseRange("bytes=-3", SIZE));
+        assertArrayEquals(new long[]{0, 9}, MediaResource.parseRange("bytes=-30", SIZE));
+    }
+
+    @Test
+    void invalidRangesAreIgnored() {
+        assertArrayEquals(new long[0], MediaResource.parseRange("bytes=5-2", SIZE));
+        assertArrayEquals(new long[0], MediaResource.parseRange("bytes=0-4,6-7", SIZE));
+        assertArrayEquals(new long[0], MediaResource.parseRange("items=0-1", SIZE));
+        assertArrayEquals(new long[0], MediaResource.parseRange("bytes=--5", SIZE));
+        assertArrayEquals(new long[0], MediaResource.parseRange("bytes=-", SIZE));
+    }
+
+    @Test
+    void rangesBeyondContentAreUnsatisfiable() {
+        assertNull(MediaResource.parseRange("bytes=10-", SIZE));
+        assertNull(MediaResource.parseRange("bytes=20-30", SIZE));
+        assertNull(MediaResource.parseRange("bytes=-0", SIZE));
+    }
+}
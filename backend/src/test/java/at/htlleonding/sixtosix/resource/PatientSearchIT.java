@@ -0,0 +1,8 @@
+package at.htlleonding.sixtosix.resource;
+
+import io.quarkus.test.junit.QuarkusIntegrationTest;
+
+@QuarkusIntegrationTest
+class PatientSearchIT extends PatientSearchTest {
+    // Suche im gepackten bzw. nativen Artefakt
+}
@@ -0,0 +1,66 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.TestData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Patientensuche: Suchbegriff und Spalte werden mit derselben Funktion gefaltet,
+ * Umlaute und Akzente finden also unabhängig von der Schreibweise.
+ */
+@QuarkusTest
+class PatientSearchTest {
+
+    private static String suffix;
+
+    private static long patientId;
+
+    @BeforeAll
+    static void createPatient() {
+        // eindeutiger Nachname, damit andere Testdaten die Treffer nicht verdrängen
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        patientId = given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Zoë", "lastname", "Müller-Ångström" + suffix, "birthdate", "1941-05-02"))
+                .post(TestData.BASE_PATH + "/patients")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    @Test
+    void umlautsAreSpelledOut() {
+        assertFound("Mueller-Angstrom" + suffix);
+        assertFound("müller-ångström" + suffix);
+    }
+
+    @Test
+    void accentsAreRemovedOnBothSides() {
+        assertFound("Zoe Muller-Angstrom" + suffix);
+        assertFound("Zoë Mueller-Ångström" + suffix);
+    }
+
+    @Test
+    void shortTermsMatchFirstOrLastNamePrefix() {
+        assertFoundWithin("Zö", 50);
+        assertFoundWithin("Mü", 50);
+    }
+
+    private static void assertFound(String term) {
+        assertFoundWithin(term, 20);
+    }
+
+    private static void assertFoundWithin(String term, int limit) {
+        List<Long> ids = given().queryParam("q", term).queryParam("limit", limit)
+                .get(TestData.BASE_PATH + "/patients/search")
+                .then().statusCode(200)
+                .extract().jsonPath().getList("id", Long.class);
+        assertTrue(ids.contains(patientId), "'" + term + "' findet den Patienten nicht: " + ids);
+    }
+}
@@ -0,0 +1,155 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.TestData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delta-Sync: der Feed lässt sich seitenweise über since/nextSince lesen, liefert pro Zeile nur
+ * den letzten Stand, und offline erfasste Bestätigungen werden pro clientMutationId genau
+ * einmal angewendet.
+ */
+@QuarkusTest
+class SyncTest {
+
+    private static final int TASKS = 5;
+
+    private long patientId;
+
+    private long planId;
+
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    void createPlan() {
+        patientId = id(given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Sync", "lastname", "Test", "birthdate", "1936-12-01"))
+                .post(TestData.BASE_PATH + "/patients"));
+        planId = id(given().queryParam("date", LocalDate.now().toString())
+                .post(TestData.BASE_PATH + "/daily-plans/patients/" + patientId));
+        taskIds.clear();
+        for (int i = 0; i < TASKS; i++) {
+            taskIds.add(id(given().queryParam("title", "Aufgabe " + i).queryParam("reminderLevel", "NONE")
+                    .post(TestData.BASE_PATH + "/daily-plans/" + planId + "/tasks")));
+        }
+    }
+
+    @Test
+    void feedIsPagedBySinceWithLatestStatePerRow() {
+        List<String> rows = new ArrayList<>();
+        long since = 0;
+        long previousSeq = 0;
+        boolean hasMore = true;
+        while (hasMore) {
+            JsonPath page = changes(since, 2);
+            assertTrue(page.getList("changes").size() <= 2);
+            for (int i = 0; i < page.getList("changes").size(); i++) {
+                long seq = page.getLong("changes[" + i + "].seq");
+                assertTrue(seq > previousSeq, "Nummern aufsteigend");
+                previousSeq = seq;
+                rows.add(page.getString("changes[" + i + "].entityType") + ":" + page.getLong("changes[" + i + "].entityId"));
+            }
+            since = page.getLong("nextSince");
+            hasMore = page.getBoolean("hasMore");
+        }
+
+        // Plan nur einmal (letzter Stand nach allen Task-Anlagen), jede Aufgabe einmal
+        assertEquals(TASKS + 1, rows.size(), rows.toString());
+        assertEquals(TASKS + 1, rows.stream().distinct().count(), rows.toString());
+        assertEquals("DAILY_PLAN:" + planId, rows.get(rows.size() - 2));
+        assertEquals(TASKS, changes(0, 500).getInt("changes.find { it.entityType == 'DAILY_PLAN' }.data.totalTasks"));
+
+        // nach einer Bestätigung liefert der nächste Abruf nur die geänderten Zeilen
+        given().put(TestData.BASE_PATH + "/daily-plans/tasks/" + taskIds.get(0) + "/confirm")
+                .then().statusCode(200);
+        JsonPath delta = changes(since, 500);
+        assertFalse(delta.getBoolean("hasMore"));
+        assertEquals(List.of("DAILY_PLAN", "DAILY_TASK"), delta.getList("changes.entityType", String.class));
+        assertEquals(List.of(planId, taskIds.get(0)), delta.getList("changes.entityId", Long.class));
+        assertTrue(delta.getBoolean("changes[1].data.completed"));
+
+        assertEquals(delta.getLong("nextSince"), changes(delta.getLong("nextSince"), 500).getLong("nextSince"));
+        assertEquals(0, changes(delta.getLong("nextSince"), 500).getList("changes").size());
+    }
+
+    @Test
+    void repeatedUploadIsAppliedOnce() {
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+
+        JsonPath upload = upload(confirmation(first, taskIds.get(0)));
+        assertEquals(List.of("APPLIED"), upload.getList("results.outcome", String.class));
+        long seqAfterFirst = upload.getLong("currentSeq");
+
+        // Wiederholung nach Verbindungsabbruch, zusammen mit einer neuen Bestätigung
+        upload = upload(confirmation(first, taskIds.get(0)), confirmation(second, taskIds.get(1)));
+        assertEquals(List.of("DUPLICATE", "APPLIED"), upload.getList("results.outcome", String.class));
+        assertTrue(upload.getLong("currentSeq") > seqAfterFirst);
+
+        // andere Mutation, aber Aufgabe schon bestätigt (zweites Tablet)
+        upload = upload(confirmation(UUID.randomUUID().toString(), taskIds.get(1)));
+        assertEquals(List.of("DUPLICATE"), upload.getList("results.outcome", String.class));
+
+        JsonPath plan = given().get(TestData.BASE_PATH + "/daily-plans/patients/" + patientId + "/today")
+                .then().statusCode(200)
+                .extract().jsonPath();
+        assertEquals(TASKS, plan.getInt("totalTasks"));
+        assertEquals(2, plan.getInt("completedTasks"));
+    }
+
+    @Test
+    void tasksOfOtherPatientsAreRejected() {
+        long otherPatient = id(given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Sync", "lastname", "Fremd", "birthdate", "1936-12-02"))
+                .post(TestData.BASE_PATH + "/patients"));
+
+        JsonPath upload = given().contentType(ContentType.JSON)
+                .body(List.of(confirmation(UUID.randomUUID().toString(), taskIds.get(0))))
+                .post(TestData.BASE_PATH + "/sync/patients/" + otherPatient + "/confirmations")
+                .then().statusCode(200)
+                .extract().jsonPath();
+
+        assertEquals(List.of("REJECTED"), upload.getList("results.outcome", String.class));
+    }
+
+    private Map<String, Object> confirmation(String clientMutationId, long taskId) {
+        return Map.of("clientMutationId", clientMutationId, "entityType", "DAILY_TASK", "entityId", taskId,
+                "confirmedAt", LocalDateTime.now().minusMinutes(10).withNano(0).toString());
+    }
+
+    @SafeVarargs
+    private JsonPath upload(Map<String, Object>... confirmations) {
+        return given().contentType(ContentType.JSON)
+                .body(List.of(confirmations))
+                .post(TestData.BASE_PATH + "/sync/patients/" + patientId + "/confirmations")
+                .then().statusCode(200)
+                .extract().jsonPath();
+    }
+
+    private JsonPath changes(long since, int limit) {
+        return given().queryParam("since", since).queryParam("limit", limit)
+                .get(TestData.BASE_PATH + "/sync/patients/" + patientId + "/changes")
+                .then().statusCode(200)
+                .extract().jsonPath();
+    }
+
+    private static long id(Response response) {
+        response.then().statusCode(201);
+        return response.jsonPath().getLong("id");
+    }
+}
@@ -0,0 +1,108 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.TestData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fortschrittszähler von Tagesplan und Intervention: gleichzeitige Bestätigungen aller Tasks
+ * dürfen keine Zählung verlieren, und jede Erledigung erhöht die Version (ETag) der Intervention
+ * genau einmal.
+ */
+@QuarkusTest
+class TaskCounterConcurrencyTest {
+
+    private static final int TASKS = 8;
+
+    private long patientId;
+
+    @BeforeEach
+    void createPatient() {
+        patientId = id(given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Zähler", "lastname", "Test", "birthdate", "1938-11-20"))
+                .post(TestData.BASE_PATH + "/patients"));
+    }
+
+    @Test
+    void concurrentDailyTaskConfirmationsAreAllCounted() throws Exception {
+        long planId = id(given().queryParam("date", LocalDate.now().toString())
+                .post(TestData.BASE_PATH + "/daily-plans/patients/" + patientId));
+        List<String> confirmations = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            long taskId = id(given().queryParam("title", "Aufgabe " + i).queryParam("reminderLevel", "NONE")
+                    .post(TestData.BASE_PATH + "/daily-plans/" + planId + "/tasks"));
+            confirmations.add("/daily-plans/tasks/" + taskId + "/confirm");
+        }
+
+        putConcurrently(confirmations);
+
+        Response plan = given().get(TestData.BASE_PATH + "/daily-plans/patients/" + patientId + "/today");
+        plan.then().statusCode(200);
+        assertEquals(TASKS, plan.jsonPath().getInt("totalTasks"));
+        assertEquals(TASKS, plan.jsonPath().getInt("completedTasks"));
+    }
+
+    @Test
+    void concurrentInterventionTaskCompletionsAreAllCountedAndVersioned() throws Exception {
+        long interventionId = id(given().queryParam("source", "MANUAL").queryParam("title", "Zählertest")
+                .post(TestData.BASE_PATH + "/interventions/patients/" + patientId));
+        List<String> completions = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            long taskId = id(given().queryParam("description", "Aufgabe " + i)
+                    .post(TestData.BASE_PATH + "/interventions/" + interventionId + "/tasks"));
+            completions.add("/interventions/tasks/" + taskId + "/complete");
+        }
+        long versionBefore = version(given().get(TestData.BASE_PATH + "/interventions/" + interventionId));
+
+        putConcurrently(completions);
+
+        Response intervention = given().get(TestData.BASE_PATH + "/interventions/" + interventionId);
+        intervention.then().statusCode(200);
+        assertEquals(TASKS, intervention.jsonPath().getInt("totalTasks"));
+        assertEquals(TASKS, intervention.jsonPath().getInt("completedTasks"));
+        assertEquals(versionBefore + TASKS, version(intervention));
+    }
+
+    /**
+     * Schickt alle PUTs möglichst gleichzeitig ab und erwartet für jeden 200
+     */
+    private static void putConcurrently(List<String> paths) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(paths.size())) {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (String path : paths) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return given().put(TestData.BASE_PATH + path).statusCode();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> status : statuses) {
+                assertEquals(200, status.get());
+            }
+        }
+    }
+
+    private static long version(Response response) {
+        return Long.parseLong(response.header("ETag").replace("\"", ""));
+    }
+
+    private static long id(Response response) {
+        response.then().statusCode(201);
+        return response.jsonPath().getLong("id");
+    }
+}
@@ -0,0 +1,132 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.TestData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vitalwert-Verlauf aus den Verdichtungen: pro Zeitfenster Anzahl, Min, Max und Mittelwert,
+ * auch wenn die Messwerte eines Fensters aus mehreren Paketen stammen; Stunde, Tag und Woche
+ * liefern dieselben Werte in gröberer Auflösung.
+ *
+ * Messwerte (Puls) ab Montag der Vorwoche:
+ * Mo 08:10 60, Mo 08:40 80, Mo 09:15 100 (ein Paket), Di 10:00 70, Mo 08:50 90 (je ein Paket).
+ */
+@QuarkusTest
+class VitalSignHistoryTest {
+
+    private static final double DELTA = 1e-9;
+
+    private long patientId;
+
+    private LocalDateTime monday;
+
+    @BeforeEach
+    void ingestMeasurements() {
+        patientId = given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Verdichtung", "lastname", "Test", "birthdate", "1941-09-30"))
+                .post(TestData.BASE_PATH + "/patients")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        monday = LocalDate.now().minusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                .atStartOfDay();
+
+        ingest(pulse(60, monday.plusHours(8).plusMinutes(10)),
+                pulse(80, monday.plusHours(8).plusMinutes(40)),
+                pulse(100, monday.plusHours(9).plusMinutes(15)));
+        ingest(pulse(70, monday.plusDays(1).plusHours(10)));
+        // spätes Paket in ein bereits bestehendes Zeitfenster
+        ingest(pulse(90, monday.plusHours(8).plusMinutes(50)));
+    }
+
+    @Test
+    void hourlyBucketsAggregateAcrossPackages() {
+        JsonPath history = history("HOUR", monday, monday.plusDays(2).minusSeconds(1));
+
+        assertEquals(List.of(monday.plusHours(8).toString(), monday.plusHours(9).toString(),
+                monday.plusDays(1).plusHours(10).toString()), bucketStarts(history));
+        assertBucket(history, 0, 3, 60, 90, 230.0 / 3);
+        assertBucket(history, 1, 1, 100, 100, 100);
+        assertBucket(history, 2, 1, 70, 70, 70);
+    }
+
+    @Test
+    void dailyAndWeeklyBucketsDownsampleTheSameReadings() {
+        JsonPath daily = history("DAY", monday, monday.plusDays(7).minusSeconds(1));
+        assertEquals(List.of(monday.toString(), monday.plusDays(1).toString()), bucketStarts(daily));
+        assertBucket(daily, 0, 4, 60, 100, 82.5);
+        assertBucket(daily, 1, 1, 70, 70, 70);
+
+        JsonPath weekly = history("WEEK", monday.plusDays(3), monday.plusDays(7).minusSeconds(1));
+        assertEquals(List.of(monday.toString()), bucketStarts(weekly));
+        assertBucket(weekly, 0, 5, 60, 100, 80);
+    }
+
+    @Test
+    void resolutionIsChosenByRangeAndLimited() {
+        // 1 Jahr: stündlich über 500 Fenster, täglich passt
+        JsonPath automatic = history(null, monday.minusMonths(11), monday.plusMonths(1));
+        assertEquals("DAY", automatic.getString("[0].granularity"));
+        assertEquals(2, automatic.getList("$").size());
+
+        given().queryParam("type", "PULSE").queryParam("granularity", "HOUR")
+                .queryParam("from", monday.minusMonths(1).toString()).queryParam("to", monday.toString())
+                .get(TestData.BASE_PATH + "/vitals/patients/" + patientId + "/history")
+                .then().statusCode(400);
+    }
+
+    private static void assertBucket(JsonPath history, int index, long count, double min, double max, double avg) {
+        assertEquals(count, history.getLong("[" + index + "].count"));
+        assertEquals(min, history.getDouble("[" + index + "].min"), DELTA);
+        assertEquals(max, history.getDouble("[" + index + "].max"), DELTA);
+        assertEquals(avg, history.getDouble("[" + index + "].avg"), DELTA);
+    }
+
+    private static List<String> bucketStarts(JsonPath history) {
+        // Sekunden weglassen wie LocalDateTime.toString() bei vollen Minuten
+        return history.getList("bucketStart", String.class).stream()
+                .map(start -> LocalDateTime.parse(start).toString())
+                .toList();
+    }
+
+    private JsonPath history(String granularity, LocalDateTime from, LocalDateTime to) {
+        RequestSpecification request = given().queryParam("type", "PULSE")
+                .queryParam("from", from.toString()).queryParam("to", to.toString());
+        if (granularity != null) {
+            request.queryParam("granularity", granularity);
+        }
+        return request.get(TestData.BASE_PATH + "/vitals/patients/" + patientId + "/history")
+                .then().statusCode(200)
+                .extract().jsonPath();
+    }
+
+    private void ingest(Map<?, ?>... measurements) {
+        given().contentType(ContentType.JSON)
+                .body(List.of(measurements))
+                .post(TestData.BASE_PATH + "/vitals/measurements")
+                .then().statusCode(201);
+    }
+
+    private Map<String, Object> pulse(double value, LocalDateTime measuredAt) {
+        Map<String, Object> measurement = new HashMap<>();
+        measurement.put("patientId", patientId);
+        measurement.put("type", "PULSE");
+        measurement.put("value", value);
+        measurement.put("measuredAt", measuredAt.toString());
+        return measurement;
+    }
+}
@@ -0,0 +1,182 @@
+package at.htlleonding.sixtosix.resource;
+
+import at.htlleonding.sixtosix.TestData;
+import at.htlleonding.sixtosix.dto.VitalIngestResultDTO;
+import at.htlleonding.sixtosix.entity.VitalSignType;
+import at.htlleonding.sixtosix.service.VitalSignIngestService;
+import at.htlleonding.sixtosix.tenant.TenantScope;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vitalwert-Ingest: Grenzwertverletzungen eröffnen einen Bedarf, ein späterer Normalwert löst
+ * ihn, verspätete Messwerte ändern nichts. Gleichzeitige Pakete werden gebündelt, aber jedes
+ * einzeln bestätigt; ein zurückgezogenes Paket wird nie geschrieben, ein übernommenes immer.
+ */
+@QuarkusTest
+class VitalSignIngestTest {
+
+    private static final int PARALLEL_REQUESTS = 10;
+
+    @Inject
+    VitalSignIngestService ingestService;
+
+    @Inject
+    TenantScope tenantScope;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private long patientId;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void createPatient() {
+        patientId = given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Vital", "lastname", "Test", "birthdate", "1940-02-14"))
+                .post(TestData.BASE_PATH + "/patients")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        base = LocalDateTime.now().minusHours(6).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void violationOpensAndNormalValueResolvesCareNeed() {
+        given().queryParam("type", "BLOOD_PRESSURE").queryParam("maxValue", 160).queryParam("secondaryMaxValue", 90)
+                .put(TestData.BASE_PATH + "/vitals/patients/" + patientId + "/thresholds")
+                .then().statusCode(200);
+
+        JsonPath violation = ingest(bloodPressure(172, 95, base.plusHours(1)));
+        assertEquals(1, violation.getInt("accepted"));
+        assertEquals(1, violation.getInt("careNeedsOpened"));
+        assertEquals(1, activeCareNeeds());
+
+        // weitere Verletzung: Bedarf bleibt offen, kein zweiter
+        assertEquals(0, ingest(bloodPressure(168, 92, base.plusHours(2))).getInt("careNeedsOpened"));
+        assertEquals(1, activeCareNeeds());
+
+        // verspäteter Normalwert (älter als die letzte Auswertung) löst nichts
+        assertEquals(0, ingest(bloodPressure(120, 80, base)).getInt("careNeedsResolved"));
+        assertEquals(1, activeCareNeeds());
+
+        JsonPath normal = ingest(bloodPressure(130, 85, base.plusHours(3)));
+        assertEquals(1, normal.getInt("careNeedsResolved"));
+        assertEquals(0, activeCareNeeds());
+    }
+
+    @Test
+    void concurrentPackagesAreAllCommitted() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REQUESTS)) {
+            List<Future<JsonPath>> results = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_REQUESTS; i++) {
+                LocalDateTime measuredAt = base.plusMinutes(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return ingest(pulse(70, measuredAt), pulse(72, measuredAt.plusSeconds(30)));
+                }));
+            }
+            start.countDown();
+            for (Future<JsonPath> result : results) {
+                assertEquals(2, result.get().getInt("accepted"));
+                assertEquals(0, result.get().getInt("rejected"));
+            }
+        }
+
+        assertEquals(2 * PARALLEL_REQUESTS, storedMeasurements());
+    }
+
+    @Test
+    void cancelledPackageIsNeverWrittenAndClaimedPackageAlways() throws Exception {
+        int expected = 0;
+        for (int i = 0; i < 20; i++) {
+            List<VitalSignIngestService.Reading> readings = List.of(new VitalSignIngestService.Reading(
+                    patientId, VitalSignType.PULSE, 80.0, null, base.plusMinutes(i)));
+            CompletableFuture<VitalIngestResultDTO> pending = tenantScope.call("default",
+                    () -> ingestService.submit(readings));
+            assertNotNull(pending);
+
+            // Wettlauf zwischen Rückzug (Timeout beim Aufrufer) und Übernahme durch den Writer
+            if (pending.cancel(false)) {
+                assertThrows(CancellationException.class, pending::join);
+            } else {
+                assertEquals(1, pending.get(5, TimeUnit.SECONDS).accepted());
+                expected++;
+            }
+        }
+
+        // zurückgezogene Pakete dürfen auch nicht nachträglich in einer späteren Gruppe landen
+        ingest(pulse(75, base.plusHours(1)));
+        assertEquals(expected + 1, storedMeasurements());
+    }
+
+    private JsonPath ingest(Map<?, ?>... measurements) {
+        return given().contentType(ContentType.JSON)
+                .body(List.of(measurements))
+                .post(TestData.BASE_PATH + "/vitals/measurements")
+                .then().statusCode(201)
+                .extract().jsonPath();
+    }
+
+    private Map<String, Object> bloodPressure(double systolic, double diastolic, LocalDateTime measuredAt) {
+        Map<String, Object> measurement = pulse(systolic, measuredAt);
+        measurement.put("type", "BLOOD_PRESSURE");
+        measurement.put("secondaryValue", diastolic);
+        return measurement;
+    }
+
+    private Map<String, Object> pulse(double value, LocalDateTime measuredAt) {
+        Map<String, Object> measurement = new HashMap<>();
+        measurement.put("patientId", patientId);
+        measurement.put("type", "PULSE");
+        measurement.put("value", value);
+        measurement.put("measuredAt", measuredAt.toString());
+        return measurement;
+    }
+
+    private int activeCareNeeds() {
+        return given().get(TestData.BASE_PATH + "/care-needs/patients/" + patientId + "/active")
+                .then().statusCode(200)
+                .extract().jsonPath().getList("id").size();
+    }
+
+    private long storedMeasurements() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT count(*) FROM vital_measurement WHERE patient_id = ?")) {
+            statement.setLong(1, patientId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+}
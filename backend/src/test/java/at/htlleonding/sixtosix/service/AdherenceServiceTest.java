@@ -0,0 +1,164 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.TestData;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Therapietreue: der Tagesabschluss (SQL über daily_task) kommt zu denselben Tageszeilen wie
+ * das inkrementelle Fortschreiben, auch an den Fachgrenzen der Verzögerung; Bestätigungen,
+ * die am inkrementellen Pfad vorbeigegangen sind, korrigiert er.
+ *
+ * Bestätigt wird über den Offline-Upload, damit der Bestätigungszeitpunkt frei wählbar ist.
+ */
+@QuarkusTest
+class AdherenceServiceTest {
+
+    @Inject
+    AdherenceService adherenceService;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private long patientId;
+
+    private LocalDate firstDay;
+
+    private LocalDate secondDay;
+
+    @BeforeEach
+    void createPatient() {
+        patientId = id(given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Adherence", "lastname", "Test", "birthdate", "1942-06-06"))
+                .post(TestData.BASE_PATH + "/patients"));
+        firstDay = LocalDate.now().minusDays(3);
+        secondDay = LocalDate.now().minusDays(2);
+    }
+
+    @Test
+    void closeMatchesIncrementalRollup() throws SQLException {
+        List<Long> first = tasks(firstDay, 6);
+        confirm(first.get(0), firstDay.atStartOfDay());                          // erstes Fach
+        confirm(first.get(1), firstDay.atTime(8, 30));                           // Fachgrenze
+        confirm(first.get(2), firstDay.atTime(8, 29, 59, 900_000_000));          // knapp davor
+        confirm(first.get(3), firstDay.atTime(23, 59, 59));                      // letztes Fach des Tages
+        confirm(first.get(4), firstDay.plusDays(1).atTime(2, 0));                // Folgetag
+        List<Long> second = tasks(secondDay, 3);
+        confirm(second.get(0), secondDay.atStartOfDay().minusHours(1));          // vor dem Plantag
+        confirm(second.get(1), secondDay.atTime(14, 15));
+
+        Map<LocalDate, String> incremental = rollupRows();
+        JsonPath trendBefore = trend();
+        assertEquals(2, incremental.size(), incremental.toString());
+        assertFalse(trendBefore.getBoolean("[0].closed"));
+
+        assertTrue(adherenceService.closeDays(firstDay, secondDay.plusDays(1)) >= 2);
+
+        assertEquals(incremental, rollupRows());
+        JsonPath trendAfter = trend();
+        assertEquals(trendBefore.getList("totalTasks"), trendAfter.getList("totalTasks"));
+        assertEquals(trendBefore.getList("confirmedTasks"), trendAfter.getList("confirmedTasks"));
+        assertEquals(trendBefore.getList("medianDelayMinutes"), trendAfter.getList("medianDelayMinutes"));
+        assertEquals(List.of(true, true), trendAfter.getList("closed"));
+    }
+
+    @Test
+    void closeRepairsMissedConfirmations() throws SQLException {
+        List<Long> tasks = tasks(firstDay, 2);
+        confirm(tasks.get(0), firstDay.atTime(9, 0));
+        Map<LocalDate, String> incremental = rollupRows();
+
+        // Bestätigung ohne Fortschreiben der Tageszeile (z.B. Import direkt in die Datenbank)
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "UPDATE daily_task SET completed = true, confirmed_at = ? WHERE id = ?")) {
+            statement.setObject(1, firstDay.atTime(9, 10));
+            statement.setLong(2, tasks.get(1));
+            statement.executeUpdate();
+        }
+        assertEquals(incremental, rollupRows());
+
+        adherenceService.closeDays(firstDay, firstDay.plusDays(1));
+
+        JsonPath trend = trend();
+        assertEquals(2, trend.getLong("[0].confirmedTasks"));
+        assertEquals(1.0, trend.getDouble("[0].adherence"));
+        assertTrue(rollupRows().get(firstDay).startsWith("2/2 "), rollupRows().toString());
+    }
+
+    private List<Long> tasks(LocalDate date, int count) {
+        long planId = id(given().queryParam("date", date.toString())
+                .post(TestData.BASE_PATH + "/daily-plans/patients/" + patientId));
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            taskIds.add(id(given().queryParam("title", "Aufgabe " + i).queryParam("reminderLevel", "NONE")
+                    .post(TestData.BASE_PATH + "/daily-plans/" + planId + "/tasks")));
+        }
+        return taskIds;
+    }
+
+    private void confirm(long taskId, LocalDateTime confirmedAt) {
+        given().contentType(ContentType.JSON)
+                .body(List.of(Map.of("clientMutationId", UUID.randomUUID().toString(), "entityType", "DAILY_TASK",
+                        "entityId", taskId, "confirmedAt", confirmedAt.toString())))
+                .post(TestData.BASE_PATH + "/sync/patients/" + patientId + "/confirmations")
+                .then().statusCode(200);
+    }
+
+    private JsonPath trend() {
+        return given().queryParam("from", firstDay.toString()).queryParam("to", secondDay.toString())
+                .get(TestData.BASE_PATH + "/analytics/adherence/patients/" + patientId)
+                .then().statusCode(200)
+                .extract().jsonPath();
+    }
+
+    /**
+     * Tageszeilen des Patienten als "bestätigt/gesamt [Histogramm]", ohne closed
+     */
+    private Map<LocalDate, String> rollupRows() throws SQLException {
+        Map<LocalDate, String> rows = new TreeMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT plan_date, confirmed_tasks, total_tasks, delay_histogram FROM adherence_rollup "
+                             + "WHERE patient_id = ?")) {
+            statement.setLong(1, patientId);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    Array histogram = result.getArray(4);
+                    rows.put(result.getObject(1, LocalDate.class), result.getInt(2) + "/" + result.getInt(3)
+                            + " " + Arrays.toString((Integer[]) histogram.getArray()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static long id(Response response) {
+        response.then().statusCode(201);
+        return response.jsonPath().getLong("id");
+    }
+}
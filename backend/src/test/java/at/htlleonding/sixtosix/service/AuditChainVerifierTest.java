@@ -0,0 +1,159 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.dto.AuditVerificationDTO;
+import at.htlleonding.sixtosix.entity.AuditAction;
+import at.htlleonding.sixtosix.entity.AuditCheckpoint;
+import at.htlleonding.sixtosix.tenant.TenantScope;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Audit-Hash-Kette: Einträge werden verkettet, Checkpoints signiert, und jede nachträgliche
+ * Änderung direkt in der Datenbank (Inhalt, Hash, Checkpoint, gelöschter Eintrag, Kettenkopf)
+ * fällt bei der Verifikation auf.
+ *
+ * Jeder Test arbeitet in einer eigenen Organisation, damit die manipulierte Kette keine
+ * anderen Tests berührt. Aufbau: 5 Einträge, Checkpoint, 3 Einträge (offenes Kettenende).
+ */
+@QuarkusTest
+class AuditChainVerifierTest {
+
+    @Inject
+    AuditChainService auditChainService;
+
+    @Inject
+    AuditChainVerifier verifier;
+
+    @Inject
+    TenantScope tenantScope;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private String tenantId;
+
+    private final List<Long> entryIds = new ArrayList<>();
+
+    private AuditCheckpoint checkpoint;
+
+    @BeforeEach
+    void createChain() {
+        tenantId = "audit-" + UUID.randomUUID().toString().substring(0, 8);
+        entryIds.clear();
+        for (int i = 0; i < 5; i++) {
+            entryIds.add(record(i));
+        }
+        checkpoint = inTenant(auditChainService::checkpointNow);
+        for (int i = 5; i < 8; i++) {
+            entryIds.add(record(i));
+        }
+        inTenant(auditChainService::linkPending);
+    }
+
+    @Test
+    void intactChainIsValid() {
+        assertNotNull(checkpoint);
+        assertEquals(entryIds.get(4), checkpoint.getLastAuditLogId());
+        assertEquals(5L, checkpoint.getEntryCount());
+
+        AuditVerificationDTO result = verify();
+
+        assertTrue(result.valid(), result.reason());
+        assertEquals(8L, result.verifiedEntries());
+        assertEquals(0L, result.pendingEntries());
+        assertEquals(2, result.segments());
+    }
+
+    @Test
+    void changedDetailsAreDetected() {
+        execute("UPDATE audit_log SET details = 'geändert' WHERE id = ?", entryIds.get(2));
+
+        assertBroken(entryIds.get(2), "Inhalt verändert (hash)");
+    }
+
+    @Test
+    void overwrittenHashIsDetected() {
+        execute("UPDATE audit_log SET hash = repeat('a', 64) WHERE id = ?", entryIds.get(6));
+
+        assertBroken(entryIds.get(6), "Inhalt verändert (hash)");
+    }
+
+    @Test
+    void forgedCheckpointSignatureIsDetected() {
+        execute("UPDATE audit_checkpoint SET signature = repeat('0', 64) WHERE id = ?", checkpoint.getId());
+
+        assertBroken(checkpoint.getLastAuditLogId(), "Checkpoint-Signatur ungültig");
+    }
+
+    @Test
+    void deletedEntryLeavesGap() {
+        execute("DELETE FROM audit_log WHERE id = ?", entryIds.get(1));
+
+        assertBroken(entryIds.get(2), "Lücke in der Kette vor Position 3");
+    }
+
+    @Test
+    void openTailIsCheckedAgainstHead() {
+        // Letzten Eintrag entfernen: das offene Kettenende passt nicht mehr zum Kettenkopf
+        execute("DELETE FROM audit_log WHERE id = ?", entryIds.get(7));
+
+        assertBroken(entryIds.get(7), "Anzahl der Einträge stimmt nicht (Kettenkopf)");
+    }
+
+    @Test
+    void entriesAreBoundToTheirOrganisation() {
+        // Eintrag in eine andere Organisation verschieben: er fehlt in der eigenen Kette
+        execute("UPDATE audit_log SET tenant_id = 'fremd-" + tenantId + "' WHERE id = ?", entryIds.get(6));
+
+        assertBroken(entryIds.get(7), "Lücke in der Kette vor Position 8");
+    }
+
+    private long record(int index) {
+        return inTenant(() -> auditChainService.record("Patient", (long) index, AuditAction.UPDATE, null,
+                "Eintrag " + index)).getId();
+    }
+
+    private AuditVerificationDTO verify() {
+        return inTenant(verifier::verifyFull);
+    }
+
+    private void assertBroken(Long firstInvalidAuditLogId, String reason) {
+        AuditVerificationDTO result = verify();
+
+        assertFalse(result.valid(), "Manipulation nicht erkannt");
+        assertEquals(reason, result.reason());
+        assertEquals(firstInvalidAuditLogId, result.firstInvalidAuditLogId());
+    }
+
+    private <T> T inTenant(Supplier<T> work) {
+        return tenantScope.call(tenantId, work);
+    }
+
+    /**
+     * Manipuliert direkt per JDBC, an Hibernate und Tenant-Filter vorbei
+     */
+    private void execute(String sql, Long id) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, id);
+            assertEquals(1, statement.executeUpdate(), sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.TestData;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Monatspartitionen der Tagesstruktur: nachgetragene Pläne landen zunächst in der
+ * DEFAULT-Partition und werden beim nächsten Lauf samt Aufgaben in ihre Monatspartition
+ * verschoben; danach sind sie über die API unverändert les- und änderbar, auch archiviert.
+ */
+@QuarkusTest
+class DailyPlanPartitionMaintenanceTest {
+
+    @Inject
+    DailyPlanPartitionMaintenance maintenance;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Test
+    void rowsAreMovedOutOfDefaultPartitionAndArchived() throws SQLException {
+        // weit vor dem Archivierungshorizont, Monat wird von keinem anderen Test verwendet
+        LocalDate date = LocalDate.now().minusYears(5).withDayOfMonth(15);
+        YearMonth month = YearMonth.from(date);
+        long patientId = id(given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Partition", "lastname", "Test", "birthdate", "1935-08-17"))
+                .post(TestData.BASE_PATH + "/patients"));
+        long planId = id(given().queryParam("date", date.toString())
+                .post(TestData.BASE_PATH + "/daily-plans/patients/" + patientId));
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            taskIds.add(id(given().queryParam("title", "Nachtrag " + i).queryParam("reminderLevel", "NONE")
+                    .post(TestData.BASE_PATH + "/daily-plans/" + planId + "/tasks")));
+        }
+
+        assertEquals(List.of("daily_plan_default"), partitions("daily_plan", List.of(planId)));
+        assertEquals(List.of("daily_task_default"), partitions("daily_task", taskIds));
+
+        maintenance.maintain(false);
+        // zweiter Lauf: Partition existiert bereits, nichts zu tun
+        maintenance.maintain(false);
+
+        String planPartition = DailyPlanPartitionMaintenance.partition("daily_plan", month);
+        String taskPartition = DailyPlanPartitionMaintenance.partition("daily_task", month);
+        assertEquals(List.of(planPartition), partitions("daily_plan", List.of(planId)));
+        assertEquals(List.of(taskPartition), partitions("daily_task", taskIds));
+        assertEquals(0L, count("SELECT count(*) FROM daily_plan_default WHERE plan_date >= ? AND plan_date < ?", month));
+        assertEquals(0L, count("SELECT count(*) FROM daily_task_default WHERE plan_date >= ? AND plan_date < ?", month));
+
+        // Aufgabe in der Monatspartition bestätigen (FK Aufgabe -> Plan über Partitionen hinweg)
+        given().put(TestData.BASE_PATH + "/daily-plans/tasks/" + taskIds.get(0) + "/confirm")
+                .then().statusCode(200);
+
+        maintenance.maintain(true);
+
+        assertEquals(DailyPlanPartitionMaintenance.ARCHIVED_COMMENT, comment(planPartition));
+        assertEquals(DailyPlanPartitionMaintenance.ARCHIVED_COMMENT, comment(taskPartition));
+        JsonPath plan = given().queryParam("date", date.toString())
+                .get(TestData.BASE_PATH + "/daily-plans/patients/" + patientId + "/by-date")
+                .then().statusCode(200)
+                .extract().jsonPath();
+        assertEquals(planId, plan.getLong("id"));
+        assertEquals(2, plan.getInt("totalTasks"));
+        assertEquals(1, plan.getInt("completedTasks"));
+
+        // archivierte Monate bleiben änderbar
+        given().put(TestData.BASE_PATH + "/daily-plans/tasks/" + taskIds.get(1) + "/confirm")
+                .then().statusCode(200);
+        assertTrue(partitions("daily_task", taskIds).stream().allMatch(taskPartition::equals));
+    }
+
+    /**
+     * Partitionen, in denen die Zeilen liegen (eindeutig, sortiert)
+     */
+    private List<String> partitions(String table, List<Long> ids) throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT DISTINCT tableoid::regclass::text FROM " + table + " WHERE id = ANY (?) ORDER BY 1")) {
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    partitions.add(result.getString(1));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private long count(String sql, YearMonth month) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, month.atDay(1));
+            statement.setObject(2, month.plusMonths(1).atDay(1));
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    private String comment(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT obj_description(?::regclass, 'pg_class')")) {
+            statement.setString(1, table);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getString(1);
+            }
+        }
+    }
+
+    private static long id(Response response) {
+        response.then().statusCode(201);
+        return response.jsonPath().getLong("id");
+    }
+}
@@ -0,0 +1,153 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.TestData;
+import at.htlleonding.sixtosix.tenant.TenantScope;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Regelbasierte Interventionsvorschläge: eine Regel schlägt genau dann vor, wenn Status (und
+ * ggf. Bedarfs-Stichwort) passen, einmal pro Episode. Über die API geänderte Regeln gelten
+ * sofort; direkt in der Datenbank (anderer Knoten) geänderte erst nach dem Prüfintervall.
+ */
+@QuarkusTest
+class InterventionSuggestionEngineTest {
+
+    @Inject
+    InterventionSuggestionEngine engine;
+
+    @Inject
+    TenantScope tenantScope;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private String run;
+
+    private long patientId;
+
+    private long skillId;
+
+    @BeforeEach
+    void createPatientAndSkill() {
+        run = UUID.randomUUID().toString().substring(0, 8);
+        patientId = given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Regel", "lastname", "Test", "birthdate", "1937-05-22"))
+                .post(TestData.BASE_PATH + "/patients")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        skillId = given().queryParam("name", "Kochen " + run)
+                .post(TestData.BASE_PATH + "/skills/definitions")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    @Test
+    void matchingStatusSuggestsOncePerEpisode() {
+        long ruleId = createRule(null);
+
+        assess("INTACT");
+        assertEquals(List.of(), openSuggestionRules());
+
+        assess("RESTRICTED");
+        assess("RESTRICTED");
+        assertEquals(List.of(ruleId), openSuggestionRules());
+
+        // Bedingung entfällt: offener Vorschlag ist überholt
+        assess("INTACT");
+        assertEquals(List.of(), openSuggestionRules());
+
+        // neue Episode: erneuter Vorschlag
+        assess("RESTRICTED");
+        assertEquals(List.of(ruleId), openSuggestionRules());
+    }
+
+    @Test
+    void careNeedKeywordIsRequired() {
+        long ruleId = createRule("Sturz");
+
+        assess("RESTRICTED");
+        assertEquals(List.of(), openSuggestionRules());
+
+        given().queryParam("description", "Sturz im Bad")
+                .post(TestData.BASE_PATH + "/care-needs/patients/" + patientId)
+                .then().statusCode(201);
+        assertEquals(List.of(ruleId), openSuggestionRules());
+    }
+
+    @Test
+    void rulesChangedOnAnotherNodeAreRevalidated() throws SQLException {
+        InterventionSuggestionEngine instance = ClientProxy.unwrap(engine);
+        Duration interval = instance.ruleCheckInterval;
+        try {
+            // Index laden, dann Regel am Cache vorbei anlegen (wie ein anderer Knoten)
+            assess("INTACT");
+            long ruleId = insertRuleDirectly();
+
+            assess("RESTRICTED");
+            assertEquals(List.of(), openSuggestionRules(), "Index innerhalb des Prüfintervalls gecacht");
+
+            instance.ruleCheckInterval = Duration.ZERO;
+            assess("INTACT");
+            assess("RESTRICTED");
+            assertEquals(List.of(ruleId), openSuggestionRules());
+        } finally {
+            instance.ruleCheckInterval = interval;
+            tenantScope.run("default", instance::reload);
+        }
+    }
+
+    private long createRule(String careNeedKeyword) {
+        RequestSpecification request = given().queryParam("source", "SKILL").queryParam("definitionId", skillId)
+                .queryParam("status", "RESTRICTED").queryParam("title", "Kochtraining " + run);
+        if (careNeedKeyword != null) {
+            request.queryParam("careNeedKeyword", careNeedKeyword);
+        }
+        return request.post(TestData.BASE_PATH + "/suggestions/rules")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    private long insertRuleDirectly() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO intervention_rule (tenant_id, source, skill_definition_id, status, title, active, version) "
+                             + "VALUES ('default', 'SKILL', ?, 'RESTRICTED', ?, true, 0) RETURNING id")) {
+            statement.setLong(1, skillId);
+            statement.setString(2, "Fremdknoten " + run);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private void assess(String status) {
+        given().queryParam("skillDefinitionId", skillId).queryParam("status", status)
+                .post(TestData.BASE_PATH + "/skills/patients/" + patientId + "/assessments")
+                .then().statusCode(201);
+    }
+
+    private List<Long> openSuggestionRules() {
+        return given().get(TestData.BASE_PATH + "/suggestions/patients/" + patientId)
+                .then().statusCode(200)
+                .extract().jsonPath().getList("ruleId", Long.class);
+    }
+}
@@ -0,0 +1,138 @@
+package at.htlleonding.sixtosix.service;
+
+import at.htlleonding.sixtosix.TestData;
+import at.htlleonding.sixtosix.tenant.TenantScope;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hard Purge: scheitert ein Batch, bleiben die bereits committeten Schritte gelöscht und der
+ * Batch selbst zurückgerollt; der nächste Lauf setzt beim gescheiterten Schritt fort und
+ * schließt den Auftrag ab.
+ *
+ * Der Fehler wird mit einem Trigger auf care_need erzeugt, der nur Zeilen des Testpatienten
+ * betrifft. Kleine Batches, damit Schritte aus mehreren Batches bestehen.
+ */
+@QuarkusTest
+class PatientPurgeServiceTest {
+
+    private static final int TASKS = 3;
+
+    private static final int CARE_NEEDS = 3;
+
+    @Inject
+    PatientPurgeService purgeService;
+
+    @Inject
+    TenantScope tenantScope;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Test
+    void purgeResumesAfterFailedBatch() throws SQLException {
+        long patientId = id(given().contentType(ContentType.JSON)
+                .body(Map.of("firstname", "Purge", "lastname", "Test", "birthdate", "1934-01-11"))
+                .post(TestData.BASE_PATH + "/patients"));
+        long planId = id(given().queryParam("date", LocalDate.now().toString())
+                .post(TestData.BASE_PATH + "/daily-plans/patients/" + patientId));
+        for (int i = 0; i < TASKS; i++) {
+            id(given().queryParam("title", "Aufgabe " + i).queryParam("reminderLevel", "NONE")
+                    .post(TestData.BASE_PATH + "/daily-plans/" + planId + "/tasks"));
+        }
+        for (int i = 0; i < CARE_NEEDS; i++) {
+            id(given().queryParam("description", "Bedarf " + i)
+                    .post(TestData.BASE_PATH + "/care-needs/patients/" + patientId));
+        }
+
+        // Trigger und Batchgröße vor der Anforderung, falls der geplante Lauf den Auftrag zuerst greift
+        PatientPurgeService instance = ClientProxy.unwrap(purgeService);
+        int batchSize = instance.batchSize;
+        String trigger = "purge_test_fail_" + patientId;
+        execute("CREATE FUNCTION " + trigger + "() RETURNS trigger LANGUAGE plpgsql AS "
+                + "$$ BEGIN RAISE EXCEPTION 'Purge-Testfehler'; END $$");
+        execute("CREATE TRIGGER " + trigger + " BEFORE DELETE ON care_need FOR EACH ROW "
+                + "WHEN (OLD.patient_id = " + patientId + ") EXECUTE FUNCTION " + trigger + "()");
+        try {
+            instance.batchSize = 2;
+            given().delete(TestData.BASE_PATH + "/patients/" + patientId).then().statusCode(204);
+            long purgeId = given().post(TestData.BASE_PATH + "/patients/" + patientId + "/purge")
+                    .then().statusCode(202)
+                    .extract().jsonPath().getLong("id");
+            tenantScope.run("default", () -> instance.process(purgeId));
+
+            JsonPath failed = purgeStatus(patientId);
+            assertEquals("RUNNING", failed.getString("status"));
+            assertEquals("care_need", failed.getString("currentTable"));
+            assertNotNull(failed.getString("lastError"));
+            // Aufgaben und Plan sind gelöscht, der gescheiterte Batch ist zurückgerollt
+            assertEquals(TASKS + 1L, failed.getLong("deletedRows"));
+            assertEquals(0L, count("SELECT count(*) FROM daily_task WHERE daily_plan_id = ?", planId));
+            assertEquals(CARE_NEEDS, count("SELECT count(*) FROM care_need WHERE patient_id = ?", patientId));
+
+            execute("DROP TRIGGER " + trigger + " ON care_need");
+            tenantScope.run("default", () -> instance.process(purgeId));
+        } finally {
+            instance.batchSize = batchSize;
+            execute("DROP TRIGGER IF EXISTS " + trigger + " ON care_need");
+            execute("DROP FUNCTION IF EXISTS " + trigger + "()");
+        }
+
+        JsonPath completed = purgeStatus(patientId);
+        assertEquals("COMPLETED", completed.getString("status"));
+        assertEquals(completed.getInt("totalSteps"), completed.getInt("completedSteps"));
+        assertNull(completed.getString("currentTable"));
+        assertNull(completed.getString("lastError"));
+        assertTrue(completed.getLong("deletedRows") >= TASKS + 1 + CARE_NEEDS + 1, completed.prettify());
+        assertEquals(0L, count("SELECT count(*) FROM care_need WHERE patient_id = ?", patientId));
+        assertEquals(0L, count("SELECT count(*) FROM patient WHERE id = ?", patientId));
+    }
+
+    private static JsonPath purgeStatus(long patientId) {
+        return given().get(TestData.BASE_PATH + "/patients/" + patientId + "/purge")
+                .then().statusCode(200)
+                .extract().jsonPath();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private long count(String sql, long id) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, id);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    private static long id(Response response) {
+        response.then().statusCode(201);
+        return response.jsonPath().getLong("id");
+    }
+}
@@ -0,0 +1,8 @@
+package at.htlleonding.sixtosix.tenant;
+
+import io.quarkus.test.junit.QuarkusIntegrationTest;
+
+@QuarkusIntegrationTest
+class TenantAuthenticationIT extends TenantAuthenticationTest {
+    // OIDC-Pfad (Token-Parser, JWK-Prüfung) im gepackten bzw. nativen Artefakt
+}
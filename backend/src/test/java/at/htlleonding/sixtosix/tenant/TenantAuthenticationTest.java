@@ -0,0 +1,46 @@
+package at.htlleonding.sixtosix.tenant;
+
+import at.htlleonding.sixtosix.TestData;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Anmeldung und Organisation: anonyme Requests laufen auf der Test-Organisation,
+ * ungültige oder unsignierte Tokens werden vom OIDC-Mechanismus abgewiesen, bevor
+ * der Tenant aus einem Claim gelesen wird.
+ */
+@QuarkusTest
+class TenantAuthenticationTest {
+
+    @Test
+    void anonymousRequestUsesAnonymousTenant() {
+        given().get(TestData.BASE_PATH + "/adl/definitions")
+                .then().statusCode(200);
+    }
+
+    @Test
+    void malformedBearerTokenIsRejected() {
+        given().auth().oauth2("kein-token")
+                .get(TestData.BASE_PATH + "/adl/definitions")
+                .then().statusCode(401);
+    }
+
+    @Test
+    void unsignedTokenCannotChooseTenant() {
+        given().auth().oauth2(unsignedToken("fremde-organisation"))
+                .get(TestData.BASE_PATH + "/adl/definitions")
+                .then().statusCode(401);
+    }
+
+    private static String unsignedToken(String organisation) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = "{\"alg\":\"none\",\"typ\":\"JWT\"}";
+        String payload = "{\"sub\":\"angreifer\",\"organisation\":\"" + organisation + "\",\"exp\":4102444800}";
+        return encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".";
+    }
+}
@@ -0,0 +1,4 @@
+#!/bin/sh
+# Erlaubt Replikationsverbindungen (pg_basebackup, Streaming) aus dem Compose-Netz
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
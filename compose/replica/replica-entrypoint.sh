@@ -0,0 +1,12 @@
+#!/bin/sh
+# Legt beim ersten Start eine Basissicherung des Primary an (-R schreibt standby.signal
+# und primary_conninfo, -C/-S legen einen Replikations-Slot an) und startet als Hot Standby.
+set -e
+PGDATA=/var/lib/postgresql/data
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until pg_isready -h postgres -U "$PGUSER"; do sleep 1; done
+    pg_basebackup -h postgres -U "$PGUSER" -D "$PGDATA" -R -X stream -C -S replica1 --no-password
+    chown -R postgres:postgres "$PGDATA"
+    chmod 700 "$PGDATA"
+fi
+exec su-exec postgres postgres -c hot_standby=on
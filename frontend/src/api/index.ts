@@ -5,5 +5,19 @@ const api = axios.create({
   timeout: 5000,
 });
 
-export default api;
+// Access-Token aus dem Keycloak-Login; das Backend liest daraus die Organisation.
+// Ohne Token antwortet es außerhalb von Dev/Test mit 401 (siehe README).
+let accessToken: string | null = null;
+
+export function setAccessToken(token: string | null) {
+  accessToken = token;
+}
 
+api.interceptors.request.use((config) => {
+  if (accessToken) {
+    config.headers.Authorization = `Bearer ${accessToken}`;
+  }
+  return config;
+});
+
+export default api;